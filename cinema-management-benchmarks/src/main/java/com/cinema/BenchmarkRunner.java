@@ -0,0 +1,144 @@
+package com.cinema;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Chạy JMH và luôn ghi kết quả ra JSON để so với baseline.
+ *
+ *   java -cp target/benchmarks.jar com.cinema.BenchmarkRunner [tham số JMH...]
+ *       -Dbench.result=results/ten-file.json   (mặc định results/jmh-yyyyMMdd-HHmmss.json)
+ *       -Dbench.baseline=results/baseline.json (in bảng so sánh sau khi chạy)
+ *
+ *   java -cp target/benchmarks.jar com.cinema.BenchmarkRunner compare baseline.json current.json
+ *
+ * Tham số JMH giữ nguyên cú pháp của benchmarks.jar, ví dụ: "ApiParseBenchmark -prof gc -f 2".
+ */
+public final class BenchmarkRunner {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Chênh lệch nhỏ hơn ngưỡng này (%) coi là nhiễu
+    private static final double NOISE_PERCENT = 5.0;
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && "compare".equals(args[0])) {
+            compare(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+
+        Path result = Paths.get(System.getProperty("bench.result",
+                "results/jmh-" + LocalDateTime.now().format(FILE_TIME) + ".json"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Kết quả JSON: " + result.toAbsolutePath());
+
+        String baseline = System.getProperty("bench.baseline");
+        if (baseline != null) {
+            compare(Paths.get(baseline), result);
+        }
+    }
+
+    /** In bảng so sánh score giữa hai file kết quả JSON của JMH */
+    static void compare(Path baselineFile, Path currentFile) throws IOException {
+        Map<String, Score> baseline = readScores(baselineFile);
+        Map<String, Score> current = readScores(currentFile);
+
+        System.out.printf("%n%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Hiện tại", "Δ");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), "-", now, "mới");
+                continue;
+            }
+            double delta = (now.value - before.value) / before.value * 100.0;
+            System.out.printf("%-70s %14s %14s %+8.1f%% %s%n",
+                    entry.getKey(), before, now, delta, verdict(delta, now.higherIsBetter()));
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-70s %14s %14s %9s%n", name, baseline.get(name), "-", "bỏ");
+            }
+        }
+    }
+
+    private static String verdict(double deltaPercent, boolean higherIsBetter) {
+        if (Math.abs(deltaPercent) < NOISE_PERCENT) {
+            return "";
+        }
+        boolean better = higherIsBetter ? deltaPercent > 0 : deltaPercent < 0;
+        return better ? "nhanh hơn" : "CHẬM HƠN";
+    }
+
+    // Khóa = tên benchmark + param, ví dụ "ApiParseBenchmark.parseCinemas" hoặc "...lookupRows[value=Tất cả]"
+    private static Map<String, Score> readScores(Path file) throws IOException {
+        JsonArray runs = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonArray();
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonElement element : runs) {
+            JsonObject run = element.getAsJsonObject();
+            String name = run.get("benchmark").getAsString();
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            if (run.has("params")) {
+                Map<String, String> params = new TreeMap<>();
+                run.getAsJsonObject("params").entrySet()
+                        .forEach(p -> params.put(p.getKey(), p.getValue().getAsString()));
+                name += params.toString().replace('{', '[').replace('}', ']');
+            }
+            JsonObject metric = run.getAsJsonObject("primaryMetric");
+            scores.put(name, new Score(metric.get("score").getAsDouble(),
+                    metric.get("scoreUnit").getAsString(), run.get("mode").getAsString()));
+        }
+        return scores;
+    }
+
+    private static final class Score {
+        private final double value;
+        private final String unit;
+        private final String mode;
+
+        Score(double value, String unit, String mode) {
+            this.value = value;
+            this.unit = unit;
+            this.mode = mode;
+        }
+
+        // thrpt: càng lớn càng tốt; avgt / sample / ss: càng nhỏ càng tốt
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStateEngine;
+import com.cinema.models.SeatStatus;
+import com.cinema.models.SeatType;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Đo frame time của hai renderer sơ đồ ghế khi nhận dồn dập cập nhật trạng thái
+ * (mô phỏng nhiều seat-held / seat-released đến cùng lúc).
+ *
+ * Không dùng JMH: cần FX thread và pulse thật (CSS + layout + render) nên chạy như ứng dụng JavaFX.
+ * Mỗi pulse đổi trạng thái updatesPerFrame ghế ngẫu nhiên (seed cố định), ghi lại khoảng cách giữa
+ * hai pulse liên tiếp và thời gian gọi refreshSeat().
+ *
+ * Chạy (bỏ giới hạn 60fps để thấy chi phí thật):
+ *   java -Djavafx.animation.fullspeed=true -cp target/benchmarks.jar \
+ *        com.cinema.controllers.cinema.SeatMapFrameBenchmark [rows] [cols] [updatesPerFrame] [frames]
+ */
+public final class SeatMapFrameBenchmark {
+
+    private SeatMapFrameBenchmark() {}
+
+    public static void main(String[] args) {
+        Application.launch(App.class, args);
+    }
+
+    public static class App extends Application {
+
+        private static final int WARMUP_FRAMES = 120;
+        private static final SeatStatus[] CYCLE = {
+                SeatStatus.HELD, SeatStatus.SELECTED, SeatStatus.AVAILABLE, SeatStatus.BOOKED, SeatStatus.AVAILABLE
+        };
+
+        private int rows = 20;
+        private int cols = 40;
+        private int updatesPerFrame = 50;
+        private int frames = 600;
+
+        @Override
+        public void start(Stage stage) {
+            String[] args = getParameters().getRaw().toArray(new String[0]);
+            if (args.length > 0) rows = Integer.parseInt(args[0]);
+            if (args.length > 1) cols = Integer.parseInt(args[1]);
+            if (args.length > 2) updatesPerFrame = Integer.parseInt(args[2]);
+            if (args.length > 3) frames = Integer.parseInt(args[3]);
+
+            System.out.printf(Locale.ROOT, "Layout %dx%d, %d cập nhật/frame, %d frame đo (+%d warmup)%n",
+                    rows, cols, updatesPerFrame, frames, WARMUP_FRAMES);
+            System.out.printf(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s %12s%n",
+                    "renderer", "mean(ms)", "p50", "p95", "p99", "max", "update(ms)");
+
+            Deque<Runnable> runs = new ArrayDeque<>();
+            runs.add(() -> run(stage, "nodes", () -> {
+                GridPane grid = new GridPane();
+                grid.setHgap(8);
+                grid.setVgap(8);
+                grid.getStyleClass().add("seat-grid");
+                return new SeatGridRenderer(grid);
+            }, runs));
+            runs.add(() -> run(stage, "canvas", SeatMapCanvas::new, runs));
+            runs.poll().run();
+        }
+
+        private void run(Stage stage, String name, Supplier<SeatMapRenderer> factory, Deque<Runnable> next) {
+            SeatLayout layout = createLayout(rows, cols);
+            SeatStateEngine engine = layout.getStateEngine();
+            SeatMapRenderer renderer = factory.get();
+
+            ScrollPane root = new ScrollPane(renderer.getView());
+            root.getStyleClass().add("main-container");
+            Scene scene = new Scene(root, 1600, 1000);
+            scene.getStylesheets().add(SeatMapRenderer.class.getResource("/styles/seat-selection.css").toExternalForm());
+            stage.setScene(scene);
+            stage.show();
+            renderer.render(layout);
+
+            Random random = new Random(42);
+            long[] frameNanos = new long[frames];
+            long[] updateNanos = new long[frames];
+
+            new AnimationTimer() {
+                private long last;
+                private int frame = -WARMUP_FRAMES;
+
+                @Override
+                public void handle(long now) {
+                    if (last != 0 && frame >= 0) {
+                        frameNanos[frame] = now - last;
+                    }
+                    last = now;
+
+                    long start = System.nanoTime();
+                    for (int i = 0; i < updatesPerFrame; i++) {
+                        int index = random.nextInt(engine.size());
+                        Seat seat = engine.seatAt(index);
+                        seat.setStatus(nextStatus(seat.getStatus()));
+                        renderer.refreshSeat(seat);
+                    }
+                    if (frame >= 0) {
+                        updateNanos[frame] = System.nanoTime() - start;
+                    }
+
+                    if (++frame == frames) {
+                        stop();
+                        report(name, frameNanos, updateNanos);
+                        Runnable following = next.poll();
+                        if (following != null) {
+                            Platform.runLater(following);
+                        } else {
+                            Platform.exit();
+                        }
+                    }
+                }
+            }.start();
+        }
+
+        private static SeatStatus nextStatus(SeatStatus current) {
+            for (int i = 0; i < CYCLE.length; i++) {
+                if (CYCLE[i] == current) {
+                    return CYCLE[(i + 1) % CYCLE.length];
+                }
+            }
+            return SeatStatus.HELD;
+        }
+
+        private static void report(String name, long[] frameNanos, long[] updateNanos) {
+            long[] sorted = Arrays.copyOf(frameNanos, frameNanos.length);
+            Arrays.sort(sorted);
+            double mean = Arrays.stream(frameNanos).average().orElse(0) / 1e6;
+            double update = Arrays.stream(updateNanos).average().orElse(0) / 1e6;
+            System.out.printf(Locale.ROOT, "%-8s %9.2f %9.2f %9.2f %9.2f %9.2f %12.3f%n",
+                    name, mean, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6, update);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        /** Phòng lớn: 2 lối đi dọc, 3 hàng cuối VIP, hàng cuối cùng là ghế đôi */
+        private static SeatLayout createLayout(int rows, int cols) {
+            SeatLayout layout = new SeatLayout(rows, cols);
+            int aisleLeft = 2;
+            int aisleRight = cols - 3;
+            for (int r = 0; r < rows; r++) {
+                String rowName = String.valueOf((char) ('A' + r));
+                int number = 1;
+                for (int c = 0; c < cols; c++) {
+                    if (c == aisleLeft || c == aisleRight) {
+                        continue;
+                    }
+                    if (r == rows - 1 && c + 1 < cols && c + 1 != aisleLeft && c + 1 != aisleRight) {
+                        Seat couple = new Seat(rowName + number + "-" + rowName + (number + 1),
+                                SeatType.COUPLE, 150000, r, c);
+                        layout.setSeat(r, c, couple);
+                        layout.setSeat(r, c + 1, couple);
+                        number += 2;
+                        c++;
+                        continue;
+                    }
+                    SeatType type = r >= rows - 4 ? SeatType.VIP : SeatType.STANDARD;
+                    layout.setSeat(r, c, new Seat(rowName + number++, type, 75000 * type.getPriceMultiplier(), r, c));
+                }
+            }
+            return layout;
+        }
+    }
+}
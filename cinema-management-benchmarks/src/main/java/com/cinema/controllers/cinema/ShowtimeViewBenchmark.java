@@ -0,0 +1,103 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Comment;
+import com.cinema.models.Screen;
+import com.cinema.utils.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các đường tính toán khi dựng màn hình suất chiếu / chọn ghế / chi tiết phim (không cần JavaFX toolkit):
+ * - buildIndex:      ShowtimeIndex.build cho 40 rạp x 8 phòng (chạy một lần mỗi khi tải dữ liệu rạp)
+ * - lookupRows:      ShowtimeIndex.rows, việc màn hình làm mỗi lần đổi bộ lọc
+ * - findSeatObject:  SeatSelectionController.findSeatObject, tính cho một lần tra
+ * - top3Reactions:   Comment.getTop3Reactions cho 40 bình luận trong fixtures/comments.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShowtimeViewBenchmark {
+
+    private static final LocalDate SHOW_DATE = LocalDate.of(2025, 12, 21);
+    private static final String[] ROWS = { "A", "B", "C", "D", "E", "F", "G", "H", "I", "J" };
+    private static final int LOOKUPS = 200;
+
+    private List<Cinema> cinemas;
+    private ShowtimeIndex index;
+    private Screen seatScreen;
+    private String[] seatNumbers;
+    private List<Comment> comments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cinemas = BenchmarkFixtures.cinemas(40);
+        index = ShowtimeIndex.build(cinemas);
+        seatScreen = cinemas.get(0).getScreens().get(0);
+        comments = BenchmarkFixtures.comments();
+
+        // Thứ tự tra trộn giữa các hàng, có cả ghế không tồn tại (số 21, 22)
+        List<String> numbers = new ArrayList<>(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            numbers.add(ROWS[(i * 7) % ROWS.length] + ((i * 13) % 22 + 1));
+        }
+        seatNumbers = numbers.toArray(new String[0]);
+
+        if (SeatSelectionController.findSeatObject(seatScreen, "A1") == null
+                || index.rows(SHOW_DATE, ShowtimeIndex.ALL, ShowtimeIndex.ALL, ShowtimeIndex.ALL).isEmpty()) {
+            throw new IllegalStateException("Fixture không khớp với controller");
+        }
+    }
+
+    /** Khung giờ đang chọn, tách riêng để chỉ lookupRows chạy theo từng giá trị */
+    @State(Scope.Benchmark)
+    public static class TimeSlot {
+        @Param({ "Tất cả", "15:00 - 18:00" })
+        public String value;
+    }
+
+    @Benchmark
+    public ShowtimeIndex buildIndex() {
+        return ShowtimeIndex.build(cinemas);
+    }
+
+    @Benchmark
+    public List<ShowtimeIndex.CinemaRow> lookupRows(TimeSlot timeSlot) {
+        return index.rows(SHOW_DATE, timeSlot.value, ShowtimeIndex.ALL, ShowtimeIndex.ALL);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void findSeatObject(Blackhole bh) {
+        for (String seatNumber : seatNumbers) {
+            bh.consume(SeatSelectionController.findSeatObject(seatScreen, seatNumber));
+        }
+    }
+
+    @Benchmark
+    public void top3Reactions(Blackhole bh) {
+        for (Comment comment : comments) {
+            bh.consume(comment.getTop3Reactions());
+        }
+    }
+}
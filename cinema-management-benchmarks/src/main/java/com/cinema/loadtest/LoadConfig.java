@@ -0,0 +1,95 @@
+package com.cinema.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tham số dòng lệnh của load test, dạng --key=value hoặc --key value.
+ *
+ *   --clients 200        số khách ảo chạy song song
+ *   --duration 60        thời gian chạy (giây), chưa tính ramp-up
+ *   --ramp 10            thời gian dàn đều việc khởi động khách (giây)
+ *   --movie mv_001       phim để duyệt GET /api/cinemas/movie/{movie}
+ *   --showtime <id>      suất chiếu chung cho mọi khách (mặc định: suất đầu tiên của phim)
+ *   --customer <id>      user_id ghi vào booking (server Node cần user có thật)
+ *   --max-seats 4        số ghế tối đa mỗi khách
+ *   --book-ratio 0.6     tỉ lệ phiên giữ được ghế sẽ thanh toán (còn lại bỏ giữa chừng)
+ *   --think 800          thời gian "suy nghĩ" trung bình giữa các thao tác (ms)
+ *   --server <url>       địa chỉ server Node (mặc định -Dcinema.server.url hoặc http://localhost:3000)
+ *   --standin            chạy stand-in server trong JVM (cổng trống bất kỳ) thay cho Node
+ *   --cinemas 4          số rạp của dữ liệu stand-in
+ *   --bookings 0         số booking có sẵn trong dữ liệu stand-in (chiếm ghế trước khi chạy)
+ *   --report <file>      ghi báo cáo JSON
+ *   --catalog-cache      bật CatalogCache (mặc định tắt: cache dùng chung cả JVM, mọi khách ảo
+ *                        sẽ đọc chung một kết quả thay vì mỗi khách một request như app thật)
+ *   --verbose            giữ log System.out / System.err của client
+ */
+final class LoadConfig {
+
+    final int clients;
+    final Duration duration;
+    final Duration rampUp;
+    final String movieId;
+    final String showtimeId;
+    final String customerId;
+    final int maxSeats;
+    final double bookRatio;
+    final long thinkMillis;
+    final String serverUrl;
+    final boolean standIn;
+    final int standInCinemas;
+    final int standInBookings;
+    final String reportFile;
+    final boolean catalogCache;
+    final boolean verbose;
+
+    private LoadConfig(Map<String, String> options) {
+        clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        rampUp = Duration.ofSeconds(Long.parseLong(options.getOrDefault("ramp", "10")));
+        movieId = options.getOrDefault("movie", "mv_001");
+        showtimeId = options.get("showtime");
+        customerId = options.get("customer");
+        maxSeats = Math.max(1, Integer.parseInt(options.getOrDefault("max-seats", "4")));
+        bookRatio = Double.parseDouble(options.getOrDefault("book-ratio", "0.6"));
+        thinkMillis = Long.parseLong(options.getOrDefault("think", "800"));
+        serverUrl = options.get("server");
+        standIn = options.containsKey("standin");
+        standInCinemas = Integer.parseInt(options.getOrDefault("cinemas", "4"));
+        standInBookings = Integer.parseInt(options.getOrDefault("bookings", "0"));
+        reportFile = options.get("report");
+        catalogCache = options.containsKey("catalog-cache");
+        verbose = options.containsKey("verbose");
+
+        if (clients <= 0) {
+            throw new IllegalArgumentException("--clients phải > 0");
+        }
+        if (bookRatio < 0 || bookRatio > 1) {
+            throw new IllegalArgumentException("--book-ratio phải trong [0, 1]");
+        }
+        if (standIn && serverUrl != null) {
+            throw new IllegalArgumentException("--standin và --server không dùng cùng nhau");
+        }
+    }
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Tham số không hợp lệ: " + arg);
+            }
+            String key = arg.substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                options.put(key.substring(0, eq), key.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                options.put(key, "true"); // Cờ: --standin, --catalog-cache, --verbose
+            }
+        }
+        return new LoadConfig(options);
+    }
+}
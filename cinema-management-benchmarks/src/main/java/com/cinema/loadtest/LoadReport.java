@@ -0,0 +1,184 @@
+package com.cinema.loadtest;
+
+import com.cinema.utils.metrics.MetricsSnapshot;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Báo cáo cuối của load test, tính từ MetricsSnapshot. Các trường được Gson ghi thẳng ra JSON
+ * (kèm snapshot đầy đủ trong "metrics") để so sánh giữa các lần chạy.
+ */
+final class LoadReport {
+
+    private final int clients;
+    private final String showtimeId;
+    private final double elapsedSeconds;
+    private final long sessions;
+    private final boolean catalogCache;
+
+    // Thông lượng (mỗi giây)
+    private final double bookingsPerSecond;
+    private final double holdsPerSecond;
+    private final double httpRequestsPerSecond;
+    private final double socketEventsPerSecond;
+
+    // Giữ ghế
+    private final long holdAttempts;
+    private final long holdSucceeded;
+    private final long holdFailed;
+    private final long holdTimeouts;
+    private final double holdConflictRate;
+    private final long releases;
+
+    // Đặt vé
+    private final long bookings;
+    private final long bookingFailures;
+    private final long abandonedSessions;
+
+    // Lỗi
+    private final long httpRequests;
+    private final long httpErrors;
+    private final double httpErrorRate;
+    private final long socketConnects;
+    private final long socketConnectErrors;
+    private final Map<String, Long> errors = new LinkedHashMap<>();
+
+    // Độ trễ (ms)
+    private final MetricsSnapshot.HistogramValue holdRoundTrip;
+    private final MetricsSnapshot.HistogramValue seatHeldPropagation;
+    private final MetricsSnapshot.HistogramValue seatsBookedPropagation;
+    private final List<MetricsSnapshot.HistogramValue> httpLatency = new ArrayList<>();
+
+    private final MetricsSnapshot metrics;
+
+    LoadReport(LoadConfig config, LoadTarget target, double elapsedSeconds, MetricsSnapshot snapshot) {
+        this.clients = config.clients;
+        this.showtimeId = target.showtimeId;
+        this.elapsedSeconds = elapsedSeconds;
+        this.catalogCache = config.catalogCache;
+        this.metrics = snapshot;
+
+        sessions = snapshot.sumCounters("loadtest.sessions");
+        holdAttempts = counter(snapshot, "loadtest.holds", "result", "attempt");
+        holdSucceeded = counter(snapshot, "loadtest.holds", "result", "held");
+        holdFailed = counter(snapshot, "loadtest.holds", "result", "hold-failed");
+        holdTimeouts = counter(snapshot, "loadtest.holds", "result", "timeout");
+        holdConflictRate = ratio(holdFailed, holdAttempts);
+        releases = snapshot.sumCounters("loadtest.releases");
+        bookings = counter(snapshot, "loadtest.bookings", "result", "ok");
+        bookingFailures = counter(snapshot, "loadtest.bookings", "result", "error");
+        abandonedSessions = snapshot.sumCounters("loadtest.sessions.abandoned");
+
+        long errorCount = 0;
+        for (MetricsSnapshot.CounterValue counter : snapshot.getCounters()) {
+            if (counter.getName().equals("http.client.requests") && !isSuccess(counter.getTags().get("status"))) {
+                errorCount += counter.getValue();
+            }
+            if (counter.getName().equals("loadtest.errors") && counter.getValue() > 0) {
+                errors.put(counter.getTags().get("kind"), counter.getValue());
+            }
+        }
+        httpRequests = snapshot.sumCounters("http.client.requests");
+        httpErrors = errorCount;
+        httpErrorRate = ratio(httpErrors, httpRequests);
+        socketConnects = snapshot.sumCounters("socket.connects");
+        socketConnectErrors = snapshot.sumCounters("socket.connect.errors");
+
+        bookingsPerSecond = bookings / elapsedSeconds;
+        holdsPerSecond = holdAttempts / elapsedSeconds;
+        httpRequestsPerSecond = httpRequests / elapsedSeconds;
+        socketEventsPerSecond = snapshot.sumCounters("socket.events") / elapsedSeconds;
+
+        MetricsSnapshot.HistogramValue roundTrip = null;
+        MetricsSnapshot.HistogramValue held = null;
+        MetricsSnapshot.HistogramValue booked = null;
+        for (MetricsSnapshot.HistogramValue histogram : snapshot.getHistograms()) {
+            switch (histogram.getName()) {
+                case "loadtest.hold.latency" -> roundTrip = histogram;
+                case "loadtest.propagation" -> {
+                    if ("seat-held".equals(histogram.getTags().get("event"))) {
+                        held = histogram;
+                    } else {
+                        booked = histogram;
+                    }
+                }
+                case "http.client.latency" -> {
+                    if (histogram.getCount() > 0) {
+                        httpLatency.add(histogram);
+                    }
+                }
+                default -> { }
+            }
+        }
+        holdRoundTrip = roundTrip;
+        seatHeldPropagation = held;
+        seatsBookedPropagation = booked;
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.println("================ LOAD TEST ================");
+        out.printf("Suất chiếu %s, %d khách ảo, %.1f giây, %d phiên%n", showtimeId, clients, elapsedSeconds, sessions);
+        out.println(catalogCache
+                ? "CatalogCache BẬT: khách ảo đọc chung danh sách rạp đã cache, số request HTTP thấp hơn thực tế"
+                : "CatalogCache tắt: mỗi khách ảo tự gọi API danh mục như một app riêng");
+        out.println();
+        out.println("Thông lượng");
+        out.printf("  booking      %8.2f /s   (%d thành công, %d lỗi, %d phiên bỏ giữa chừng)%n",
+                bookingsPerSecond, bookings, bookingFailures, abandonedSessions);
+        out.printf("  hold-seat    %8.2f /s   (%d giữ được, %d nhả lại)%n", holdsPerSecond, holdSucceeded, releases);
+        out.printf("  HTTP         %8.2f /s%n", httpRequestsPerSecond);
+        out.printf("  socket event %8.2f /s   (vào + ra)%n", socketEventsPerSecond);
+        out.println();
+        out.println("Tranh chấp giữ ghế");
+        out.printf("  hold-failed  %6.2f %%   (%d / %d lượt)%n", holdConflictRate * 100, holdFailed, holdAttempts);
+        out.printf("  timeout      %6.2f %%   (%d lượt không có phản hồi sau 5s)%n",
+                ratio(holdTimeouts, holdAttempts) * 100, holdTimeouts);
+        out.println();
+        out.println("Độ trễ (ms)                      n      p50      p90      p99      max");
+        printLatency(out, "hold-seat → phản hồi", holdRoundTrip);
+        printLatency(out, "seat-held tới khách khác", seatHeldPropagation);
+        printLatency(out, "seats-booked tới khách khác", seatsBookedPropagation);
+        for (MetricsSnapshot.HistogramValue histogram : httpLatency) {
+            Map<String, String> tags = histogram.getTags();
+            printLatency(out, tags.get("method") + " " + tags.get("endpoint") + " [" + tags.get("status") + "]", histogram);
+        }
+        out.println();
+        out.println("Lỗi");
+        out.printf("  HTTP         %6.2f %%   (%d / %d request)%n", httpErrorRate * 100, httpErrors, httpRequests);
+        out.printf("  socket       %d lỗi kết nối / %d lần kết nối%n", socketConnectErrors, socketConnects);
+        errors.forEach((kind, count) -> out.printf("  %-28s %d%n", kind, count));
+        out.println("===========================================");
+    }
+
+    private static void printLatency(PrintStream out, String label, MetricsSnapshot.HistogramValue histogram) {
+        if (histogram == null || histogram.getCount() == 0) {
+            out.printf("  %-28s %6d%n", label, 0);
+            return;
+        }
+        out.printf("  %-28s %6d %8.1f %8.1f %8.1f %8.1f%n", label, histogram.getCount(),
+                histogram.getP50Ms(), histogram.getP90Ms(), histogram.getP99Ms(), histogram.getMaxMs());
+    }
+
+    private static long counter(MetricsSnapshot snapshot, String name, String tagKey, String tagValue) {
+        long total = 0;
+        for (MetricsSnapshot.CounterValue counter : snapshot.getCounters()) {
+            if (counter.getName().equals(name) && tagValue.equals(counter.getTags().get(tagKey))) {
+                total += counter.getValue();
+            }
+        }
+        return total;
+    }
+
+    private static boolean isSuccess(String status) {
+        return status != null && (status.startsWith("2") || status.startsWith("3")) && status.length() == 3;
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+}
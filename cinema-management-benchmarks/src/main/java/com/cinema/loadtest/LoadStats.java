@@ -0,0 +1,75 @@
+package com.cinema.loadtest;
+
+import com.cinema.utils.metrics.Counter;
+import com.cinema.utils.metrics.LatencyHistogram;
+import com.cinema.utils.metrics.MetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics riêng của load test, ghi vào MetricsRegistry của client (cùng chỗ với
+ * http.client.* và socket.* mà HttpTransport / SocketIOClient đã ghi sẵn).
+ *
+ * Độ trễ lan truyền: khách A ghi thời điểm emit hold-seat / book-seats vào sentAt;
+ * mọi khách khác trong room nhận seat-held / seats-booked tương ứng thì ghi (now - sentAt).
+ * Cả tool chạy trong một JVM nên dùng chung System.nanoTime().
+ */
+final class LoadStats {
+
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    final Counter sessions = metrics.counter("loadtest.sessions");
+    final Counter holdAttempts = metrics.counter("loadtest.holds", "result", "attempt");
+    final Counter holdSucceeded = metrics.counter("loadtest.holds", "result", "held");
+    final Counter holdFailed = metrics.counter("loadtest.holds", "result", "hold-failed");
+    final Counter holdTimeouts = metrics.counter("loadtest.holds", "result", "timeout");
+    final Counter releases = metrics.counter("loadtest.releases");
+    final Counter bookings = metrics.counter("loadtest.bookings", "result", "ok");
+    final Counter bookingFailures = metrics.counter("loadtest.bookings", "result", "error");
+    final Counter abandoned = metrics.counter("loadtest.sessions.abandoned");
+
+    /** Emit hold-seat → nhận seat-held (của chính mình) hoặc hold-failed */
+    final LatencyHistogram holdRoundTrip = metrics.histogram("loadtest.hold.latency");
+    final LatencyHistogram heldPropagation = metrics.histogram("loadtest.propagation", "event", "seat-held");
+    final LatencyHistogram bookedPropagation = metrics.histogram("loadtest.propagation", "event", "seats-booked");
+    final LatencyHistogram sessionDuration = metrics.histogram("loadtest.session.duration");
+
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+
+    void error(String kind) {
+        metrics.counter("loadtest.errors", "kind", kind).increment();
+    }
+
+    void holdSent(String seatNumber, String holderId) {
+        sentAt.put("held|" + seatNumber + "|" + holderId, System.nanoTime());
+    }
+
+    void bookSent(String firstSeat) {
+        sentAt.put("booked|" + firstSeat, System.nanoTime());
+    }
+
+    // Gọi trên EventThread của socket.io-client → chỉ tra map, không chặn
+    void heldReceived(String seatNumber, String holderId) {
+        Long sent = sentAt.get("held|" + seatNumber + "|" + holderId);
+        if (sent != null) {
+            heldPropagation.recordNanos(System.nanoTime() - sent);
+        }
+    }
+
+    void bookedReceived(String firstSeat) {
+        Long sent = sentAt.get("booked|" + firstSeat);
+        if (sent != null) {
+            bookedPropagation.recordNanos(System.nanoTime() - sent);
+        }
+    }
+
+    /**
+     * Bỏ các mốc cũ hơn maxAgeNanos để map không phình. Không xoá ngay khi người gửi kết thúc phiên:
+     * khách khác có thể nhận broadcast muộn hơn, xoá sớm sẽ chỉ giữ lại các mẫu nhanh.
+     */
+    void sweep(long maxAgeNanos) {
+        long oldest = System.nanoTime() - maxAgeNanos;
+        sentAt.values().removeIf(sent -> sent < oldest);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cinema.loadtest;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Screen;
+import com.cinema.models.Seat;
+import com.cinema.models.Showtime;
+import com.cinema.utils.CinemaApiClient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Suất chiếu mà mọi khách ảo cùng tranh, tìm một lần qua CinemaApiClient trước khi chạy */
+final class LoadTarget {
+
+    final String movieId;
+    final String cinemaId;
+    final String screenId;
+    final String showtimeId;
+    /** Ghế theo thứ tự ưa thích: gần tâm phòng trước, lệch về phía sau một chút */
+    final List<String> seatsByPreference;
+    private final Map<String, Double> prices;
+
+    private LoadTarget(String movieId, Cinema cinema, Screen screen, Showtime showtime) {
+        this.movieId = movieId;
+        this.cinemaId = cinema.getId();
+        this.screenId = screen.getId();
+        this.showtimeId = showtime.getId();
+
+        List<Seat> seats = new ArrayList<>();
+        for (List<Seat> row : screen.getSeatLayout().getSeats()) {
+            for (Seat seat : row) {
+                if (seat != null) {
+                    seats.add(seat);
+                }
+            }
+        }
+        double centerRow = screen.getSeatLayout().getRows() * 0.6;
+        double centerCol = (screen.getSeatLayout().getColumns() - 1) / 2.0;
+        seats.sort(Comparator.comparingDouble(seat ->
+                Math.hypot(seat.getRowIndex() - centerRow, (seat.getColIndex() - centerCol) * 0.7)));
+
+        this.seatsByPreference = new ArrayList<>(seats.size());
+        this.prices = new HashMap<>();
+        for (Seat seat : seats) {
+            seatsByPreference.add(seat.getSeatNumber());
+            prices.put(seat.getSeatNumber(), seat.getPrice());
+        }
+    }
+
+    double priceOf(String seatNumber) {
+        return prices.getOrDefault(seatNumber, 0.0);
+    }
+
+    /**
+     * @param showtimeId null → suất đầu tiên có sơ đồ ghế
+     * @throws IllegalStateException nếu không tìm được suất chiếu phù hợp
+     */
+    static LoadTarget discover(String movieId, String showtimeId) {
+        List<Cinema> cinemas = CinemaApiClient.getCinemasByMovieId(movieId);
+        if (cinemas == null || cinemas.isEmpty()) {
+            throw new IllegalStateException("Không lấy được danh sách rạp của phim " + movieId);
+        }
+        for (Cinema cinema : cinemas) {
+            for (Screen screen : cinema.getScreens()) {
+                if (screen.getSeatLayout() == null || screen.getShowtimes() == null) {
+                    continue;
+                }
+                for (Showtime showtime : screen.getShowtimes()) {
+                    if (showtimeId == null || showtimeId.equals(showtime.getId())) {
+                        return new LoadTarget(movieId, cinema, screen, showtime);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("Không tìm thấy suất chiếu " + (showtimeId != null ? showtimeId : "có sơ đồ ghế")
+                + " của phim " + movieId);
+    }
+}
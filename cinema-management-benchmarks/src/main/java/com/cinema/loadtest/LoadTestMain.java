@@ -0,0 +1,187 @@
+package com.cinema.loadtest;
+
+import com.cinema.standin.StandInDataset;
+import com.cinema.standin.StandInServer;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.metrics.MetricsRegistry;
+import com.cinema.utils.metrics.MetricsSnapshot;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.socket.client.IO;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test luồng giữ ghế / đặt vé: N khách ảo cùng tranh ghế của một suất chiếu.
+ *
+ *   java -cp target/benchmarks.jar com.cinema.loadtest.LoadTestMain --standin --clients 300 --duration 60
+ *   java -cp target/benchmarks.jar com.cinema.loadtest.LoadTestMain --movie mv_001 --customer u_001 --report load.json
+ *
+ * Không có --standin thì chạy với server Node (--server, mặc định localhost:3000; cần MySQL + Redis).
+ * Tham số đầy đủ: xem LoadConfig.
+ */
+public final class LoadTestMain {
+
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+    private static final long PROPAGATION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long SHUTDOWN_GRACE_SECONDS = 30;
+
+    private LoadTestMain() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        // Phải đặt trước lần đầu chạm CatalogCache (LoadTarget.discover): cờ chỉ được đọc lúc nạp class
+        System.setProperty("cinema.catalog.enabled", String.valueOf(config.catalogCache));
+        PrintStream console = System.out;
+        PrintStream consoleErr = System.err;
+
+        StandInServer standIn = null;
+        if (config.standIn) {
+            StandInDataset dataset = StandInDataset.generate(new StandInDataset.Spec()
+                    .cinemas(config.standInCinemas)
+                    .bookings(config.standInBookings));
+            standIn = StandInServer.start(0, dataset);
+            Endpoints.setBaseUrl(standIn.getBaseUrl());
+            console.println("🚀 Stand-in server " + standIn.getBaseUrl() + " (" + dataset.getSpec() + ")");
+        } else if (config.serverUrl != null) {
+            Endpoints.setBaseUrl(config.serverUrl);
+        }
+
+        installSocketHttpClient(config.clients);
+
+        try {
+            String showtimeId = config.showtimeId != null || standIn == null
+                    ? config.showtimeId : standIn.getDataset().firstShowtimeId();
+            LoadTarget target = LoadTarget.discover(config.movieId, showtimeId);
+            console.printf("🎬 Suất %s (phòng %s, %d ghế), %d khách, ramp-up %ds, chạy %ds%n",
+                    target.showtimeId, target.screenId, target.seatsByPreference.size(), config.clients,
+                    config.rampUp.toSeconds(), config.duration.toSeconds());
+
+            // Log từng request / socket của client làm ngập console khi có hàng trăm khách
+            if (!config.verbose) {
+                PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+                System.setOut(sink);
+                System.setErr(sink);
+            }
+
+            MetricsRegistry.getInstance().reset();
+            LoadStats stats = new LoadStats();
+            LoadReport report = run(config, target, stats, console);
+
+            System.setOut(console);
+            System.setErr(consoleErr);
+            report.print(console);
+            if (config.reportFile != null) {
+                writeReport(Paths.get(config.reportFile), report);
+                console.println("📝 Báo cáo JSON: " + Paths.get(config.reportFile).toAbsolutePath());
+            }
+        } finally {
+            System.setOut(console);
+            System.setErr(consoleErr);
+            if (standIn != null) {
+                standIn.close();
+            }
+        }
+        // Thread của socket.io-client / OkHttp có thể còn sống vài chục giây
+        System.exit(0);
+    }
+
+    private static LoadReport run(LoadConfig config, LoadTarget target, LoadStats stats, PrintStream console)
+            throws InterruptedException {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService customers = Executors.newFixedThreadPool(config.clients, r -> {
+            Thread t = new Thread(r, "loadtest-customer-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadtest-progress");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long startedAt = System.nanoTime();
+        long rampNanos = config.rampUp.toNanos();
+        long deadline = startedAt + rampNanos + config.duration.toNanos();
+
+        // Dàn đều thời điểm khởi động trong khoảng ramp-up
+        for (int i = 0; i < config.clients; i++) {
+            long startDelay = rampNanos * i / config.clients;
+            VirtualCustomer customer = new VirtualCustomer(config, target, stats, deadline);
+            customers.submit(() -> {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(startDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                customer.run();
+            });
+        }
+
+        progress.scheduleAtFixedRate(() -> {
+            stats.sweep(PROPAGATION_WINDOW_NANOS);
+            MetricsSnapshot snapshot = MetricsRegistry.getInstance().snapshot();
+            console.printf("⏱ %4ds | phiên %5d | hold %6d (failed %5d) | booking %5d | HTTP đang chạy %3.0f%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt),
+                    stats.sessions.get(), stats.holdAttempts.get(), stats.holdFailed.get(), stats.bookings.get(),
+                    zeroIfNaN(snapshot.gauge("http.client.inflight")));
+        }, PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        customers.shutdown();
+        long waitNanos = deadline - System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_GRACE_SECONDS);
+        if (!customers.awaitTermination(Math.max(0, waitNanos), TimeUnit.NANOSECONDS)) {
+            console.println("⚠️ Một số khách chưa dừng sau " + SHUTDOWN_GRACE_SECONDS + "s, ngắt");
+            customers.shutdownNow();
+        }
+        progress.shutdownNow();
+
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        return new LoadReport(config, target, elapsedSeconds, MetricsRegistry.getInstance().snapshot());
+    }
+
+    /**
+     * socket.io-client mặc định dùng chung một OkHttpClient với Dispatcher 5 request / host:
+     * hàng trăm long-poll tới cùng server sẽ xếp hàng chờ nhau, đo ra độ trễ của tool chứ không
+     * phải của server. Ứng dụng thật chỉ có một socket nên không bị ảnh hưởng.
+     */
+    private static void installSocketHttpClient(int clients) {
+        int maxRequests = Math.max(64, clients * 4); // long-poll + POST + handshake của mỗi khách
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+
+        OkHttpClient socketHttp = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxRequests, 5, TimeUnit.MINUTES))
+                .readTimeout(1, TimeUnit.MINUTES) // Dài hơn pingInterval của long-poll
+                .build();
+        IO.setDefaultOkHttpCallFactory(socketHttp);
+        IO.setDefaultOkHttpWebSocketFactory(socketHttp);
+    }
+
+    private static void writeReport(Path file, LoadReport report) throws Exception {
+        Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, gson.toJson(report), StandardCharsets.UTF_8);
+    }
+
+    private static double zeroIfNaN(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+}
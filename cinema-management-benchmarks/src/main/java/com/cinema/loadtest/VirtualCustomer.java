@@ -0,0 +1,305 @@
+package com.cinema.loadtest;
+
+import com.cinema.models.BookingDB;
+import com.cinema.models.Cinema;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.BookedSeatApiClient;
+import com.cinema.utils.BookingApiClient;
+import com.cinema.utils.CinemaApiClient;
+import com.cinema.utils.SocketIOClient;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Một khách ảo lặp lại phiên đặt vé cho tới hết giờ, đi qua đúng các API client của ứng dụng:
+ * duyệt rạp (CinemaApiClient) → ghế đã đặt (BookedSeatApiClient) → kết nối /seats (SocketIOClient)
+ * → giữ ghế, có thể nhả bớt → tạo booking (BookingApiClient) + book-seats, hoặc bỏ giữa chừng.
+ *
+ * Handler socket dùng onRaw (chạy trên EventThread của socket.io-client, không cần JavaFX).
+ */
+final class VirtualCustomer implements Runnable {
+
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+    private static final long EVENT_TIMEOUT_MS = 5_000;
+    // Khách tranh nhau nhóm ghế đẹp nhất còn trống → xung đột giữ ghế như giờ mở bán
+    private static final int PREFERRED_CANDIDATES = 12;
+    private static final AtomicLong BOOKING_SEQUENCE = new AtomicLong();
+
+    private final LoadConfig config;
+    private final LoadTarget target;
+    private final LoadStats stats;
+    private final long deadlineNanos;
+
+    VirtualCustomer(LoadConfig config, LoadTarget target, LoadStats stats, long deadlineNanos) {
+        this.config = config;
+        this.target = target;
+        this.stats = stats;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            long startedAt = System.nanoTime();
+            try {
+                runSession();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                stats.error("exception:" + e.getClass().getSimpleName());
+            }
+            stats.sessionDuration.recordNanos(System.nanoTime() - startedAt);
+        }
+    }
+
+    private void runSession() throws Exception {
+        stats.sessions.increment();
+
+        // 1. Duyệt suất chiếu
+        List<Cinema> cinemas = CinemaApiClient.getCinemasByMovieId(target.movieId);
+        if (cinemas == null || cinemas.isEmpty()) {
+            stats.error("browse");
+            think(config.thinkMillis);
+            return;
+        }
+        think(config.thinkMillis);
+
+        // 2. Ghế đã đặt (client trả list rỗng khi lỗi, lỗi HTTP nằm ở http.client.requests)
+        SessionView view = new SessionView();
+        view.booked.addAll(BookedSeatApiClient.getBookedSeats(target.showtimeId));
+
+        // 3. Kết nối socket và vào room suất chiếu
+        SocketIOClient client = new SocketIOClient();
+        CountDownLatch connected = new CountDownLatch(1);
+        client.onConnect(connected::countDown);
+        registerHandlers(client, view);
+        client.connect();
+        try {
+            if (!connected.await(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                stats.error("socket-connect");
+                return;
+            }
+            view.socketId = client.getSocketId();
+
+            JsonObject join = new JsonObject();
+            join.addProperty("showtimeId", target.showtimeId);
+            client.emit("join-showtime", join);
+            if (!view.joined.await(EVENT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                stats.error("join-timeout");
+                return;
+            }
+            think(config.thinkMillis);
+
+            // 4. Giữ ghế
+            List<String> held = holdSeats(client, view);
+            if (held.isEmpty()) {
+                stats.abandoned.increment(); // Hết ghế hoặc thua mọi lượt tranh
+                return;
+            }
+
+            // 5. Đổi ý, nhả bớt một ghế
+            if (held.size() > 1 && ThreadLocalRandom.current().nextDouble() < 0.3) {
+                String seat = held.remove(held.size() - 1);
+                client.emit("release-seat", seatPayload(seat));
+                stats.releases.increment();
+            }
+            think(config.thinkMillis * 2);
+
+            // 6. Thanh toán hoặc bỏ (disconnect → server tự nhả ghế)
+            if (ThreadLocalRandom.current().nextDouble() < config.bookRatio) {
+                book(client, view, held);
+            } else {
+                stats.abandoned.increment();
+            }
+        } finally {
+            client.disconnect();
+        }
+    }
+
+    private List<String> holdSeats(SocketIOClient client, SessionView view) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int wanted = 1 + random.nextInt(config.maxSeats);
+        int attemptsLeft = wanted * 3;
+        List<String> held = new ArrayList<>();
+
+        while (held.size() < wanted && attemptsLeft-- > 0 && System.nanoTime() < deadlineNanos) {
+            String seat = pickSeat(view, held);
+            if (seat == null) {
+                break; // Hết ghế trống theo góc nhìn của khách này
+            }
+            CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+            view.pendingHolds.put(seat, outcome);
+
+            long sentAt = System.nanoTime();
+            stats.holdSent(seat, view.socketId);
+            stats.holdAttempts.increment();
+            client.emit("hold-seat", seatPayload(seat));
+            try {
+                boolean ok = outcome.get(EVENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                stats.holdRoundTrip.recordNanos(System.nanoTime() - sentAt);
+                if (ok) {
+                    held.add(seat);
+                    stats.holdSucceeded.increment();
+                } else {
+                    stats.holdFailed.increment();
+                }
+            } catch (TimeoutException e) {
+                stats.holdTimeouts.increment();
+            } catch (ExecutionException e) {
+                stats.error("hold");
+            } finally {
+                view.pendingHolds.remove(seat);
+            }
+            think(config.thinkMillis / 4);
+        }
+        return held;
+    }
+
+    private void book(SocketIOClient client, SessionView view, List<String> seats) {
+        double seatTotal = 0;
+        for (String seat : seats) {
+            seatTotal += target.priceOf(seat);
+        }
+
+        BookingDB booking = new BookingDB();
+        booking.setId("BOOK_" + System.currentTimeMillis() + "_" + BOOKING_SEQUENCE.incrementAndGet());
+        booking.setMovieId(target.movieId);
+        booking.setCinemaId(target.cinemaId);
+        booking.setScreenId(target.screenId);
+        booking.setShowtimeId(target.showtimeId);
+        booking.setCustomerId(config.customerId);
+        booking.setSeatTotalPrice(seatTotal);
+        booking.setComboTotalPrice(0);
+        booking.setTotalPrice(seatTotal);
+        booking.setPaymentStatus(PaymentStatus.PENDING);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setPaymentDeadline(LocalDateTime.now().plusMinutes(15));
+        booking.setSelectedSeats(seats);
+
+        try {
+            BookingApiClient.createBooking(booking);
+        } catch (Exception e) {
+            stats.bookingFailures.increment();
+            return;
+        }
+
+        view.ownBookedSeat = seats.get(0);
+        stats.bookSent(seats.get(0));
+        JsonObject payload = new JsonObject();
+        payload.addProperty("showtimeId", target.showtimeId);
+        JsonArray seatNumbers = new JsonArray();
+        seats.forEach(seatNumbers::add);
+        payload.add("seatNumbers", seatNumbers);
+        client.emit("book-seats", payload);
+        stats.bookings.increment();
+    }
+
+    // Chọn ngẫu nhiên trong nhóm ghế đẹp nhất còn trống
+    private String pickSeat(SessionView view, List<String> alreadyHeld) {
+        List<String> candidates = new ArrayList<>(PREFERRED_CANDIDATES);
+        for (String seat : target.seatsByPreference) {
+            if (!view.booked.contains(seat) && !view.held.containsKey(seat) && !alreadyHeld.contains(seat)) {
+                candidates.add(seat);
+                if (candidates.size() == PREFERRED_CANDIDATES) {
+                    break;
+                }
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+
+    private void registerHandlers(SocketIOClient client, SessionView view) {
+        client.onRaw("initial-held-seats", data -> {
+            JSONArray seats = data.optJSONArray("seats");
+            for (int i = 0; seats != null && i < seats.length(); i++) {
+                JSONObject seat = seats.optJSONObject(i);
+                if (seat != null) {
+                    view.held.put(seat.optString("seatNumber"), seat.optString("holderId"));
+                }
+            }
+            view.joined.countDown();
+        });
+        client.onRaw("seat-held", data -> {
+            String seat = data.optString("seatNumber");
+            String holderId = data.optString("holderId");
+            view.held.put(seat, holderId);
+            if (holderId.equals(view.socketId)) {
+                complete(view, seat, true);
+            } else {
+                stats.heldReceived(seat, holderId);
+            }
+        });
+        client.onRaw("hold-failed", data -> {
+            String seat = data.optString("seatNumber");
+            view.held.putIfAbsent(seat, "");
+            complete(view, seat, false);
+        });
+        client.onRaw("seat-released", data -> view.held.remove(data.optString("seatNumber")));
+        client.onRaw("seats-released-batch", data -> {
+            JSONArray seats = data.optJSONArray("seatNumbers");
+            for (int i = 0; seats != null && i < seats.length(); i++) {
+                view.held.remove(seats.optString(i));
+            }
+        });
+        client.onRaw("seats-booked", data -> {
+            JSONArray seats = data.optJSONArray("seatNumbers");
+            for (int i = 0; seats != null && i < seats.length(); i++) {
+                view.held.remove(seats.optString(i));
+                view.booked.add(seats.optString(i));
+            }
+            if (seats != null && seats.length() > 0 && !seats.optString(0).equals(view.ownBookedSeat)) {
+                stats.bookedReceived(seats.optString(0));
+            }
+        });
+    }
+
+    private static void complete(SessionView view, String seat, boolean held) {
+        CompletableFuture<Boolean> outcome = view.pendingHolds.get(seat);
+        if (outcome != null) {
+            outcome.complete(held);
+        }
+    }
+
+    private JsonObject seatPayload(String seat) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("showtimeId", target.showtimeId);
+        payload.addProperty("seatNumber", seat);
+        return payload;
+    }
+
+    // Thời gian suy nghĩ phân bố mũ quanh giá trị trung bình, tối đa 4 lần
+    private static void think(long meanMillis) throws InterruptedException {
+        if (meanMillis <= 0) {
+            return;
+        }
+        double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanMillis;
+        Thread.sleep((long) Math.min(sample, meanMillis * 4.0));
+    }
+
+    // Trạng thái ghế theo góc nhìn của một phiên; cập nhật từ EventThread, đọc từ thread của khách
+    private static final class SessionView {
+        private final Map<String, String> held = new ConcurrentHashMap<>();
+        private final Set<String> booked = ConcurrentHashMap.newKeySet();
+        private final Map<String, CompletableFuture<Boolean>> pendingHolds = new ConcurrentHashMap<>();
+        private final CountDownLatch joined = new CountDownLatch(1);
+        private volatile String socketId;
+        private volatile String ownBookedSeat;
+    }
+}
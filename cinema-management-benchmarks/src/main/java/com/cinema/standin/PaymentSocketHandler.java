@@ -0,0 +1,73 @@
+package com.cinema.standin;
+
+import com.cinema.standin.StandInDataset.Booking;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Namespace /payment, cùng hành vi với paymentSocket.js: join-booking vào room booking:{id},
+ * gửi ngay payment:status nếu booking đã thanh toán; webhook PayOS → payment:status cho room.
+ */
+final class PaymentSocketHandler {
+
+    private final SocketNamespace namespace;
+    private final StandInDataset dataset;
+    private final AtomicLong transactions = new AtomicLong(100_000_000L);
+
+    PaymentSocketHandler(SocketNamespace namespace, StandInDataset dataset) {
+        this.namespace = namespace;
+        this.dataset = dataset;
+        namespace.on("join-booking", this::onJoinBooking);
+    }
+
+    /**
+     * Đánh dấu booking PENDING là đã thanh toán và báo cho client đang chờ ở màn hình thanh toán.
+     *
+     * @return false nếu không có booking hoặc booking không còn chờ thanh toán
+     */
+    boolean confirmPayment(String bookingId) {
+        Booking booking = dataset.booking(bookingId);
+        if (booking == null) {
+            return false;
+        }
+        synchronized (booking) {
+            if (!"PENDING".equals(booking.paymentStatus)) {
+                return false;
+            }
+            booking.paymentTime = LocalDateTime.now(StandInDataset.ZONE);
+            booking.transactionId = "FT" + transactions.incrementAndGet();
+            booking.paymentStatus = "PAID";
+        }
+        namespace.emitToRoom(room(bookingId), "payment:status", status(booking));
+        return true;
+    }
+
+    private void onJoinBooking(StandInSocket socket, JsonElement data) {
+        String bookingId = data.getAsString();
+        socket.join(room(bookingId));
+
+        Booking booking = dataset.booking(bookingId);
+        if (booking != null && "PAID".equals(booking.paymentStatus)) {
+            socket.emit("payment:status", status(booking));
+        }
+    }
+
+    private static JsonObject status(Booking booking) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("bookingId", booking.id);
+        payload.addProperty("status", "SUCCESS");
+        payload.addProperty("amount", Math.round(booking.totalPrice()));
+        payload.addProperty("transactionId", booking.transactionId);
+        payload.addProperty("timestamp", booking.paymentTime.atZone(StandInDataset.ZONE)
+                .withZoneSameInstant(ZoneOffset.UTC).toInstant().toString());
+        return payload;
+    }
+
+    private static String room(String bookingId) {
+        return "booking:" + bookingId;
+    }
+}
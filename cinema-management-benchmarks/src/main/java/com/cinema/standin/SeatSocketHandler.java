@@ -0,0 +1,293 @@
+package com.cinema.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Giao thức giữ ghế của namespace /seats, cùng hành vi với seatSocket.js nhưng lưu trong bộ nhớ
+ * thay cho Redis: join-showtime / leave-showtime / hold-seat / release-seat / book-seats,
+ * seq tăng dần theo suất chiếu và resync bằng seat-delta / seat-snapshot,
+ * watch-showtimes / unwatch-showtimes cho số ghế đã bán (PAID) trên màn hình suất chiếu.
+ *
+ * Mọi thay đổi của một suất chiếu chạy trong synchronized(state) → broadcast đi ra đúng thứ tự seq.
+ */
+final class SeatSocketHandler {
+
+    private static final long SEAT_HOLD_TTL_MS = 600_000; // 10 phút
+    private static final int SEAT_LOG_SIZE = 200;
+    private static final String SHOWTIME_KEY = "showtimeId";
+
+    private final SocketNamespace namespace;
+    private final Map<String, ShowtimeSeats> showtimes = new ConcurrentHashMap<>();
+
+    SeatSocketHandler(SocketNamespace namespace) {
+        this.namespace = namespace;
+        namespace
+            .on("join-showtime", this::onJoin)
+            .on("leave-showtime", this::onLeave)
+            .on("hold-seat", this::onHold)
+            .on("release-seat", this::onRelease)
+            .on("book-seats", this::onBook)
+            .on("watch-showtimes", (socket, data) -> showtimeIds(data).forEach(id -> socket.join(watchRoom(id))))
+            .on("unwatch-showtimes", (socket, data) -> showtimeIds(data).forEach(id -> socket.leave(watchRoom(id))))
+            .onDisconnect(socket -> {
+                String showtimeId = socket.get(SHOWTIME_KEY);
+                if (showtimeId != null) {
+                    releaseAllSeatsForSocket(showtimeId, socket.getId());
+                }
+            });
+    }
+
+    /** Ghế đã book qua socket (REST booked-seats gộp thêm ghế của booking đã tạo) */
+    Set<String> getBookedSeats(String showtimeId) {
+        ShowtimeSeats state = showtimes.get(showtimeId);
+        if (state == null) {
+            return Set.of();
+        }
+        synchronized (state) {
+            return new LinkedHashSet<>(state.booked);
+        }
+    }
+
+    private ShowtimeSeats state(String showtimeId) {
+        return showtimes.computeIfAbsent(showtimeId, id -> new ShowtimeSeats());
+    }
+
+    // ================== EVENTS ==================
+
+    private void onJoin(StandInSocket socket, JsonElement data) {
+        JsonObject body = data.getAsJsonObject();
+        String showtimeId = body.get("showtimeId").getAsString();
+        socket.join(showtimeId);
+        socket.set(SHOWTIME_KEY, showtimeId);
+
+        ShowtimeSeats state = state(showtimeId);
+        synchronized (state) {
+            if (body.has("lastSeq") && body.get("lastSeq").isJsonPrimitive()
+                    && body.get("lastSeq").getAsJsonPrimitive().isNumber() && body.get("lastSeq").getAsLong() >= 0) {
+                sendResync(socket, state, body.get("lastSeq").getAsLong());
+                return;
+            }
+            JsonObject initial = new JsonObject();
+            initial.add("seats", heldSeatsJson(state));
+            initial.addProperty("seq", state.seq);
+            socket.emit("initial-held-seats", initial);
+        }
+    }
+
+    private void onLeave(StandInSocket socket, JsonElement data) {
+        String showtimeId = data.getAsJsonObject().get("showtimeId").getAsString();
+        socket.leave(showtimeId);
+        if (showtimeId.equals(socket.get(SHOWTIME_KEY))) {
+            socket.set(SHOWTIME_KEY, null);
+        }
+        releaseAllSeatsForSocket(showtimeId, socket.getId());
+    }
+
+    private void onHold(StandInSocket socket, JsonElement data) {
+        JsonObject body = data.getAsJsonObject();
+        String showtimeId = body.get("showtimeId").getAsString();
+        String seatNumber = body.get("seatNumber").getAsString();
+
+        ShowtimeSeats state = state(showtimeId);
+        synchronized (state) {
+            Hold current = state.activeHold(seatNumber);
+            if (current != null && !current.holderId.equals(socket.getId())) {
+                JsonObject failed = new JsonObject();
+                failed.addProperty("seatNumber", seatNumber);
+                failed.addProperty("reason", "Ghế đang được chọn bởi người khác");
+                socket.emit("hold-failed", failed);
+                return;
+            }
+            state.holds.put(seatNumber, new Hold(socket.getId(), System.currentTimeMillis() + SEAT_HOLD_TTL_MS));
+
+            JsonObject payload = new JsonObject();
+            payload.addProperty("seatNumber", seatNumber);
+            payload.addProperty("holderId", socket.getId());
+            broadcast(showtimeId, state, "seat-held", payload);
+        }
+    }
+
+    private void onRelease(StandInSocket socket, JsonElement data) {
+        JsonObject body = data.getAsJsonObject();
+        String showtimeId = body.get("showtimeId").getAsString();
+        String seatNumber = body.get("seatNumber").getAsString();
+
+        ShowtimeSeats state = state(showtimeId);
+        synchronized (state) {
+            Hold current = state.activeHold(seatNumber);
+            if (current == null || !current.holderId.equals(socket.getId())) {
+                return; // Chỉ người đang giữ mới release được
+            }
+            state.holds.remove(seatNumber);
+
+            JsonObject payload = new JsonObject();
+            payload.addProperty("seatNumber", seatNumber);
+            broadcast(showtimeId, state, "seat-released", payload);
+        }
+    }
+
+    private void onBook(StandInSocket socket, JsonElement data) {
+        JsonObject body = data.getAsJsonObject();
+        String showtimeId = body.get("showtimeId").getAsString();
+        JsonArray seatNumbers = body.getAsJsonArray("seatNumbers");
+
+        ShowtimeSeats state = state(showtimeId);
+        synchronized (state) {
+            for (JsonElement seat : seatNumbers) {
+                state.holds.remove(seat.getAsString());
+                state.booked.add(seat.getAsString());
+            }
+            JsonObject payload = new JsonObject();
+            payload.add("seatNumbers", seatNumbers.deepCopy());
+            broadcast(showtimeId, state, "seats-booked", payload);
+        }
+    }
+
+    /** Booking vừa PAID → số ghế đã bán mới cho màn hình suất chiếu (publishBookedCount bên Node) */
+    void publishBookedCount(String showtimeId, int booked) {
+        JsonObject counted = new JsonObject();
+        counted.addProperty("showtimeId", showtimeId);
+        counted.addProperty("booked", booked);
+        namespace.emitToRoom(watchRoom(showtimeId), "showtime-booked-count", counted);
+    }
+
+    private void releaseAllSeatsForSocket(String showtimeId, String socketId) {
+        ShowtimeSeats state = showtimes.get(showtimeId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            JsonArray released = new JsonArray();
+            state.holds.entrySet().removeIf(entry -> {
+                if (entry.getValue().holderId.equals(socketId)) {
+                    released.add(entry.getKey());
+                    return true;
+                }
+                return false;
+            });
+            if (!released.isEmpty()) {
+                JsonObject payload = new JsonObject();
+                payload.add("seatNumbers", released);
+                broadcast(showtimeId, state, "seats-released-batch", payload);
+            }
+        }
+    }
+
+    // ================== HELPERS ==================
+
+    private static String watchRoom(String showtimeId) {
+        return "watch:" + showtimeId;
+    }
+
+    private static List<String> showtimeIds(JsonElement data) {
+        List<String> ids = new ArrayList<>();
+        if (data.isJsonObject() && data.getAsJsonObject().has("showtimeIds")) {
+            for (JsonElement id : data.getAsJsonObject().getAsJsonArray("showtimeIds")) {
+                ids.add(id.getAsString());
+            }
+        }
+        return ids;
+    }
+
+    // Gọi trong synchronized(state): gắn seq, broadcast rồi ghi log
+    private void broadcast(String showtimeId, ShowtimeSeats state, String event, JsonObject payload) {
+        long seq = ++state.seq;
+        JsonObject withSeq = payload.deepCopy();
+        withSeq.addProperty("seq", seq);
+        namespace.emitToRoom(showtimeId, event, withSeq);
+
+        JsonObject entry = new JsonObject();
+        entry.addProperty("seq", seq);
+        entry.addProperty("event", event);
+        entry.add("data", payload);
+        state.log.addLast(entry);
+        while (state.log.size() > SEAT_LOG_SIZE) {
+            state.log.removeFirst();
+        }
+    }
+
+    // Delta nếu log còn đủ từ lastSeq, ngược lại snapshot đầy đủ
+    private void sendResync(StandInSocket socket, ShowtimeSeats state, long lastSeq) {
+        long oldestSeq = state.log.isEmpty() ? state.seq + 1 : state.log.peekFirst().get("seq").getAsLong();
+        if (lastSeq <= state.seq && oldestSeq <= lastSeq + 1) {
+            JsonArray events = new JsonArray();
+            for (JsonObject entry : state.log) {
+                if (entry.get("seq").getAsLong() > lastSeq) {
+                    events.add(entry);
+                }
+            }
+            JsonObject delta = new JsonObject();
+            delta.addProperty("fromSeq", lastSeq);
+            delta.addProperty("toSeq", state.seq);
+            delta.add("events", events);
+            socket.emit("seat-delta", delta);
+            return;
+        }
+
+        JsonArray booked = new JsonArray();
+        state.booked.forEach(booked::add);
+        JsonObject snapshot = new JsonObject();
+        snapshot.addProperty("seq", state.seq);
+        snapshot.add("heldSeats", heldSeatsJson(state));
+        snapshot.add("bookedSeats", booked);
+        socket.emit("seat-snapshot", snapshot);
+    }
+
+    private static JsonArray heldSeatsJson(ShowtimeSeats state) {
+        JsonArray held = new JsonArray();
+        List<String> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        state.holds.forEach((seatNumber, hold) -> {
+            if (hold.expiresAt <= now) {
+                expired.add(seatNumber);
+                return;
+            }
+            JsonObject seat = new JsonObject();
+            seat.addProperty("seatNumber", seatNumber);
+            seat.addProperty("holderId", hold.holderId);
+            held.add(seat);
+        });
+        expired.forEach(state.holds::remove);
+        return held;
+    }
+
+    private static final class Hold {
+        private final String holderId;
+        private final long expiresAt;
+
+        Hold(String holderId, long expiresAt) {
+            this.holderId = holderId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Trạng thái ghế của một suất chiếu, truy cập trong synchronized(this)
+    private static final class ShowtimeSeats {
+        private final Map<String, Hold> holds = new HashMap<>();
+        private final Set<String> booked = new LinkedHashSet<>();
+        private final Deque<JsonObject> log = new ArrayDeque<>();
+        private long seq;
+
+        // Hold hết TTL coi như không tồn tại (Redis tự xoá key, không broadcast)
+        Hold activeHold(String seatNumber) {
+            Hold hold = holds.get(seatNumber);
+            if (hold != null && hold.expiresAt <= System.currentTimeMillis()) {
+                holds.remove(seatNumber);
+                return null;
+            }
+            return hold;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.cinema.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server Socket.IO v4 (Engine.IO v4) tối giản cho stand-in, chỉ transport long-polling.
+ * Handshake trả "upgrades": [] nên socket.io-client Java ở lại polling, không cần WebSocket.
+ *
+ * Engine.IO:  0 open, 1 close, 2 ping, 3 pong, 4 message, 6 noop; nhiều packet nối bằng \u001e
+ * Socket.IO:  trong message — 0 CONNECT, 1 DISCONNECT, 2 EVENT, 4 CONNECT_ERROR; "/nsp," nếu không phải "/"
+ *
+ * Không hỗ trợ ack và binary event (client của ứng dụng không dùng).
+ */
+public final class SocketIoServer implements HttpHandler {
+
+    static final String PATH = "/socket.io/";
+
+    private static final long PING_INTERVAL_MS = 25_000;
+    private static final long PING_TIMEOUT_MS = 20_000;
+    private static final int MAX_PAYLOAD = 1_000_000;
+    private static final char SEPARATOR = '\u001e';
+
+    private final Map<String, SocketNamespace> namespaces = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "standin-socketio-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SocketIoServer() {
+        // Client không poll / POST quá pingInterval + pingTimeout → coi như đã mất kết nối
+        reaper.scheduleAtFixedRate(() -> {
+            long deadline = System.currentTimeMillis() - PING_INTERVAL_MS - PING_TIMEOUT_MS;
+            for (Session session : sessions.values()) {
+                if (session.lastSeen < deadline) {
+                    close(session, "ping timeout");
+                }
+            }
+        }, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /** Đăng ký namespace, ví dụ "/seats"; trả về namespace đã có nếu trùng tên */
+    public SocketNamespace namespace(String name) {
+        return namespaces.computeIfAbsent(name, SocketNamespace::new);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        reaper.shutdownNow();
+        for (Session session : sessions.values()) {
+            close(session, "server shutdown");
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (!"4".equals(query.get("EIO")) || !"polling".equals(query.get("transport"))) {
+                respond(exchange, 400, "{\"code\":0,\"message\":\"Transport unknown\"}");
+                return;
+            }
+
+            String sid = query.get("sid");
+            if (sid == null) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    respond(exchange, 400, "{\"code\":3,\"message\":\"Bad request\"}");
+                    return;
+                }
+                handshake(exchange);
+                return;
+            }
+
+            Session session = sessions.get(sid);
+            if (session == null) {
+                respond(exchange, 400, "{\"code\":1,\"message\":\"Session ID unknown\"}");
+                return;
+            }
+            session.lastSeen = System.currentTimeMillis();
+
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> poll(exchange, session);
+                case "POST" -> {
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    respond(exchange, 200, "ok");
+                    for (String packet : body.split(String.valueOf(SEPARATOR))) {
+                        onEnginePacket(session, packet);
+                    }
+                }
+                default -> respond(exchange, 405, "");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ================== ENGINE.IO ==================
+
+    private void handshake(HttpExchange exchange) throws IOException {
+        Session session = new Session(UUID.randomUUID().toString());
+        sessions.put(session.sid, session);
+
+        JsonObject open = new JsonObject();
+        open.addProperty("sid", session.sid);
+        open.add("upgrades", new JsonArray());
+        open.addProperty("pingInterval", PING_INTERVAL_MS);
+        open.addProperty("pingTimeout", PING_TIMEOUT_MS);
+        open.addProperty("maxPayload", MAX_PAYLOAD);
+        respond(exchange, 200, "0" + open);
+    }
+
+    // Long-poll: chờ tới khi có packet, hết pingInterval thì gửi ping
+    private void poll(HttpExchange exchange, Session session) throws IOException {
+        List<String> packets = new ArrayList<>();
+        try {
+            String first = session.outbox.poll(PING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            packets.add(first != null ? first : "2");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            packets.add("6");
+        }
+        session.outbox.drainTo(packets);
+        session.lastSeen = System.currentTimeMillis();
+        respond(exchange, 200, String.join(String.valueOf(SEPARATOR), packets));
+    }
+
+    private void onEnginePacket(Session session, String packet) {
+        if (packet.isEmpty()) {
+            return;
+        }
+        switch (packet.charAt(0)) {
+            case '1' -> close(session, "client close");
+            case '4' -> onSocketPacket(session, packet.substring(1));
+            default -> { } // 3 pong: lastSeen đã cập nhật
+        }
+    }
+
+    private void close(Session session, String reason) {
+        if (sessions.remove(session.sid) == null) {
+            return;
+        }
+        for (StandInSocket socket : new ArrayList<>(session.sockets.values())) {
+            socket.getNamespace().disconnect(socket);
+        }
+        session.sockets.clear();
+        session.outbox.offer("1"); // Trả về cho long-poll đang chờ
+    }
+
+    // ================== SOCKET.IO ==================
+
+    private void onSocketPacket(Session session, String packet) {
+        if (packet.isEmpty()) {
+            return;
+        }
+        char type = packet.charAt(0);
+        int index = 1;
+        String nsp = "/";
+        if (packet.length() > 1 && packet.charAt(1) == '/') {
+            int comma = packet.indexOf(',', 1);
+            nsp = comma < 0 ? packet.substring(1) : packet.substring(1, comma);
+            index = comma < 0 ? packet.length() : comma + 1;
+        }
+        while (index < packet.length() && Character.isDigit(packet.charAt(index))) {
+            index++; // Bỏ ack id
+        }
+        JsonElement payload = index < packet.length() ? JsonParser.parseString(packet.substring(index)) : JsonNull.INSTANCE;
+
+        switch (type) {
+            case '0' -> connect(session, nsp);
+            case '1' -> {
+                StandInSocket socket = session.sockets.remove(nsp);
+                if (socket != null) {
+                    socket.getNamespace().disconnect(socket);
+                }
+            }
+            case '2' -> {
+                StandInSocket socket = session.sockets.get(nsp);
+                if (socket != null && payload.isJsonArray() && !payload.getAsJsonArray().isEmpty()) {
+                    JsonArray args = payload.getAsJsonArray();
+                    JsonElement data = args.size() > 1 ? args.get(1) : JsonNull.INSTANCE;
+                    socket.getNamespace().dispatch(socket, args.get(0).getAsString(), data);
+                }
+            }
+            default -> { } // ACK / BINARY: không dùng
+        }
+    }
+
+    private void connect(Session session, String nsp) {
+        SocketNamespace namespace = namespaces.get(nsp);
+        if (namespace == null) {
+            session.send("4" + prefix(nsp) + "{\"message\":\"Invalid namespace\"}");
+            return;
+        }
+        StandInSocket socket = new StandInSocket(UUID.randomUUID().toString().replace("-", ""), namespace, session);
+        session.sockets.put(nsp, socket);
+
+        JsonObject data = new JsonObject();
+        data.addProperty("sid", socket.getId());
+        session.send("0" + prefix(nsp) + data);
+        namespace.connect(socket);
+    }
+
+    // Packet Socket.IO EVENT (chưa có tiền tố message "4" của Engine.IO)
+    static String encodeEvent(String nsp, String event, JsonElement data) {
+        JsonArray args = new JsonArray();
+        args.add(event);
+        if (data != null) {
+            args.add(data);
+        }
+        return "2" + prefix(nsp) + args;
+    }
+
+    private static String prefix(String nsp) {
+        return "/".equals(nsp) ? "" : nsp + ",";
+    }
+
+    // ================== HTTP ==================
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /** Một kết nối Engine.IO; mỗi namespace đã CONNECT có một StandInSocket riêng */
+    static final class Session {
+        private final String sid;
+        private final LinkedBlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+        private final Map<String, StandInSocket> sockets = new ConcurrentHashMap<>();
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        Session(String sid) {
+            this.sid = sid;
+        }
+
+        void send(String packet) {
+            outbox.offer("4" + packet);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cinema.standin;
+
+import com.google.gson.JsonElement;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Namespace Socket.IO phía stand-in: đăng ký handler theo tên event và broadcast theo room,
+ * giống io.of("/seats") của server Node.
+ *
+ * Handler chạy trên thread HTTP của request POST gửi event; các event của cùng một client
+ * đến theo thứ tự, nhưng handler của nhiều client chạy song song.
+ */
+public final class SocketNamespace {
+
+    private final String name;
+    private final Map<String, BiConsumer<StandInSocket, JsonElement>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Set<StandInSocket>> rooms = new ConcurrentHashMap<>();
+    private volatile Consumer<StandInSocket> connectHandler = socket -> { };
+    private volatile Consumer<StandInSocket> disconnectHandler = socket -> { };
+
+    SocketNamespace(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SocketNamespace onConnect(Consumer<StandInSocket> handler) {
+        this.connectHandler = handler;
+        return this;
+    }
+
+    public SocketNamespace onDisconnect(Consumer<StandInSocket> handler) {
+        this.disconnectHandler = handler;
+        return this;
+    }
+
+    public SocketNamespace on(String event, BiConsumer<StandInSocket, JsonElement> handler) {
+        handlers.put(event, handler);
+        return this;
+    }
+
+    /** Gửi cho mọi socket trong room (kể cả người gửi) */
+    public void emitToRoom(String room, String event, JsonElement data) {
+        Set<StandInSocket> members = rooms.get(room);
+        if (members == null) {
+            return;
+        }
+        String packet = SocketIoServer.encodeEvent(name, event, data);
+        for (StandInSocket member : members) {
+            member.getSession().send(packet);
+        }
+    }
+
+    void connect(StandInSocket socket) {
+        connectHandler.accept(socket);
+    }
+
+    void dispatch(StandInSocket socket, String event, JsonElement data) {
+        BiConsumer<StandInSocket, JsonElement> handler = handlers.get(event);
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.accept(socket, data);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Stand-in " + name + " lỗi xử lý " + event + ": " + e.getMessage());
+        }
+    }
+
+    void disconnect(StandInSocket socket) {
+        try {
+            disconnectHandler.accept(socket);
+        } finally {
+            for (String room : socket.getRooms()) {
+                removeFromRoom(room, socket);
+            }
+        }
+    }
+
+    void addToRoom(String room, StandInSocket socket) {
+        rooms.computeIfAbsent(room, r -> ConcurrentHashMap.newKeySet()).add(socket);
+    }
+
+    void removeFromRoom(String room, StandInSocket socket) {
+        rooms.computeIfPresent(room, (r, members) -> {
+            members.remove(socket);
+            return members.isEmpty() ? null : members;
+        });
+    }
+}
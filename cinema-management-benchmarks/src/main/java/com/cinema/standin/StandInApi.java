@@ -0,0 +1,814 @@
+package com.cinema.standin;
+
+import com.cinema.standin.StandInDataset.Booking;
+import com.cinema.standin.StandInDataset.Cinema;
+import com.cinema.standin.StandInDataset.Customer;
+import com.cinema.standin.StandInDataset.Movie;
+import com.cinema.standin.StandInDataset.Screen;
+import com.cinema.standin.StandInDataset.Seat;
+import com.cinema.standin.StandInDataset.Showtime;
+import com.cinema.utils.BenchmarkFixtures;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Các route REST của server Node mà client gọi tới, trả dữ liệu từ StandInDataset theo đúng
+ * cấu trúc JSON client đang parse (snake_case / camelCase y như từng controller bên Node).
+ *
+ * Khách: auth, movies, cinemas/movie, booked-seats, combos, customers/me, booking-confirm,
+ * cinema-bank, bookings, payment webhook.
+ * Admin (chỉ đọc): cinemas, admin/movies, admin/genres, admin/showtimes, admin/bookings (+ stats).
+ * Route khác → 404 với error.code = NOT_FOUND.
+ *
+ * Như Express + compressionMiddleware: GET 200 có ETag yếu, khớp If-None-Match → 304 không body;
+ * body từ 1 KB trở lên được gzip nếu client chấp nhận (JDK không có bộ nén Brotli).
+ */
+final class StandInApi implements HttpHandler {
+
+    private static final DateTimeFormatter UTC_ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    private static final DateTimeFormatter MYSQL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String TOKEN_PREFIX = "standin.";
+    private static final int COMPRESS_THRESHOLD_BYTES = 1024;
+
+    private static final Pattern MOVIE_DETAIL = Pattern.compile("^/api/movies/([^/]+)/(rating-stats|cast|comments)$");
+    private static final Pattern CINEMAS_BY_MOVIE = Pattern.compile("^/api/cinemas/movie/([^/]+)$");
+    private static final Pattern CINEMA_BY_ID = Pattern.compile("^/api/cinemas/([^/]+)$");
+    private static final Pattern BOOKED_SEATS = Pattern.compile("^/api/showtimes/([^/]+)/booked-seats$");
+    private static final Pattern COMBOS = Pattern.compile("^/api/combos/cinema/([^/]+)$");
+    private static final Pattern BOOKING_CONFIRM = Pattern.compile("^/api/booking-confirm/(movie|cinema|screen)/([^/]+)$");
+    private static final Pattern BANK_INFO = Pattern.compile("^/api/cinema-bank/([^/]+)/bank-info$");
+    private static final Pattern BOOKING_ID = Pattern.compile("(BOOK[_A-Z0-9]+)");
+
+    private final StandInDataset dataset;
+    private final SeatSocketHandler seats;
+    private final PaymentSocketHandler payments;
+    private final String combos = BenchmarkFixtures.resource("food-combos.json");
+    private final String comments = BenchmarkFixtures.resource("comments.json");
+    // Payload rạp theo phim lớn nhất và không đổi → sinh một lần
+    private final Map<String, String> cinemasByMovie = new ConcurrentHashMap<>();
+
+    StandInApi(StandInDataset dataset, SeatSocketHandler seats, PaymentSocketHandler payments) {
+        this.dataset = dataset;
+        this.seats = seats;
+        this.payments = payments;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Map<String, String> query = query(exchange);
+            Matcher m;
+
+            if ("POST".equals(method)) {
+                switch (path) {
+                    case "/api/auth/login", "/api/auth/register" -> respond(exchange, 200, login(readJson(exchange)));
+                    case "/api/bookings" -> createBooking(exchange, readJson(exchange));
+                    case "/api/payment/payos-webhook" -> respond(exchange, 200, webhook(readJson(exchange)));
+                    default -> notFound(exchange, method, path);
+                }
+            } else if (!"GET".equals(method)) {
+                notFound(exchange, method, path);
+            } else if ("/api/movies".equals(path)) {
+                respond(exchange, 200, success(movies(query.get("status"))));
+            } else if ((m = MOVIE_DETAIL.matcher(path)).matches()) {
+                movieDetail(exchange, m.group(1), m.group(2));
+            } else if ((m = CINEMAS_BY_MOVIE.matcher(path)).matches()) {
+                respond(exchange, 200, cinemasByMovie.computeIfAbsent(m.group(1), this::cinemasByMovieResponse));
+            } else if ("/api/showtimes/booked-counts".equals(path)) {
+                bookedCounts(exchange, query.get("ids"));
+            } else if ((m = BOOKED_SEATS.matcher(path)).matches()) {
+                JsonArray data = new JsonArray();
+                bookedSeats(m.group(1)).forEach(data::add);
+                respond(exchange, 200, success(data));
+            } else if ((m = COMBOS.matcher(path)).matches()) {
+                respond(exchange, 200, success(JsonParser.parseString(combos)));
+            } else if ("/api/customers/me".equals(path)) {
+                currentCustomer(exchange);
+            } else if ((m = BOOKING_CONFIRM.matcher(path)).matches()) {
+                bookingConfirm(exchange, m.group(1), m.group(2));
+            } else if ((m = BANK_INFO.matcher(path)).matches()) {
+                Cinema cinema = dataset.cinema(m.group(1));
+                if (cinema == null) {
+                    notFound(exchange, method, path);
+                } else {
+                    respond(exchange, 200, success(bankInfo(cinema)));
+                }
+            } else if ("/api/cinemas".equals(path)) {
+                JsonArray data = new JsonArray();
+                dataset.cinemas().forEach(cinema -> data.add(adminCinema(cinema)));
+                respond(exchange, 200, success(data));
+            } else if ((m = CINEMA_BY_ID.matcher(path)).matches()) {
+                Cinema cinema = dataset.cinema(m.group(1));
+                if (cinema == null) {
+                    notFound(exchange, method, path);
+                } else {
+                    respond(exchange, 200, success(adminCinema(cinema)));
+                }
+            } else if ("/api/admin/movies".equals(path)) {
+                respond(exchange, 200, success(movies(null)));
+            } else if ("/api/admin/genres".equals(path)) {
+                JsonArray data = new JsonArray();
+                dataset.genres().forEach(genre -> data.add(genre(genre)));
+                respond(exchange, 200, success(data));
+            } else if ("/api/admin/showtimes".equals(path)) {
+                respond(exchange, 200, success(adminShowtimes(query)));
+            } else if ("/api/admin/bookings".equals(path)) {
+                adminBookings(exchange, query);
+            } else if ("/api/admin/bookings/stats".equals(path)) {
+                respond(exchange, 200, success(bookingStats(query)));
+            } else {
+                notFound(exchange, method, path);
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error("INTERNAL_ERROR", String.valueOf(e.getMessage())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Ghế không còn bán được: booking còn hiệu lực + ghế đã book qua socket */
+    Set<String> bookedSeats(String showtimeId) {
+        Set<String> booked = new TreeSet<>(dataset.bookedSeats(showtimeId));
+        booked.addAll(seats.getBookedSeats(showtimeId));
+        return booked;
+    }
+
+    // ================== KHÁCH ==================
+
+    private void bookedCounts(HttpExchange exchange, String ids) throws IOException {
+        Set<String> showtimeIds = new LinkedHashSet<>();
+        for (String id : (ids != null ? ids : "").split(",")) {
+            if (!id.isBlank()) {
+                showtimeIds.add(id.trim());
+            }
+        }
+        if (showtimeIds.isEmpty()) {
+            respond(exchange, 400, error("BAD_REQUEST", "Thiếu danh sách ids"));
+            return;
+        }
+        JsonObject data = new JsonObject();
+        showtimeIds.forEach(id -> data.addProperty(id, dataset.paidSeatCount(id)));
+        respond(exchange, 200, success(data));
+    }
+
+    private JsonObject login(JsonObject body) {
+        String email = body.has("email") ? body.get("email").getAsString() : null;
+        Customer customer = email != null ? dataset.customerByEmail(email) : null;
+        if (customer == null) {
+            customer = dataset.customer("usr_001"); // Stand-in chấp nhận mọi tài khoản
+        }
+        JsonObject user = new JsonObject();
+        user.addProperty("id", customer.id);
+        user.addProperty("username", customer.username);
+        user.addProperty("full_name", customer.fullName);
+        user.addProperty("email", customer.email);
+        user.addProperty("role", "customer");
+        user.add("avatar_url", null);
+
+        JsonObject data = new JsonObject();
+        data.addProperty("token", TOKEN_PREFIX + customer.id);
+        data.add("user", user);
+        JsonObject root = success(data);
+        root.addProperty("message", "Đăng nhập thành công");
+        return root;
+    }
+
+    private void currentCustomer(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String token = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()) : null;
+        Customer customer = token != null && token.startsWith(TOKEN_PREFIX)
+                ? dataset.customer(token.substring(TOKEN_PREFIX.length())) : null;
+        if (customer == null) {
+            respond(exchange, 401, error("UNAUTHORIZED", "Token không hợp lệ"));
+            return;
+        }
+        // CustomerDTO parse bằng Jackson không bỏ qua field lạ → chỉ đúng 4 field
+        JsonObject data = new JsonObject();
+        data.addProperty("id", customer.id);
+        data.addProperty("fullName", customer.fullName);
+        data.addProperty("phoneNumber", customer.phoneNumber);
+        data.addProperty("email", customer.email);
+        respond(exchange, 200, success(data));
+    }
+
+    private JsonArray movies(String status) {
+        JsonArray data = new JsonArray();
+        for (Movie movie : dataset.movies()) {
+            if (status == null || status.equals(movie.status)) {
+                data.add(movie(movie));
+            }
+        }
+        return data;
+    }
+
+    private void movieDetail(HttpExchange exchange, String movieId, String part) throws IOException {
+        Movie movie = dataset.movie(movieId);
+        if (movie == null) {
+            respond(exchange, 404, error("NOT_FOUND", "Không tìm thấy phim " + movieId));
+            return;
+        }
+        switch (part) {
+            case "rating-stats" -> {
+                int total = movie.totalRatings();
+                JsonArray percentages = new JsonArray();
+                JsonArray counts = new JsonArray();
+                for (int count : movie.ratingCounts) {
+                    percentages.add(total == 0 ? 0 : Math.round(count * 100f / total));
+                    counts.add(String.valueOf(count)); // Server trả COUNT(*) dạng chuỗi
+                }
+                JsonObject data = new JsonObject();
+                data.addProperty("average_rating", movie.averageRating());
+                data.add("percentages", percentages);
+                data.add("counts", counts);
+                data.addProperty("total_ratings", total);
+                respond(exchange, 200, success(data));
+            }
+            case "cast" -> {
+                JsonArray data = new JsonArray();
+                for (StandInDataset.Actor actor : movie.cast) {
+                    JsonObject json = new JsonObject();
+                    json.addProperty("id", actor.id);
+                    json.addProperty("realName", actor.realName);
+                    json.addProperty("characterName", actor.characterName);
+                    json.addProperty("imageUrl", "https://cdn.example.com/actor/" + actor.id + ".jpg");
+                    json.add("bio", null);
+                    data.add(json);
+                }
+                respond(exchange, 200, success(data));
+            }
+            default -> respond(exchange, 200, comments); // Mảng trần như commentController
+        }
+    }
+
+    private void bookingConfirm(HttpExchange exchange, String kind, String id) throws IOException {
+        // MovieDTO / CinemaDTO / ScreenDTO cũng parse bằng Jackson strict → đúng field của DTO
+        JsonObject data = new JsonObject();
+        switch (kind) {
+            case "movie" -> {
+                Movie movie = dataset.movie(id);
+                if (movie == null) {
+                    notFound(exchange, "GET", exchange.getRequestURI().getPath());
+                    return;
+                }
+                data.addProperty("id", movie.id);
+                data.addProperty("title", movie.title);
+                data.addProperty("description", description(movie));
+                data.addProperty("duration", movie.duration);
+                data.addProperty("poster_url", posterUrl(movie));
+                data.addProperty("release_date", movie.releaseDate.toString());
+                data.addProperty("language", "Tiếng Anh - Phụ đề Việt");
+                data.addProperty("age_rating", movie.ageRating);
+                data.addProperty("age_rating_description", movie.ageRatingDescription);
+                data.addProperty("average_rating", String.format(Locale.ROOT, "%.2f", movie.averageRating()));
+                data.addProperty("total_ratings", movie.totalRatings());
+                data.addProperty("trailer_url", trailerUrl(movie));
+                data.addProperty("five_star", movie.ratingCounts[4]);
+                data.addProperty("four_star", movie.ratingCounts[3]);
+                data.addProperty("three_star", movie.ratingCounts[2]);
+                data.addProperty("two_star", movie.ratingCounts[1]);
+                data.addProperty("one_star", movie.ratingCounts[0]);
+                data.addProperty("created_at", movie.createdAt.format(MYSQL));
+            }
+            case "cinema" -> {
+                Cinema cinema = dataset.cinema(id);
+                if (cinema == null) {
+                    notFound(exchange, "GET", exchange.getRequestURI().getPath());
+                    return;
+                }
+                data.addProperty("id", cinema.id);
+                data.addProperty("name", cinema.name);
+                data.addProperty("address", cinema.address);
+                data.addProperty("city", cinema.city);
+                data.addProperty("logo_url", cinema.logoUrl);
+                data.addProperty("created_at", cinema.createdAt.format(MYSQL));
+            }
+            default -> {
+                Screen screen = dataset.screen(id);
+                if (screen == null) {
+                    notFound(exchange, "GET", exchange.getRequestURI().getPath());
+                    return;
+                }
+                data.addProperty("id", screen.id);
+                data.addProperty("name", screen.name);
+                data.addProperty("cinema_id", screen.cinema.id);
+                data.addProperty("row_count", screen.rows);
+                data.addProperty("column_count", screen.columns);
+                data.addProperty("total_seats", screen.totalSeats());
+                data.addProperty("cinema_name", screen.cinema.name);
+                data.addProperty("cinema_address", screen.cinema.address);
+                data.addProperty("cinema_city", screen.cinema.city);
+                data.addProperty("cinema_logo_url", screen.cinema.logoUrl);
+            }
+        }
+        respond(exchange, 200, success(data));
+    }
+
+    private static JsonObject bankInfo(Cinema cinema) {
+        JsonObject data = new JsonObject();
+        data.addProperty("bank_name", cinema.bankName);
+        data.addProperty("bank_account_holder", "CONG TY " + cinema.name.toUpperCase());
+        data.addProperty("bank_account_number", cinema.bankAccountNumber);
+        data.addProperty("bank_branch", cinema.city);
+        data.add("bank_qr_template", null);
+        return data;
+    }
+
+    private void createBooking(HttpExchange exchange, JsonObject body) throws IOException {
+        Showtime showtime = body.has("showtime_id") ? dataset.showtime(body.get("showtime_id").getAsString()) : null;
+        if (!body.has("id") || showtime == null) {
+            respond(exchange, 500, "{\"message\":\"Create booking failed\"}");
+            return;
+        }
+        List<String> seatNumbers = new ArrayList<>();
+        if (body.has("selectedSeats") && body.get("selectedSeats").isJsonArray()) {
+            body.getAsJsonArray("selectedSeats").forEach(seat -> seatNumbers.add(seat.getAsString()));
+        }
+        String customerId = body.has("customer_id") && !body.get("customer_id").isJsonNull()
+                ? body.get("customer_id").getAsString() : null;
+        Customer customer = customerId != null ? dataset.customer(customerId) : null;
+
+        dataset.addBooking(new Booking(body.get("id").getAsString(), showtime,
+                customer != null ? customer : dataset.customer("usr_001"), seatNumbers,
+                number(body, "seat_total_price"), number(body, "combo_total_price"),
+                LocalDateTime.now(StandInDataset.ZONE), "PENDING"));
+        respond(exchange, 201, "{\"message\":\"Booking created successfully\"}");
+    }
+
+    /**
+     * Webhook PayOS rút gọn: không kiểm tra chữ ký, bookingId lấy từ data.description
+     * ("CINEMA BOOK_...") hoặc data.bookingId. Dùng để giả lập khách chuyển khoản xong.
+     */
+    private JsonObject webhook(JsonObject body) {
+        JsonObject data = body.has("data") && body.get("data").isJsonObject() ? body.getAsJsonObject("data") : body;
+        String bookingId = data.has("bookingId") ? data.get("bookingId").getAsString() : null;
+        if (bookingId == null && data.has("description")) {
+            Matcher m = BOOKING_ID.matcher(data.get("description").getAsString());
+            bookingId = m.find() ? m.group(1) : null;
+        }
+        if (bookingId != null && payments.confirmPayment(bookingId)) {
+            String showtimeId = dataset.booking(bookingId).showtime.id;
+            seats.publishBookedCount(showtimeId, dataset.paidSeatCount(showtimeId));
+        }
+        JsonObject root = new JsonObject();
+        root.addProperty("success", true);
+        return root;
+    }
+
+    private String cinemasByMovieResponse(String movieId) {
+        StringWriter out = new StringWriter();
+        int count = 0;
+        try (JsonWriter w = new JsonWriter(out)) {
+            w.beginObject();
+            w.name("success").value(true);
+            w.name("data").beginArray();
+            for (Cinema cinema : dataset.cinemas()) {
+                if (hasShowtimeOf(cinema.screens, movieId)) {
+                    writeCinema(w, cinema, movieId);
+                    count++;
+                }
+            }
+            w.endArray();
+            w.name("count").value(count);
+            w.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static boolean hasShowtimeOf(List<Screen> screens, String movieId) {
+        for (Screen screen : screens) {
+            for (Showtime showtime : screen.showtimes) {
+                if (showtime.movie.id.equals(movieId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Cùng cấu trúc cinemaService.getCinemasByMovieId (và CinemaPayloadFixture)
+    private static void writeCinema(JsonWriter w, Cinema cinema, String movieId) throws IOException {
+        w.beginObject();
+        w.name("id").value(cinema.id);
+        w.name("name").value(cinema.name);
+        w.name("address").value(cinema.address);
+        w.name("city").value(cinema.city);
+        w.name("logoUrl").value(cinema.logoUrl);
+        w.name("screens").beginArray();
+        for (Screen screen : cinema.screens) {
+            if (!hasShowtimeOf(List.of(screen), movieId)) {
+                continue;
+            }
+            w.beginObject();
+            w.name("id").value(screen.id);
+            w.name("name").value(screen.name);
+            w.name("cinemaId").value(cinema.id);
+            w.name("totalSeats").value(screen.totalSeats());
+            w.name("seatLayout").beginObject();
+            w.name("rowCount").value(screen.rows);
+            w.name("columnCount").value(screen.columns);
+            w.name("seats").beginArray();
+            for (Seat[] row : screen.layout) {
+                w.beginArray();
+                for (Seat seat : row) {
+                    if (seat == null) {
+                        w.nullValue();
+                        continue;
+                    }
+                    w.beginObject();
+                    w.name("screenId").value(screen.id);
+                    w.name("seatNumber").value(seat.seatNumber);
+                    w.name("seatType").value(seat.seatType);
+                    w.name("price").value(seat.price);
+                    w.name("rowIndex").value(seat.rowIndex);
+                    w.name("colIndex").value(seat.colIndex);
+                    w.endObject();
+                }
+                w.endArray();
+            }
+            w.endArray();
+            w.endObject();
+
+            w.name("showtimes").beginArray();
+            for (Showtime showtime : screen.showtimes) {
+                if (!showtime.movie.id.equals(movieId)) {
+                    continue;
+                }
+                w.beginObject();
+                w.name("id").value(showtime.id);
+                w.name("startTime").value(utc(showtime.startTime));
+                w.name("endTime").value(utc(showtime.endTime));
+                w.name("basePrice").value(showtime.basePrice);
+                w.name("format").value(showtime.format);
+                w.endObject();
+            }
+            w.endArray();
+            w.name("rows").value(screen.rows);
+            w.name("columns").value(screen.columns);
+            w.endObject();
+        }
+        w.endArray();
+        w.endObject();
+    }
+
+    // ================== ADMIN (CHỈ ĐỌC) ==================
+
+    private static JsonObject adminCinema(Cinema cinema) {
+        JsonArray screens = new JsonArray();
+        for (Screen screen : cinema.screens) {
+            JsonObject json = new JsonObject();
+            json.addProperty("id", screen.id);
+            json.addProperty("name", screen.name);
+            json.addProperty("cinema_id", cinema.id);
+            json.addProperty("row_count", screen.rows);
+            json.addProperty("column_count", screen.columns);
+            json.addProperty("total_seats", screen.totalSeats());
+            screens.add(json);
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("id", cinema.id);
+        json.addProperty("name", cinema.name);
+        json.addProperty("address", cinema.address);
+        json.addProperty("city", cinema.city);
+        json.addProperty("logo_url", cinema.logoUrl);
+        json.addProperty("screenCount", cinema.screens.size());
+        json.add("screens", screens);
+        return json;
+    }
+
+    private JsonArray adminShowtimes(Map<String, String> query) {
+        String date = query.get("date");
+        LocalDate from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : null;
+        LocalDate to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : null;
+        Set<String> screenIds = query.containsKey("screenIds")
+                ? new LinkedHashSet<>(List.of(query.get("screenIds").split(","))) : null;
+
+        JsonArray data = new JsonArray();
+        for (Showtime showtime : dataset.showtimes()) {
+            LocalDate day = showtime.startTime.toLocalDate();
+            if ((date != null && !day.toString().equals(date))
+                    || (from != null && day.isBefore(from))
+                    || (to != null && !day.isBefore(to))
+                    || (screenIds != null && !screenIds.contains(showtime.screen.id))
+                    || !matches(query.get("cinemaId"), showtime.screen.cinema.id)
+                    || !matches(query.get("screenId"), showtime.screen.id)
+                    || !matches(query.get("movieId"), showtime.movie.id)) {
+                continue;
+            }
+            int booked = bookedSeats(showtime.id).size();
+            JsonObject json = new JsonObject();
+            json.addProperty("id", showtime.id);
+            json.addProperty("movie_id", showtime.movie.id);
+            json.addProperty("screen_id", showtime.screen.id);
+            json.addProperty("start_time", showtime.startTime.format(MYSQL));
+            json.addProperty("end_time", showtime.endTime.format(MYSQL));
+            json.addProperty("base_price", showtime.basePrice);
+            json.addProperty("format", showtime.format);
+            json.addProperty("movie_title", showtime.movie.title);
+            json.addProperty("movie_duration", showtime.movie.duration);
+            json.addProperty("screen_name", showtime.screen.name);
+            json.addProperty("total_seats", showtime.screen.totalSeats());
+            json.addProperty("cinema_id", showtime.screen.cinema.id);
+            json.addProperty("cinema_name", showtime.screen.cinema.name);
+            json.addProperty("booked_seats_count", booked);
+            json.addProperty("available_seats", showtime.screen.totalSeats() - booked);
+            json.addProperty("poster_url", posterUrl(showtime.movie));
+            data.add(json);
+        }
+        return data;
+    }
+
+    /** Cursor = vị trí trong danh sách đã lọc + sắp xếp (server Node dùng keyset, ở đây không cần) */
+    private void adminBookings(HttpExchange exchange, Map<String, String> query) throws IOException {
+        List<Booking> filtered = filterBookings(query);
+        Comparator<Booking> order = switch (query.getOrDefault("sort", "bookingTime")) {
+            case "totalPrice" -> Comparator.comparingDouble(Booking::totalPrice);
+            case "showtime" -> Comparator.comparing((Booking b) -> b.showtime.startTime);
+            default -> Comparator.comparing((Booking b) -> b.bookingTime);
+        };
+        order = order.thenComparing(b -> b.id);
+        filtered.sort("asc".equals(query.get("order")) ? order : order.reversed());
+
+        int limit = Math.max(1, Integer.parseInt(query.getOrDefault("limit", "20")));
+        int start;
+        int end;
+        try {
+            int cursor = query.containsKey("cursor") ? Integer.parseInt(query.get("cursor")) : -1;
+            if ("prev".equals(query.get("direction"))) {
+                end = cursor >= 0 ? cursor : filtered.size();
+                start = Math.max(0, end - limit);
+            } else {
+                start = Math.max(0, cursor);
+                end = Math.min(filtered.size(), start + limit);
+            }
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, error("INVALID_CURSOR", "Cursor không hợp lệ"));
+            return;
+        }
+        if (start > filtered.size()) {
+            respond(exchange, 400, error("INVALID_CURSOR", "Cursor không hợp lệ"));
+            return;
+        }
+
+        JsonArray items = new JsonArray();
+        for (Booking booking : filtered.subList(start, end)) {
+            items.add(bookingItem(booking));
+        }
+        JsonObject page = new JsonObject();
+        page.add("items", items);
+        page.addProperty("nextCursor", end < filtered.size() ? String.valueOf(end) : null);
+        page.addProperty("prevCursor", start > 0 ? String.valueOf(start) : null);
+        if ("true".equals(query.get("withTotal"))) {
+            page.addProperty("total", filtered.size());
+        }
+        respond(exchange, 200, success(page));
+    }
+
+    private JsonObject bookingStats(Map<String, String> query) {
+        Map<String, Integer> byStatus = new HashMap<>();
+        double revenue = 0;
+        List<Booking> filtered = filterBookings(query);
+        for (Booking booking : filtered) {
+            byStatus.merge(booking.paymentStatus, 1, Integer::sum);
+            if ("PAID".equals(booking.paymentStatus)) {
+                revenue += booking.totalPrice();
+            }
+        }
+        JsonObject stats = new JsonObject();
+        stats.addProperty("total", filtered.size());
+        stats.addProperty("paid", byStatus.getOrDefault("PAID", 0));
+        stats.addProperty("pending", byStatus.getOrDefault("PENDING", 0));
+        stats.addProperty("cancelled", byStatus.getOrDefault("CANCELLED", 0));
+        stats.addProperty("expired", byStatus.getOrDefault("EXPIRED", 0));
+        stats.addProperty("revenue", revenue);
+        return stats;
+    }
+
+    private List<Booking> filterBookings(Map<String, String> query) {
+        LocalDate from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : null;
+        LocalDate to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : null;
+        String search = query.containsKey("q") ? query.get("q").toLowerCase() : null;
+
+        Predicate<Booking> filter = booking -> matches(query.get("status"), booking.paymentStatus)
+                && matches(query.get("cinemaId"), booking.showtime.screen.cinema.id)
+                && matches(query.get("movieId"), booking.showtime.movie.id)
+                && (from == null || !booking.bookingTime.toLocalDate().isBefore(from))
+                && (to == null || !booking.bookingTime.toLocalDate().isAfter(to))
+                && (search == null || booking.id.toLowerCase().contains(search)
+                        || booking.customer.fullName.toLowerCase().contains(search)
+                        || booking.customer.phoneNumber.contains(search));
+        List<Booking> filtered = new ArrayList<>();
+        for (Booking booking : dataset.bookings()) {
+            if (filter.test(booking)) {
+                filtered.add(booking);
+            }
+        }
+        return filtered;
+    }
+
+    private static JsonObject bookingItem(Booking booking) {
+        Showtime showtime = booking.showtime;
+        JsonObject json = new JsonObject();
+        json.addProperty("id", booking.id);
+        json.addProperty("booking_time", booking.bookingTime.format(MYSQL));
+        json.addProperty("seat_total_price", booking.seatTotalPrice);
+        json.addProperty("combo_total_price", booking.comboTotalPrice);
+        json.addProperty("total_price", booking.totalPrice());
+        json.addProperty("payment_status", booking.paymentStatus);
+        json.addProperty("showtime_id", showtime.id);
+        json.addProperty("start_time", showtime.startTime.format(MYSQL));
+        json.addProperty("movie_id", showtime.movie.id);
+        json.addProperty("movie_title", showtime.movie.title);
+        json.addProperty("cinema_id", showtime.screen.cinema.id);
+        json.addProperty("cinema_name", showtime.screen.cinema.name);
+        json.addProperty("screen_name", showtime.screen.name);
+        json.addProperty("customer_name", booking.customer.fullName);
+        json.addProperty("phone_number", booking.customer.phoneNumber);
+        json.addProperty("seats", String.join(", ", booking.seats));
+        return json;
+    }
+
+    // ================== JSON CHUNG ==================
+
+    private static JsonObject movie(Movie movie) {
+        JsonArray genres = new JsonArray();
+        movie.genres.forEach(genre -> genres.add(genre(genre)));
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", movie.id);
+        json.addProperty("title", movie.title);
+        json.addProperty("description", description(movie));
+        json.addProperty("duration", movie.duration);
+        json.addProperty("rating", movie.averageRating());
+        json.addProperty("poster_url", posterUrl(movie));
+        json.add("genres", genres);
+        json.addProperty("release_date", movie.releaseDate.toString());
+        json.addProperty("status", movie.status);
+        json.addProperty("language", "Tiếng Anh - Phụ đề Việt");
+        json.addProperty("age_rating", movie.ageRating);
+        json.addProperty("age_rating_description", movie.ageRatingDescription);
+        json.addProperty("average_rating", String.format(Locale.ROOT, "%.2f", movie.averageRating())); // DECIMAL → chuỗi
+        json.addProperty("total_ratings", movie.totalRatings());
+        json.addProperty("trailer_url", trailerUrl(movie));
+        return json;
+    }
+
+    private static JsonObject genre(StandInDataset.Genre genre) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", genre.id);
+        json.addProperty("name", genre.name);
+        return json;
+    }
+
+    private static String description(Movie movie) {
+        return "Phim " + movie.title + " (" + movie.duration + " phút) - dữ liệu sinh bởi stand-in server.";
+    }
+
+    private static String posterUrl(Movie movie) {
+        return "https://cdn.example.com/poster/" + movie.id + ".jpg";
+    }
+
+    private static String trailerUrl(Movie movie) {
+        return "https://www.youtube.com/watch?v=" + movie.id;
+    }
+
+    private static String utc(LocalDateTime local) {
+        return local.atZone(StandInDataset.ZONE).withZoneSameInstant(ZoneOffset.UTC).format(UTC_ISO);
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isEmpty() || filter.equals(value);
+    }
+
+    private static double number(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        return value != null && value.isJsonPrimitive() ? value.getAsDouble() : 0;
+    }
+
+    private static JsonObject success(JsonElement data) {
+        JsonObject root = new JsonObject();
+        root.addProperty("success", true);
+        root.add("data", data);
+        return root;
+    }
+
+    static JsonObject error(String code, String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("code", code);
+        error.addProperty("message", message);
+        JsonObject root = new JsonObject();
+        root.addProperty("success", false);
+        root.add("error", error);
+        return root;
+    }
+
+    private static JsonObject readJson(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return body.isBlank() ? new JsonObject() : JsonParser.parseString(body).getAsJsonObject();
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static void notFound(HttpExchange exchange, String method, String path) throws IOException {
+        respond(exchange, 404, error("NOT_FOUND", "Stand-in không hỗ trợ " + method + " " + path));
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonElement body) throws IOException {
+        respond(exchange, status, body.toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+
+        if (status == 200 && "GET".equals(exchange.getRequestMethod())) {
+            String etag = etag(bytes);
+            headers.set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (bytes.length >= COMPRESS_THRESHOLD_BYTES && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            headers.set("Content-Encoding", "gzip");
+            headers.set("Vary", "Accept-Encoding");
+        }
+
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Cùng dạng với gói etag của Express: W/"độ dài hex-sha1 base64" */
+    private static String etag(byte[] body) {
+        try {
+            byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(body);
+            String hash = Base64.getEncoder().withoutPadding().encodeToString(sha1).substring(0, 27);
+            return "W/\"" + Integer.toHexString(body.length) + "-" + hash + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
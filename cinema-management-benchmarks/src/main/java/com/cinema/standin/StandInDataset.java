@@ -0,0 +1,618 @@
+package com.cinema.standin;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dữ liệu sinh sẵn cho stand-in server: phim, rạp, phòng, suất chiếu, khách hàng, booking.
+ *
+ * Cùng Spec (kể cả seed và ngày bắt đầu) → cùng dữ liệu, để các lần chạy UI test / load test
+ * so sánh được với nhau. Id theo cùng quy ước với CinemaPayloadFixture (cin_001_scr_1_st_1).
+ *
+ * Phim / rạp / suất chiếu không đổi sau khi sinh; booking thì thêm được qua POST /api/bookings
+ * và đổi trạng thái khi thanh toán.
+ */
+public final class StandInDataset {
+
+    /** Giờ Việt Nam - server Node lưu UTC, client đổi về Asia/Ho_Chi_Minh */
+    static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    private static final String[] ROW_NAMES = {
+            "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P",
+            "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"
+    };
+    private static final String[] CHAINS = { "CGV", "Lotte Cinema", "Galaxy", "BHD Star" };
+    private static final String[] CITIES = { "Hồ Chí Minh", "Hà Nội", "Đà Nẵng" };
+    private static final String[] BANKS = { "Vietcombank", "Techcombank", "BIDV", "MB Bank", "ACB" };
+    private static final String[] TITLES = {
+            "Mai", "Lật Mặt 7", "Dune: Part Two", "Inside Out 2", "Đào, Phở và Piano", "Kung Fu Panda 4",
+            "Godzilla x Kong", "Nhà Bà Nữ", "Oppenheimer", "Bố Già", "Deadpool & Wolverine", "Hai Phượng"
+    };
+    private static final String[] GENRES = {
+            "Hành động", "Hài", "Tình cảm", "Kinh dị", "Hoạt hình", "Khoa học viễn tưởng", "Tâm lý", "Phiêu lưu"
+    };
+    private static final String[][] AGE_RATINGS = {
+            { "P", "Phim được phép phổ biến đến người xem ở mọi độ tuổi" },
+            { "K", "Phim dành cho khán giả dưới 13 tuổi, cần xem cùng cha mẹ" },
+            { "T13", "Phim dành cho khán giả từ đủ 13 tuổi trở lên" },
+            { "T16", "Phim dành cho khán giả từ đủ 16 tuổi trở lên" },
+            { "T18", "Phim dành cho khán giả từ đủ 18 tuổi trở lên" }
+    };
+    private static final String[] LAST_NAMES = { "Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Vũ", "Đặng", "Bùi" };
+    private static final String[] MIDDLE_NAMES = { "Văn", "Thị", "Minh", "Thanh", "Ngọc", "Quốc", "Gia" };
+    private static final String[] FIRST_NAMES = { "An", "Bình", "Châu", "Dũng", "Hà", "Khoa", "Linh", "Nam", "Phúc", "Trang" };
+
+    /** Kích thước dữ liệu; mặc định giống payload cố định cũ (4 rạp x 3 phòng x 6 suất, phòng 200 ghế) */
+    public static final class Spec {
+        private int movies = 8;
+        private int cinemas = 4;
+        private int screensPerCinema = 3;
+        private int showtimesPerScreen = 6;
+        private int days = 1;
+        private int rows = 10;
+        private int columns = 22;
+        private int customers = 50;
+        private int bookings = 0;
+        private long seed = 42;
+        private LocalDate firstDay = LocalDate.now(ZONE);
+
+        public Spec movies(int value) { movies = positive("movies", value); return this; }
+        public Spec cinemas(int value) { cinemas = positive("cinemas", value); return this; }
+        public Spec screensPerCinema(int value) { screensPerCinema = positive("screensPerCinema", value); return this; }
+        public Spec showtimesPerScreen(int value) { showtimesPerScreen = positive("showtimesPerScreen", value); return this; }
+        public Spec days(int value) { days = positive("days", value); return this; }
+        public Spec customers(int value) { customers = positive("customers", value); return this; }
+        public Spec seed(long value) { seed = value; return this; }
+        public Spec firstDay(LocalDate value) { firstDay = value; return this; }
+
+        /** Số booking có sẵn (rải ngẫu nhiên trên các suất), chiếm ghế như booking thật */
+        public Spec bookings(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("bookings phải >= 0");
+            }
+            bookings = value;
+            return this;
+        }
+
+        /** Sơ đồ ghế mỗi phòng; 2 cột làm lối đi, tối đa 26 hàng (A-Z) */
+        public Spec seatGrid(int rowCount, int columnCount) {
+            if (rowCount < 1 || rowCount > ROW_NAMES.length || columnCount < 5) {
+                throw new IllegalArgumentException("Sơ đồ ghế không hợp lệ: " + rowCount + "x" + columnCount);
+            }
+            rows = rowCount;
+            columns = columnCount;
+            return this;
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " phải > 0");
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return movies + " phim, " + cinemas + " rạp x " + screensPerCinema + " phòng ("
+                    + rows * (columns - 2) + " ghế), " + showtimesPerScreen + " suất/phòng/ngày x " + days + " ngày, "
+                    + bookings + " booking, seed " + seed;
+        }
+    }
+
+    // ================== DỮ LIỆU ==================
+
+    static final class Genre {
+        final String id;
+        final String name;
+
+        Genre(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    static final class Actor {
+        final String id;
+        final String realName;
+        final String characterName;
+
+        Actor(String id, String realName, String characterName) {
+            this.id = id;
+            this.realName = realName;
+            this.characterName = characterName;
+        }
+    }
+
+    static final class Movie {
+        final String id;
+        final String title;
+        final int duration;
+        final String status;
+        final LocalDate releaseDate;
+        final String ageRating;
+        final String ageRatingDescription;
+        final List<Genre> genres;
+        final List<Actor> cast;
+        /** Số đánh giá theo sao, index 0 = 1 sao */
+        final int[] ratingCounts;
+        final LocalDateTime createdAt;
+
+        Movie(String id, String title, int duration, String status, LocalDate releaseDate, String[] ageRating,
+              List<Genre> genres, List<Actor> cast, int[] ratingCounts, LocalDateTime createdAt) {
+            this.id = id;
+            this.title = title;
+            this.duration = duration;
+            this.status = status;
+            this.releaseDate = releaseDate;
+            this.ageRating = ageRating[0];
+            this.ageRatingDescription = ageRating[1];
+            this.genres = genres;
+            this.cast = cast;
+            this.ratingCounts = ratingCounts;
+            this.createdAt = createdAt;
+        }
+
+        int totalRatings() {
+            int total = 0;
+            for (int count : ratingCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        double averageRating() {
+            int total = totalRatings();
+            if (total == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int star = 1; star <= 5; star++) {
+                sum += star * ratingCounts[star - 1];
+            }
+            return Math.round(sum / total * 2 * 100) / 100.0; // Thang 10 như server
+        }
+    }
+
+    static final class Customer {
+        final String id;
+        final String username;
+        final String fullName;
+        final String email;
+        final String phoneNumber;
+
+        Customer(String id, String username, String fullName, String email, String phoneNumber) {
+            this.id = id;
+            this.username = username;
+            this.fullName = fullName;
+            this.email = email;
+            this.phoneNumber = phoneNumber;
+        }
+    }
+
+    static final class Cinema {
+        final String id;
+        final String name;
+        final String address;
+        final String city;
+        final String logoUrl;
+        final String bankName;
+        final String bankAccountNumber;
+        final LocalDateTime createdAt;
+        final List<Screen> screens = new ArrayList<>();
+
+        Cinema(String id, String name, String address, String city, String logoUrl, String bankName,
+               String bankAccountNumber, LocalDateTime createdAt) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+            this.city = city;
+            this.logoUrl = logoUrl;
+            this.bankName = bankName;
+            this.bankAccountNumber = bankAccountNumber;
+            this.createdAt = createdAt;
+        }
+    }
+
+    static final class Seat {
+        final String seatNumber;
+        final String seatType;
+        final double price;
+        final int rowIndex;
+        final int colIndex;
+
+        Seat(String seatNumber, String seatType, double price, int rowIndex, int colIndex) {
+            this.seatNumber = seatNumber;
+            this.seatType = seatType;
+            this.price = price;
+            this.rowIndex = rowIndex;
+            this.colIndex = colIndex;
+        }
+    }
+
+    static final class Screen {
+        final String id;
+        final String name;
+        final Cinema cinema;
+        final int rows;
+        final int columns;
+        /** [hàng][cột], null = lối đi */
+        final Seat[][] layout;
+        final Map<String, Seat> seatsByNumber = new LinkedHashMap<>();
+        final List<Showtime> showtimes = new ArrayList<>();
+
+        Screen(String id, String name, Cinema cinema, int rows, int columns) {
+            this.id = id;
+            this.name = name;
+            this.cinema = cinema;
+            this.rows = rows;
+            this.columns = columns;
+            this.layout = new Seat[rows][columns];
+
+            int aisleLeft = 2;
+            int aisleRight = columns - 3;
+            for (int r = 0; r < rows; r++) {
+                int number = 1;
+                for (int c = 0; c < columns; c++) {
+                    if (c == aisleLeft || c == aisleRight) {
+                        continue;
+                    }
+                    String type = r >= rows - 2 ? "COUPLE" : r >= rows - 5 ? "VIP" : "STANDARD";
+                    double price = type.equals("STANDARD") ? 75000 : type.equals("VIP") ? 112500 : 150000;
+                    Seat seat = new Seat(ROW_NAMES[r] + number++, type, price, r, c);
+                    layout[r][c] = seat;
+                    seatsByNumber.put(seat.seatNumber, seat);
+                }
+            }
+        }
+
+        int totalSeats() {
+            return seatsByNumber.size();
+        }
+    }
+
+    static final class Showtime {
+        final String id;
+        final Screen screen;
+        final Movie movie;
+        final LocalDateTime startTime;
+        final LocalDateTime endTime;
+        final double basePrice;
+        final String format;
+
+        Showtime(String id, Screen screen, Movie movie, LocalDateTime startTime, double basePrice, String format) {
+            this.id = id;
+            this.screen = screen;
+            this.movie = movie;
+            this.startTime = startTime;
+            this.endTime = startTime.plusMinutes(movie.duration);
+            this.basePrice = basePrice;
+            this.format = format;
+        }
+    }
+
+    static final class Booking {
+        final String id;
+        final Showtime showtime;
+        final Customer customer;
+        final List<String> seats;
+        final double seatTotalPrice;
+        final double comboTotalPrice;
+        final LocalDateTime bookingTime;
+        volatile String paymentStatus;
+        volatile LocalDateTime paymentTime;
+        volatile String transactionId;
+
+        Booking(String id, Showtime showtime, Customer customer, List<String> seats, double seatTotalPrice,
+                double comboTotalPrice, LocalDateTime bookingTime, String paymentStatus) {
+            this.id = id;
+            this.showtime = showtime;
+            this.customer = customer;
+            this.seats = List.copyOf(seats);
+            this.seatTotalPrice = seatTotalPrice;
+            this.comboTotalPrice = comboTotalPrice;
+            this.bookingTime = bookingTime;
+            this.paymentStatus = paymentStatus;
+        }
+
+        double totalPrice() {
+            return seatTotalPrice + comboTotalPrice;
+        }
+
+        /** Booking còn giữ ghế (chưa hủy / hết hạn) */
+        boolean holdsSeats() {
+            return "PAID".equals(paymentStatus) || "PENDING".equals(paymentStatus);
+        }
+    }
+
+    private final Spec spec;
+    private final List<Genre> genres = new ArrayList<>();
+    private final List<Movie> movies = new ArrayList<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Cinema> cinemas = new ArrayList<>();
+    private final Map<String, Movie> moviesById = new LinkedHashMap<>();
+    private final Map<String, Cinema> cinemasById = new LinkedHashMap<>();
+    private final Map<String, Screen> screensById = new LinkedHashMap<>();
+    private final Map<String, Showtime> showtimesById = new LinkedHashMap<>();
+    private final Map<String, Customer> customersById = new LinkedHashMap<>();
+    private final List<Booking> bookings = new CopyOnWriteArrayList<>();
+    private final Map<String, Booking> bookingsById = new ConcurrentHashMap<>();
+    private final Map<String, List<Booking>> bookingsByShowtime = new ConcurrentHashMap<>();
+
+    private StandInDataset(Spec spec) {
+        this.spec = spec;
+        Random random = new Random(spec.seed);
+        LocalDateTime createdAt = spec.firstDay.minusMonths(3).atTime(9, 0);
+
+        for (int g = 0; g < GENRES.length; g++) {
+            genres.add(new Genre(String.format("gen_%03d", g + 1), GENRES[g]));
+        }
+        generateMovies(random, createdAt);
+        generateCustomers(random);
+        generateCinemas(random, createdAt);
+        generateShowtimes(random);
+        generateBookings(random);
+    }
+
+    public static StandInDataset generate(Spec spec) {
+        return new StandInDataset(spec);
+    }
+
+    public static StandInDataset defaults() {
+        return generate(new Spec());
+    }
+
+    public Spec getSpec() {
+        return spec;
+    }
+
+    /** Suất đầu tiên của phim đang chiếu đầu tiên - suất "mở bán" mặc định cho load test */
+    public String firstShowtimeId() {
+        return showtimesById.keySet().iterator().next();
+    }
+
+    public String firstNowShowingMovieId() {
+        return showtimesById.values().iterator().next().movie.id;
+    }
+
+    public int showtimeCount() {
+        return showtimesById.size();
+    }
+
+    public int bookingCount() {
+        return bookings.size();
+    }
+
+    // ================== SINH DỮ LIỆU ==================
+
+    private void generateMovies(Random random, LocalDateTime createdAt) {
+        int nowShowing = Math.max(1, (int) Math.ceil(spec.movies * 0.75));
+        for (int m = 0; m < spec.movies; m++) {
+            String id = String.format("mv_%03d", m + 1);
+            String title = TITLES[m % TITLES.length] + (m >= TITLES.length ? " " + (m / TITLES.length + 1) : "");
+            boolean showing = m < nowShowing;
+
+            List<Genre> movieGenres = new ArrayList<>();
+            int genreCount = 1 + random.nextInt(3);
+            for (int g = 0; g < genreCount; g++) {
+                Genre genre = genres.get((m + g * 3) % genres.size());
+                if (!movieGenres.contains(genre)) {
+                    movieGenres.add(genre);
+                }
+            }
+            List<Actor> cast = new ArrayList<>();
+            for (int a = 0; a < 4; a++) {
+                cast.add(new Actor(id.replace("mv_", "act_") + "_" + (a + 1), personName(random), "Vai " + (a + 1)));
+            }
+            int[] ratingCounts = new int[5];
+            if (showing) {
+                for (int star = 0; star < 5; star++) {
+                    ratingCounts[star] = random.nextInt(40 * (star + 1));
+                }
+            }
+
+            Movie movie = new Movie(id, title, 90 + random.nextInt(60), showing ? "NOW_SHOWING" : "COMING_SOON",
+                    showing ? spec.firstDay.minusDays(7L + m) : spec.firstDay.plusDays(7L * (m - nowShowing + 1)),
+                    AGE_RATINGS[random.nextInt(AGE_RATINGS.length)], movieGenres, cast, ratingCounts,
+                    createdAt.plusDays(m));
+            movies.add(movie);
+            moviesById.put(id, movie);
+        }
+    }
+
+    private void generateCustomers(Random random) {
+        for (int u = 0; u < spec.customers; u++) {
+            String id = String.format("usr_%03d", u + 1);
+            String phone = String.format("09%08d", random.nextInt(100_000_000));
+            Customer customer = new Customer(id, "user" + (u + 1), personName(random),
+                    "user" + (u + 1) + "@example.com", phone);
+            customers.add(customer);
+            customersById.put(id, customer);
+        }
+    }
+
+    private void generateCinemas(Random random, LocalDateTime createdAt) {
+        for (int c = 0; c < spec.cinemas; c++) {
+            String id = String.format("cin_%03d", c + 1);
+            Cinema cinema = new Cinema(id, CHAINS[c % CHAINS.length] + " Chi nhánh " + (c + 1),
+                    (c + 1) + " Nguyễn Văn Linh", CITIES[c % CITIES.length],
+                    c % 5 == 0 ? null : "https://cdn.example.com/logo/" + id + ".png",
+                    BANKS[c % BANKS.length], String.format("%010d", random.nextInt(1_000_000_000)), createdAt);
+            for (int s = 0; s < spec.screensPerCinema; s++) {
+                Screen screen = new Screen(id + "_scr_" + (s + 1), "Phòng " + (s + 1), cinema, spec.rows, spec.columns);
+                cinema.screens.add(screen);
+                screensById.put(screen.id, screen);
+            }
+            cinemas.add(cinema);
+            cinemasById.put(id, cinema);
+        }
+    }
+
+    // Suất mỗi phòng cách nhau 2h30 từ 9h, lệch 15 phút giữa các phòng; phim xoay vòng giữa các phòng
+    private void generateShowtimes(Random random) {
+        List<Movie> showing = new ArrayList<>();
+        for (Movie movie : movies) {
+            if ("NOW_SHOWING".equals(movie.status)) {
+                showing.add(movie);
+            }
+        }
+        int index = 0;
+        for (Cinema cinema : cinemas) {
+            for (int s = 0; s < cinema.screens.size(); s++) {
+                Screen screen = cinema.screens.get(s);
+                for (int d = 0; d < spec.days; d++) {
+                    LocalDateTime first = spec.firstDay.plusDays(d).atTime(LocalTime.of(9, 0)).plusMinutes(15L * s);
+                    for (int i = 0; i < spec.showtimesPerScreen; i++) {
+                        int n = d * spec.showtimesPerScreen + i;
+                        Movie movie = showing.get((index + n) % showing.size());
+                        Showtime showtime = new Showtime(screen.id + "_st_" + (n + 1), screen, movie,
+                                first.plusMinutes(150L * i), 75000, random.nextInt(3) == 0 ? "3D" : "2D");
+                        screen.showtimes.add(showtime);
+                        showtimesById.put(showtime.id, showtime);
+                    }
+                }
+                index++;
+            }
+        }
+    }
+
+    private void generateBookings(Random random) {
+        List<Showtime> showtimes = new ArrayList<>(showtimesById.values());
+        Map<String, Set<String>> taken = new LinkedHashMap<>();
+        String[] statuses = { "PAID", "PAID", "PAID", "PENDING", "CANCELLED", "EXPIRED" };
+
+        for (int b = 0; b < spec.bookings; b++) {
+            Showtime showtime = showtimes.get(random.nextInt(showtimes.size()));
+            Set<String> occupied = taken.computeIfAbsent(showtime.id, id -> new LinkedHashSet<>());
+            List<String> free = new ArrayList<>(showtime.screen.seatsByNumber.keySet());
+            free.removeAll(occupied);
+            if (free.isEmpty()) {
+                continue;
+            }
+            // Vài ghế trống liền nhau theo thứ tự sơ đồ, bắt đầu ở một ghế ngẫu nhiên
+            int start = random.nextInt(free.size());
+            int count = Math.min(1 + random.nextInt(4), free.size() - start);
+            List<String> seats = new ArrayList<>(free.subList(start, start + count));
+
+            String status = statuses[random.nextInt(statuses.length)];
+            if (!"CANCELLED".equals(status) && !"EXPIRED".equals(status)) {
+                occupied.addAll(seats);
+            }
+            double seatTotal = 0;
+            for (String seat : seats) {
+                seatTotal += showtime.screen.seatsByNumber.get(seat).price;
+            }
+            // Đặt trong 3 ngày trước ngày đầu tiên (không phụ thuộc giờ chạy)
+            LocalDateTime bookingTime = spec.firstDay.atStartOfDay().minusMinutes(1 + random.nextInt(60 * 24 * 3));
+            Booking booking = new Booking(String.format("BOOK_SEED_%06d", b + 1), showtime,
+                    customers.get(random.nextInt(customers.size())), seats, seatTotal,
+                    random.nextInt(3) == 0 ? 85000 : 0, bookingTime, status);
+            if ("PAID".equals(status)) {
+                booking.paymentTime = bookingTime.plusMinutes(3);
+                booking.transactionId = "FT" + (100_000_000L + b);
+            }
+            addBooking(booking);
+        }
+    }
+
+    private static String personName(Random random) {
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " "
+                + MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)] + " "
+                + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    }
+
+    // ================== TRA CỨU ==================
+
+    List<Genre> genres() {
+        return Collections.unmodifiableList(genres);
+    }
+
+    List<Movie> movies() {
+        return Collections.unmodifiableList(movies);
+    }
+
+    List<Cinema> cinemas() {
+        return Collections.unmodifiableList(cinemas);
+    }
+
+    Collection<Showtime> showtimes() {
+        return Collections.unmodifiableCollection(showtimesById.values());
+    }
+
+    List<Booking> bookings() {
+        return bookings;
+    }
+
+    Movie movie(String id) {
+        return moviesById.get(id);
+    }
+
+    Cinema cinema(String id) {
+        return cinemasById.get(id);
+    }
+
+    Screen screen(String id) {
+        return screensById.get(id);
+    }
+
+    Showtime showtime(String id) {
+        return showtimesById.get(id);
+    }
+
+    Customer customer(String id) {
+        return customersById.get(id);
+    }
+
+    Customer customerByEmail(String email) {
+        for (Customer customer : customers) {
+            if (customer.email.equalsIgnoreCase(email)) {
+                return customer;
+            }
+        }
+        return null;
+    }
+
+    Booking booking(String id) {
+        return bookingsById.get(id);
+    }
+
+    void addBooking(Booking booking) {
+        bookings.add(booking);
+        bookingsById.put(booking.id, booking);
+        bookingsByShowtime.computeIfAbsent(booking.showtime.id, id -> new CopyOnWriteArrayList<>()).add(booking);
+    }
+
+    /** Số ghế của booking đã PAID (cùng định nghĩa với /api/showtimes/booked-counts bên Node) */
+    int paidSeatCount(String showtimeId) {
+        Set<String> seats = new LinkedHashSet<>();
+        for (Booking booking : bookingsByShowtime.getOrDefault(showtimeId, List.of())) {
+            if ("PAID".equals(booking.paymentStatus)) {
+                seats.addAll(booking.seats);
+            }
+        }
+        return seats.size();
+    }
+
+    /** Ghế đã bị booking (PAID / PENDING) của suất chiếu chiếm */
+    Set<String> bookedSeats(String showtimeId) {
+        Set<String> seats = new LinkedHashSet<>();
+        for (Booking booking : bookingsByShowtime.getOrDefault(showtimeId, List.of())) {
+            if (booking.holdsSeats()) {
+                seats.addAll(booking.seats);
+            }
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,130 @@
+package com.cinema.standin;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Server Node thu nhỏ chạy trong JVM: REST (StandInApi) + Socket.IO /seats và /payment trên dữ liệu
+ * sinh sẵn (StandInDataset), để chạy client / UI test / load test khi không có Node + MySQL + Redis.
+ *
+ * Nhúng vào code:
+ *   StandInServer server = StandInServer.start(0, StandInDataset.generate(new StandInDataset.Spec().cinemas(20)));
+ *   Endpoints.setBaseUrl(server.getBaseUrl());
+ *
+ * Chạy độc lập (client chạy với -Dcinema.server.url=http://localhost:PORT, mặc định 3000):
+ *   java -cp target/benchmarks.jar com.cinema.standin.StandInServer --port 3000 --cinemas 10 --bookings 2000
+ *   Tham số: --port --movies --cinemas --screens --showtimes --days --rows --cols --customers --bookings --seed
+ *
+ * Giả lập khách chuyển khoản xong cho một booking:
+ *   curl -X POST localhost:3000/api/payment/payos-webhook -H 'Content-Type: application/json' \
+ *        -d '{"data":{"description":"CINEMA BOOK_..."}}'
+ */
+public final class StandInServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 3000;
+
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final SocketIoServer socketIo = new SocketIoServer();
+    private final StandInDataset dataset;
+    private final PaymentSocketHandler payments;
+
+    private StandInServer(int port, StandInDataset dataset) throws IOException {
+        this.dataset = dataset;
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "standin-http-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        SeatSocketHandler seats = new SeatSocketHandler(socketIo.namespace("/seats"));
+        payments = new PaymentSocketHandler(socketIo.namespace("/payment"), dataset);
+
+        http = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        http.setExecutor(executor);
+        http.createContext(SocketIoServer.PATH, socketIo);
+        http.createContext("/api/", new StandInApi(dataset, seats, payments));
+        http.start();
+    }
+
+    /** Dữ liệu mặc định (StandInDataset.defaults()); lỗi nếu cổng đang bị chiếm (ví dụ server Node đang chạy) */
+    public static StandInServer start(int port) throws IOException {
+        return start(port, StandInDataset.defaults());
+    }
+
+    /** @param port 0 → cổng trống bất kỳ, lấy lại bằng getPort() / getBaseUrl() */
+    public static StandInServer start(int port, StandInDataset dataset) throws IOException {
+        return new StandInServer(port, dataset);
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /** Giá trị cho Endpoints.setBaseUrl / -Dcinema.server.url */
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public StandInDataset getDataset() {
+        return dataset;
+    }
+
+    /** Như webhook PayOS: booking PENDING → PAID, báo payment:status cho room booking:{id} */
+    public boolean confirmPayment(String bookingId) {
+        return payments.confirmPayment(bookingId);
+    }
+
+    @Override
+    public void close() {
+        socketIo.shutdown();
+        http.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Tham số không hợp lệ: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        StandInDataset.Spec spec = new StandInDataset.Spec();
+        applyInt(options, "movies", spec::movies);
+        applyInt(options, "cinemas", spec::cinemas);
+        applyInt(options, "screens", spec::screensPerCinema);
+        applyInt(options, "showtimes", spec::showtimesPerScreen);
+        applyInt(options, "days", spec::days);
+        applyInt(options, "customers", spec::customers);
+        applyInt(options, "bookings", spec::bookings);
+        if (options.containsKey("rows") || options.containsKey("cols")) {
+            spec.seatGrid(Integer.parseInt(options.getOrDefault("rows", "10")),
+                    Integer.parseInt(options.getOrDefault("cols", "22")));
+        }
+        if (options.containsKey("seed")) {
+            spec.seed(Long.parseLong(options.get("seed")));
+        }
+
+        StandInDataset dataset = StandInDataset.generate(spec);
+        StandInServer server = start(Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT))), dataset);
+        System.out.println("🚀 Stand-in server: " + server.getBaseUrl());
+        System.out.println("   " + spec + " → " + dataset.showtimeCount() + " suất, " + dataset.bookingCount() + " booking");
+        System.out.println("   Phim " + dataset.firstNowShowingMovieId() + ", suất đầu tiên " + dataset.firstShowtimeId());
+        Thread.currentThread().join();
+    }
+
+    private static void applyInt(Map<String, String> options, String key, IntConsumer setter) {
+        if (options.containsKey(key)) {
+            setter.accept(Integer.parseInt(options.get(key)));
+        }
+    }
+}
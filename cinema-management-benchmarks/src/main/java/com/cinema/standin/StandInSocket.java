@@ -0,0 +1,67 @@
+package com.cinema.standin;
+
+import com.google.gson.JsonElement;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Một client đã CONNECT vào một namespace (tương đương socket phía server của socket.io Node) */
+public final class StandInSocket {
+
+    private final String id;
+    private final SocketNamespace namespace;
+    private final SocketIoServer.Session session;
+    private final Set<String> rooms = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    StandInSocket(String id, SocketNamespace namespace, SocketIoServer.Session session) {
+        this.id = id;
+        this.namespace = namespace;
+        this.session = session;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SocketNamespace getNamespace() {
+        return namespace;
+    }
+
+    public void emit(String event, JsonElement data) {
+        session.send(SocketIoServer.encodeEvent(namespace.getName(), event, data));
+    }
+
+    public void join(String room) {
+        rooms.add(room);
+        namespace.addToRoom(room, this);
+    }
+
+    public void leave(String room) {
+        rooms.remove(room);
+        namespace.removeFromRoom(room, this);
+    }
+
+    SocketIoServer.Session getSession() {
+        return session;
+    }
+
+    Set<String> getRooms() {
+        return rooms;
+    }
+
+    /** Dữ liệu gắn với socket, ví dụ showtimeId đang xem (socket.showtimeId bên Node) */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) attributes.get(key);
+    }
+
+    public void set(String key, Object value) {
+        if (value == null) {
+            attributes.remove(key);
+        } else {
+            attributes.put(key, value);
+        }
+    }
+}
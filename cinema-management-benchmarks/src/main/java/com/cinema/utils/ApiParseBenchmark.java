@@ -0,0 +1,64 @@
+package com.cinema.utils;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Comment;
+import com.cinema.models.FoodCombo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse response JSON của các API client trên dữ liệu cố định:
+ * - parseCinemas:    5 rạp x 8 phòng x 200 ghế (CinemaPayloadFixture)
+ * - parseComments:   fixtures/comments.json, 40 bình luận kèm reaction
+ * - parseFoodCombos: fixtures/food-combos.json, 24 combo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiParseBenchmark {
+
+    private String cinemasJson;
+    private String commentsJson;
+    private String foodCombosJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cinemasJson = BenchmarkFixtures.cinemasData(5);
+        commentsJson = BenchmarkFixtures.resource("comments.json");
+        foodCombosJson = BenchmarkFixtures.resource("food-combos.json");
+
+        if (parseCinemas().size() != 5 || parseComments().size() != 40 || parseFoodCombos().size() != 24) {
+            throw new IllegalStateException("Fixture không khớp với parser");
+        }
+    }
+
+    @Benchmark
+    public List<Cinema> parseCinemas() {
+        return CinemaApiClient.parseCinemas(cinemasJson);
+    }
+
+    @Benchmark
+    public List<Comment> parseComments() {
+        return MovieApi.parseComments(commentsJson);
+    }
+
+    @Benchmark
+    public List<FoodCombo> parseFoodCombos() {
+        return FoodComboApiClient.parseFoodCombos(foodCombosJson);
+    }
+}
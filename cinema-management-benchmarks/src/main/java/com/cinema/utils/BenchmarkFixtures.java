@@ -0,0 +1,52 @@
+package com.cinema.utils;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Comment;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Dữ liệu đầu vào cố định cho các benchmark, dùng chung giữa các package.
+ * - JSON trong resources/fixtures (bình luận, combo đồ ăn) giống response thật của server
+ * - Payload rạp sinh bằng CinemaPayloadFixture (không random)
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    /** Đọc file trong resources/fixtures */
+    public static String resource(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Không tìm thấy fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Response đầy đủ của GET /api/cinemas/movie/{movieId}: phòng 200 ghế, 6 suất mỗi phòng */
+    public static String cinemasResponse(int cinemas, int screensPerCinema) {
+        return CinemaPayloadFixture.response(cinemas, screensPerCinema, 10, 22, 6);
+    }
+
+    /** Mảng "data" của GET /api/cinemas (đầu vào của CinemaApiClient.parseCinemas) */
+    public static String cinemasData(int cinemas) {
+        String response = cinemasResponse(cinemas, 8);
+        return JsonParser.parseString(response).getAsJsonObject().get("data").toString();
+    }
+
+    public static List<Cinema> cinemas(int cinemas) {
+        return CinemaApiClient.parseCinemas(cinemasData(cinemas));
+    }
+
+    public static List<Comment> comments() {
+        return MovieApi.parseComments(resource("comments.json"));
+    }
+}
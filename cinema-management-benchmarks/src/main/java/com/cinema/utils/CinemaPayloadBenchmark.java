@@ -0,0 +1,71 @@
+package com.cinema.utils;
+
+import com.cinema.models.Cinema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh decode payload rạp/phòng/ma trận ghế:
+ * - legacyTree: cây Gson → toString() → parse lại → JsonObject từng ghế (đường cũ)
+ * - streaming:  CinemaPayloadReader đọc một lượt bằng JsonReader (đường mới của getCinemasByMovieId)
+ *
+ * Chạy kèm "-prof gc" để xem gc.alloc.rate.norm (byte cấp phát mỗi lần decode).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CinemaPayloadBenchmark {
+
+    // 40 rạp x 8 phòng x ~200 ghế là kịch bản một phim bom tấn; 5 rạp là trường hợp thường gặp
+    @Param({ "5", "40" })
+    public int cinemas;
+
+    @Param({ "8" })
+    public int screensPerCinema;
+
+    private String body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 10 hàng x 22 cột (2 cột lối đi) = 200 ghế, 6 suất mỗi phòng
+        body = CinemaPayloadFixture.response(cinemas, screensPerCinema, 10, 22, 6);
+
+        List<Cinema> legacy = LegacyCinemaTreeParser.parseResponse(body);
+        List<Cinema> streaming = streaming();
+        if (legacy == null || streaming == null || legacy.size() != streaming.size()) {
+            throw new IllegalStateException("Hai decoder cho kết quả khác nhau");
+        }
+    }
+
+    @Benchmark
+    public List<Cinema> legacyTree() {
+        return LegacyCinemaTreeParser.parseResponse(body);
+    }
+
+    @Benchmark
+    public List<Cinema> streaming() {
+        try {
+            return CinemaPayloadReader.readResponse(new StringReader(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.cinema.utils;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sinh payload giống GET /api/cinemas/movie/{movieId} (cùng cấu trúc cinemaService.getCinemasByMovieId).
+ * Dữ liệu cố định (không random) để các lần chạy so sánh được với nhau.
+ */
+final class CinemaPayloadFixture {
+
+    private static final String[] ROW_NAMES = {
+            "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P"
+    };
+
+    private CinemaPayloadFixture() {}
+
+    /**
+     * @param cinemas         số rạp
+     * @param screensPerCinema số phòng mỗi rạp
+     * @param rows            số hàng ghế
+     * @param cols            số cột ghế (có 2 cột lối đi)
+     * @param showtimesPerScreen số suất mỗi phòng
+     */
+    static String response(int cinemas, int screensPerCinema, int rows, int cols, int showtimesPerScreen) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter w = new JsonWriter(out)) {
+            w.beginObject();
+            w.name("success").value(true);
+            w.name("data").beginArray();
+            for (int c = 0; c < cinemas; c++) {
+                writeCinema(w, c, screensPerCinema, rows, cols, showtimesPerScreen);
+            }
+            w.endArray();
+            w.name("count").value(cinemas);
+            w.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static void writeCinema(JsonWriter w, int c, int screens, int rows, int cols, int showtimes)
+            throws IOException {
+        String[] chains = { "CGV", "Lotte Cinema", "Galaxy", "BHD Star" };
+        String cinemaId = String.format("cin_%03d", c + 1);
+
+        w.beginObject();
+        w.name("id").value(cinemaId);
+        w.name("name").value(chains[c % chains.length] + " Chi nhánh " + (c + 1));
+        w.name("address").value((c + 1) + " Nguyễn Văn Linh");
+        w.name("city").value(c % 3 == 0 ? "Hồ Chí Minh" : c % 3 == 1 ? "Hà Nội" : "Đà Nẵng");
+        if (c % 5 == 0) {
+            w.name("logoUrl").nullValue();
+        } else {
+            w.name("logoUrl").value("https://cdn.example.com/logo/" + cinemaId + ".png");
+        }
+
+        w.name("screens").beginArray();
+        for (int s = 0; s < screens; s++) {
+            writeScreen(w, cinemaId, s, rows, cols, showtimes);
+        }
+        w.endArray();
+        w.endObject();
+    }
+
+    private static void writeScreen(JsonWriter w, String cinemaId, int s, int rows, int cols, int showtimes)
+            throws IOException {
+        String screenId = cinemaId + "_scr_" + (s + 1);
+        int aisleLeft = 2;
+        int aisleRight = cols - 3;
+        int totalSeats = rows * (cols - 2);
+
+        w.beginObject();
+        w.name("id").value(screenId);
+        w.name("name").value("Phòng " + (s + 1));
+        w.name("cinemaId").value(cinemaId);
+        w.name("totalSeats").value(totalSeats);
+
+        w.name("seatLayout").beginObject();
+        w.name("rowCount").value(rows);
+        w.name("columnCount").value(cols);
+        w.name("seats").beginArray();
+        for (int r = 0; r < rows; r++) {
+            w.beginArray();
+            int number = 1;
+            for (int col = 0; col < cols; col++) {
+                if (col == aisleLeft || col == aisleRight) {
+                    w.nullValue();
+                    continue;
+                }
+                String type = r >= rows - 2 ? "COUPLE" : r >= rows - 5 ? "VIP" : "STANDARD";
+                w.beginObject();
+                w.name("screenId").value(screenId);
+                w.name("seatNumber").value(ROW_NAMES[r % ROW_NAMES.length] + number++);
+                w.name("seatType").value(type);
+                w.name("price").value(type.equals("STANDARD") ? 75000 : type.equals("VIP") ? 112500 : 150000);
+                w.name("rowIndex").value(r);
+                w.name("colIndex").value(col);
+                w.endObject();
+            }
+            w.endArray();
+        }
+        w.endArray();
+        w.endObject();
+
+        w.name("showtimes").beginArray();
+        LocalDateTime start = LocalDateTime.of(2025, 12, 21, 2, 0);
+        for (int i = 0; i < showtimes; i++) {
+            LocalDateTime st = start.plusHours(3L * i).plusMinutes(15L * s);
+            w.beginObject();
+            w.name("id").value(screenId + "_st_" + (i + 1));
+            w.name("startTime").value(st + ":00.000Z");
+            w.name("endTime").value(st.plusMinutes(130) + ":00.000Z");
+            w.name("basePrice").value(75000);
+            w.name("format").value(i % 2 == 0 ? "2D" : "3D");
+            w.endObject();
+        }
+        w.endArray();
+
+        w.name("rows").value(rows);
+        w.name("columns").value(cols);
+        w.endObject();
+    }
+}
@@ -0,0 +1,143 @@
+package com.cinema.utils;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Screen;
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStatus;
+import com.cinema.models.SeatType;
+import com.cinema.models.Showtime;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bản sao đường parse cũ của CinemaApiClient (trước khi chuyển sang CinemaPayloadReader):
+ * parse body thành cây Gson → data.toString() → parse lại lần hai → duyệt JsonObject từng ghế.
+ * Chỉ dùng làm baseline cho benchmark.
+ */
+final class LegacyCinemaTreeParser {
+
+    private LegacyCinemaTreeParser() {}
+
+    static List<Cinema> parseResponse(String jsonBody) {
+        JsonObject root = JsonParser.parseString(jsonBody).getAsJsonObject();
+        boolean success = root.get("success").getAsBoolean();
+        if (success && root.has("data")) {
+            JsonArray dataArray = root.getAsJsonArray("data");
+            return parseCinemas(dataArray.toString());
+        }
+        return null;
+    }
+
+    static List<Cinema> parseCinemas(String json) {
+        JsonArray arr = JsonParser.parseString(json).getAsJsonArray();
+        List<Cinema> cinemas = new ArrayList<>();
+
+        for (JsonElement el : arr) {
+            JsonObject obj = el.getAsJsonObject();
+
+            Cinema cinema = new Cinema();
+            cinema.setId(obj.get("id").getAsString());
+            cinema.setName(obj.get("name").getAsString());
+            cinema.setAddress(obj.get("address").getAsString());
+            cinema.setCity(obj.get("city").getAsString());
+            if (!obj.get("logoUrl").isJsonNull()) {
+                cinema.setLogoUrl(obj.get("logoUrl").getAsString());
+            }
+
+            // Parse screens
+            JsonArray screensArray = obj.getAsJsonArray("screens");
+            List<Screen> screens = new ArrayList<>();
+            for (JsonElement sEl : screensArray) {
+                JsonObject sObj = sEl.getAsJsonObject();
+
+                Screen screen = new Screen();
+                screen.setId(sObj.get("id").getAsString());
+                screen.setName(sObj.get("name").getAsString());
+                screen.setCinemaId(sObj.get("cinemaId").getAsString());
+                if (sObj.has("totalSeats")) {
+                    screen.setTotalSeats(sObj.get("totalSeats").getAsInt());
+                }
+
+                // Parse seatLayout
+                JsonObject layoutObj = sObj.getAsJsonObject("seatLayout");
+                SeatLayout seatLayout = new SeatLayout();
+                seatLayout.setRows(layoutObj.get("rowCount").getAsInt());
+                seatLayout.setColumns(layoutObj.get("columnCount").getAsInt());
+
+                JsonArray seatsArray = layoutObj.getAsJsonArray("seats"); // ma trận 2D
+                List<List<Seat>> seatMatrix = new ArrayList<>();
+
+                for (JsonElement rowEl : seatsArray) {
+                    JsonArray rowArray = rowEl.getAsJsonArray();
+                    List<Seat> row = new ArrayList<>();
+                    for (JsonElement seatEl : rowArray) {
+                        if (seatEl.isJsonNull()) {
+                            row.add(null); // ghế trống (lối đi)
+                            continue;
+                        }
+                        JsonObject seatObj = seatEl.getAsJsonObject();
+
+                        Seat seat = new Seat();
+                        seat.setSeatNumber(seatObj.get("seatNumber").getAsString());
+                        seat.setSeatType(SeatType.valueOf(seatObj.get("seatType").getAsString()));
+                        seat.setPrice(seatObj.get("price").getAsDouble());
+                        seat.setRowIndex(seatObj.get("rowIndex").getAsInt());
+                        seat.setColIndex(seatObj.get("colIndex").getAsInt());
+                        seat.setStatus(SeatStatus.AVAILABLE); // API này không trả status, mặc định available
+
+                        row.add(seat);
+                    }
+                    seatMatrix.add(row);
+                }
+
+                seatLayout.setSeats(seatMatrix);
+                screen.setSeatLayout(seatLayout);
+
+                // ===== THÊM MỚI: Parse showtimes =====
+                if (sObj.has("showtimes")) {
+                    JsonArray showtimesArray = sObj.getAsJsonArray("showtimes");
+                    List<Showtime> showtimes = new ArrayList<>();
+                    
+                    for (JsonElement stEl : showtimesArray) {
+                        JsonObject stObj = stEl.getAsJsonObject();
+                        
+                        Showtime st = new Showtime();
+                        st.setId(stObj.get("id").getAsString());
+                        
+                        // Parse startTime và endTime (dạng "2025-12-21T14:00:00")
+                        if (stObj.has("startTime") && !stObj.get("startTime").isJsonNull()) {
+                            st.setStartTime(stObj.get("startTime").getAsString());
+                        }
+                        if (stObj.has("endTime") && !stObj.get("endTime").isJsonNull()) {
+                            st.setEndTime(stObj.get("endTime").getAsString());
+                        }
+                        
+                        st.setBasePrice(stObj.get("basePrice").getAsDouble());
+                        
+                        if (stObj.has("format") && !stObj.get("format").isJsonNull()) {
+                            st.setFormat(stObj.get("format").getAsString());
+                        }
+                        
+                        showtimes.add(st);
+                    }
+                    
+                    screen.setShowtimes(showtimes);
+                }
+                // ===== KẾT THÚC PARSE SHOWTIMES =====
+
+                screens.add(screen);
+            }
+
+            cinema.setScreens(screens);
+            cinemas.add(cinema);
+        }
+
+        return cinemas;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cinema.utils.adapters;
+
+import com.cinema.models.Showtime;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse thời gian theo hai đường đang dùng trong client:
+ * - LocalDateTimeAdapter.read: mảng JSON trộn ISO có Z và định dạng MySQL
+ * - Showtime.setStartTime(String): ISO 8601 có Z, đổi sang giờ Việt Nam
+ *
+ * Kết quả tính cho một giá trị (OperationsPerInvocation = VALUES).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeParseBenchmark {
+
+    private static final int VALUES = 256;
+
+    private final LocalDateTimeAdapter adapter = new LocalDateTimeAdapter();
+    private final Showtime showtime = new Showtime();
+    private String[] isoValues;
+    private String jsonArray;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        isoValues = new String[VALUES];
+        StringBuilder json = new StringBuilder("[");
+        LocalDateTime base = LocalDateTime.of(2025, 12, 21, 2, 0);
+        for (int i = 0; i < VALUES; i++) {
+            LocalDateTime value = base.plusMinutes(37L * i);
+            isoValues[i] = value + ":00.000Z";
+            if (i > 0) {
+                json.append(',');
+            }
+            // 3/4 giá trị ISO có Z (response của server), 1/4 dạng MySQL
+            String text = i % 4 == 3 ? value.toString().replace('T', ' ') + ":00" : isoValues[i];
+            json.append('"').append(text).append('"');
+        }
+        jsonArray = json.append(']').toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void adapterRead(Blackhole bh) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(jsonArray))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                bh.consume(adapter.read(reader));
+            }
+            reader.endArray();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void showtimeSetStartTime(Blackhole bh) {
+        for (String value : isoValues) {
+            showtime.setStartTime(value);
+            bh.consume(showtime.getStartTime());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.cinema;
 
+import com.cinema.utils.diagnostics.DiagnosticsOverlay;
+import com.cinema.utils.diagnostics.FxStallWatchdog;
+import com.cinema.utils.metrics.MetricsReporter;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,6 +14,8 @@ public class Main extends Application {
 
     @Override
     public void start(Stage primaryStage) {
+        MetricsReporter.startDefault();
+        FxStallWatchdog.getInstance().start();
         try {
             // Load FXML file
             // FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/customer/customer-home.fxml"));
@@ -32,6 +37,7 @@ public class Main extends Application {
             // Setup stage
             primaryStage.setTitle("Cinema Pro - Hệ thống đặt vé");
             primaryStage.setScene(scene);
+            DiagnosticsOverlay.install(primaryStage); // Ctrl+Shift+D
             primaryStage.setMaximized(true);
             // FULL MÀN HÌNH + KHÔNG CHO RESIZE + KHÔNG CÓ VIỀN (đẹp như app thật)
             // primaryStage.setFullScreen(true); // Full màn hình
@@ -48,6 +54,11 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        MetricsReporter.flushDefault();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
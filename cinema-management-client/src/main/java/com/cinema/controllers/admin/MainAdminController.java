@@ -1,7 +1,7 @@
 package com.cinema.controllers.admin;
 
+import com.cinema.utils.ViewRegistry;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -11,17 +11,36 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.List;
 
 public class MainAdminController {
 
+    // Partial + modal parse sẵn ở thread nền → bấm sidebar / mở modal chỉ là gắn lại view đã có
+    private static final List<String> PRELOADED_VIEWS = List.of(
+            "/views/admin/partials/dashboard-content.fxml",
+            "/views/admin/partials/movie/movie-list-content.fxml",
+            "/views/admin/partials/cinema/cinema-list-content.fxml",
+            "/views/admin/partials/schedule/schedule-calendar-content.fxml",
+            "/views/admin/partials/report/report-revenue-content.fxml",
+            "/views/admin/partials/booking/booking-list-content.fxml",
+            "/views/admin/partials/fnb/fnb-menu-content.fxml",
+            "/views/admin/partials/movie/movie-form-content.fxml",
+            "/views/admin/partials/cinema/cinema-form-content.fxml",
+            "/views/admin/partials/fnb/fnb-form-content.fxml");
+
     @FXML
     private AnchorPane contentArea;
 
+    @FXML
+    private void initialize() {
+        ViewRegistry.getInstance().preload(PRELOADED_VIEWS);
+    }
+
     // ====================== LOAD NỘI DUNG CHÍNH - ĐÃ SỬA ======================
     private void loadContent(String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent content = loader.load(); // để FXML tự load controller
+            // View đã có thì chỉ gắn lại, controller tự nạp lại dữ liệu trong resetView()
+            Parent content = ViewRegistry.getInstance().acquire(fxmlPath).getRoot();
 
             contentArea.getChildren().setAll(content);
 
@@ -96,7 +115,7 @@ public class MainAdminController {
     // ====================== HÀM MỞ MODAL CHUNG ======================
     private void openModal(String fxmlPath, String title, double width, double height) {
         try {
-            Parent modalRoot = FXMLLoader.load(getClass().getResource(fxmlPath));
+            Parent modalRoot = ViewRegistry.getInstance().acquire(fxmlPath).getRoot();
 
             StackPane overlay = new StackPane(modalRoot);
             overlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);");
@@ -0,0 +1,151 @@
+package com.cinema.controllers.admin.booking;
+
+import com.cinema.models.BookingListItem;
+import com.cinema.utils.admin.BookingApi;
+import com.cinema.utils.export.CsvTableWriter;
+import com.cinema.utils.export.TableWriter;
+import com.cinema.utils.export.XlsxTableWriter;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Xuất danh sách đặt vé ra CSV / XLSX trên thread nền.
+ *
+ * Đọc lần lượt từng trang keyset (PAGE_SIZE dòng) và ghi ngay ra file, nên bộ nhớ
+ * không phụ thuộc tổng số đơn. Ghi vào file tạm cùng thư mục, xong mới đổi tên
+ * thành file đích - hủy hoặc lỗi giữa chừng không để lại file dở dang.
+ *
+ * Giá trị trả về: số dòng đã ghi.
+ */
+public class BookingExportTask extends Task<Long> {
+
+    public enum Format {
+        CSV("csv"),
+        XLSX("xlsx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+
+        /** Theo đuôi file, mặc định XLSX */
+        public static Format fromFileName(String fileName) {
+            return fileName.toLowerCase().endsWith(".csv") ? CSV : XLSX;
+        }
+    }
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String[] COLUMNS = {
+        "Mã đặt vé", "Thời gian đặt", "Khách hàng", "Số điện thoại", "Phim", "Rạp", "Phòng",
+        "Suất chiếu", "Ghế", "Tiền vé", "Tiền combo", "Tổng tiền", "Trạng thái"
+    };
+
+    private final BookingApi bookingApi;
+    private final BookingApi.BookingQuery query;
+    private final Path target;
+    private final Format format;
+
+    /**
+     * @param query bộ lọc / sắp xếp; task dùng riêng (đổi limit), không chia sẻ với màn hình
+     */
+    public BookingExportTask(BookingApi bookingApi, BookingApi.BookingQuery query, Path target, Format format) {
+        this.bookingApi = bookingApi;
+        this.query = query;
+        this.target = target;
+        this.format = format;
+        query.setLimit(PAGE_SIZE);
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "." + target.getFileName(), ".part");
+        long written = 0;
+
+        try {
+            try (TableWriter writer = openWriter(temp)) {
+                writer.writeHeader(COLUMNS);
+
+                updateMessage("Đang tải dữ liệu...");
+                BookingApi.BookingPage page = await(bookingApi.queryBookings(query, null, false, true));
+                long total = page.getTotal() != null ? page.getTotal() : -1;
+
+                while (true) {
+                    for (BookingListItem item : page.getItems()) {
+                        writer.writeRow(toRow(item));
+                        written++;
+                    }
+                    updateProgress(written, Math.max(total, written));
+                    updateMessage("Đã xuất " + written + (total >= 0 ? "/" + total : "") + " đơn");
+
+                    if (!page.hasNext() || isCancelled()) {
+                        break;
+                    }
+                    page = await(bookingApi.queryBookings(query, page.getNextCursor(), false, false));
+                }
+            }
+
+            if (isCancelled()) {
+                return written;
+            }
+            moveIntoPlace(temp);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private TableWriter openWriter(Path file) throws IOException {
+        return format == Format.CSV ? new CsvTableWriter(file) : new XlsxTableWriter(file, "Đặt vé");
+    }
+
+    private Object[] toRow(BookingListItem item) {
+        return new Object[] {
+            item.getId(),
+            item.getBookingTime(),
+            item.getCustomerName(),
+            item.getPhoneNumber(),
+            item.getMovieTitle(),
+            item.getCinemaName(),
+            item.getScreenName(),
+            item.getStartTime(),
+            item.getSeats(),
+            item.getSeatTotalPrice(),
+            item.getComboTotalPrice(),
+            item.getTotalPrice(),
+            item.getPaymentStatus() != null ? item.getPaymentStatus().getDisplayName() : null
+        };
+    }
+
+    private void moveIntoPlace(Path temp) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Chờ trang tiếp theo; cancel() ngắt thread đang chờ thì hủy luôn request
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+}
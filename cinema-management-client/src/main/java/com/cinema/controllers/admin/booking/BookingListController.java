@@ -1,5 +1,18 @@
 package com.cinema.controllers.admin.booking;
 
+import com.cinema.models.BookingListItem;
+import com.cinema.models.Cinema;
+import com.cinema.models.Movie;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.ReusableView;
+import com.cinema.utils.admin.BookingApi;
+import com.cinema.utils.admin.CinemaApi;
+import com.cinema.utils.admin.MovieApi;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -8,19 +21,24 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
+import javafx.util.Duration;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.text.NumberFormat;
 
-public class BookingListController implements Initializable {
+public class BookingListController implements Initializable, ReusableView {
     
     // Header
     @FXML private Label bookingCountLabel;
@@ -65,13 +83,35 @@ public class BookingListController implements Initializable {
     @FXML private Button lastPageBtn;
     @FXML private ComboBox<Integer> rowsPerPageCombo;
     
+    private static final String ALL = "Tất cả";
+    private static final DateTimeFormatter ROW_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm dd/MM/yy");
+    private static final DateTimeFormatter EXPORT_FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    
+    private final BookingApi bookingApi = new BookingApi();
+    private final CinemaApi cinemaApi = new CinemaApi();
+    private final MovieApi movieApi = new MovieApi();
+    
     private NumberFormat currencyFormat;
-    private ObservableList<BookingRow> allBookings;
-    private ObservableList<BookingRow> filteredBookings;
+    private PauseTransition searchDebounce;
     
-    private int currentPage = 1;
-    private int rowsPerPage = 20;
+    // Tên hiển thị trong combo → mọi id mang tên đó (hai chi nhánh cùng tên đều khớp, như khi lọc theo tên)
+    private final Map<String, List<String>> cinemaIds = new HashMap<>();
+    private final Map<String, List<String>> movieIds = new HashMap<>();
+    
+    // Trạng thái phân trang theo cursor
+    private BookingApi.BookingQuery currentQuery = new BookingApi.BookingQuery();
+    private BookingApi.BookingPage currentPage;
+    private int pageNumber = 1;
     private int totalPages = 1;
+    private int totalBookings;
+    private int rowsPerPage = 20;
+    // Tăng mỗi lần tải trang / đổi bộ lọc: kết quả của lượt cũ về muộn thì bỏ qua
+    private int loadGeneration;
+    private int statsGeneration;
+    
+    // Trang kế tiếp được tải sẵn ngay sau khi hiển thị trang hiện tại
+    private String prefetchedCursor;
+    private CompletableFuture<BookingApi.BookingPage> prefetchedPage;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -80,39 +120,43 @@ public class BookingListController implements Initializable {
         setupFilters();
         setupTable();
         setupPagination();
-        
-        loadBookings();
-        updateStats();
+    }
+
+    @Override
+    public void resetView() {
+        loadFilterOptions();
+        applyFilters();
     }
     
     private void setupFilters() {
         // Status filter
-        ObservableList<String> statuses = FXCollections.observableArrayList(
-            "Tất cả", "Đã thanh toán", "Chờ thanh toán", "Hết hạn", "Đã hủy"
-        );
+        ObservableList<String> statuses = FXCollections.observableArrayList(ALL);
+        for (PaymentStatus status : new PaymentStatus[] {
+                PaymentStatus.PAID, PaymentStatus.PENDING, PaymentStatus.EXPIRED, PaymentStatus.CANCELLED }) {
+            statuses.add(status.getDisplayName());
+        }
         statusFilterCombo.setItems(statuses);
-        statusFilterCombo.setValue("Tất cả");
+        statusFilterCombo.setValue(ALL);
         statusFilterCombo.setOnAction(e -> applyFilters());
         
-        // Cinema filter
-        ObservableList<String> cinemas = FXCollections.observableArrayList(
-            "Tất cả", "CGV Vincom", "Lotte Cinema", "Galaxy Cinema", "BHD Star", "Platinum"
-        );
-        cinemaFilterCombo.setItems(cinemas);
-        cinemaFilterCombo.setValue("Tất cả");
+        // Cinema / movie filter - danh sách lấy từ server trong loadFilterOptions()
+        cinemaFilterCombo.setItems(FXCollections.observableArrayList(ALL));
+        cinemaFilterCombo.setValue(ALL);
         cinemaFilterCombo.setOnAction(e -> applyFilters());
         
-        // Movie filter
-        ObservableList<String> movies = FXCollections.observableArrayList(
-            "Tất cả", "Avatar 3", "Inception 2", "The Matrix 5", "Dune Part 3", "Spider-Man 4"
-        );
-        movieFilterCombo.setItems(movies);
-        movieFilterCombo.setValue("Tất cả");
+        movieFilterCombo.setItems(FXCollections.observableArrayList(ALL));
+        movieFilterCombo.setValue(ALL);
         movieFilterCombo.setOnAction(e -> applyFilters());
         
         // Date pickers
         fromDatePicker.setOnAction(e -> applyFilters());
         toDatePicker.setOnAction(e -> applyFilters());
+        
+        // Tìm kiếm chạy ở server → chờ người dùng ngừng gõ rồi mới gửi
+        searchDebounce = new PauseTransition(Duration.millis(400));
+        searchDebounce.setOnFinished(e -> applyFilters());
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebounce.playFromStart());
+        searchField.setOnAction(e -> applyFilters());
     }
     
     private void setupTable() {
@@ -128,6 +172,19 @@ public class BookingListController implements Initializable {
         totalPriceColumn.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
         
+        // Chỉ các cột server sắp xếp được mới cho click sort
+        for (TableColumn<BookingRow, ?> column : List.of(bookingIdColumn, movieColumn, cinemaColumn,
+                screenColumn, customerColumn, phoneColumn, seatsColumn, statusColumn)) {
+            column.setSortable(false);
+        }
+        bookingTable.setSortPolicy(table -> {
+            BookingApi.BookingQuery query = buildQuery();
+            if (query.getSort() != currentQuery.getSort() || query.isDescending() != currentQuery.isDescending()) {
+                applyFilters();
+            }
+            return true; // Không sort lại trang hiện tại ở client
+        });
+        
         // Status column with styled badges
         statusColumn.setCellFactory(column -> new TableCell<BookingRow, String>() {
             @Override
@@ -205,65 +262,54 @@ public class BookingListController implements Initializable {
         rowsPerPageCombo.setValue(20);
         rowsPerPageCombo.setOnAction(e -> {
             rowsPerPage = rowsPerPageCombo.getValue();
-            currentPage = 1;
-            updateTableView();
+            applyFilters();
         });
     }
     
-    private void loadBookings() {
-        // TODO: Replace with actual service call
-        allBookings = FXCollections.observableArrayList();
-        
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("HH:mm dd/MM/yy");
-        
-        // Mock data
-        allBookings.add(new BookingRow("BK001", 
-            LocalDateTime.now().minusHours(1).format(dtf),
-            "Avatar 3", "CGV Vincom", "P1", 
-            LocalDateTime.now().plusHours(2).format(dtf),
-            "Nguyễn Văn A", "0901234567", "A1-A4",
-            formatCurrency(560000), "Đã thanh toán"));
-            
-        allBookings.add(new BookingRow("BK002", 
-            LocalDateTime.now().minusHours(2).format(dtf),
-            "Inception 2", "Lotte Cinema", "P3", 
-            LocalDateTime.now().plusHours(3).format(dtf),
-            "Trần Thị B", "0907654321", "C5-C7",
-            formatCurrency(525000), "Chờ thanh toán"));
-            
-        allBookings.add(new BookingRow("BK003", 
-            LocalDateTime.now().minusHours(3).format(dtf),
-            "The Matrix 5", "Galaxy Cinema", "P2", 
-            LocalDateTime.now().plusHours(1).format(dtf),
-            "Lê Văn C", "0912345678", "E10",
-            formatCurrency(175000), "Đã thanh toán"));
-            
-        allBookings.add(new BookingRow("BK004", 
-            LocalDateTime.now().minusHours(5).format(dtf),
-            "Dune Part 3", "BHD Star", "P4", 
-            LocalDateTime.now().minusHours(1).format(dtf),
-            "Phạm Thị D", "0923456789", "B3-B4",
-            formatCurrency(400000), "Hết hạn"));
-            
-        allBookings.add(new BookingRow("BK005", 
-            LocalDateTime.now().minusDays(1).format(dtf),
-            "Spider-Man 4", "Platinum", "P1", 
-            LocalDateTime.now().minusHours(12).format(dtf),
-            "Hoàng Văn E", "0934567890", "D8-D9",
-            formatCurrency(380000), "Đã hủy"));
+    /**
+     * Nạp danh sách rạp / phim cho combo lọc, giữ nguyên lựa chọn hiện tại nếu còn
+     */
+    private void loadFilterOptions() {
+        cinemaApi.getAllCinemas()
+            .thenAccept(cinemas -> Platform.runLater(() -> {
+                cinemaIds.clear();
+                for (Cinema cinema : cinemas) {
+                    cinemaIds.computeIfAbsent(cinema.getName(), name -> new ArrayList<>()).add(cinema.getId());
+                }
+                refillCombo(cinemaFilterCombo, cinemaIds.keySet());
+            }))
+            .exceptionally(ex -> {
+                System.err.println("⚠️ Không thể tải danh sách rạp: " + ex.getMessage());
+                return null;
+            });
         
-        // Add more mock data
-        for (int i = 6; i <= 50; i++) {
-            allBookings.add(new BookingRow("BK" + String.format("%03d", i), 
-                LocalDateTime.now().minusHours(i).format(dtf),
-                "Avatar 3", "CGV Vincom", "P" + (i % 5 + 1), 
-                LocalDateTime.now().plusHours(i % 24).format(dtf),
-                "Khách hàng " + i, "090123456" + (i % 10), "A" + (i % 10),
-                formatCurrency(150000 + i * 10000), "Đã thanh toán"));
-        }
+        movieApi.getAllMovies()
+            .thenAccept(movies -> Platform.runLater(() -> {
+                movieIds.clear();
+                for (Movie movie : movies) {
+                    movieIds.computeIfAbsent(movie.getTitle(), title -> new ArrayList<>()).add(movie.getId());
+                }
+                refillCombo(movieFilterCombo, movieIds.keySet());
+            }))
+            .exceptionally(ex -> {
+                System.err.println("⚠️ Không thể tải danh sách phim: " + ex.getMessage());
+                return null;
+            });
+    }
+    
+    private void refillCombo(ComboBox<String> combo, Collection<String> names) {
+        String selected = combo.getValue();
+        List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted);
         
-        filteredBookings = FXCollections.observableArrayList(allBookings);
-        updateTableView();
+        // Không để setItems/setValue kích hoạt tải lại danh sách
+        EventHandler<ActionEvent> onAction = combo.getOnAction();
+        combo.setOnAction(null);
+        ObservableList<String> items = FXCollections.observableArrayList(ALL);
+        items.addAll(sorted);
+        combo.setItems(items);
+        combo.setValue(selected != null && items.contains(selected) ? selected : ALL);
+        combo.setOnAction(onAction);
     }
     
     @FXML
@@ -274,152 +320,310 @@ public class BookingListController implements Initializable {
     @FXML
     private void handleClearFilters() {
         searchField.clear();
-        statusFilterCombo.setValue("Tất cả");
+        statusFilterCombo.setValue(ALL);
         fromDatePicker.setValue(null);
         toDatePicker.setValue(null);
-        cinemaFilterCombo.setValue("Tất cả");
-        movieFilterCombo.setValue("Tất cả");
+        cinemaFilterCombo.setValue(ALL);
+        movieFilterCombo.setValue(ALL);
         applyFilters();
     }
     
+    /**
+     * Đổi bộ lọc / sort / số dòng → về trang đầu, đếm lại tổng và thống kê
+     */
     private void applyFilters() {
-        filteredBookings.clear();
-        
-        String searchText = searchField.getText().toLowerCase();
-        String statusFilter = statusFilterCombo.getValue();
-        String cinemaFilter = cinemaFilterCombo.getValue();
-        String movieFilter = movieFilterCombo.getValue();
-        LocalDate fromDate = fromDatePicker.getValue();
-        LocalDate toDate = toDatePicker.getValue();
+        searchDebounce.stop();
+        currentQuery = buildQuery();
+        pageNumber = 1;
+        loadPage(null, false, true, 1);
+        loadStats();
+    }
+    
+    private BookingApi.BookingQuery buildQuery() {
+        BookingApi.BookingQuery query = new BookingApi.BookingQuery();
+        query.setSearch(searchField.getText());
+        query.setStatus(statusFromDisplayName(statusFilterCombo.getValue()));
+        query.setCinemaIds(cinemaIds.getOrDefault(cinemaFilterCombo.getValue(), List.of()));
+        query.setMovieIds(movieIds.getOrDefault(movieFilterCombo.getValue(), List.of()));
+        query.setFromDate(fromDatePicker.getValue());
+        query.setToDate(toDatePicker.getValue());
+        query.setLimit(rowsPerPage);
         
-        for (BookingRow booking : allBookings) {
-            boolean matches = true;
-            
-            // Search filter
-            if (!searchText.isEmpty()) {
-                matches = booking.getBookingId().toLowerCase().contains(searchText) ||
-                         booking.getCustomerName().toLowerCase().contains(searchText) ||
-                         booking.getPhone().contains(searchText);
+        // Cột đang sort trên bảng → khóa sort của server (mặc định: mới đặt trước)
+        if (!bookingTable.getSortOrder().isEmpty()) {
+            TableColumn<BookingRow, ?> column = bookingTable.getSortOrder().get(0);
+            BookingApi.SortKey sortKey = null;
+            if (column == bookingTimeColumn) {
+                sortKey = BookingApi.SortKey.BOOKING_TIME;
+            } else if (column == totalPriceColumn) {
+                sortKey = BookingApi.SortKey.TOTAL_PRICE;
+            } else if (column == showtimeColumn) {
+                sortKey = BookingApi.SortKey.SHOWTIME;
             }
-            
-            // Status filter
-            if (matches && !statusFilter.equals("Tất cả")) {
-                matches = booking.getStatus().equals(statusFilter);
-            }
-            
-            // Cinema filter
-            if (matches && !cinemaFilter.equals("Tất cả")) {
-                matches = booking.getCinemaName().equals(cinemaFilter);
+            if (sortKey != null) {
+                query.setSort(sortKey);
+                query.setDescending(column.getSortType() == TableColumn.SortType.DESCENDING);
             }
-            
-            // Movie filter
-            if (matches && !movieFilter.equals("Tất cả")) {
-                matches = booking.getMovieTitle().equals(movieFilter);
-            }
-            
-            // Date filters would need actual LocalDateTime comparison
-            // TODO: Implement date filtering
-            
-            if (matches) {
-                filteredBookings.add(booking);
+        }
+        return query;
+    }
+    
+    private static PaymentStatus statusFromDisplayName(String displayName) {
+        for (PaymentStatus status : PaymentStatus.values()) {
+            if (status.getDisplayName().equals(displayName)) {
+                return status;
             }
         }
-        
-        currentPage = 1;
-        updateTableView();
-        updateStats();
+        return null; // "Tất cả"
     }
     
-    private void updateTableView() {
-        totalPages = (int) Math.ceil((double) filteredBookings.size() / rowsPerPage);
-        if (totalPages == 0) totalPages = 1;
-        
-        int fromIndex = (currentPage - 1) * rowsPerPage;
-        int toIndex = Math.min(fromIndex + rowsPerPage, filteredBookings.size());
+    /**
+     * Tải một trang từ server và hiển thị
+     *
+     * @param cursor     null = trang đầu (hoặc trang cuối nếu backwards)
+     * @param withTotal  đếm lại tổng số đơn (chỉ khi đổi bộ lọc)
+     * @param targetPage số trang hiển thị trên nhãn phân trang
+     */
+    private void loadPage(String cursor, boolean backwards, boolean withTotal, int targetPage) {
+        int generation = ++loadGeneration;
+        BookingApi.BookingQuery query = currentQuery;
         
-        ObservableList<BookingRow> pageData = FXCollections.observableArrayList(
-            filteredBookings.subList(fromIndex, toIndex)
-        );
+        CompletableFuture<BookingApi.BookingPage> pageFuture;
+        if (!backwards && cursor != null && cursor.equals(prefetchedCursor) && prefetchedPage != null) {
+            // Trang kế tiếp đã tải sẵn; nếu lượt tải sẵn lỗi thì gọi lại
+            pageFuture = prefetchedPage.exceptionallyCompose(
+                ex -> bookingApi.queryBookings(query, cursor, false, false));
+        } else {
+            pageFuture = bookingApi.queryBookings(query, cursor, backwards, withTotal);
+        }
+        prefetchedCursor = null;
+        prefetchedPage = null;
         
-        bookingTable.setItems(pageData);
-        pageInfoLabel.setText(String.format("Trang %d / %d", currentPage, totalPages));
-        bookingCountLabel.setText(filteredBookings.size() + " đơn hàng");
+        setPaginationDisabled(true);
+        if (currentPage == null) {
+            bookingTable.setPlaceholder(new Label("Đang tải dữ liệu..."));
+        }
         
-        // Update button states
-        firstPageBtn.setDisable(currentPage == 1);
-        prevPageBtn.setDisable(currentPage == 1);
-        nextPageBtn.setDisable(currentPage == totalPages);
-        lastPageBtn.setDisable(currentPage == totalPages);
+        pageFuture
+            .thenAccept(page -> Platform.runLater(() -> {
+                if (generation != loadGeneration) {
+                    return; // Đã có lượt tải mới hơn
+                }
+                if (page.getTotal() != null) {
+                    totalBookings = page.getTotal();
+                    totalPages = Math.max(1, (int) Math.ceil((double) totalBookings / rowsPerPage));
+                    bookingCountLabel.setText(totalBookings + " đơn hàng");
+                }
+                showPage(page, backwards, targetPage);
+                prefetchNext(page);
+            }))
+            .exceptionally(ex -> {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                Platform.runLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    if (cause instanceof BookingApi.InvalidCursorException) {
+                        applyFilters(); // Cursor cũ (dữ liệu đã đổi) → tải lại từ đầu
+                        return;
+                    }
+                    Label errorLabel = new Label("Lỗi khi tải dữ liệu");
+                    errorLabel.setStyle("-fx-text-fill: red;");
+                    bookingTable.setPlaceholder(errorLabel);
+                    updatePaginationControls();
+                    showError("Không thể tải danh sách đặt vé: " + cause.getMessage());
+                });
+                return null;
+            });
     }
     
-    private void updateStats() {
-        int total = filteredBookings.size();
-        int paid = 0;
-        int pending = 0;
-        int cancelled = 0;
-        double revenue = 0;
+    private void showPage(BookingApi.BookingPage page, boolean backwards, int targetPage) {
+        currentPage = page;
         
-        for (BookingRow booking : filteredBookings) {
-            String status = booking.getStatus();
-            if (status.contains("Đã thanh toán")) {
-                paid++;
-                revenue += parsePrice(booking.getTotalPrice());
-            } else if (status.contains("Chờ")) {
-                pending++;
-            } else if (status.contains("Đã hủy")) {
-                cancelled++;
-            }
+        // Trang cuối được lấy ngược từ cuối danh sách nên biên trang có thể lệch
+        // so với đếm xuôi → kẹp số trang theo việc còn trang trước / sau hay không
+        if (!page.hasPrev()) {
+            pageNumber = 1;
+        } else if (!page.hasNext()) {
+            pageNumber = totalPages;
+        } else {
+            pageNumber = Math.max(2, Math.min(targetPage, totalPages - 1));
         }
         
-        totalBookingsLabel.setText(String.valueOf(total));
-        totalRevenueLabel.setText(formatCurrency(revenue));
-        paidBookingsLabel.setText(String.valueOf(paid));
-        pendingBookingsLabel.setText(String.valueOf(pending));
-        cancelledBookingsLabel.setText(String.valueOf(cancelled));
+        ObservableList<BookingRow> rows = FXCollections.observableArrayList();
+        for (BookingListItem item : page.getItems()) {
+            rows.add(toRow(item));
+        }
+        bookingTable.setItems(rows);
+        bookingTable.setPlaceholder(new Label("Không có đơn hàng nào"));
+        updatePaginationControls();
+    }
+    
+    private void prefetchNext(BookingApi.BookingPage page) {
+        if (page.hasNext()) {
+            prefetchedCursor = page.getNextCursor();
+            prefetchedPage = bookingApi.queryBookings(currentQuery, prefetchedCursor, false, false);
+        }
+    }
+    
+    private void loadStats() {
+        int generation = ++statsGeneration;
+        bookingApi.getBookingStats(currentQuery)
+            .thenAccept(stats -> Platform.runLater(() -> {
+                if (generation != statsGeneration) {
+                    return;
+                }
+                totalBookingsLabel.setText(String.valueOf(stats.getTotal()));
+                totalRevenueLabel.setText(formatCurrency(stats.getRevenue()));
+                paidBookingsLabel.setText(String.valueOf(stats.getPaid()));
+                pendingBookingsLabel.setText(String.valueOf(stats.getPending()));
+                cancelledBookingsLabel.setText(String.valueOf(stats.getCancelled()));
+            }))
+            .exceptionally(ex -> {
+                System.err.println("⚠️ Không thể tải thống kê đặt vé: " + ex.getMessage());
+                return null;
+            });
+    }
+    
+    private BookingRow toRow(BookingListItem item) {
+        PaymentStatus status = item.getPaymentStatus();
+        return new BookingRow(
+            item.getId(),
+            item.getBookingTime() != null ? item.getBookingTime().format(ROW_TIME_FORMAT) : "",
+            item.getMovieTitle(),
+            item.getCinemaName(),
+            item.getScreenName(),
+            item.getStartTime() != null ? item.getStartTime().format(ROW_TIME_FORMAT) : "",
+            item.getCustomerName() != null ? item.getCustomerName() : "",
+            item.getPhoneNumber() != null ? item.getPhoneNumber() : "",
+            item.getSeats() != null ? item.getSeats() : "",
+            formatCurrency(item.getTotalPrice()),
+            status != null ? status.getDisplayName() : "");
+    }
+    
+    private void updatePaginationControls() {
+        boolean hasPrev = currentPage != null && currentPage.hasPrev();
+        boolean hasNext = currentPage != null && currentPage.hasNext();
+        
+        pageInfoLabel.setText(String.format("Trang %d / %d", pageNumber, totalPages));
+        firstPageBtn.setDisable(!hasPrev);
+        prevPageBtn.setDisable(!hasPrev);
+        nextPageBtn.setDisable(!hasNext);
+        lastPageBtn.setDisable(!hasNext);
+    }
+    
+    private void setPaginationDisabled(boolean disabled) {
+        firstPageBtn.setDisable(disabled);
+        prevPageBtn.setDisable(disabled);
+        nextPageBtn.setDisable(disabled);
+        lastPageBtn.setDisable(disabled);
     }
     
     @FXML
     private void handleRefresh() {
-        loadBookings();
-        updateStats();
+        loadFilterOptions();
+        applyFilters();
     }
     
     @FXML
     private void handleExport() {
-        // TODO: Implement Excel export
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Xuất Excel");
-        alert.setHeaderText(null);
-        alert.setContentText("Chức năng xuất Excel đang được phát triển");
-        alert.showAndWait();
+        FileChooser.ExtensionFilter xlsxFilter = new FileChooser.ExtensionFilter("Excel (*.xlsx)", "*.xlsx");
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv");
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Xuất danh sách đặt vé");
+        fileChooser.getExtensionFilters().addAll(xlsxFilter, csvFilter);
+        fileChooser.setInitialFileName("dat-ve-" + LocalDate.now().format(EXPORT_FILE_DATE_FORMAT) + ".xlsx");
+        
+        File file = fileChooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        BookingExportTask.Format format = fileChooser.getSelectedExtensionFilter() == csvFilter
+            ? BookingExportTask.Format.CSV
+            : BookingExportTask.Format.fromFileName(file.getName());
+        Path target = file.toPath();
+        if (!file.getName().toLowerCase().endsWith("." + format.getExtension())) {
+            target = target.resolveSibling(file.getName() + "." + format.getExtension());
+        }
+        
+        // Xuất theo bộ lọc / sắp xếp đang áp dụng trên màn hình
+        BookingExportTask task = new BookingExportTask(bookingApi, buildQuery(), target, format);
+        showExportProgress(task, target);
+        
+        Thread thread = new Thread(task, "cinema-booking-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void showExportProgress(BookingExportTask task, Path target) {
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(360);
+        progressBar.progressProperty().bind(task.progressProperty());
+        Label messageLabel = new Label();
+        messageLabel.textProperty().bind(task.messageProperty());
+        
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.initOwner(exportButton.getScene().getWindow());
+        dialog.setTitle("Xuất danh sách đặt vé");
+        dialog.setHeaderText("Đang xuất ra " + target.getFileName());
+        dialog.getDialogPane().setContent(new VBox(10, progressBar, messageLabel));
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        // Bấm Hủy / đóng hộp thoại khi đang chạy → hủy task, file tạm bị xóa
+        dialog.setOnHidden(e -> {
+            if (task.isRunning()) {
+                task.cancel();
+            }
+        });
+        
+        exportButton.setDisable(true);
+        task.setOnSucceeded(e -> {
+            exportButton.setDisable(false);
+            dialog.close();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Xuất file");
+            alert.setHeaderText(null);
+            alert.setContentText("Đã xuất " + task.getValue() + " đơn đặt vé ra " + target);
+            alert.show();
+        });
+        task.setOnFailed(e -> {
+            exportButton.setDisable(false);
+            dialog.close();
+            task.getException().printStackTrace();
+            showError("Không thể xuất file: " + task.getException().getMessage());
+        });
+        task.setOnCancelled(e -> {
+            exportButton.setDisable(false);
+            dialog.close();
+        });
+        
+        dialog.show();
     }
     
     @FXML
     private void handleFirstPage() {
-        currentPage = 1;
-        updateTableView();
+        loadPage(null, false, false, 1);
     }
     
     @FXML
     private void handlePrevPage() {
-        if (currentPage > 1) {
-            currentPage--;
-            updateTableView();
+        if (currentPage != null && currentPage.hasPrev()) {
+            loadPage(currentPage.getPrevCursor(), true, false, pageNumber - 1);
         }
     }
     
     @FXML
     private void handleNextPage() {
-        if (currentPage < totalPages) {
-            currentPage++;
-            updateTableView();
+        if (currentPage != null && currentPage.hasNext()) {
+            loadPage(currentPage.getNextCursor(), false, false, pageNumber + 1);
         }
     }
     
     @FXML
     private void handleLastPage() {
-        currentPage = totalPages;
-        updateTableView();
+        // Không có cursor + đi lùi = các dòng cuối cùng của danh sách
+        loadPage(null, true, false, totalPages);
     }
     
     private void openBookingDetail(BookingRow booking) {
@@ -453,17 +657,16 @@ public class BookingListController implements Initializable {
         alert.showAndWait();
     }
     
-    private String formatCurrency(double amount) {
-        return currencyFormat.format(amount) + "đ";
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Lỗi");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
     }
     
-    private double parsePrice(String priceString) {
-        String numberOnly = priceString.replace("đ", "").replace(".", "").replace(",", "").trim();
-        try {
-            return Double.parseDouble(numberOnly);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+    private String formatCurrency(double amount) {
+        return currencyFormat.format(amount) + "đ";
     }
     
     // Inner class for table row
@@ -17,8 +17,9 @@ import java.util.ResourceBundle;
 
 import com.cinema.models.Cinema;
 import com.cinema.utils.admin.CinemaApi;
+import com.cinema.utils.ReusableView;
 
-public class CinemaFormController implements Initializable {
+public class CinemaFormController implements Initializable, ReusableView {
 
     @FXML private Label formTitleLabel;
     @FXML private TextField nameField;
@@ -56,6 +57,21 @@ public class CinemaFormController implements Initializable {
         });
     }
 
+    // Modal được dùng lại → trả form về trạng thái "thêm mới"
+    @Override
+    public void resetView() {
+        cinema = null;
+        onSaveCallback = null;
+        formTitleLabel.setText("THÊM RẠP MỚI");
+        nameField.clear();
+        cityCombo.setValue(null);
+        addressField.clear();
+        logoUrlField.clear();
+        logoPreview.setImage(null);
+        saveButton.setDisable(false);
+        hideValidation();
+    }
+
     private void loadImageFromUrl(String url) {
         new Thread(() -> {
             try {
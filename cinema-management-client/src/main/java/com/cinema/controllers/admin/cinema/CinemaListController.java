@@ -6,6 +6,7 @@ import com.cinema.models.Seat;
 import com.cinema.models.SeatLayout;
 import com.cinema.models.SeatType;
 import com.cinema.utils.admin.CinemaApi;
+import com.cinema.utils.ReusableView;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -30,7 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 
-public class CinemaListController implements Initializable {
+public class CinemaListController implements Initializable, ReusableView {
 
     // Table fields
     @FXML private TableView<Cinema> cinemaTable;
@@ -76,13 +77,17 @@ public class CinemaListController implements Initializable {
         setupSeatMapButtons();
         setupFilters();
         setupCinemaSelector();
-        loadCinemaData();
         // setupTableColumns();
         // loadCinemaData();
         // setupActionButtons();
         // setupSeatMapButtons();
     }
 
+    @Override
+    public void resetView() {
+        loadCinemaData();
+    }
+
     // ====================== TABLE SETUP ======================
     private void setupTableColumns() {
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
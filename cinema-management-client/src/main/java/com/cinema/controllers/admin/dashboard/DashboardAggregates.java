@@ -0,0 +1,359 @@
+package com.cinema.controllers.admin.dashboard;
+
+import com.cinema.models.DashboardFacts;
+import com.cinema.models.DashboardFacts.BookingFact;
+import com.cinema.models.PaymentStatus;
+import com.cinema.models.SeatType;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Số liệu của tất cả widget trang tổng quan, tính trong MỘT lượt duyệt qua các đơn đặt vé.
+ *
+ * Mỗi đơn được cộng vào (apply(fact, +1)) hoặc trừ ra (apply(fact, -1)) các bộ đếm,
+ * nên cùng một đường code dùng cho lần tải đầy đủ lẫn cập nhật từng đơn.
+ *
+ * Không thread-safe: build() chạy ở thread nền, sau đó object chỉ được dùng trên FX thread.
+ *
+ * Quy ước: doanh thu, số vé, loại ghế, combo chỉ tính đơn PAID;
+ * biểu đồ trạng thái thanh toán tính mọi đơn trong 7 ngày.
+ */
+public class DashboardAggregates {
+
+    /** Khoảng thời gian của biểu đồ top phim */
+    public enum Period {
+        TODAY("Hôm nay"),
+        LAST_7_DAYS("7 ngày qua"),
+        LAST_30_DAYS("30 ngày qua"),
+        THIS_MONTH("Tháng này");
+
+        private final String displayName;
+
+        Period(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public static Period fromDisplayName(String displayName) {
+            for (Period period : values()) {
+                if (period.displayName.equals(displayName)) {
+                    return period;
+                }
+            }
+            return LAST_7_DAYS;
+        }
+    }
+
+    public static final int CHART_DAYS = 7;
+    // Biểu đồ theo giờ: 8 cột 2 tiếng (8h, 10h, ... 22h), ngoài khoảng đó dồn vào cột đầu / cuối
+    public static final int FIRST_HOUR = 8;
+    public static final int HOUR_BUCKETS = 8;
+
+    private static final String[] WEEKDAY_LABELS = { "T2", "T3", "T4", "T5", "T6", "T7", "CN" };
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final DashboardFacts facts;
+    private final Map<String, BookingFact> bookingsById = new HashMap<>();
+    private final LocalDate today;
+    private final LocalDate windowStart;
+    // dayStarts[i] = 0h của ngày windowStart + i (epoch millis), phần tử cuối = 0h ngày mai
+    private final long[] dayStarts;
+    private final int todayIndex;
+
+    // Bộ đếm - xem apply()
+    private final double[] revenueByDay = new double[CHART_DAYS]; // [0] = 6 ngày trước, [6] = hôm nay
+    private double todayRevenue;
+    private double yesterdayRevenue;
+    private int todayTickets;
+    private int yesterdayTickets;
+    private int todayBookings;
+    private final int[] ticketsByHour = new int[HOUR_BUCKETS];
+    private final EnumMap<PaymentStatus, Integer> statusCounts = new EnumMap<>(PaymentStatus.class);
+    private final Map<String, Integer> ticketsBySeatType = new HashMap<>();
+    private final Map<String, Double> revenueByCinema = new HashMap<>();
+    private final EnumMap<Period, Map<String, Integer>> movieTickets = new EnumMap<>(Period.class);
+    private final Map<String, Integer> comboQuantities = new HashMap<>();
+    private double comboRevenue;
+
+    private DashboardAggregates(DashboardFacts facts, LocalDate today, ZoneId zone) {
+        this.facts = facts;
+        this.today = today;
+        this.windowStart = facts.getFrom() != null ? facts.getFrom() : windowStart(today);
+
+        int days = (int) (today.toEpochDay() - windowStart.toEpochDay()) + 1;
+        this.dayStarts = new long[days + 1];
+        for (int i = 0; i <= days; i++) {
+            dayStarts[i] = windowStart.plusDays(i).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        this.todayIndex = days - 1;
+
+        for (PaymentStatus status : PaymentStatus.values()) {
+            statusCounts.put(status, 0);
+        }
+        for (Period period : Period.values()) {
+            movieTickets.put(period, new HashMap<>());
+        }
+    }
+
+    /**
+     * Ngày đầu của cửa sổ dữ liệu cần tải: đủ cho "30 ngày qua" lẫn "Tháng này"
+     */
+    public static LocalDate windowStart(LocalDate today) {
+        LocalDate last30 = today.minusDays(29);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        return last30.isBefore(monthStart) ? last30 : monthStart;
+    }
+
+    /**
+     * Tổng hợp toàn bộ dữ liệu - gọi ở thread nền
+     */
+    public static DashboardAggregates build(DashboardFacts facts, LocalDate today) {
+        DashboardAggregates aggregates = new DashboardAggregates(facts, today, ZoneId.systemDefault());
+        for (BookingFact fact : facts.getBookings()) {
+            aggregates.bookingsById.put(fact.getId(), fact);
+            aggregates.apply(fact, 1);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Thêm một đơn mới (sự kiện realtime)
+     *
+     * @return false nếu đơn đã có (sự kiện lặp / đã nằm trong lần tải đầy đủ) hoặc ngoài cửa sổ
+     */
+    public boolean addBooking(BookingFact fact) {
+        if (bookingsById.containsKey(fact.getId()) || !covers(fact.getBookingTime())) {
+            return false;
+        }
+        bookingsById.put(fact.getId(), fact);
+        facts.getBookings().add(fact);
+        apply(fact, 1);
+        return true;
+    }
+
+    /**
+     * Đổi trạng thái thanh toán của một đơn: trừ theo trạng thái cũ, cộng theo trạng thái mới
+     *
+     * @return false nếu không biết đơn này hoặc trạng thái không đổi
+     */
+    public boolean updateStatus(String bookingId, PaymentStatus status) {
+        BookingFact fact = bookingsById.get(bookingId);
+        if (fact == null || fact.getStatus() == status) {
+            return false;
+        }
+        apply(fact, -1);
+        fact.setStatus(status);
+        apply(fact, 1);
+        return true;
+    }
+
+    /**
+     * Cộng (sign = 1) hoặc trừ (sign = -1) một đơn vào các bộ đếm theo trạng thái hiện tại của nó
+     */
+    public void apply(BookingFact fact, int sign) {
+        int dayIndex = dayIndex(fact.getBookingTime());
+        if (dayIndex < 0) {
+            return; // Ngoài cửa sổ dữ liệu
+        }
+        int daysAgo = todayIndex - dayIndex;
+        boolean inWeek = daysAgo < CHART_DAYS;
+
+        if (daysAgo == 0) {
+            todayBookings += sign;
+        }
+        if (inWeek) {
+            statusCounts.merge(fact.getStatus(), sign, Integer::sum);
+        }
+
+        if (fact.getStatus() != PaymentStatus.PAID) {
+            return;
+        }
+
+        double revenue = fact.getTotalPrice() * sign;
+        int tickets = fact.getTicketCount() * sign;
+
+        if (daysAgo == 0) {
+            todayRevenue += revenue;
+            todayTickets += tickets;
+            int hour = (int) ((fact.getBookingTime() - dayStarts[dayIndex]) / HOUR_MILLIS);
+            ticketsByHour[hourBucket(hour)] += tickets;
+        } else if (daysAgo == 1) {
+            yesterdayRevenue += revenue;
+            yesterdayTickets += tickets;
+        }
+
+        if (inWeek) {
+            revenueByDay[CHART_DAYS - 1 - daysAgo] += revenue;
+            if (fact.getCinemaId() != null) {
+                revenueByCinema.merge(fact.getCinemaId(), revenue, Double::sum);
+            }
+            for (Map.Entry<String, Integer> seats : fact.getSeatsByType().entrySet()) {
+                ticketsBySeatType.merge(seats.getKey(), seats.getValue() * sign, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> combo : fact.getCombos().entrySet()) {
+                comboQuantities.merge(combo.getKey(), combo.getValue() * sign, Integer::sum);
+            }
+            comboRevenue += fact.getComboTotalPrice() * sign;
+        }
+
+        if (fact.getMovieId() != null && tickets != 0) {
+            LocalDate day = windowStart.plusDays(dayIndex);
+            for (Period period : Period.values()) {
+                if (contains(period, day, daysAgo)) {
+                    movieTickets.get(period).merge(fact.getMovieId(), tickets, Integer::sum);
+                }
+            }
+        }
+    }
+
+    /** Đơn có nằm trong cửa sổ dữ liệu hiện tại không (đơn mới sau nửa đêm thì không) */
+    public boolean covers(long bookingTime) {
+        return dayIndex(bookingTime) >= 0;
+    }
+
+    // Chỉ số ngày trong cửa sổ, -1 nếu nằm ngoài
+    private int dayIndex(long epochMillis) {
+        if (epochMillis < dayStarts[0] || epochMillis >= dayStarts[dayStarts.length - 1]) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(dayStarts, epochMillis);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private boolean contains(Period period, LocalDate day, int daysAgo) {
+        switch (period) {
+            case TODAY:
+                return daysAgo == 0;
+            case LAST_7_DAYS:
+                return daysAgo < 7;
+            case LAST_30_DAYS:
+                return daysAgo < 30;
+            case THIS_MONTH:
+            default:
+                return day.getYear() == today.getYear() && day.getMonth() == today.getMonth();
+        }
+    }
+
+    static int hourBucket(int hour) {
+        int bucket = (hour - FIRST_HOUR) / 2;
+        return Math.max(0, Math.min(HOUR_BUCKETS - 1, bucket));
+    }
+
+    // ==================== Kết quả cho từng widget ====================
+
+    public LocalDate getToday() { return today; }
+    public double getTodayRevenue() { return todayRevenue; }
+    public double getYesterdayRevenue() { return yesterdayRevenue; }
+    public int getTodayTickets() { return todayTickets; }
+    public int getYesterdayTickets() { return yesterdayTickets; }
+    public int getTodayBookings() { return todayBookings; }
+    public double getComboRevenue() { return comboRevenue; }
+    public DashboardFacts getFacts() { return facts; }
+
+    /** Nhãn thứ (T2..CN) của 7 ngày gần nhất, ngày cuối là hôm nay */
+    public List<String> getDayLabels() {
+        List<String> labels = new ArrayList<>(CHART_DAYS);
+        for (int i = CHART_DAYS - 1; i >= 0; i--) {
+            labels.add(WEEKDAY_LABELS[today.minusDays(i).getDayOfWeek().getValue() - 1]);
+        }
+        return labels;
+    }
+
+    public double[] getRevenueByDay() {
+        return revenueByDay.clone();
+    }
+
+    public static List<String> getHourLabels() {
+        List<String> labels = new ArrayList<>(HOUR_BUCKETS);
+        for (int i = 0; i < HOUR_BUCKETS; i++) {
+            labels.add((FIRST_HOUR + i * 2) + "h");
+        }
+        return labels;
+    }
+
+    public int[] getTicketsByHour() {
+        return ticketsByHour.clone();
+    }
+
+    public Map<PaymentStatus, Integer> getStatusCounts() {
+        return new EnumMap<>(statusCounts);
+    }
+
+    /** Số vé theo loại ghế (tên hiển thị), nhiều nhất trước */
+    public List<Map.Entry<String, Integer>> getTicketsBySeatType() {
+        Map<String, Integer> named = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : ticketsBySeatType.entrySet()) {
+            named.merge(seatTypeName(entry.getKey()), entry.getValue(), Integer::sum);
+        }
+        return ranked(named, Integer.MAX_VALUE);
+    }
+
+    public List<Map.Entry<String, Integer>> getTopMovies(Period period, int limit) {
+        return ranked(resolveNames(movieTickets.get(period), facts.getMovieTitles(), Integer::sum), limit);
+    }
+
+    public List<Map.Entry<String, Integer>> getTopCombos(int limit) {
+        return ranked(resolveNames(comboQuantities, facts.getComboNames(), Integer::sum), limit);
+    }
+
+    public List<Map.Entry<String, Double>> getRevenueByCinema() {
+        return ranked(resolveNames(revenueByCinema, facts.getCinemaNames(), Double::sum), Integer.MAX_VALUE);
+    }
+
+    /** Số phim theo trạng thái: NOW_SHOWING / COMING_SOON / ENDED */
+    public Map<String, Integer> getMovieStatusCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String status : facts.getMovieStatuses().values()) {
+            if (status != null) {
+                counts.merge(status, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static String seatTypeName(String seatType) {
+        try {
+            return SeatType.valueOf(seatType).getDisplayName();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return seatType != null ? seatType : "Khác";
+        }
+    }
+
+    // Nhiều id cùng tên hiển thị (hai rạp / combo trùng tên) → cộng dồn, không ghi đè
+    private static <V extends Number> Map<String, V> resolveNames(Map<String, V> byId, Map<String, String> names,
+                                                                  BinaryOperator<V> sum) {
+        Map<String, V> named = new HashMap<>();
+        for (Map.Entry<String, V> entry : byId.entrySet()) {
+            String name = names.getOrDefault(entry.getKey(), entry.getKey());
+            named.merge(name != null ? name : entry.getKey(), entry.getValue(), sum);
+        }
+        return named;
+    }
+
+    // Bỏ các mục bằng 0 (sau khi trừ), sắp giảm dần, lấy tối đa limit mục
+    private static <V extends Number> List<Map.Entry<String, V>> ranked(Map<String, V> values, int limit) {
+        List<Map.Entry<String, V>> entries = new ArrayList<>();
+        for (Map.Entry<String, V> entry : values.entrySet()) {
+            if (entry.getValue().doubleValue() > 0) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        entries.sort(Comparator.comparingDouble((Map.Entry<String, V> e) -> e.getValue().doubleValue()).reversed()
+            .thenComparing(Map.Entry::getKey));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+}
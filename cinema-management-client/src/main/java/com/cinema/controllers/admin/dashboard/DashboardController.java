@@ -1,5 +1,13 @@
 package com.cinema.controllers.admin.dashboard;
 
+import com.cinema.models.BookingListItem;
+import com.cinema.models.DashboardFacts;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.ReusableView;
+import com.cinema.utils.admin.AdminEventStream;
+import com.cinema.utils.admin.DashboardApi;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -10,14 +18,14 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Side;
 
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.text.NumberFormat;
 
-public class DashboardController implements Initializable {
+public class DashboardController implements Initializable, ReusableView {
     
     // Header
     @FXML private Label currentDateLabel;
@@ -60,17 +68,58 @@ public class DashboardController implements Initializable {
     @FXML private TableColumn<BookingRow, String> bookingPriceColumn;
     @FXML private TableColumn<BookingRow, String> bookingStatusColumn;
     
+    private static final DateTimeFormatter RECENT_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm dd/MM");
+    private static final int TOP_LIMIT = 10;
+    private static final int RECENT_LIMIT = 20;
+    // Gom sự kiện realtime: cập nhật giao diện tối đa mỗi giây một lần
+    private static final long LIVE_THROTTLE_MS = 1000;
+    
+    private final DashboardApi dashboardApi = new DashboardApi();
+    
     private NumberFormat currencyFormat;
     
+    // Biểu đồ được tạo một lần trong initialize(), các lần tải sau chỉ cập nhật dữ liệu
+    private XYChart.Series<String, Number> revenueSeries;
+    private PieChart paymentStatusChart;
+    private XYChart.Series<Number, String> topMoviesSeries;
+    private PieChart seatTypeChart;
+    private XYChart.Series<String, Number> bookingByHourSeries;
+    private PieChart movieStatusChart;
+    private PieChart genreChart;
+    private XYChart.Series<Number, String> topCombosSeries;
+    private XYChart.Series<String, Number> revenueByCinemaSeries;
+    private XYChart.Series<String, Number> ratingSeries;
+    
+    private DashboardAggregates aggregates;
+    private int loadGeneration;
+    
+    // Sự kiện realtime; trong lúc tải lại toàn bộ thì giữ lại, áp dụng sau khi có số liệu mới
+    private AdminEventStream eventStream;
+    private boolean loading;
+    private final List<AdminEventStream.AdminEvent> eventsDuringLoad = new ArrayList<>();
+    
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         currencyFormat = NumberFormat.getInstance(new Locale("vi", "VN"));
         
-        updateCurrentDate();
         setupPeriodCombo();
+        setupCharts();
         setupRecentBookingsTable();
         
+        // Rời trang tổng quan (root bị gỡ khỏi scene) → ngừng nhận sự kiện, mở lại trong resetView()
+        recentBookingsTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                stopLiveUpdates();
+            }
+        });
+    }
+
+    // Mỗi lần mở lại trang tổng quan → cập nhật ngày và số liệu
+    @Override
+    public void resetView() {
+        updateCurrentDate();
         loadDashboardData();
+        startLiveUpdates();
     }
     
     private void updateCurrentDate() {
@@ -80,12 +129,96 @@ public class DashboardController implements Initializable {
     }
     
     private void setupPeriodCombo() {
-        ObservableList<String> periods = FXCollections.observableArrayList(
-            "Hôm nay", "7 ngày qua", "30 ngày qua", "Tháng này"
-        );
+        ObservableList<String> periods = FXCollections.observableArrayList();
+        for (DashboardAggregates.Period period : DashboardAggregates.Period.values()) {
+            periods.add(period.getDisplayName());
+        }
         topMoviesPeriodCombo.setItems(periods);
-        topMoviesPeriodCombo.setValue("7 ngày qua");
-        topMoviesPeriodCombo.setOnAction(e -> loadTopMoviesChart());
+        topMoviesPeriodCombo.setValue(DashboardAggregates.Period.LAST_7_DAYS.getDisplayName());
+        // Số liệu mọi khoảng thời gian đã có sẵn trong aggregates → không gọi lại server
+        topMoviesPeriodCombo.setOnAction(e -> renderTopMovies());
+    }
+    
+    private void setupCharts() {
+        revenueSeries = createAreaChart(revenueChartPane, null, "Triệu đồng");
+        paymentStatusChart = createPieChart(paymentStatusChartPane, Side.RIGHT);
+        topMoviesSeries = createRankingChart(topMoviesChartPane, "Số vé bán");
+        seatTypeChart = createPieChart(seatTypeChartPane, Side.BOTTOM);
+        bookingByHourSeries = createAreaChart(bookingByHourChartPane, "Giờ", "Số vé");
+        movieStatusChart = createPieChart(movieStatusChartPane, Side.BOTTOM);
+        genreChart = createPieChart(genreChartPane, Side.RIGHT);
+        topCombosSeries = createRankingChart(topCombosChartPane, "Số lượng bán");
+        revenueByCinemaSeries = createBarChart(revenueByCinemaChartPane, "Triệu đồng");
+        ratingSeries = createBarChart(ratingBreakdownChartPane, "Số lượng đánh giá");
+    }
+    
+    private XYChart.Series<String, Number> createAreaChart(StackPane pane, String xLabel, String yLabel) {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        if (xLabel != null) {
+            xAxis.setLabel(xLabel);
+        }
+        yAxis.setLabel(yLabel);
+        
+        AreaChart<String, Number> areaChart = new AreaChart<>(xAxis, yAxis);
+        areaChart.setTitle("");
+        areaChart.setLegendVisible(false);
+        
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        areaChart.getData().add(series);
+        areaChart.setStyle("-fx-background-color: transparent;");
+        
+        pane.getChildren().setAll(areaChart);
+        return series;
+    }
+    
+    private XYChart.Series<String, Number> createBarChart(StackPane pane, String yLabel) {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel(yLabel);
+        
+        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
+        barChart.setTitle("");
+        barChart.setLegendVisible(false);
+        // Danh mục (tên rạp) có thể đổi giữa các lần cập nhật → tắt animation để trục không nhảy
+        barChart.setAnimated(false);
+        
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        barChart.getData().add(series);
+        barChart.setStyle("-fx-background-color: transparent;");
+        
+        pane.getChildren().setAll(barChart);
+        return series;
+    }
+    
+    // Biểu đồ xếp hạng nằm ngang (top phim / top combo)
+    private XYChart.Series<Number, String> createRankingChart(StackPane pane, String xLabel) {
+        CategoryAxis yAxis = new CategoryAxis();
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setLabel(xLabel);
+        
+        BarChart<Number, String> barChart = new BarChart<>(xAxis, yAxis);
+        barChart.setTitle("");
+        barChart.setLegendVisible(false);
+        barChart.setAnimated(false);
+        
+        XYChart.Series<Number, String> series = new XYChart.Series<>();
+        barChart.getData().add(series);
+        barChart.setStyle("-fx-background-color: transparent;");
+        
+        pane.getChildren().setAll(barChart);
+        return series;
+    }
+    
+    private PieChart createPieChart(StackPane pane, Side legendSide) {
+        PieChart pieChart = new PieChart();
+        pieChart.setTitle("");
+        pieChart.setLegendSide(legendSide);
+        pieChart.setAnimated(false);
+        pieChart.setStyle("-fx-background-color: transparent;");
+        
+        pane.getChildren().setAll(pieChart);
+        return pieChart;
     }
     
     private void setupRecentBookingsTable() {
@@ -141,296 +274,377 @@ public class DashboardController implements Initializable {
         loadDashboardData();
     }
     
+    /**
+     * Một request lấy dữ liệu thô → tổng hợp ở thread nền → cập nhật biểu đồ trên FX thread
+     */
     private void loadDashboardData() {
-        loadStatsCards();
-        loadRevenueChart();
-        loadPaymentStatusChart();
-        loadTopMoviesChart();
-        loadSeatTypeChart();
-        loadBookingByHourChart();
-        loadMovieStatusChart();
-        loadGenreChart();
-        loadTopCombosChart();
-        loadRevenueByCinemaChart();
-        loadRatingBreakdownChart();
-        loadRecentBookings();
-    }
-    
-    private void loadStatsCards() {
-        // TODO: Replace with actual service calls
-        double todayRevenue = 15750000;
-        int todayTickets = 42;
-        int totalCustomers = 1250;
-        int newCustomers = 8;
-        int activeMovies = 12;
-        int upcomingMovies = 5;
-        
-        todayRevenueLabel.setText(formatCurrency(todayRevenue));
-        revenueChangeLabel.setText("+12.5% so với hôm qua");
-        todayTicketsLabel.setText(String.valueOf(todayTickets));
-        ticketsChangeLabel.setText("+8.3% so với hôm qua");
-        totalCustomersLabel.setText(String.valueOf(totalCustomers));
-        newCustomersLabel.setText(newCustomers + " khách mới hôm nay");
-        activeMoviesLabel.setText(String.valueOf(activeMovies));
-        upcomingMoviesLabel.setText(upcomingMovies + " phim sắp chiếu");
+        int generation = ++loadGeneration;
+        LocalDate today = LocalDate.now();
+        refreshButton.setDisable(true);
+        loading = true;
+        
+        dashboardApi.getFacts(DashboardAggregates.windowStart(today))
+            .thenApply(facts -> DashboardAggregates.build(facts, today))
+            .thenAccept(result -> Platform.runLater(() -> {
+                if (generation != loadGeneration) {
+                    return; // Đã bấm làm mới lần nữa
+                }
+                aggregates = result;
+                loading = false;
+                // Sự kiện đến trong lúc tải: đơn đã có trong số liệu mới sẽ được bỏ qua
+                List<AdminEventStream.AdminEvent> missed = new ArrayList<>(eventsDuringLoad);
+                eventsDuringLoad.clear();
+                applyEvents(missed);
+                render();
+                refreshButton.setDisable(false);
+            }))
+            .exceptionally(ex -> {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                Platform.runLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    loading = false;
+                    eventsDuringLoad.clear();
+                    refreshButton.setDisable(false);
+                    showError("Không thể tải dữ liệu tổng quan: " + cause.getMessage());
+                });
+                cause.printStackTrace();
+                return null;
+            });
     }
     
-    private void loadRevenueChart() {
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Triệu đồng");
-        
-        AreaChart<String, Number> areaChart = new AreaChart<>(xAxis, yAxis);
-        areaChart.setTitle("");
-        areaChart.setLegendVisible(false);
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>("T2", 12.5));
-        series.getData().add(new XYChart.Data<>("T3", 14.2));
-        series.getData().add(new XYChart.Data<>("T4", 11.8));
-        series.getData().add(new XYChart.Data<>("T5", 16.5));
-        series.getData().add(new XYChart.Data<>("T6", 18.3));
-        series.getData().add(new XYChart.Data<>("T7", 22.1));
-        series.getData().add(new XYChart.Data<>("CN", 19.7));
-        
-        areaChart.getData().add(series);
-        areaChart.setStyle("-fx-background-color: transparent;");
-        
-        revenueChartPane.getChildren().clear();
-        revenueChartPane.getChildren().add(areaChart);
+    // ==================== Cập nhật realtime ====================
+    
+    private void startLiveUpdates() {
+        if (eventStream != null) {
+            return;
+        }
+        eventStream = new AdminEventStream(this::handleLiveEvents, LIVE_THROTTLE_MS);
+        try {
+            eventStream.start();
+        } catch (URISyntaxException e) {
+            System.err.println("⚠️ Không thể kết nối sự kiện realtime: " + e.getMessage());
+            eventStream = null;
+        }
     }
     
-    private void loadPaymentStatusChart() {
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
-            new PieChart.Data("Đã thanh toán (156)", 156),
-            new PieChart.Data("Chờ thanh toán (8)", 8),
-            new PieChart.Data("Hết hạn (3)", 3),
-            new PieChart.Data("Đã hủy (2)", 2)
-        );
-        
-        PieChart pieChart = new PieChart(pieChartData);
-        pieChart.setTitle("");
-        pieChart.setLegendSide(Side.RIGHT);
-        pieChart.setStyle("-fx-background-color: transparent;");
-        
-        paymentStatusChartPane.getChildren().clear();
-        paymentStatusChartPane.getChildren().add(pieChart);
+    private void stopLiveUpdates() {
+        if (eventStream != null) {
+            eventStream.close();
+            eventStream = null;
+        }
+        eventsDuringLoad.clear();
     }
     
-    private void loadTopMoviesChart() {
-        CategoryAxis yAxis = new CategoryAxis();
-        NumberAxis xAxis = new NumberAxis();
-        xAxis.setLabel("Số vé bán");
-        
-        BarChart<Number, String> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("");
-        barChart.setLegendVisible(false);
-        
-        XYChart.Series<Number, String> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>(256, "Avatar 3"));
-        series.getData().add(new XYChart.Data<>(198, "Inception 2"));
-        series.getData().add(new XYChart.Data<>(187, "The Matrix 5"));
-        series.getData().add(new XYChart.Data<>(165, "Dune Part 3"));
-        series.getData().add(new XYChart.Data<>(142, "Spider-Man 4"));
-        series.getData().add(new XYChart.Data<>(128, "Interstellar 2"));
-        series.getData().add(new XYChart.Data<>(115, "Oppenheimer 2"));
-        series.getData().add(new XYChart.Data<>(98, "The Batman 2"));
-        series.getData().add(new XYChart.Data<>(87, "Joker 3"));
-        series.getData().add(new XYChart.Data<>(76, "Barbie 2"));
+    // FX thread, một lô đã gom theo LIVE_THROTTLE_MS
+    private void handleLiveEvents(List<AdminEventStream.AdminEvent> batch) {
+        if (loading) {
+            eventsDuringLoad.addAll(batch);
+            return;
+        }
+        if (aggregates == null) {
+            return;
+        }
         
-        barChart.getData().add(series);
-        barChart.setStyle("-fx-background-color: transparent;");
+        boolean needsReload = !LocalDate.now().equals(aggregates.getToday()); // Đã qua ngày mới
+        for (AdminEventStream.AdminEvent event : batch) {
+            if (event.getType() == AdminEventStream.Type.RESYNC) {
+                needsReload = true; // Mất kết nối → có thể đã lỡ sự kiện
+            }
+        }
+        if (needsReload) {
+            loadDashboardData();
+            return;
+        }
         
-        topMoviesChartPane.getChildren().clear();
-        topMoviesChartPane.getChildren().add(barChart);
+        if (applyEvents(batch)) {
+            renderLive();
+        }
     }
     
-    private void loadSeatTypeChart() {
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
-            new PieChart.Data("Ghế thường (520)", 520),
-            new PieChart.Data("Ghế VIP (180)", 180),
-            new PieChart.Data("Ghế đôi (45)", 45)
-        );
-        
-        PieChart pieChart = new PieChart(pieChartData);
-        pieChart.setTitle("");
-        pieChart.setLegendSide(Side.BOTTOM);
-        pieChart.setStyle("-fx-background-color: transparent;");
-        
-        seatTypeChartPane.getChildren().clear();
-        seatTypeChartPane.getChildren().add(pieChart);
+    /**
+     * Cộng dồn sự kiện vào aggregates và danh sách đặt vé gần đây
+     * @return true nếu có số liệu thay đổi
+     */
+    private boolean applyEvents(List<AdminEventStream.AdminEvent> events) {
+        boolean changed = false;
+        List<BookingListItem> recent = aggregates.getFacts().getRecentBookings();
+        
+        for (AdminEventStream.AdminEvent event : events) {
+            switch (event.getType()) {
+                case BOOKING_CREATED -> {
+                    changed |= aggregates.addBooking(event.getBooking());
+                    BookingListItem row = event.getRow();
+                    if (row != null && recent.stream().noneMatch(item -> row.getId().equals(item.getId()))) {
+                        recent.add(0, row);
+                        if (recent.size() > RECENT_LIMIT) {
+                            recent.remove(recent.size() - 1);
+                        }
+                        changed = true;
+                    }
+                }
+                case BOOKING_STATUS -> {
+                    changed |= aggregates.updateStatus(event.getBookingId(), event.getStatus());
+                    for (BookingListItem item : recent) {
+                        if (event.getBookingId().equals(item.getId()) && item.getPaymentStatus() != event.getStatus()) {
+                            item.setPaymentStatus(event.getStatus());
+                            changed = true;
+                        }
+                    }
+                }
+                default -> {
+                    // RESYNC đã xử lý ở handleLiveEvents
+                }
+            }
+        }
+        return changed;
     }
     
-    private void loadBookingByHourChart() {
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        xAxis.setLabel("Giờ");
-        yAxis.setLabel("Số vé");
-        
-        AreaChart<String, Number> areaChart = new AreaChart<>(xAxis, yAxis);
-        areaChart.setTitle("");
-        areaChart.setLegendVisible(false);
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>("8h", 5));
-        series.getData().add(new XYChart.Data<>("10h", 12));
-        series.getData().add(new XYChart.Data<>("12h", 28));
-        series.getData().add(new XYChart.Data<>("14h", 35));
-        series.getData().add(new XYChart.Data<>("16h", 42));
-        series.getData().add(new XYChart.Data<>("18h", 65));
-        series.getData().add(new XYChart.Data<>("20h", 78));
-        series.getData().add(new XYChart.Data<>("22h", 52));
-        
-        areaChart.getData().add(series);
-        areaChart.setStyle("-fx-background-color: transparent;");
-        
-        bookingByHourChartPane.getChildren().clear();
-        bookingByHourChartPane.getChildren().add(areaChart);
+    // Chỉ các widget phụ thuộc vào đơn đặt vé (phim / thể loại / đánh giá không đổi theo sự kiện)
+    private void renderLive() {
+        renderStatsCards();
+        renderRevenueChart();
+        renderPaymentStatusChart();
+        renderTopMovies();
+        renderSeatTypeChart();
+        renderBookingByHourChart();
+        renderTopCombosChart();
+        renderRevenueByCinemaChart();
+        renderRecentBookings();
     }
     
-    private void loadMovieStatusChart() {
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
-            new PieChart.Data("Đang chiếu (12)", 12),
-            new PieChart.Data("Sắp chiếu (5)", 5),
-            new PieChart.Data("Ngừng chiếu (3)", 3)
-        );
-        
-        PieChart pieChart = new PieChart(pieChartData);
-        pieChart.setTitle("");
-        pieChart.setLegendSide(Side.BOTTOM);
-        pieChart.setStyle("-fx-background-color: transparent;");
-        
-        movieStatusChartPane.getChildren().clear();
-        movieStatusChartPane.getChildren().add(pieChart);
-    }
-    
-    private void loadGenreChart() {
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(
-            new PieChart.Data("Hành động (8)", 8),
-            new PieChart.Data("Khoa học viễn tưởng (5)", 5),
-            new PieChart.Data("Kinh dị (3)", 3),
-            new PieChart.Data("Hài (2)", 2),
-            new PieChart.Data("Tâm lý (2)", 2)
-        );
-        
-        PieChart pieChart = new PieChart(pieChartData);
-        pieChart.setTitle("");
-        pieChart.setLegendSide(Side.RIGHT);
-        pieChart.setStyle("-fx-background-color: transparent;");
-        
-        genreChartPane.getChildren().clear();
-        genreChartPane.getChildren().add(pieChart);
+    private void render() {
+        renderStatsCards();
+        renderRevenueChart();
+        renderPaymentStatusChart();
+        renderTopMovies();
+        renderSeatTypeChart();
+        renderBookingByHourChart();
+        renderMovieStatusChart();
+        renderGenreChart();
+        renderTopCombosChart();
+        renderRevenueByCinemaChart();
+        renderRatingBreakdownChart();
+        renderRecentBookings();
     }
     
-    private void loadTopCombosChart() {
-        CategoryAxis yAxis = new CategoryAxis();
-        NumberAxis xAxis = new NumberAxis();
-        xAxis.setLabel("Số lượng bán");
-        
-        BarChart<Number, String> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("");
-        barChart.setLegendVisible(false);
-        
-        XYChart.Series<Number, String> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>(203, "Coca Cola L"));
-        series.getData().add(new XYChart.Data<>(156, "Bắp rang bơ lớn"));
-        series.getData().add(new XYChart.Data<>(89, "Combo Couple Sweet"));
-        series.getData().add(new XYChart.Data<>(78, "Combo Solo"));
-        series.getData().add(new XYChart.Data<>(67, "Combo Family"));
-        series.getData().add(new XYChart.Data<>(54, "Pepsi L"));
-        series.getData().add(new XYChart.Data<>(45, "Nachos Cheese"));
-        series.getData().add(new XYChart.Data<>(38, "Hot Dog"));
-        series.getData().add(new XYChart.Data<>(29, "Combo Mega"));
-        series.getData().add(new XYChart.Data<>(23, "Kem que"));
-        
-        barChart.getData().add(series);
-        barChart.setStyle("-fx-background-color: transparent;");
-        
-        topCombosChartPane.getChildren().clear();
-        topCombosChartPane.getChildren().add(barChart);
-        
-        // Update total revenue
-        comboRevenueLabel.setText("Tổng: " + formatCurrency(48630000));
+    private void renderStatsCards() {
+        DashboardFacts facts = aggregates.getFacts();
+        Map<String, Integer> movieStatuses = aggregates.getMovieStatusCounts();
+        
+        todayRevenueLabel.setText(formatCurrency(aggregates.getTodayRevenue()));
+        revenueChangeLabel.setText(formatChange(aggregates.getTodayRevenue(), aggregates.getYesterdayRevenue()));
+        todayTicketsLabel.setText(String.valueOf(aggregates.getTodayTickets()));
+        ticketsChangeLabel.setText(formatChange(aggregates.getTodayTickets(), aggregates.getYesterdayTickets()));
+        totalCustomersLabel.setText(String.valueOf(facts.getTotalCustomers()));
+        newCustomersLabel.setText(facts.getNewCustomersToday() + " khách mới hôm nay");
+        activeMoviesLabel.setText(String.valueOf(movieStatuses.getOrDefault("NOW_SHOWING", 0)));
+        upcomingMoviesLabel.setText(movieStatuses.getOrDefault("COMING_SOON", 0) + " phim sắp chiếu");
     }
     
-    private void loadRevenueByCinemaChart() {
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Triệu đồng");
-        
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("");
-        barChart.setLegendVisible(false);
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>("CGV Vincom", 45.6));
-        series.getData().add(new XYChart.Data<>("Lotte Cinema", 38.2));
-        series.getData().add(new XYChart.Data<>("Galaxy Cinema", 42.1));
-        series.getData().add(new XYChart.Data<>("BHD Star", 28.5));
-        series.getData().add(new XYChart.Data<>("Platinum", 31.8));
-        
-        barChart.getData().add(series);
-        barChart.setStyle("-fx-background-color: transparent;");
-        
-        revenueByCinemaChartPane.getChildren().clear();
-        revenueByCinemaChartPane.getChildren().add(barChart);
+    private void renderRevenueChart() {
+        double[] revenue = aggregates.getRevenueByDay();
+        List<Number> values = new ArrayList<>(revenue.length);
+        for (double amount : revenue) {
+            values.add(toMillions(amount));
+        }
+        syncCategorySeries(revenueSeries, aggregates.getDayLabels(), values);
     }
     
-    private void loadRatingBreakdownChart() {
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Số lượng đánh giá");
-        
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("");
-        barChart.setLegendVisible(false);
-        
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.getData().add(new XYChart.Data<>("5★", 450));
-        series.getData().add(new XYChart.Data<>("4★", 320));
-        series.getData().add(new XYChart.Data<>("3★", 180));
-        series.getData().add(new XYChart.Data<>("2★", 75));
-        series.getData().add(new XYChart.Data<>("1★", 45));
-        
-        barChart.getData().add(series);
-        barChart.setStyle("-fx-background-color: transparent;");
-        
-        ratingBreakdownChartPane.getChildren().clear();
-        ratingBreakdownChartPane.getChildren().add(barChart);
+    private void renderPaymentStatusChart() {
+        List<Map.Entry<String, Number>> slices = new ArrayList<>();
+        for (Map.Entry<PaymentStatus, Integer> entry : aggregates.getStatusCounts().entrySet()) {
+            slices.add(slice(entry.getKey().getDisplayName(), entry.getValue()));
+        }
+        syncPie(paymentStatusChart, slices);
     }
     
-    private void loadRecentBookings() {
-        ObservableList<BookingRow> bookings = FXCollections.observableArrayList();
-        
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm dd/MM");
-        
-        bookings.add(new BookingRow("BK001", "Avatar 3", "CGV Vincom", "P1", 
-            "Nguyễn Văn A", "A1, A2", LocalDateTime.now().minusHours(1).format(timeFormatter),
-            formatCurrency(350000), "Đã thanh toán"));
-        bookings.add(new BookingRow("BK002", "Inception 2", "Lotte Cinema", "P3", 
-            "Trần Thị B", "C5-C7", LocalDateTime.now().minusHours(2).format(timeFormatter),
-            formatCurrency(525000), "Chờ thanh toán"));
-        bookings.add(new BookingRow("BK003", "The Matrix 5", "Galaxy Cinema", "P2", 
-            "Lê Văn C", "E10", LocalDateTime.now().minusHours(3).format(timeFormatter),
-            formatCurrency(175000), "Đã thanh toán"));
-        bookings.add(new BookingRow("BK004", "Dune Part 3", "BHD Star", "P4", 
-            "Phạm Thị D", "B3, B4", LocalDateTime.now().minusHours(4).format(timeFormatter),
-            formatCurrency(400000), "Đã thanh toán"));
-        bookings.add(new BookingRow("BK005", "Spider-Man 4", "CGV Vincom", "P2", 
-            "Hoàng Văn E", "D8, D9", LocalDateTime.now().minusHours(5).format(timeFormatter),
-            formatCurrency(350000), "Hết hạn"));
-        bookings.add(new BookingRow("BK006", "Interstellar 2", "Platinum", "P1", 
-            "Võ Thị F", "F5-F8", LocalDateTime.now().minusHours(6).format(timeFormatter),
-            formatCurrency(700000), "Đã thanh toán"));
-        bookings.add(new BookingRow("BK007", "Oppenheimer 2", "Lotte Cinema", "P5", 
-            "Đặng Văn G", "G10", LocalDateTime.now().minusHours(7).format(timeFormatter),
-            formatCurrency(175000), "Đã thanh toán"));
-        bookings.add(new BookingRow("BK008", "The Batman 2", "Galaxy Cinema", "P1", 
-            "Bùi Thị H", "A15-A16", LocalDateTime.now().minusHours(8).format(timeFormatter),
-            formatCurrency(380000), "Chờ thanh toán"));
-        
-        recentBookingsTable.setItems(bookings);
-        recentBookingsCountLabel.setText(bookings.size() + " đặt vé hôm nay");
+    private void renderTopMovies() {
+        if (aggregates == null) {
+            return;
+        }
+        DashboardAggregates.Period period =
+            DashboardAggregates.Period.fromDisplayName(topMoviesPeriodCombo.getValue());
+        syncRankingSeries(topMoviesSeries, aggregates.getTopMovies(period, TOP_LIMIT));
+    }
+    
+    private void renderSeatTypeChart() {
+        List<Map.Entry<String, Number>> slices = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : aggregates.getTicketsBySeatType()) {
+            slices.add(slice(entry.getKey(), entry.getValue()));
+        }
+        syncPie(seatTypeChart, slices);
+    }
+    
+    private void renderBookingByHourChart() {
+        List<Number> values = new ArrayList<>();
+        for (int tickets : aggregates.getTicketsByHour()) {
+            values.add(tickets);
+        }
+        syncCategorySeries(bookingByHourSeries, DashboardAggregates.getHourLabels(), values);
+    }
+    
+    private void renderMovieStatusChart() {
+        Map<String, Integer> counts = aggregates.getMovieStatusCounts();
+        syncPie(movieStatusChart, List.of(
+            slice("Đang chiếu", counts.getOrDefault("NOW_SHOWING", 0)),
+            slice("Sắp chiếu", counts.getOrDefault("COMING_SOON", 0)),
+            slice("Ngừng chiếu", counts.getOrDefault("ENDED", 0))
+        ));
+    }
+    
+    private void renderGenreChart() {
+        List<Map.Entry<String, Number>> slices = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : aggregates.getFacts().getGenreCounts().entrySet()) {
+            slices.add(slice(entry.getKey(), entry.getValue()));
+        }
+        syncPie(genreChart, slices);
+    }
+    
+    private void renderTopCombosChart() {
+        syncRankingSeries(topCombosSeries, aggregates.getTopCombos(TOP_LIMIT));
+        comboRevenueLabel.setText("Tổng: " + formatCurrency(aggregates.getComboRevenue()));
+    }
+    
+    private void renderRevenueByCinemaChart() {
+        List<String> labels = new ArrayList<>();
+        List<Number> values = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : aggregates.getRevenueByCinema()) {
+            labels.add(entry.getKey());
+            values.add(toMillions(entry.getValue()));
+        }
+        syncCategorySeries(revenueByCinemaSeries, labels, values);
+    }
+    
+    private void renderRatingBreakdownChart() {
+        int[] counts = aggregates.getFacts().getRatingCounts();
+        List<Number> values = new ArrayList<>();
+        for (int count : counts) {
+            values.add(count);
+        }
+        syncCategorySeries(ratingSeries, List.of("5★", "4★", "3★", "2★", "1★"), values);
+    }
+    
+    private void renderRecentBookings() {
+        List<BookingRow> rows = new ArrayList<>();
+        for (BookingListItem item : aggregates.getFacts().getRecentBookings()) {
+            rows.add(toRow(item));
+        }
+        recentBookingsTable.getItems().setAll(rows);
+        recentBookingsCountLabel.setText(aggregates.getTodayBookings() + " đặt vé hôm nay");
+    }
+    
+    private BookingRow toRow(BookingListItem item) {
+        PaymentStatus status = item.getPaymentStatus();
+        return new BookingRow(
+            item.getId(),
+            item.getMovieTitle(),
+            item.getCinemaName(),
+            item.getScreenName(),
+            item.getCustomerName() != null ? item.getCustomerName() : "",
+            item.getSeats() != null ? item.getSeats() : "",
+            item.getStartTime() != null ? item.getStartTime().format(RECENT_TIME_FORMAT) : "",
+            formatCurrency(item.getTotalPrice()),
+            status != null ? status.getDisplayName() : "");
+    }
+    
+    // ==================== Cập nhật biểu đồ tại chỗ ====================
+    
+    /**
+     * Cập nhật series theo danh mục: giữ lại các điểm đã có (chỉ đổi giá trị),
+     * thêm / bớt ở cuối khi số danh mục thay đổi
+     */
+    private static void syncCategorySeries(XYChart.Series<String, Number> series,
+                                           List<String> labels, List<Number> values) {
+        ObservableList<XYChart.Data<String, Number>> data = series.getData();
+        for (int i = 0; i < labels.size(); i++) {
+            if (i < data.size()) {
+                XYChart.Data<String, Number> point = data.get(i);
+                if (!labels.get(i).equals(point.getXValue())) {
+                    point.setXValue(labels.get(i));
+                }
+                if (!values.get(i).equals(point.getYValue())) {
+                    point.setYValue(values.get(i));
+                }
+            } else {
+                data.add(new XYChart.Data<>(labels.get(i), values.get(i)));
+            }
+        }
+        if (data.size() > labels.size()) {
+            data.remove(labels.size(), data.size());
+        }
+    }
+    
+    // Như syncCategorySeries, cho biểu đồ ngang (giá trị ở trục X, tên ở trục Y)
+    private static void syncRankingSeries(XYChart.Series<Number, String> series,
+                                          List<? extends Map.Entry<String, ? extends Number>> ranking) {
+        ObservableList<XYChart.Data<Number, String>> data = series.getData();
+        for (int i = 0; i < ranking.size(); i++) {
+            String name = ranking.get(i).getKey();
+            Number value = ranking.get(i).getValue();
+            if (i < data.size()) {
+                XYChart.Data<Number, String> point = data.get(i);
+                if (!name.equals(point.getYValue())) {
+                    point.setYValue(name);
+                }
+                if (!value.equals(point.getXValue())) {
+                    point.setXValue(value);
+                }
+            } else {
+                data.add(new XYChart.Data<>(value, name));
+            }
+        }
+        if (data.size() > ranking.size()) {
+            data.remove(ranking.size(), data.size());
+        }
+    }
+    
+    // Nhãn lát bánh kèm số lượng, ví dụ "Đã thanh toán (156)"
+    private static void syncPie(PieChart chart, List<Map.Entry<String, Number>> slices) {
+        ObservableList<PieChart.Data> data = chart.getData();
+        for (int i = 0; i < slices.size(); i++) {
+            String name = slices.get(i).getKey() + " (" + slices.get(i).getValue() + ")";
+            double value = slices.get(i).getValue().doubleValue();
+            if (i < data.size()) {
+                PieChart.Data slice = data.get(i);
+                if (!name.equals(slice.getName())) {
+                    slice.setName(name);
+                }
+                if (slice.getPieValue() != value) {
+                    slice.setPieValue(value);
+                }
+            } else {
+                data.add(new PieChart.Data(name, value));
+            }
+        }
+        if (data.size() > slices.size()) {
+            data.remove(slices.size(), data.size());
+        }
+    }
+    
+    private static Map.Entry<String, Number> slice(String name, Number value) {
+        return new AbstractMap.SimpleImmutableEntry<>(name, value);
+    }
+    
+    private static double toMillions(double amount) {
+        return Math.round(amount / 100_000.0) / 10.0;
+    }
+    
+    private static String formatChange(double today, double yesterday) {
+        if (yesterday <= 0) {
+            return today > 0 ? "Hôm qua chưa có dữ liệu" : "Chưa có dữ liệu";
+        }
+        double percent = (today - yesterday) * 100.0 / yesterday;
+        return String.format(Locale.US, "%+.1f%% so với hôm qua", percent);
+    }
+    
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Lỗi");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
     }
     
     private String formatCurrency(double amount) {
@@ -2,6 +2,7 @@ package com.cinema.controllers.admin.fnb;
 
 import com.cinema.models.FoodCategory;
 import com.cinema.models.FoodCombo;
+import com.cinema.utils.ReusableView;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
@@ -12,7 +13,7 @@ import javafx.stage.Stage;
 import java.io.File;
 import java.util.UUID;
 
-public class FnbFormController {
+public class FnbFormController implements ReusableView {
 
     @FXML private Label formTitleLabel;
     @FXML private ImageView imagePreview;
@@ -45,6 +46,28 @@ public class FnbFormController {
         setDefaultImage();
     }
 
+    // Modal được dùng lại → trả form về trạng thái "thêm mới" như trong FXML
+    @Override
+    public void resetView() {
+        isEditMode = false;
+        editingCombo = null;
+        selectedImagePath = null;
+        stage = null;
+        parentController = null;
+
+        formTitleLabel.setText("THÊM COMBO MỚI");
+        saveButton.setText("Lưu");
+        idField.clear();
+        nameField.clear();
+        categoryCombo.setValue(null);
+        priceField.clear();
+        descriptionArea.clear();
+        availableCheckbox.setSelected(true);
+        imageNameLabel.setText("Chưa chọn ảnh");
+        setDefaultImage();
+        clearErrors();
+    }
+
     private void setupCategoryComboBox() {
         categoryCombo.getItems().addAll(FoodCategory.values());
         
@@ -2,6 +2,8 @@ package com.cinema.controllers.admin.fnb;
 
 import com.cinema.models.FoodCategory;
 import com.cinema.models.FoodCombo;
+import com.cinema.utils.ImageCache;
+import com.cinema.utils.ReusableView;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,7 +13,6 @@ import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
@@ -26,7 +27,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-public class FnbMenuController {
+public class FnbMenuController implements ReusableView {
 
     @FXML
     private TableView<FoodCombo> comboTable;
@@ -72,6 +73,10 @@ public class FnbMenuController {
 
         setupTableColumns();
         setupFilters();
+    }
+
+    @Override
+    public void resetView() {
         loadSampleData(); // TODO: Replace with actual data loading
         updateStatistics();
     }
@@ -101,10 +106,9 @@ public class FnbMenuController {
                 if (empty || imageUrl == null || imageUrl.isBlank()) {
                     setGraphic(null);
                 } else {
-                    // Load ảnh bất đồng bộ (background loading = true)
-                    // Kích thước yêu cầu là 80x80, preserveRatio = false, smooth = true
-                    Image image = new Image(imageUrl, 80, 80, false, true, true);
-                    imageView.setImage(image);
+                    // Load ảnh bất đồng bộ qua cache, decode theo fit 80x80 của imageView.
+                    // Cell được tái sử dụng khi cuộn → ảnh của dòng cũ tải xong muộn sẽ bị bỏ qua
+                    ImageCache.getInstance().loadInto(imageView, imageUrl);
                     setGraphic(imageView);
                 }
             }
@@ -5,6 +5,7 @@ import com.cinema.models.Genre;
 import com.cinema.models.Movie;
 import com.cinema.models.Movie.MovieStatus;
 import com.cinema.utils.admin.MovieApi;
+import com.cinema.utils.ReusableView;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,7 +22,7 @@ import java.util.ResourceBundle;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public class MovieFormController implements Initializable {
+public class MovieFormController implements Initializable, ReusableView {
 
     @FXML private Label formTitleLabel;
     
@@ -74,6 +75,33 @@ public class MovieFormController implements Initializable {
         loadGenresFromAPI();
     }
 
+    // Modal được dùng lại → xóa dữ liệu của lần mở trước (danh sách thể loại từ API giữ nguyên)
+    @Override
+    public void resetView() {
+        currentMovie = null;
+        onSaveCallback = null;
+        formTitleLabel.setText("THÊM PHIM MỚI");
+
+        titleField.clear();
+        descField.clear();
+        durationField.clear();
+        releaseDatePicker.setValue(null);
+        statusBox.setValue(null);
+        ageBox.setValue(null);
+        languageField.clear();
+        ageDescField.clear();
+        posterField.clear();
+        trailerField.clear();
+        actorNameField.clear();
+        actorRoleField.clear();
+        genreComboBox.setValue(null);
+
+        selectedGenres.clear();
+        selectedGenreNames.clear();
+        actors.clear();
+        actorDisplayList.clear();
+    }
+
     private void setupComboBoxes() {
         // Status options
         statusBox.getItems().addAll("Đang chiếu", "Sắp chiếu");
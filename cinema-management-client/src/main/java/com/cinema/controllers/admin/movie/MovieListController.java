@@ -4,6 +4,7 @@ import com.cinema.models.Movie;
 import com.cinema.models.Genre;
 import com.cinema.models.Movie.MovieStatus;
 import com.cinema.utils.admin.MovieApi;
+import com.cinema.utils.ReusableView;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
@@ -27,7 +28,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
-public class MovieListController implements Initializable {
+public class MovieListController implements Initializable, ReusableView {
 
     @FXML private TableView<Movie> movieTable;
     @FXML private TableColumn<Movie, String> titleCol;
@@ -61,6 +62,10 @@ public class MovieListController implements Initializable {
         setupColumns();
         setupFilters();
         setupActions();
+    }
+
+    @Override
+    public void resetView() {
         loadMoviesFromAPI();
     }
 
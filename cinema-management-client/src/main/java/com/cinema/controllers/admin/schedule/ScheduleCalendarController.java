@@ -4,6 +4,7 @@ import com.cinema.models.*;
 import com.cinema.utils.admin.CinemaApi;
 import com.cinema.utils.admin.MovieApi;
 import com.cinema.utils.admin.ShowtimeApi;
+import com.cinema.utils.ReusableView;
 
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
@@ -31,7 +32,7 @@ import java.util.List;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
-public class ScheduleCalendarController implements Initializable {
+public class ScheduleCalendarController implements Initializable, ReusableView {
 
     @FXML private DatePicker datePicker;
     @FXML private ComboBox<Cinema> cinemaFilter;
@@ -79,13 +80,16 @@ public class ScheduleCalendarController implements Initializable {
         // Set default date to today
         datePicker.setValue(LocalDate.now());
 
+        // applyFilters();
+        // updateSummary();
+    }
+
+    @Override
+    public void resetView() {
         // Load data
         loadMovies();
         loadCinemas();
         loadShowtimes();
-
-        // applyFilters();
-        // updateSummary();
     }
 
     private void setupTable() {
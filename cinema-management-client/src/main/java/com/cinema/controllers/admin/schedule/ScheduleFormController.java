@@ -15,11 +15,13 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.net.URL;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class ScheduleFormController implements Initializable {
@@ -45,14 +47,23 @@ public class ScheduleFormController implements Initializable {
     
     // Step 5: Date & Time
     @FXML private VBox dateScheduleContainer;
+    @FXML private Spinner<Integer> turnaroundSpinner;
+    @FXML private CheckBox autoShiftCheck;
     
     // Preview
     @FXML private VBox previewSection;
     @FXML private Label totalShowtimesPreview;
     @FXML private ListView<String> previewList;
+    @FXML private Label conflictSummary;
     
     // Validation
     @FXML private Label validationMessage;
+    
+    // Save
+    @FXML private Button saveButton;
+    @FXML private HBox saveProgressBox;
+    @FXML private ProgressBar saveProgressBar;
+    @FXML private Label saveProgressLabel;
 
     // Services
     private ShowtimeApi showtimeService;
@@ -66,6 +77,14 @@ public class ScheduleFormController implements Initializable {
     private List<Cinema> selectedCinemas = new ArrayList<>();
     private List<ScreenWrapper> selectedScreens = new ArrayList<>();
     private List<DateSchedule> dateSchedules = new ArrayList<>();
+    private List<ShowtimeConflictDetector.PlannedShowtime> previewPlan = new ArrayList<>();
+    // Các suất chưa lưu được ở lần trước (đã có id) - lần Lưu tiếp theo chỉ gửi lại phần này.
+    // Bỏ khi form thay đổi: lô cũ không còn khớp với form
+    private List<Showtime> pendingShowtimes = new ArrayList<>();
+    
+    private static final int DEFAULT_TURNAROUND_MINUTES = 15;
+    private static final DateTimeFormatter PREVIEW_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter PREVIEW_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
     
     // Callback
     private Runnable onSaveCallback;
@@ -79,6 +98,7 @@ public class ScheduleFormController implements Initializable {
         setupMovieSearch();
         setupCinemaSelection();
         setupFormatCombo();
+        setupConflictOptions();
         loadMoviesFromAPI();
         loadCinemasFromAPI();
         // loadDummyData();
@@ -130,6 +150,7 @@ public class ScheduleFormController implements Initializable {
             .orElse(null);
         
         if (selectedMovie != null) {
+            discardPendingShowtimes();
             movieSearchField.setText(selectedMovie.getTitle());
             movieSuggestionsList.setVisible(false);
             movieSuggestionsList.setManaged(false);
@@ -152,6 +173,7 @@ public class ScheduleFormController implements Initializable {
 
     @FXML
     private void clearMovieSelection() {
+        discardPendingShowtimes();
         selectedMovie = null;
         movieSearchField.clear();
         movieInfoCard.setVisible(false);
@@ -169,6 +191,7 @@ public class ScheduleFormController implements Initializable {
     }
 
     private void updateSelectedCinemas() {
+        discardPendingShowtimes();
         selectedCinemas.clear();
         int count = 0;
         
@@ -202,6 +225,7 @@ public class ScheduleFormController implements Initializable {
     }
 
     private void updateSelectedScreens() {
+        discardPendingShowtimes();
         selectedScreens.clear();
         int count = 0;
         
@@ -224,6 +248,33 @@ public class ScheduleFormController implements Initializable {
             "IMAX 2D",
             "IMAX 3D"
         );
+        formatCombo.valueProperty().addListener((obs, oldVal, newVal) -> discardPendingShowtimes());
+    }
+
+    private void setupConflictOptions() {
+        turnaroundSpinner.setValueFactory(
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 60, DEFAULT_TURNAROUND_MINUTES, 5));
+        turnaroundSpinner.setEditable(true);
+        turnaroundSpinner.valueProperty().addListener((obs, oldVal, newVal) -> discardPendingShowtimes());
+        autoShiftCheck.selectedProperty().addListener((obs, oldVal, newVal) -> discardPendingShowtimes());
+        
+        // Tô màu dòng xem trước theo kết quả kiểm tra trùng lịch (cùng chỉ số với previewPlan)
+        previewList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                getStyleClass().removeAll("preview-conflict", "preview-shifted");
+                setText(empty ? null : item);
+                if (empty || getIndex() >= previewPlan.size()) {
+                    return;
+                }
+                switch (previewPlan.get(getIndex()).getStatus()) {
+                    case CONFLICT -> getStyleClass().add("preview-conflict");
+                    case SHIFTED -> getStyleClass().add("preview-shifted");
+                    default -> { }
+                }
+            }
+        });
     }
 
     private void loadMoviesFromAPI() {
@@ -281,6 +332,7 @@ public class ScheduleFormController implements Initializable {
 
     @FXML
     private void addDateSchedule() {
+        discardPendingShowtimes();
         DateSchedule dateSchedule = new DateSchedule();
         dateSchedules.add(dateSchedule);
         
@@ -302,6 +354,7 @@ public class ScheduleFormController implements Initializable {
         DatePicker datePicker = new DatePicker(LocalDate.now());
         datePicker.getStyleClass().add("date-picker-field");
         datePicker.valueProperty().addListener((obs, oldVal, newVal) -> {
+            discardPendingShowtimes();
             dateSchedule.setDate(newVal);
         });
         dateSchedule.setDate(datePicker.getValue());
@@ -312,6 +365,7 @@ public class ScheduleFormController implements Initializable {
         Button removeBtn = new Button("✕ Xóa ngày này");
         removeBtn.getStyleClass().add("btn-remove-date");
         removeBtn.setOnAction(e -> {
+            discardPendingShowtimes();
             dateSchedules.remove(dateSchedule);
             dateScheduleContainer.getChildren().remove(container);
         });
@@ -325,7 +379,10 @@ public class ScheduleFormController implements Initializable {
         // Add time button
         Button addTimeBtn = new Button("+ Thêm giờ chiếu");
         addTimeBtn.getStyleClass().add("btn-add-time");
-        addTimeBtn.setOnAction(e -> addTimeSlot(dateSchedule, timeSlotsBox));
+        addTimeBtn.setOnAction(e -> {
+            discardPendingShowtimes();
+            addTimeSlot(dateSchedule, timeSlotsBox);
+        });
         
         container.getChildren().addAll(header, timeSlotsBox, addTimeBtn);
         
@@ -352,6 +409,7 @@ public class ScheduleFormController implements Initializable {
         
         // Calculate end time when start time changes
         timeField.textProperty().addListener((obs, oldVal, newVal) -> {
+            discardPendingShowtimes();
             if (selectedMovie != null && newVal != null && !newVal.isEmpty()) {
                 try {
                     LocalTime startTime = LocalTime.parse(newVal, DateTimeFormatter.ofPattern("HH:mm"));
@@ -366,6 +424,7 @@ public class ScheduleFormController implements Initializable {
         Button removeTimeBtn = new Button("✕");
         removeTimeBtn.getStyleClass().add("btn-remove-time");
         removeTimeBtn.setOnAction(e -> {
+            discardPendingShowtimes();
             dateSchedule.getTimeSlots().remove(timeField);
             timeSlotsBox.getChildren().remove(timeBox);
         });
@@ -382,12 +441,15 @@ public class ScheduleFormController implements Initializable {
             return;
         }
         
-        List<String> previewItems = generatePreview();
-        previewList.getItems().setAll(previewItems);
-        totalShowtimesPreview.setText(String.valueOf(previewItems.size()));
-        
-        previewSection.setVisible(true);
-        previewSection.setManaged(true);
+        planSchedule(currentCandidates())
+            .thenAccept(plan -> Platform.runLater(() -> renderPreview(plan)))
+            .exceptionally(ex -> {
+                Platform.runLater(() -> {
+                    showError("Không thể kiểm tra trùng lịch: " + ex.getMessage());
+                });
+                ex.printStackTrace();
+                return null;
+            });
     }
 
     @FXML
@@ -396,46 +458,93 @@ public class ScheduleFormController implements Initializable {
         previewSection.setManaged(false);
     }
 
-    private List<String> generatePreview() {
-        List<String> items = new ArrayList<>();
-        String format = formatCombo.getValue();
+    private void renderPreview(List<ShowtimeConflictDetector.PlannedShowtime> plan) {
+        previewPlan = plan;
+        previewList.getItems().setAll(generatePreview(plan));
         
-        for (DateSchedule ds : dateSchedules) {
-            LocalDate date = ds.getDate();
-            for (TextField tf : ds.getTimeSlots()) {
-                String timeStr = tf.getText().trim();
-                if (!timeStr.isEmpty()) {
-                    try {
-                        LocalTime time = LocalTime.parse(timeStr, DateTimeFormatter.ofPattern("HH:mm"));
-                        
-                        for (ScreenWrapper sw : selectedScreens) {
-                            String preview = String.format(
-                                "%s | %s - %s | %s | %s",
-                                date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                                sw.getCinema().getName(),
-                                sw.getScreen().getName(),
-                                time.format(DateTimeFormatter.ofPattern("HH:mm")),
-                                format
-                            );
-                            items.add(preview);
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid time
-                    }
-                }
+        long conflicts = countByStatus(plan, ShowtimeConflictDetector.Status.CONFLICT);
+        long shifted = countByStatus(plan, ShowtimeConflictDetector.Status.SHIFTED);
+        totalShowtimesPreview.setText(String.valueOf(plan.size() - conflicts));
+        
+        boolean hasIssues = conflicts > 0 || shifted > 0;
+        conflictSummary.setText(conflicts + " suất trùng lịch, " + shifted + " suất đã dời giờ");
+        conflictSummary.setVisible(hasIssues);
+        conflictSummary.setManaged(hasIssues);
+        
+        previewSection.setVisible(true);
+        previewSection.setManaged(true);
+    }
+
+    private List<String> generatePreview(List<ShowtimeConflictDetector.PlannedShowtime> plan) {
+        List<String> items = new ArrayList<>(plan.size());
+        
+        for (ShowtimeConflictDetector.PlannedShowtime planned : plan) {
+            Showtime st = planned.getShowtime();
+            String time = st.getStartTime().format(PREVIEW_TIME_FORMAT);
+            String preview = String.format(
+                "%s | %s - %s | %s | %s",
+                planned.getRequestedStart().format(PREVIEW_DATE_FORMAT),
+                st.getCinemaName(),
+                st.getScreenName(),
+                time,
+                st.getFormat()
+            );
+            
+            switch (planned.getStatus()) {
+                case CONFLICT -> preview = "⚠ " + preview + " | Trùng với " + planned.getConflictWith();
+                case SHIFTED -> preview = "↪ " + preview
+                    + " | Dời từ " + planned.getRequestedStart().format(PREVIEW_TIME_FORMAT)
+                    + " (trùng " + planned.getConflictWith() + ")";
+                default -> { }
             }
+            items.add(preview);
         }
         
         return items;
     }
 
-   @FXML
-    private void saveSchedule() {
-        if (!validateForm()) {
-            return;
+    /**
+     * Lô cần kiểm tra / lưu: phần còn lại của lần lưu lỗi giữa chừng (các suất đã lưu giờ là
+     * lịch hiện có), không có thì tạo mới từ form (ngày × giờ × phòng).
+     */
+    private List<Showtime> currentCandidates() {
+        return pendingShowtimes.isEmpty() ? buildCandidates() : pendingShowtimes;
+    }
+
+    /**
+     * Tải lịch hiện có của các phòng trong lô rồi kiểm tra trùng lịch cho cả lô.
+     */
+    private CompletableFuture<List<ShowtimeConflictDetector.PlannedShowtime>> planSchedule(List<Showtime> candidates) {
+        Duration turnaround = Duration.ofMinutes(turnaroundSpinner.getValue());
+        boolean autoShift = autoShiftCheck.isSelected();
+        
+        if (candidates.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
         
-        // Generate showtimes
+        // Thêm một ngày mỗi phía cho các suất chiếu qua nửa đêm
+        LocalDate from = candidates.stream().map(st -> st.getStartTime().toLocalDate())
+            .min(Comparator.naturalOrder()).get().minusDays(1);
+        LocalDate to = candidates.stream().map(st -> st.getStartTime().toLocalDate())
+            .max(Comparator.naturalOrder()).get().plusDays(2);
+        Set<String> screenIds = candidates.stream().map(Showtime::getScreenId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        // Suất gửi lại có thể đã được server lưu dù request báo lỗi (timeout) - không tính là trùng với chính nó
+        Set<String> candidateIds = candidates.stream().map(Showtime::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        
+        return showtimeService.getShowtimesInRange(from, to, screenIds)
+            .thenApply(existing -> {
+                ShowtimeConflictDetector detector = new ShowtimeConflictDetector(turnaround);
+                existing.stream()
+                    .filter(st -> !candidateIds.contains(st.getId()))
+                    .forEach(detector::addExisting);
+                return detector.plan(candidates, autoShift);
+            });
+    }
+
+    private List<Showtime> buildCandidates() {
         List<Showtime> showtimes = new ArrayList<>();
         String format = formatCombo.getValue();
         double basePrice = 80000; // Default price
@@ -458,6 +567,8 @@ public class ScheduleFormController implements Initializable {
                             st.setEndTime(endTime);
                             st.setBasePrice(basePrice);
                             st.setFormat(format);
+                            st.setCinemaName(sw.getCinema().getName());
+                            st.setScreenName(sw.getScreen().getName());
                             
                             showtimes.add(st);
                         }
@@ -468,32 +579,133 @@ public class ScheduleFormController implements Initializable {
             }
         }
         
-        // Save to API
-        showtimeService.createBulkShowtimes(showtimes)
-            .thenAccept(count -> {
+        return showtimes;
+    }
+
+    private static long countByStatus(List<ShowtimeConflictDetector.PlannedShowtime> plan,
+                                      ShowtimeConflictDetector.Status status) {
+        return plan.stream().filter(p -> p.getStatus() == status).count();
+    }
+
+   @FXML
+    private void saveSchedule() {
+        if (!validateForm()) {
+            return;
+        }
+        
+        saveButton.setDisable(true);
+        
+        // Kiểm tra lại ngay trước khi lưu: lịch trên server có thể đã thay đổi từ lúc xem trước
+        // (hoặc từ lần lưu lỗi giữa chừng - khi đó chỉ kiểm tra / gửi phần còn lại)
+        planSchedule(currentCandidates())
+            .thenAccept(plan -> Platform.runLater(() -> {
+                long conflicts = countByStatus(plan, ShowtimeConflictDetector.Status.CONFLICT);
+                if (conflicts > 0) {
+                    saveButton.setDisable(false);
+                    renderPreview(plan);
+                    showValidation(conflicts + " suất chiếu bị trùng lịch, vui lòng xem danh sách xem trước");
+                    return;
+                }
+                
+                List<Showtime> showtimes = plan.stream()
+                    .map(ShowtimeConflictDetector.PlannedShowtime::getShowtime)
+                    .collect(Collectors.toList());
+                uploadShowtimes(showtimes, countByStatus(plan, ShowtimeConflictDetector.Status.SHIFTED));
+            }))
+            .exceptionally(ex -> {
                 Platform.runLater(() -> {
-                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                    alert.setTitle("Thành Công");
-                    alert.setHeaderText("Đã tạo lịch chiếu thành công!");
-                    alert.setContentText("Đã tạo " + count + " suất chiếu.");
-                    alert.showAndWait();
-                    
-                    if (onSaveCallback != null) {
-                        onSaveCallback.run();
-                    }
-                    
-                    cancel();
+                    saveButton.setDisable(false);
+                    showError("Không thể tạo lịch chiếu: " + ex.getMessage());
                 });
-            })
+                ex.printStackTrace();
+                return null;
+            });
+    }
+
+    private void uploadShowtimes(List<Showtime> showtimes, long shifted) {
+        saveButton.setDisable(true);
+        validationMessage.setVisible(false);
+        validationMessage.setManaged(false);
+        saveProgressBar.setProgress(0);
+        saveProgressLabel.setText("Đang lưu 0/" + showtimes.size() + " suất");
+        saveProgressBox.setVisible(true);
+        saveProgressBox.setManaged(true);
+        
+        // Save to API
+        showtimeService.createBulkShowtimes(showtimes, progress -> Platform.runLater(() -> {
+                saveProgressBar.setProgress(progress.getFraction());
+                saveProgressLabel.setText("Đang lưu " + progress.getSavedShowtimes() + "/"
+                    + progress.getTotalShowtimes() + " suất");
+            }))
+            .thenAccept(result -> Platform.runLater(() -> onUploadFinished(result, shifted)))
             .exceptionally(ex -> {
+                // BulkResult gom lỗi từng phần; tới đây là lỗi ngoài pipeline - không biết phần nào đã lưu,
+                // giữ nguyên pendingShowtimes để lần Lưu sau kiểm tra lại với lịch trên server
                 Platform.runLater(() -> {
-                    showError("Không thể tạo lịch chiếu: " + ex.getMessage());
+                    saveProgressBox.setVisible(false);
+                    saveProgressBox.setManaged(false);
+                    saveButton.setDisable(false);
+                    showError("Không thể lưu lịch chiếu: " + ex.getMessage());
                 });
                 ex.printStackTrace();
                 return null;
             });
     }
 
+    private void onUploadFinished(ShowtimeApi.BulkResult result, long shifted) {
+        saveProgressBox.setVisible(false);
+        saveProgressBox.setManaged(false);
+        saveButton.setDisable(false);
+        pendingShowtimes = result.getRemaining();
+        
+        if (result.isComplete()) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Thành Công");
+            alert.setHeaderText("Đã tạo lịch chiếu thành công!");
+            alert.setContentText("Đã tạo " + result.getSaved().size() + " suất chiếu."
+                + (shifted > 0 ? " " + shifted + " suất đã được dời sang giờ trống." : ""));
+            alert.showAndWait();
+            
+            if (onSaveCallback != null) {
+                onSaveCallback.run();
+            }
+            
+            cancel();
+            return;
+        }
+        
+        if (result.getLastError() != null) {
+            result.getLastError().printStackTrace();
+        }
+        if (!result.getSaved().isEmpty() && onSaveCallback != null) {
+            onSaveCallback.run(); // Lịch đã thay đổi một phần
+        }
+        
+        ButtonType retry = new ButtonType("Thử lại", ButtonBar.ButtonData.OK_DONE);
+        ButtonType later = new ButtonType("Để sau", ButtonBar.ButtonData.CANCEL_CLOSE);
+        Alert alert = new Alert(Alert.AlertType.WARNING, null, retry, later);
+        alert.setTitle("Lưu chưa hoàn tất");
+        alert.setHeaderText("Đã lưu " + result.getSaved().size() + " suất, còn "
+            + pendingShowtimes.size() + " suất chưa lưu được");
+        alert.setContentText(result.getLastError() != null ? result.getLastError().getMessage() : null);
+        
+        if (alert.showAndWait().orElse(later) == retry) {
+            saveSchedule();
+        } else {
+            showValidation("Còn " + pendingShowtimes.size() + " suất chưa lưu - bấm Lưu Lịch Chiếu để tiếp tục");
+        }
+    }
+
+    /** Form thay đổi sau lần lưu lỗi giữa chừng → lần Lưu sau tạo lại lô từ form và kiểm tra trùng lịch */
+    private void discardPendingShowtimes() {
+        if (pendingShowtimes.isEmpty()) {
+            return;
+        }
+        pendingShowtimes = new ArrayList<>();
+        validationMessage.setVisible(false); // Thông báo "còn N suất chưa lưu" không còn đúng
+        validationMessage.setManaged(false);
+    }
+
     @FXML
     private void cancel() {
         Stage stage = (Stage) movieSearchField.getScene().getWindow();
@@ -0,0 +1,237 @@
+package com.cinema.controllers.admin.schedule;
+
+import com.cinema.models.Showtime;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kiểm tra trùng lịch cho một lô suất chiếu trước khi gửi createBulkShowtimes.
+ *
+ * - Mỗi phòng có một timeline: cây cân bằng (TreeMap) các khoảng bận rời nhau, khóa theo giờ bắt đầu
+ * - Khoảng bận của một suất = [bắt đầu, kết thúc + thời gian dọn phòng)
+ * - Suất đã có và suất đã nhận trong lô đều ghép vào timeline, nên trùng với lịch cũ
+ *   và trùng trong chính lô được xử lý như nhau
+ * - Lô được sắp theo (phòng, giờ bắt đầu) rồi duyệt một lượt, mỗi bước O(log n): O(n log n) cả lô
+ *
+ * Mỗi detector chỉ dùng cho một lần plan() - các suất được nhận sẽ chiếm chỗ trên timeline.
+ */
+public class ShowtimeConflictDetector {
+
+    // Giờ bắt đầu sau khi dời được làm tròn lên bội số của 5 phút
+    private static final int SHIFT_ROUNDING_MINUTES = 5;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    public enum Status {
+        OK,
+        SHIFTED,   // Đã dời sang giờ trống gần nhất
+        CONFLICT
+    }
+
+    /** Kết quả cho một suất trong lô */
+    public static class PlannedShowtime {
+        private final Showtime showtime;
+        private final LocalDateTime requestedStart;
+        private Status status = Status.OK;
+        private String conflictWith;
+
+        private PlannedShowtime(Showtime showtime) {
+            this.showtime = showtime;
+            this.requestedStart = showtime.getStartTime();
+        }
+
+        /** Suất chiếu, giờ bắt đầu/kết thúc đã được cập nhật nếu SHIFTED */
+        public Showtime getShowtime() { return showtime; }
+        public LocalDateTime getRequestedStart() { return requestedStart; }
+        public Status getStatus() { return status; }
+        /** Mô tả suất gây trùng (CONFLICT hoặc lý do phải dời) */
+        public String getConflictWith() { return conflictWith; }
+    }
+
+    // Một suất chiếm chỗ trên timeline
+    private static class Occupant {
+        final String label;
+        final LocalDateTime start;
+        final LocalDateTime end; // Đã cộng thời gian dọn phòng
+
+        Occupant(String label, LocalDateTime start, LocalDateTime end) {
+            this.label = label;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Khoảng bận liên tục, gộp từ các suất nằm sát / chồng lên nhau
+    private static class Block {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final List<Occupant> occupants;
+
+        Block(LocalDateTime start, LocalDateTime end, List<Occupant> occupants) {
+            this.start = start;
+            this.end = end;
+            this.occupants = occupants;
+        }
+
+        String describe(LocalDateTime from, LocalDateTime to) {
+            for (Occupant occupant : occupants) {
+                if (occupant.start.isBefore(to) && occupant.end.isAfter(from)) {
+                    return occupant.label;
+                }
+            }
+            return occupants.get(0).label;
+        }
+    }
+
+    private static class ScreenTimeline {
+        private final TreeMap<LocalDateTime, Block> blocks = new TreeMap<>();
+
+        // Khoảng bận giao với [start, end), null nếu trống
+        Block findOverlap(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Block> floor = blocks.floorEntry(start);
+            if (floor != null && floor.getValue().end.isAfter(start)) {
+                return floor.getValue();
+            }
+            Map.Entry<LocalDateTime, Block> higher = blocks.higherEntry(start);
+            if (higher != null && higher.getKey().isBefore(end)) {
+                return higher.getValue();
+            }
+            return null;
+        }
+
+        void add(Occupant occupant) {
+            LocalDateTime start = occupant.start;
+            LocalDateTime end = occupant.end;
+            List<Occupant> occupants = new ArrayList<>();
+            occupants.add(occupant);
+
+            // Gộp với các khoảng giao hoặc nằm sát để các khoảng trong cây luôn rời nhau
+            Map.Entry<LocalDateTime, Block> floor = blocks.floorEntry(start);
+            if (floor != null && !floor.getValue().end.isBefore(start)) {
+                Block block = blocks.remove(floor.getKey());
+                start = block.start;
+                end = max(end, block.end);
+                occupants.addAll(block.occupants);
+            }
+            Map.Entry<LocalDateTime, Block> next;
+            while ((next = blocks.ceilingEntry(start)) != null && !next.getKey().isAfter(end)) {
+                Block block = blocks.remove(next.getKey());
+                end = max(end, block.end);
+                occupants.addAll(block.occupants);
+            }
+            blocks.put(start, new Block(start, end, occupants));
+        }
+    }
+
+    private final Duration turnaround;
+    private final Map<String, ScreenTimeline> timelines = new HashMap<>();
+
+    /**
+     * @param turnaround thời gian dọn phòng giữa hai suất liên tiếp trong cùng phòng
+     */
+    public ShowtimeConflictDetector(Duration turnaround) {
+        this.turnaround = turnaround;
+    }
+
+    /** Nạp một suất đã có trên server */
+    public void addExisting(Showtime showtime) {
+        LocalDateTime start = showtime.getStartTime();
+        LocalDateTime end = showtime.getEndTime();
+        if (end == null && start != null && showtime.getMovieDuration() != null) {
+            end = start.plusMinutes(showtime.getMovieDuration());
+        }
+        if (showtime.getScreenId() == null || start == null || end == null) {
+            return;
+        }
+        String title = showtime.getMovieTitle() != null ? showtime.getMovieTitle() : "Suất chiếu";
+        timeline(showtime.getScreenId()).add(
+            new Occupant(title + " " + formatRange(start, end), start, end.plus(turnaround)));
+    }
+
+    /**
+     * Kiểm tra cả lô. Kết quả trả về theo đúng thứ tự của candidates.
+     *
+     * @param candidates các suất dự kiến (screenId, startTime, endTime)
+     * @param autoShift  true: suất bị trùng được dời sang giờ trống gần nhất trong cùng ngày
+     */
+    public List<PlannedShowtime> plan(List<Showtime> candidates, boolean autoShift) {
+        List<PlannedShowtime> results = new ArrayList<>(candidates.size());
+        for (Showtime candidate : candidates) {
+            results.add(new PlannedShowtime(candidate));
+        }
+
+        List<PlannedShowtime> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator
+            .comparing((PlannedShowtime p) -> p.showtime.getScreenId())
+            .thenComparing(p -> p.requestedStart));
+
+        for (PlannedShowtime planned : ordered) {
+            place(planned, autoShift);
+        }
+        return results;
+    }
+
+    private void place(PlannedShowtime planned, boolean autoShift) {
+        Showtime showtime = planned.showtime;
+        ScreenTimeline timeline = timeline(showtime.getScreenId());
+        Duration length = Duration.between(showtime.getStartTime(), showtime.getEndTime());
+        Duration span = length.plus(turnaround);
+
+        LocalDateTime start = showtime.getStartTime();
+        Block blocking = timeline.findOverlap(start, start.plus(span));
+        if (blocking != null) {
+            planned.conflictWith = blocking.describe(start, start.plus(span));
+            if (!autoShift) {
+                planned.status = Status.CONFLICT;
+                return;
+            }
+
+            // Nhảy qua từng khoảng bận; các khoảng rời nhau nên chỉ đi tới, không quay lại
+            LocalDateTime latestStart = planned.requestedStart.toLocalDate().plusDays(1).atStartOfDay();
+            while (blocking != null) {
+                start = roundUp(blocking.end);
+                if (!start.isBefore(latestStart)) {
+                    planned.status = Status.CONFLICT;
+                    return;
+                }
+                blocking = timeline.findOverlap(start, start.plus(span));
+            }
+            planned.status = Status.SHIFTED;
+            showtime.setStartTime(start);
+            showtime.setEndTime(start.plus(length));
+        }
+
+        timeline.add(new Occupant(
+            "suất mới " + formatRange(showtime.getStartTime(), showtime.getEndTime()),
+            showtime.getStartTime(),
+            showtime.getEndTime().plus(turnaround)));
+    }
+
+    private ScreenTimeline timeline(String screenId) {
+        return timelines.computeIfAbsent(screenId, id -> new ScreenTimeline());
+    }
+
+    private static LocalDateTime roundUp(LocalDateTime time) {
+        LocalDateTime truncated = time.withSecond(0).withNano(0);
+        if (truncated.isBefore(time)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int remainder = truncated.getMinute() % SHIFT_ROUNDING_MINUTES;
+        return remainder == 0 ? truncated : truncated.plusMinutes(SHIFT_ROUNDING_MINUTES - remainder);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static String formatRange(LocalDateTime start, LocalDateTime end) {
+        return start.format(TIME_FORMAT) + "–" + end.format(TIME_FORMAT);
+    }
+}
@@ -5,6 +5,7 @@ import com.cinema.models.dto.*;
 import com.cinema.utils.BookingApiClient;
 import com.cinema.utils.BookingApiService;
 import com.cinema.utils.CinemaBankApiClient;
+import com.cinema.utils.ImageCache;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -326,22 +327,15 @@ public class BookingConfirmationController implements Initializable {
         try {
             String posterUrl = currentBooking.getMoviePosterUrl();
             if (posterUrl != null && !posterUrl.isEmpty()) {
-                Image posterImg = new Image(posterUrl, true);
-                moviePosterImage.setImage(posterImg);
-
-                posterImg.progressProperty().addListener((obs, oldVal, newVal) -> {
-                    if (newVal.doubleValue() >= 1.0 || posterImg.isError()) {
-                        Platform.runLater(() -> {
+                ImageCache.getInstance().loadInto(moviePosterImage, posterUrl)
+                        .thenAccept(posterImg -> Platform.runLater(() -> {
                             applyFullFramePoster(moviePosterImage, posterImg);
                             applyRoundedImage(moviePosterImage, 8);
+                        }))
+                        .exceptionally(err -> {
+                            System.err.println("Could not load poster image: " + err.getMessage());
+                            return null;
                         });
-                    }
-                });
-
-                if (posterImg.getProgress() >= 1.0) {
-                    applyFullFramePoster(moviePosterImage, posterImg);
-                    applyRoundedImage(moviePosterImage, 8);
-                }
             }
         } catch (Exception e) {
             System.err.println("Could not load poster image: " + e.getMessage());
@@ -351,8 +345,7 @@ public class BookingConfirmationController implements Initializable {
         try {
             String logoUrl = currentBooking.getCinemaLogoUrl();
             if (logoUrl != null && !logoUrl.isEmpty()) {
-                Image logoImg = new Image(logoUrl, true);
-                cinemaLogoImage.setImage(logoImg);
+                ImageCache.getInstance().loadInto(cinemaLogoImage, logoUrl);
                 applyRoundedImage(cinemaLogoImage, 8);
             }
         } catch (Exception e) {
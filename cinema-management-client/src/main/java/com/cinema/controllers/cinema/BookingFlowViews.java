@@ -0,0 +1,25 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.utils.ViewRegistry;
+
+import java.util.List;
+
+/**
+ * Các màn hình của flow đặt vé được giữ trong ViewRegistry
+ * (controller tương ứng implements ReusableView).
+ */
+public final class BookingFlowViews {
+
+    public static final String CINEMA_SHOWTIME = "/views/cinema/cinema-showtime.fxml";
+    public static final String SEAT_SELECTION = "/views/cinema/seat-selection.fxml";
+    public static final String COMBO_SELECTION = "/views/cinema/combo-selection.fxml";
+
+    private static final List<String> ALL = List.of(CINEMA_SHOWTIME, SEAT_SELECTION, COMBO_SELECTION);
+
+    private BookingFlowViews() {}
+
+    /** Parse trước các bước của flow ở thread nền (gọi khi vào trang chủ khách hàng) */
+    public static void preload() {
+        ViewRegistry.getInstance().preload(ALL);
+    }
+}
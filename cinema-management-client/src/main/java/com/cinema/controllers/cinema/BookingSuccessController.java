@@ -5,7 +5,6 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 import java.net.URL;
@@ -18,6 +17,7 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 
 import com.cinema.models.*;
+import com.cinema.utils.ImageCache;
 
 public class BookingSuccessController implements Initializable {
 
@@ -129,16 +129,14 @@ public class BookingSuccessController implements Initializable {
         // Load QR code vé điện tử
         try {
             String qrUrl = successBooking.getTicketQrCodeUrl();
-            Image qrImage = new Image(qrUrl, true);
-            ticketQrImage.setImage(qrImage);
+            ImageCache.getInstance().loadInto(ticketQrImage, qrUrl);
         } catch (Exception e) {
             System.err.println("Không thể load QR vé: " + e.getMessage());
         }
         
         // Load poster phim
         try {
-            Image posterImage = new Image(successBooking.getMoviePosterUrl(), true);
-            moviePosterImage.setImage(posterImage);
+            ImageCache.getInstance().loadInto(moviePosterImage, successBooking.getMoviePosterUrl());
         } catch (Exception e) {
             System.err.println("Không thể load poster: " + e.getMessage());
         }
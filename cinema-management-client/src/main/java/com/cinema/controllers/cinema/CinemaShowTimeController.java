@@ -11,8 +11,8 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
@@ -21,32 +21,34 @@ import javafx.stage.Stage;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.FlowPane;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.event.ActionEvent;
 import javafx.util.Duration;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import com.cinema.models.Cinema;
 import com.cinema.models.Screen;
-import com.cinema.models.Seat;
-import com.cinema.models.SeatLayout;
-import com.cinema.models.SeatStatus;
 import com.cinema.models.Showtime;
-import com.cinema.utils.BookedSeatApiClient;
 import com.cinema.utils.CinemaApiClient;
+import com.cinema.utils.ImageCache;
+import com.cinema.utils.ReusableView;
+import com.cinema.utils.SeatAvailabilityService;
+import com.cinema.utils.SeatPrefetcher;
+import com.cinema.utils.SocketManager;
+import com.cinema.utils.ViewRegistry;
 
 import org.kordamp.ikonli.javafx.FontIcon;
 
-public class CinemaShowTimeController {
+public class CinemaShowTimeController implements ReusableView {
     @FXML
     private Label movieTitleLabel;
 
@@ -74,6 +76,16 @@ public class CinemaShowTimeController {
     private String currentMovieId;
 
     private List<Cinema> allCinemas = new ArrayList<>();
+    // Dựng lại mỗi lần tải rạp; các nút lọc chỉ tra trong này
+    private ShowtimeIndex showtimeIndex = ShowtimeIndex.empty();
+    // Số ghế đã bán của các nút đang hiển thị, cập nhật qua socket
+    private final SeatAvailabilityService seatAvailability = SeatAvailabilityService.getInstance();
+
+    // Con trỏ dừng trên nút suất chiếu lâu hơn mức này mới tải trước (lướt qua thì không)
+    private static final Duration HOVER_PREFETCH_DELAY = Duration.millis(120);
+    private final SeatPrefetcher seatPrefetcher = SeatPrefetcher.getInstance();
+    // Lần mở màn chọn ghế đang chờ ghế đã đặt (null = không có)
+    private CompletableFuture<List<String>> pendingSeatSelection;
 
     @FXML
     public void initialize() {
@@ -100,6 +112,37 @@ public class CinemaShowTimeController {
         System.out.println("Waiting for movieId...");
     }
 
+    /**
+     * View được ViewRegistry dùng lại → bỏ rạp / bộ lọc của phim trước, chờ setMovieId()
+     */
+    @Override
+    public void resetView() {
+        currentMovieId = null;
+        allCinemas = new ArrayList<>();
+        showtimeIndex = ShowtimeIndex.empty();
+        seatAvailability.unwatchAll();
+        seatPrefetcher.clear();
+        pendingSeatSelection = null;
+
+        currentSelectedDate = LocalDate.now();
+        selectedDate = currentSelectedDate.format(java.time.format.DateTimeFormatter.ofPattern("d/M"));
+        selectedTimeSlot = "Tất cả";
+        selectedCinemaChain = "Tất cả";
+        selectedLocation = "Tất cả";
+
+        if (locationCombo != null) {
+            locationCombo.getItems().clear();
+            locationCombo.setValue("Tất cả");
+        }
+        if (cinemaChainContainer != null) {
+            cinemaChainContainer.getChildren().clear();
+        }
+        cinemaListingsContainer.getChildren().clear();
+
+        generateDateButtons(14);
+        generateTimeSlotButtons();
+    }
+
     /**
      * Nhận movieId từ trang trước → Gọi API load rạp
      */
@@ -126,10 +169,15 @@ public class CinemaShowTimeController {
         cinemaListingsContainer.getChildren().add(loading);
 
         // Gọi API trong background thread
+        String movieId = currentMovieId;
         new Thread(() -> {
-            List<Cinema> cinemas = CinemaApiClient.getCinemasByMovieId(currentMovieId);
+            List<Cinema> cinemas = CinemaApiClient.getCinemasByMovieId(movieId);
+            ShowtimeIndex index = ShowtimeIndex.build(cinemas); // Dựng ở thread nền
 
             Platform.runLater(() -> {
+                if (!movieId.equals(currentMovieId)) {
+                    return; // View đã được dùng lại cho phim khác
+                }
                 cinemaListingsContainer.getChildren().clear();
 
                 if (cinemas == null || cinemas.isEmpty()) {
@@ -140,6 +188,7 @@ public class CinemaShowTimeController {
                 }
 
                 allCinemas = cinemas;
+                showtimeIndex = index;
                 System.out.println("Loaded " + allCinemas.size() + " cinemas from API");
 
                 updateLocationComboBox();
@@ -156,11 +205,7 @@ public class CinemaShowTimeController {
         if (locationCombo == null || allCinemas == null || allCinemas.isEmpty())
             return;
 
-        List<String> cities = allCinemas.stream()
-                .map(Cinema::getCity)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        List<String> cities = showtimeIndex.getCities();
 
         locationCombo.getItems().clear();
         locationCombo.getItems().add("Tất cả");
@@ -187,31 +232,9 @@ public class CinemaShowTimeController {
             return;
         }
 
-        // Lấy các cụm rạp từ dữ liệu thực
-        Set<String> chains = new HashSet<>();
-        for (Cinema cinema : allCinemas) {
-            String chain = detectChain(cinema.getName());
-            if (!"OTHER".equals(chain)) {
-                chains.add(chain);
-                System.out.println("Detected chain: " + chain + " from cinema: " + cinema.getName());
-            }
-        }
-
-        System.out.println("Total chains found: " + chains); // Hiển thị ["CGV", "LOTTE", ...]
-
-        // Sắp xếp theo thứ tự mong muốn
-        List<String> orderedChains = chains.stream()
-                .sorted((a, b) -> {
-                    String[] order = { "CGV", "LOTTE", "GALAXY", "BHD STAR" };
-                    int ia = java.util.Arrays.asList(order).indexOf(a);
-                    int ib = java.util.Arrays.asList(order).indexOf(b);
-                    if (ia == -1)
-                        ia = 999;
-                    if (ib == -1)
-                        ib = 999;
-                    return Integer.compare(ia, ib);
-                })
-                .collect(Collectors.toList());
+        // Cụm rạp có trong dữ liệu, đã sắp theo thứ tự hiển thị khi dựng chỉ mục
+        List<String> orderedChains = showtimeIndex.getChains();
+        System.out.println("Total chains found: " + orderedChains); // Hiển thị ["CGV", "LOTTE", ...]
 
         // Tạo button cho từng cụm
         for (String chain : orderedChains) {
@@ -219,22 +242,6 @@ public class CinemaShowTimeController {
         }
     }
 
-    /**
-     * Helper: Xác định chuỗi rạp từ tên (dùng chung)
-     */
-    private String detectChain(String cinemaName) {
-        String upper = cinemaName.toUpperCase();
-        if (upper.contains("CGV"))
-            return "CGV";
-        if (upper.contains("LOTTE"))
-            return "LOTTE";
-        if (upper.contains("GALAXY"))
-            return "GALAXY";
-        if (upper.contains("BHD"))
-            return "BHD STAR";
-        return "OTHER";
-    }
-
     private VBox createCinemaChainButton(String chainName) {
         VBox vbox = new VBox();
         vbox.setAlignment(Pos.CENTER);
@@ -273,37 +280,28 @@ public class CinemaShowTimeController {
         cinemaListingsContainer.getChildren().clear();
 
         if (allCinemas == null || allCinemas.isEmpty()) {
+            seatAvailability.unwatchAll();
             Label noData = new Label("Chưa có dữ liệu rạp");
             noData.setStyle("-fx-text-fill: #8e92bc;");
             cinemaListingsContainer.getChildren().add(noData);
             return;
         }
 
-        List<Cinema> filtered = allCinemas.stream()
-                .filter(cinema -> {
-                    // 1. Filter theo location
-                    if (!"Tất cả".equals(selectedLocation)) {
-                        if (!selectedLocation.equals(cinema.getCity())) {
-                            return false;
-                        }
-                    }
-
-                    // 2. Filter theo cinema chain
-                    if (!"Tất cả".equals(selectedCinemaChain)) {
-                        String chain = detectChain(cinema.getName());
-                        if (!selectedCinemaChain.equals(chain)) {
-                            return false;
-                        }
-                    }
-
-                    // 3. THÊM: Có ít nhất 1 suất phù hợp với ngày + khung giờ
-                    List<Screen> suitableScreens = filterScreensByDateAndTime(cinema.getScreens());
-                    return !suitableScreens.isEmpty();
-                })
-                .collect(Collectors.toList());
+        // Mỗi tổ hợp bộ lọc là một nhánh dựng sẵn trong chỉ mục
+        List<ShowtimeIndex.CinemaRow> filtered = showtimeIndex.rows(
+                currentSelectedDate, selectedTimeSlot, selectedCinemaChain, selectedLocation);
 
         System.out.println("Filtered: " + filtered.size() + " cinemas");
 
+        // Chỉ theo dõi số ghế của các nút sắp vẽ (một request cho cả lô + room socket)
+        List<String> showtimeIds = new ArrayList<>();
+        for (ShowtimeIndex.CinemaRow row : filtered) {
+            for (ShowtimeIndex.ShowtimeRow showtimeRow : row.getShowtimes()) {
+                showtimeIds.add(showtimeRow.getShowtime().getId());
+            }
+        }
+        seatAvailability.watch(showtimeIds);
+
         if (filtered.isEmpty()) {
             Label noData = new Label("Không tìm thấy suất chiếu phù hợp");
             noData.setStyle("-fx-text-fill: #8e92bc; -fx-font-size: 16px;");
@@ -312,23 +310,21 @@ public class CinemaShowTimeController {
         }
 
         // Hiển thị từng rạp
-        for (Cinema cinema : filtered) {
-            VBox card = createCinemaCard(cinema);
-            if (card != null) {
-                cinemaListingsContainer.getChildren().add(card);
-            }
+        for (ShowtimeIndex.CinemaRow row : filtered) {
+            cinemaListingsContainer.getChildren().add(createCinemaCard(row));
         }
     }
 
     /**
-     * Tạo card rạp từ Cinema thật
+     * Tạo card rạp từ một dòng của chỉ mục (rạp + các suất đã lọc)
      */
-    private VBox createCinemaCard(Cinema cinema) {
+    private VBox createCinemaCard(ShowtimeIndex.CinemaRow row) {
+        Cinema cinema = row.getCinema();
         VBox card = new VBox(12);
         card.getStyleClass().add("cinema-card");
         card.setPadding(new Insets(20));
 
-        String chain = detectChain(cinema.getName()); // Dùng helper nhất quán
+        String chain = row.getChain();
         boolean isLotte = "LOTTE".equals(chain);
         boolean isFavorite = false; // TODO: Check từ database
 
@@ -355,7 +351,7 @@ public class CinemaShowTimeController {
         // Load ảnh từ API
         String logoUrl = cinema.getLogoUrl();
         if (logoUrl != null && !logoUrl.isBlank()) {
-            logoImageView.setImage(new Image(logoUrl, true));
+            ImageCache.getInstance().loadInto(logoImageView, logoUrl);
         }
 
         // === Logo Box (khung) ===
@@ -447,96 +443,18 @@ public class CinemaShowTimeController {
         FlowPane flow = new FlowPane(10, 10);
         flow.getStyleClass().add("showtimes-container");
 
-        List<Screen> filteredScreens = filterScreensByDateAndTime(cinema.getScreens());
-
-        if (filteredScreens.isEmpty()) {
-            // Không có suất chiếu phù hợp → không hiển thị rạp này
-            return null;
-        }
-
-        // Tạo button cho MỖI SHOWTIME (không phải mỗi screen)
-        for (Screen screen : filteredScreens) {
-            for (Showtime showtime : screen.getShowtimes()) {
-                String timeRange = showtime.getStartTime().toLocalTime().toString()
-                        + " - "
-                        + showtime.getEndTime().toLocalTime().toString();
-
-                int available = countAvailableSeats(screen.getSeatLayout());
-                String seatsText = available + "/" + screen.getTotalSeats() + " ghế";
-
-                VBox btn = createShowtimeButton(timeRange, seatsText, cinema, screen, showtime);
-                flow.getChildren().add(btn);
-            }
+        // Tạo button cho MỖI SHOWTIME (đã sắp theo giờ bắt đầu)
+        for (ShowtimeIndex.ShowtimeRow showtimeRow : row.getShowtimes()) {
+            VBox btn = createShowtimeButton(showtimeRow.getTimeRange(), showtimeRow.getTotalSeats(),
+                    cinema, showtimeRow.getScreen(), showtimeRow.getShowtime());
+            flow.getChildren().add(btn);
         }
 
         card.getChildren().addAll(header, flow);
         return card;
     }
 
-    /**
-     * Filter screens theo ngày và khung giờ đã chọn
-     */
-    private List<Screen> filterScreensByDateAndTime(List<Screen> screens) {
-        if (screens == null)
-            return new ArrayList<>();
-
-        List<Screen> result = new ArrayList<>();
-
-        for (Screen screen : screens) {
-            if (screen.getShowtimes() == null || screen.getShowtimes().isEmpty())
-                continue;
-
-            // Lọc showtimes của screen này
-            List<Showtime> filteredShowtimes = screen.getShowtimes().stream()
-                    .filter(st -> {
-                        if (st.getStartTime() == null)
-                            return false;
-
-                        // Filter theo ngày
-                        LocalDate stDate = st.getStartTime().toLocalDate();
-                        if (!stDate.equals(currentSelectedDate)) {
-                            return false;
-                        }
-
-                        // Filter theo khung giờ
-                        if (!"Tất cả".equals(selectedTimeSlot)) {
-                            String[] parts = selectedTimeSlot.split(" - ");
-                            if (parts.length == 2) {
-                                try {
-                                    LocalTime slotStart = LocalTime.parse(parts[0]);
-                                    LocalTime slotEnd = LocalTime.parse(parts[1]);
-                                    LocalTime stTime = st.getStartTime().toLocalTime();
-
-                                    if (stTime.isBefore(slotStart) || !stTime.isBefore(slotEnd)) {
-                                        return false;
-                                    }
-                                } catch (Exception e) {
-                                    // Parse error → bỏ qua filter này
-                                }
-                            }
-                        }
-
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-
-            // Nếu có showtime phù hợp → clone screen và gắn showtimes đã filter
-            if (!filteredShowtimes.isEmpty()) {
-                Screen clonedScreen = new Screen();
-                clonedScreen.setId(screen.getId());
-                clonedScreen.setName(screen.getName());
-                clonedScreen.setCinemaId(screen.getCinemaId());
-                clonedScreen.setSeatLayout(screen.getSeatLayout());
-                clonedScreen.setTotalSeats(screen.getTotalSeats());
-                clonedScreen.setShowtimes(filteredShowtimes);
-                result.add(clonedScreen);
-            }
-        }
-
-        return result;
-    }
-
-    private VBox createShowtimeButton(String timeRange, String seatsText,
+    private VBox createShowtimeButton(String timeRange, int totalSeats,
             Cinema cinema, Screen screen, Showtime showtime) {
         VBox btn = new VBox(5);
         btn.setAlignment(Pos.CENTER);
@@ -548,7 +466,11 @@ public class CinemaShowTimeController {
         time.getStyleClass().add("showtime-time");
         time.setFont(Font.font("System", FontWeight.BOLD, 14));
 
-        Label seats = new Label(seatsText);
+        // Nhãn tự đổi khi có ghế được bán, không cần vẽ lại card
+        ReadOnlyIntegerProperty booked = seatAvailability.bookedSeatsProperty(showtime.getId());
+        Label seats = new Label();
+        seats.textProperty().bind(Bindings.createStringBinding(
+                () -> seatsText(booked.get(), totalSeats), booked));
         seats.getStyleClass().add("showtime-seats");
         seats.setFont(Font.font(11));
 
@@ -556,9 +478,45 @@ public class CinemaShowTimeController {
 
         btn.setOnMouseClicked(e -> goToSeatSelection(cinema, screen, showtime));
 
+        // Hover / focus → tải trước ghế đã đặt + mở sẵn socket; rời nút trước khi xong thì hủy
+        btn.setFocusTraversable(true);
+        PauseTransition hoverDelay = new PauseTransition(HOVER_PREFETCH_DELAY);
+        hoverDelay.setOnFinished(e -> prefetchSeatSelection(showtime));
+        btn.setOnMouseEntered(e -> hoverDelay.playFromStart());
+        btn.setOnMouseExited(e -> {
+            hoverDelay.stop();
+            if (!btn.isFocused()) {
+                seatPrefetcher.cancel(showtime.getId());
+            }
+        });
+        btn.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (focused) {
+                prefetchSeatSelection(showtime);
+            } else if (!btn.isHover()) {
+                seatPrefetcher.cancel(showtime.getId());
+            }
+        });
+        btn.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER || e.getCode() == KeyCode.SPACE) {
+                goToSeatSelection(cinema, screen, showtime);
+            }
+        });
+
         return btn;
     }
 
+    private void prefetchSeatSelection(Showtime showtime) {
+        seatPrefetcher.prefetch(showtime.getId());
+        ViewRegistry.getInstance().preload(BookingFlowViews.SEAT_SELECTION); // Đã có thì bỏ qua
+    }
+
+    private static String seatsText(int bookedSeats, int totalSeats) {
+        if (bookedSeats == SeatAvailabilityService.UNKNOWN) {
+            return "--/" + totalSeats + " ghế";
+        }
+        return Math.max(0, totalSeats - bookedSeats) + "/" + totalSeats + " ghế";
+    }
+
     private void goToSeatSelection(Cinema cinema, Screen screen, Showtime showtime) {
         try {
             System.out.println("==========================================");
@@ -595,12 +553,38 @@ public class CinemaShowTimeController {
             System.out.println("  Screen ID: " + showtime.getScreenId());
             System.out.println("==========================================");
 
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/cinema/seat-selection.fxml"));
-            Parent seatRoot = loader.load();
+            if (pendingSeatSelection != null) {
+                return; // Đang chờ mở một suất khác (click liên tiếp)
+            }
+
+            // Thường đã tải xong từ lúc hover; chưa xong thì chờ ở nền, FX thread không bị chặn
+            CompletableFuture<List<String>> bookedSeats = seatPrefetcher.take(showtime.getId());
+            if (bookedSeats.isDone()) {
+                openSeatSelection(cinema, screen, showtime, bookedSeats.join());
+                return;
+            }
+            pendingSeatSelection = bookedSeats;
+            bookedSeats.thenAccept(seats -> Platform.runLater(() -> {
+                if (pendingSeatSelection != bookedSeats) {
+                    return; // Đã rời màn hình trong lúc chờ
+                }
+                pendingSeatSelection = null;
+                openSeatSelection(cinema, screen, showtime, seats);
+            }));
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
 
-            SeatSelectionController controller = loader.getController();
+    private void openSeatSelection(Cinema cinema, Screen screen, Showtime showtime, List<String> bookedSeats) {
+        try {
+            ViewRegistry.View<SeatSelectionController> view =
+                    ViewRegistry.getInstance().acquire(BookingFlowViews.SEAT_SELECTION);
+            Parent seatRoot = view.getRoot();
+
+            SeatSelectionController controller = view.getController();
 
-            List<String> bookedSeats = BookedSeatApiClient.getBookedSeats(showtime.getId());
             showtime.setBookedSeats(bookedSeats);
 
             controller.setShowData(cinema, screen, showtime);
@@ -610,6 +594,8 @@ public class CinemaShowTimeController {
             boolean wasFullScreen = stage.isFullScreen();
 
             currentScene.setRoot(seatRoot);
+            seatAvailability.unwatchAll();
+            seatPrefetcher.clear();
 
             if (wasFullScreen) {
                 Platform.runLater(() -> {
@@ -623,36 +609,14 @@ public class CinemaShowTimeController {
         }
     }
 
-    /**
-     * Đếm ghế available
-     * TODO: Hiện tại API chưa trả status → tất cả ghế đều AVAILABLE
-     */
-    private int countAvailableSeats(SeatLayout layout) {
-        if (layout == null || layout.getSeats() == null)
-            return 0;
-        int count = 0;
-        for (List<Seat> row : layout.getSeats()) {
-            for (Seat s : row) {
-                if (s != null && s.getStatus() == SeatStatus.AVAILABLE)
-                    count++;
-            }
-        }
-        return count;
-    }
-
     private void generateTimeSlotButtons() {
         timeSlotContainer.getChildren().clear();
 
-        String[] timeSlots = {
-                "Tất cả",
-                "06:00 - 09:00",
-                "09:00 - 12:00",
-                "12:00 - 15:00",
-                "15:00 - 18:00",
-                "18:00 - 21:00",
-                "21:00 - 00:00",
-                "00:00 - 06:00"
-        };
+        List<String> timeSlots = new ArrayList<>();
+        timeSlots.add(ShowtimeIndex.ALL);
+        for (ShowtimeIndex.TimeSlot slot : ShowtimeIndex.TimeSlot.values()) {
+            timeSlots.add(slot.getLabel());
+        }
 
         for (String slot : timeSlots) {
             Button btn = new Button(slot);
@@ -758,6 +722,10 @@ public class CinemaShowTimeController {
             boolean wasFullScreen = stage.isFullScreen();
 
             scene.setRoot(movieDetailRoot);
+            seatAvailability.unwatchAll();
+            seatPrefetcher.clear();
+            pendingSeatSelection = null;
+            SocketManager.getInstance().disconnectIfIdle(); // Socket mở sẵn lúc hover nhưng không dùng
 
             if (wasFullScreen) {
                 Platform.runLater(() -> {
@@ -15,7 +15,6 @@ import javafx.stage.Stage;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.geometry.Pos;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 import java.net.URL;
@@ -27,10 +26,12 @@ import com.cinema.models.FoodCombo;
 import com.cinema.models.Seat;
 import com.cinema.models.Showtime;
 import com.cinema.utils.FoodComboApiClient;
+import com.cinema.utils.ImageCache;
+import com.cinema.utils.ReusableView;
 
 import javafx.scene.shape.Rectangle;
 
-public class ComboSelectionController {
+public class ComboSelectionController implements ReusableView {
 
     @FXML
     private Button backButton;
@@ -59,6 +60,9 @@ public class ComboSelectionController {
     private Showtime currentShowtime;
     private List<Seat> selectedSeats = new ArrayList<>();
 
+    // Tăng mỗi lần tải combo → kết quả của lần tải cũ (view đã dùng lại) bị bỏ
+    private int loadGeneration;
+
     public void setCinemaId(String cinemaId) {
         this.cinemaId = cinemaId;
     }
@@ -86,9 +90,26 @@ public class ComboSelectionController {
     }
 
     public void initData() {
+        updatePriceSummary();
         loadRealCombos();
     }
 
+    /**
+     * View được ViewRegistry dùng lại → bỏ combo đã chọn và dữ liệu của lần đặt vé trước
+     */
+    @Override
+    public void resetView() {
+        loadGeneration++;
+        cinemaId = null;
+        ticketPrice = 0;
+        currentShowtime = null;
+        selectedSeats = new ArrayList<>();
+        availableCombos = new ArrayList<>();
+        selectedCombos.clear();
+        comboFlowPane.getChildren().clear();
+        updatePriceSummary();
+    }
+
     private void loadRealCombos() {
         if (cinemaId == null || cinemaId.trim().isEmpty()) {
             showErrorMessage("Không xác định được rạp chiếu phim!");
@@ -101,10 +122,15 @@ public class ComboSelectionController {
         loadingLabel.setAlignment(Pos.CENTER);
         comboFlowPane.getChildren().add(loadingLabel);
 
+        String requestedCinemaId = cinemaId;
+        int generation = ++loadGeneration;
         new Thread(() -> {
-            List<FoodCombo> combos = FoodComboApiClient.getFoodCombosByCinemaId(cinemaId);
+            List<FoodCombo> combos = FoodComboApiClient.getFoodCombosByCinemaId(requestedCinemaId);
 
             Platform.runLater(() -> {
+                if (generation != loadGeneration) {
+                    return;
+                }
                 comboFlowPane.getChildren().clear();
 
                 if (combos == null || combos.isEmpty()) {
@@ -163,16 +189,15 @@ public class ComboSelectionController {
             ImageView imageView = new ImageView();
             imageView.getStyleClass().add("combo-image");
 
-            // Load image từ URL
-            Image image = new Image(combo.getImageUrl(), true); // true = load ở background
-            imageView.setImage(image);
-
-            // Set size để fit với container
+            // Set size để fit với container (trước khi load để decode đúng kích thước)
             imageView.setFitWidth(290);
             imageView.setFitHeight(180);
             imageView.setPreserveRatio(false); // Fill đầy container
             imageView.setSmooth(true);
 
+            // Load image từ URL qua cache (background)
+            ImageCache.getInstance().loadInto(imageView, combo.getImageUrl());
+
             Rectangle clip = new Rectangle(290, 180);
             clip.setArcWidth(15); // Bo góc 12px
             clip.setArcHeight(15); // Bo góc 12px
@@ -19,6 +19,8 @@ import com.cinema.models.Movie;
 import com.cinema.utils.ApiClient;
 import com.cinema.utils.MovieApi;
 import com.cinema.utils.RatingStatsResponse;
+import com.cinema.utils.ImageCache;
+import com.cinema.utils.ViewRegistry;
 
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
@@ -32,7 +34,6 @@ import javafx.scene.Cursor;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.shape.Circle;
@@ -157,7 +158,7 @@ public class MovieDetailController {
 
         // Poster
         try {
-            posterImage.setImage(new Image(movie.getPosterUrl()));
+            ImageCache.getInstance().loadInto(posterImage, movie.getPosterUrl());
         } catch (Exception e) {
             e.printStackTrace();
             // Có thể set ảnh mặc định nếu cần
@@ -356,14 +357,12 @@ public class MovieDetailController {
 
         // ✅ Load ảnh từ DB
         if (imageUrl != null && !imageUrl.isBlank()) {
-            imageView.setImage(new Image(imageUrl, true));
+            ImageCache.getInstance().loadInto(imageView, imageUrl);
         } else {
-            imageView.setImage(
-                    new Image(
-                            getClass()
-                                    .getResource("/images/default-avatar.png")
-                                    .toExternalForm(),
-                            true));
+            ImageCache.getInstance().loadInto(imageView,
+                    getClass()
+                            .getResource("/images/default-avatar.png")
+                            .toExternalForm());
         }
 
         Rectangle clip = new Rectangle(140, 180);
@@ -494,20 +493,15 @@ public class MovieDetailController {
         String avatarUrl = comment.getUserAvatar();
         String fallbackUrl = "https://i.pinimg.com/1200x/b1/7c/cf/b17ccf72f102b9284db304597db9863e.jpg";
 
-        Image avatarImg;
         if (avatarUrl != null && !avatarUrl.isBlank()) {
-            avatarImg = new Image(avatarUrl, true);
+            ImageCache.getInstance().loadInto(avatarView, avatarUrl).exceptionally(err -> {
+                Platform.runLater(() -> ImageCache.getInstance().loadInto(avatarView, fallbackUrl));
+                return null;
+            });
         } else {
-            avatarImg = new Image(fallbackUrl, true);
+            ImageCache.getInstance().loadInto(avatarView, fallbackUrl);
         }
 
-        avatarImg.errorProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal) {
-                avatarView.setImage(new Image(fallbackUrl, true));
-            }
-        });
-
-        avatarView.setImage(avatarImg);
         avatarView.setClip(new Circle(21, 21, 21));
 
         VBox userInfo = new VBox(2);
@@ -826,12 +820,13 @@ public class MovieDetailController {
 
     private void handleBuyTicket() {
         try {
-            // 1. Load trang showtime
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/cinema/cinema-showtime.fxml"));
-            Parent newRoot = loader.load();
+            // 1. Lấy trang showtime (đã preload → chỉ gắn lại)
+            ViewRegistry.View<CinemaShowTimeController> view =
+                    ViewRegistry.getInstance().acquire(BookingFlowViews.CINEMA_SHOWTIME);
+            Parent newRoot = view.getRoot();
 
             // 2. Gửi ID phim qua controller trang showtime
-            CinemaShowTimeController controller = loader.getController();
+            CinemaShowTimeController controller = view.getController();
             System.out.println("🔍 DEBUG: Truyền movieId sang CinemaShowTimeController = " + currentMovieId);
             // ← In ra console giá trị currentMovieId ngay tại thời điểm truyền
             controller.setMovieId(currentMovieId); // ĐÚNG – dùng biến đã có
@@ -11,7 +11,6 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
@@ -28,6 +27,8 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 
 import com.cinema.models.*;
+import com.cinema.utils.ImageCache;
+import com.cinema.utils.http.Endpoints;
 
 // ✅ THÊM: Socket.IO imports
 import io.socket.client.IO;
@@ -115,12 +116,13 @@ public class PaymentController implements Initializable {
     private void connectPaymentSocket() {
         try {
             IO.Options options = new IO.Options();
-            options.transports = new String[] { "websocket" };
+            // Transport mặc định (polling rồi nâng lên websocket) như SocketIOClient /seats:
+            // chạy được cả khi proxy chặn WebSocket và với stand-in server chỉ hỗ trợ polling
             options.reconnection = true;
             options.reconnectionAttempts = 5;
             options.reconnectionDelay = 1000;
 
-            paymentSocket = IO.socket("http://localhost:3000/payment", options);
+            paymentSocket = IO.socket(Endpoints.socket("/payment"), options);
 
             // ✅ Lắng nghe event payment status từ server
             paymentSocket.on("payment:status", args -> {
@@ -280,8 +282,7 @@ public class PaymentController implements Initializable {
 
         // Thông tin phim
         try {
-            Image posterImage = new Image(currentBooking.getMoviePosterUrl(), true);
-            moviePosterImage.setImage(posterImage);
+            ImageCache.getInstance().loadInto(moviePosterImage, currentBooking.getMoviePosterUrl());
         } catch (Exception e) {
             System.err.println("Không thể load poster: " + e.getMessage());
         }
@@ -301,8 +302,7 @@ public class PaymentController implements Initializable {
         PaymentInfo paymentInfo = currentBooking.getPaymentInfo();
         if (paymentInfo != null) {
             try {
-                Image qrImage = new Image(paymentInfo.getQrCodeUrl(), true);
-                qrCodeImage.setImage(qrImage);
+                ImageCache.getInstance().loadInto(qrCodeImage, paymentInfo.getQrCodeUrl());
             } catch (Exception e) {
                 System.err.println("Không thể load QR code: " + e.getMessage());
             }
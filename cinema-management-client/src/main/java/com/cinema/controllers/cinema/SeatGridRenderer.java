@@ -0,0 +1,151 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStatus;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Renderer dạng node: mỗi ghế là một StackPane + Label, màu lấy từ style class trong seat-selection.css.
+ * Mỗi lần đổi trạng thái sẽ đổi style class → JavaFX áp lại CSS và layout cho node đó.
+ */
+public class SeatGridRenderer implements SeatMapRenderer {
+
+    private final GridPane seatGridPane;
+
+    // === LƯU STACKPANE THEO SỐ GHẾ ===
+    private final Map<String, StackPane> seatPanes = new HashMap<>();
+
+    private Consumer<Seat> onSeatClicked;
+
+    public SeatGridRenderer(GridPane seatGridPane) {
+        this.seatGridPane = seatGridPane;
+    }
+
+    @Override
+    public Node getView() {
+        return seatGridPane;
+    }
+
+    @Override
+    public void setOnSeatClicked(Consumer<Seat> handler) {
+        this.onSeatClicked = handler;
+    }
+
+    @Override
+    public void render(SeatLayout layout) {
+        seatGridPane.getChildren().clear();
+        seatPanes.clear(); // Xóa map cũ
+
+        for (int row = 0; row < layout.getRows(); row++) {
+            Label rowLabel = new Label(String.valueOf((char) ('A' + row)));
+            rowLabel.getStyleClass().add("row-label");
+            rowLabel.setAlignment(Pos.CENTER);
+            seatGridPane.add(rowLabel, 0, row);
+
+            for (int col = 0; col < layout.getColumns(); col++) {
+                Seat seat = layout.getSeat(row, col);
+
+                if (seat == null || seat.getSeatNumber() == null || seat.getSeatNumber().isEmpty()) {
+                    continue;
+                }
+
+                // Ghế đôi chiếm nhiều ô liên tiếp → một StackPane span các ô đó
+                int span = 1;
+                while (col + span < layout.getColumns() && layout.getSeat(row, col + span) == seat) {
+                    span++;
+                }
+
+                StackPane seatPane = createSeatPane(seat);
+                seatPanes.put(seat.getSeatNumber(), seatPane);
+                seatGridPane.add(seatPane, col + 1, row, span, 1);
+
+                col += span - 1;
+            }
+        }
+    }
+
+    private StackPane createSeatPane(Seat seat) {
+        StackPane seatPane = new StackPane();
+        Label seatLabel = new Label(seat.getSeatNumber());
+        seatLabel.getStyleClass().add("seat-label");
+        seatPane.getChildren().add(seatLabel);
+        seatPane.getStyleClass().add("seat");
+
+        applyStatus(seat, seatPane);
+
+        seatPane.setOnMouseClicked(event -> {
+            SeatStatus status = seat.getStatus();
+            if (onSeatClicked != null && (status == SeatStatus.AVAILABLE || status == SeatStatus.SELECTED)) {
+                onSeatClicked.accept(seat);
+            }
+        });
+        return seatPane;
+    }
+
+    @Override
+    public void refreshSeat(Seat seat) {
+        StackPane seatPane = seatPanes.get(seat.getSeatNumber());
+        if (seatPane != null) {
+            applyStatus(seat, seatPane);
+        }
+    }
+
+    private void applyStatus(Seat seat, StackPane seatPane) {
+        SeatStatus status = seat.getStatus() != null ? seat.getStatus() : SeatStatus.AVAILABLE;
+
+        switch (status) {
+            case BOOKED -> {
+                seatPane.setStyle("");
+                seatPane.getStyleClass().removeAll("seat-available", "seat-vip", "seat-couple", "seat-selected");
+                addStyleClass(seatPane, "seat-booked");
+                seatPane.setDisable(true);
+            }
+            case HELD -> {
+                // Style cho ghế người khác hold
+                seatPane.setStyle("-fx-background-color: #FFC107; -fx-opacity: 0.6;");
+                seatPane.getStyleClass().remove("seat-selected");
+                seatPane.setDisable(true);
+            }
+            case SELECTED -> {
+                seatPane.setStyle("");
+                seatPane.setDisable(false);
+                addTypeStyleClass(seat, seatPane);
+                addStyleClass(seatPane, "seat-selected");
+            }
+            default -> {
+                seatPane.setStyle("");
+                seatPane.setDisable(false);
+                seatPane.getStyleClass().remove("seat-selected");
+                addTypeStyleClass(seat, seatPane);
+            }
+        }
+    }
+
+    private void addTypeStyleClass(Seat seat, StackPane seatPane) {
+        switch (seat.getSeatType()) {
+            case VIP:
+                addStyleClass(seatPane, "seat-vip");
+                break;
+            case COUPLE:
+                addStyleClass(seatPane, "seat-couple");
+                break;
+            default:
+                addStyleClass(seatPane, "seat-available");
+        }
+    }
+
+    private void addStyleClass(StackPane seatPane, String styleClass) {
+        if (!seatPane.getStyleClass().contains(styleClass)) {
+            seatPane.getStyleClass().add(styleClass);
+        }
+    }
+}
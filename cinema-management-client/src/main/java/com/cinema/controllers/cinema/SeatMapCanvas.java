@@ -0,0 +1,318 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStateEngine;
+import com.cinema.models.SeatStatus;
+import com.cinema.models.SeatType;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Renderer vẽ cả sơ đồ ghế lên một Canvas duy nhất.
+ *
+ * - Không có node / CSS cho từng ghế: đổi trạng thái chỉ đánh dấu ghế "bẩn"
+ * - Các ghế bẩn được vẽ lại gộp một lần mỗi pulse (AnimationTimer chỉ chạy khi có việc),
+ *   chỉ xóa và vẽ lại đúng vùng chữ nhật của ghế đó
+ * - Hit-test bằng phép chia theo lưới ô → SeatStateEngine.indexAt(row, col)
+ *
+ * Kích thước và màu giữ giống seat-selection.css để hai renderer nhìn như nhau.
+ */
+public class SeatMapCanvas implements SeatMapRenderer {
+
+    // Giống .seat (45x45) và GridPane hgap/vgap = 8
+    static final double SEAT_SIZE = 45;
+    static final double GAP = 8;
+    static final double ROW_LABEL_WIDTH = 20;
+    private static final double PITCH = SEAT_SIZE + GAP;
+    private static final double ORIGIN_X = ROW_LABEL_WIDTH + GAP;
+    private static final double RADIUS = 12; // arc = 2 * -fx-background-radius
+
+    // === BẢNG MÀU (seat-selection.css) ===
+    private static final Color AVAILABLE_FILL = Color.web("#16213e");
+    private static final Color AVAILABLE_HOVER = Color.web("#1e2a4a");
+    private static final Color AVAILABLE_BORDER = Color.web("#334466");
+    private static final Color VIP_FILL = Color.web("#1a2a4a");
+    private static final Color VIP_HOVER = Color.web("#243555");
+    private static final Color VIP_BORDER = Color.web("#ffaa33");
+    private static final Color COUPLE_FILL = Color.web("#2a1a3a");
+    private static final Color COUPLE_HOVER = Color.web("#3a2545");
+    private static final Color COUPLE_BORDER = Color.web("#ff66aa");
+    private static final Color SELECTED_BORDER = Color.web("#ff3366");
+    private static final Color COUPLE_SELECTED_BORDER = Color.web("#ff3388");
+    private static final Color BOOKED_FILL = Color.web("#2a2a3a");
+    private static final Color BOOKED_BORDER = Color.web("#3a3a4a");
+    private static final Color BOOKED_TEXT = Color.web("#666680");
+    private static final Color HELD_FILL = Color.web("#FFC107");
+    private static final Color ROW_LABEL = Color.web("#8888ff");
+
+    private static final Paint SELECTED_FILL = gradient("#ff3366", "#ff6b6b");
+    private static final Paint VIP_SELECTED_FILL = gradient("#ffaa33", "#ffcc66");
+    private static final Paint COUPLE_SELECTED_FILL = gradient("#ff3388", "#ff66aa");
+
+    private static final Font SEAT_FONT = Font.font("System", FontWeight.SEMI_BOLD, 13);
+    private static final Font ROW_FONT = Font.font("System", FontWeight.BOLD, 14);
+
+    private final Canvas canvas = new Canvas();
+    private final GraphicsContext gc = canvas.getGraphicsContext2D();
+
+    private SeatLayout layout;
+    private SeatStateEngine engine;
+
+    // Ô đầu tiên và số ô của mỗi ghế (ghế đôi span 2 ô)
+    private int[] seatRow = new int[0];
+    private int[] seatCol = new int[0];
+    private int[] seatSpan = new int[0];
+
+    private final BitSet dirty = new BitSet();
+    private int hoverIndex = -1;
+    private Consumer<Seat> onSeatClicked;
+
+    private final AnimationTimer repaintTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flushDirty();
+            stop();
+        }
+    };
+
+    public SeatMapCanvas() {
+        canvas.setOnMouseClicked(this::handleClick);
+        canvas.setOnMouseMoved(this::handleHover);
+        canvas.setOnMouseExited(e -> setHover(-1));
+    }
+
+    @Override
+    public Node getView() {
+        return canvas;
+    }
+
+    @Override
+    public void setOnSeatClicked(Consumer<Seat> handler) {
+        this.onSeatClicked = handler;
+    }
+
+    @Override
+    public void render(SeatLayout layout) {
+        this.layout = layout;
+        this.engine = layout.getStateEngine();
+        this.hoverIndex = -1;
+        this.dirty.clear();
+        repaintTimer.stop();
+
+        int size = engine.size();
+        seatRow = new int[size];
+        seatCol = new int[size];
+        seatSpan = new int[size];
+        Arrays.fill(seatRow, -1);
+        for (int r = 0; r < engine.getRows(); r++) {
+            for (int c = 0; c < engine.getColumns(); c++) {
+                int index = engine.indexAt(r, c);
+                if (index < 0) {
+                    continue;
+                }
+                if (seatRow[index] < 0) {
+                    seatRow[index] = r;
+                    seatCol[index] = c;
+                    seatSpan[index] = 1;
+                } else if (seatRow[index] == r && seatCol[index] + seatSpan[index] == c) {
+                    seatSpan[index]++;
+                }
+            }
+        }
+
+        canvas.setWidth(ORIGIN_X + Math.max(engine.getColumns() * PITCH - GAP, 0));
+        canvas.setHeight(Math.max(engine.getRows() * PITCH - GAP, 0));
+        repaintAll();
+    }
+
+    @Override
+    public void refreshSeat(Seat seat) {
+        if (engine == null || layout.getStateEngine() != engine) {
+            // Layout đã dựng lại engine (đổi ma trận) → vẽ lại toàn bộ
+            if (layout != null) {
+                render(layout);
+            }
+            return;
+        }
+        markDirty(engine.indexOf(seat.getSeatNumber()));
+    }
+
+    // ===== VẼ =====
+
+    private void repaintAll() {
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        gc.setFont(ROW_FONT);
+        gc.setFill(ROW_LABEL);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int r = 0; r < engine.getRows(); r++) {
+            gc.fillText(String.valueOf((char) ('A' + r)), ROW_LABEL_WIDTH / 2, r * PITCH + SEAT_SIZE / 2);
+        }
+
+        for (int i = 0; i < engine.size(); i++) {
+            drawSeat(i);
+        }
+    }
+
+    private void markDirty(int index) {
+        if (index < 0) {
+            return;
+        }
+        dirty.set(index);
+        repaintTimer.start(); // start() khi đang chạy không có tác dụng → gộp về một lần vẽ mỗi pulse
+    }
+
+    private void flushDirty() {
+        if (engine == null) {
+            dirty.clear();
+            return;
+        }
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            if (i < engine.size()) {
+                // Xóa rộng hơn 1px để không còn viền cũ
+                gc.clearRect(seatX(i) - 1, seatY(i) - 1, seatWidth(i) + 2, SEAT_SIZE + 2);
+                drawSeat(i);
+            }
+        }
+        dirty.clear();
+    }
+
+    private void drawSeat(int index) {
+        if (seatRow[index] < 0) {
+            return;
+        }
+        double x = seatX(index);
+        double y = seatY(index);
+        double w = seatWidth(index);
+        SeatType type = engine.getType(index);
+        SeatStatus status = engine.getStatus(index);
+        boolean hover = index == hoverIndex;
+
+        Paint fill;
+        Paint border;
+        Paint text = Color.WHITE;
+        double alpha = 1.0;
+        double borderWidth = type == SeatType.STANDARD ? 1.5 : 2;
+
+        switch (status) {
+            case BOOKED -> {
+                fill = BOOKED_FILL;
+                border = BOOKED_BORDER;
+                text = BOOKED_TEXT;
+                alpha = 0.5;
+            }
+            case HELD -> {
+                fill = HELD_FILL;
+                border = HELD_FILL;
+                alpha = 0.6;
+            }
+            case SELECTED -> {
+                fill = type == SeatType.VIP ? VIP_SELECTED_FILL
+                        : type == SeatType.COUPLE ? COUPLE_SELECTED_FILL : SELECTED_FILL;
+                border = type == SeatType.VIP ? VIP_BORDER
+                        : type == SeatType.COUPLE ? COUPLE_SELECTED_BORDER : SELECTED_BORDER;
+            }
+            default -> {
+                fill = type == SeatType.VIP ? (hover ? VIP_HOVER : VIP_FILL)
+                        : type == SeatType.COUPLE ? (hover ? COUPLE_HOVER : COUPLE_FILL)
+                        : (hover ? AVAILABLE_HOVER : AVAILABLE_FILL);
+                border = type == SeatType.VIP ? VIP_BORDER
+                        : type == SeatType.COUPLE ? COUPLE_BORDER : AVAILABLE_BORDER;
+            }
+        }
+
+        gc.setGlobalAlpha(alpha);
+        gc.setFill(fill);
+        gc.fillRoundRect(x, y, w, SEAT_SIZE, RADIUS, RADIUS);
+        gc.setStroke(border);
+        gc.setLineWidth(borderWidth);
+        gc.strokeRoundRect(x + borderWidth / 2, y + borderWidth / 2,
+                w - borderWidth, SEAT_SIZE - borderWidth, RADIUS, RADIUS);
+
+        gc.setFont(SEAT_FONT);
+        gc.setFill(text);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(engine.getSeatNumber(index), x + w / 2, y + SEAT_SIZE / 2, w - 4);
+        gc.setGlobalAlpha(1.0);
+    }
+
+    private double seatX(int index) { return ORIGIN_X + seatCol[index] * PITCH; }
+
+    private double seatY(int index) { return seatRow[index] * PITCH; }
+
+    private double seatWidth(int index) { return seatSpan[index] * PITCH - GAP; }
+
+    // ===== HIT-TEST =====
+
+    /** Chỉ số ghế tại tọa độ canvas, -1 nếu là khe hở / lối đi */
+    int hitTest(double x, double y) {
+        if (engine == null || x < ORIGIN_X || y < 0) {
+            return -1;
+        }
+        int col = (int) ((x - ORIGIN_X) / PITCH);
+        int row = (int) (y / PITCH);
+        int index = engine.indexAt(row, col);
+        if (index < 0) {
+            return -1;
+        }
+        // Khe dọc giữa hai ô của cùng một ghế đôi vẫn tính là ghế đó
+        boolean inGapX = (x - ORIGIN_X) - col * PITCH >= SEAT_SIZE && col == seatCol[index] + seatSpan[index] - 1;
+        boolean inGapY = y - row * PITCH >= SEAT_SIZE;
+        return inGapX || inGapY ? -1 : index;
+    }
+
+    private void handleClick(MouseEvent event) {
+        int index = hitTest(event.getX(), event.getY());
+        if (index < 0 || onSeatClicked == null) {
+            return;
+        }
+        SeatStatus status = engine.getStatus(index);
+        if (status == SeatStatus.AVAILABLE || status == SeatStatus.SELECTED) {
+            onSeatClicked.accept(engine.seatAt(index));
+        }
+    }
+
+    private void handleHover(MouseEvent event) {
+        setHover(hitTest(event.getX(), event.getY()));
+    }
+
+    private void setHover(int index) {
+        if (index == hoverIndex) {
+            return;
+        }
+        int previous = hoverIndex;
+        hoverIndex = index;
+        markDirty(previous);
+        markDirty(index);
+
+        boolean clickable = index >= 0
+                && (engine.getStatus(index) == SeatStatus.AVAILABLE || engine.getStatus(index) == SeatStatus.SELECTED);
+        canvas.setCursor(clickable ? Cursor.HAND : Cursor.DEFAULT);
+    }
+
+    private static Paint gradient(String from, String to) {
+        // linear-gradient(to bottom right, ...) theo từng ghế
+        return new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
+                new Stop(0, Color.web(from)), new Stop(1, Color.web(to)));
+    }
+}
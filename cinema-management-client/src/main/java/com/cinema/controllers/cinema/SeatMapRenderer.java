@@ -0,0 +1,28 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import javafx.scene.Node;
+
+import java.util.function.Consumer;
+
+/**
+ * Cách vẽ sơ đồ ghế cho màn chọn ghế.
+ *
+ * Trạng thái ghế (AVAILABLE / SELECTED / HELD / BOOKED) nằm trong SeatStateEngine của layout,
+ * renderer chỉ đọc ra để vẽ. Controller đổi trạng thái rồi gọi refreshSeat().
+ */
+public interface SeatMapRenderer {
+
+    /** Node đặt vào màn hình */
+    Node getView();
+
+    /** Vẽ lại toàn bộ layout */
+    void render(SeatLayout layout);
+
+    /** Vẽ lại một ghế sau khi trạng thái đổi */
+    void refreshSeat(Seat seat);
+
+    /** Callback khi người dùng bấm vào ghế còn chọn được (AVAILABLE / SELECTED) */
+    void setOnSeatClicked(Consumer<Seat> handler);
+}
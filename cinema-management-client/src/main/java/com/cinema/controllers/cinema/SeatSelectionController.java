@@ -2,16 +2,15 @@ package com.cinema.controllers.cinema;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
-import javafx.geometry.Pos;
 
 import java.text.NumberFormat;
 import java.util.*;
@@ -20,29 +19,41 @@ import com.cinema.models.Cinema;
 import com.cinema.models.Screen;
 import com.cinema.models.Seat;
 import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStateEngine;
 import com.cinema.models.SeatStatus;
 import com.cinema.models.SeatType;
 import com.cinema.models.Showtime;
+import com.cinema.utils.SeatEvent;
+import com.cinema.utils.SeatEventPump;
 import com.cinema.utils.SocketIOClient;
 import com.cinema.utils.SocketManager;
-import com.google.gson.JsonArray;
+import com.cinema.utils.ReusableView;
+import com.cinema.utils.ViewRegistry;
 import com.google.gson.JsonObject;
 
-public class SeatSelectionController {
+public class SeatSelectionController implements ReusableView {
+    // -Dcinema.seatmap.renderer=canvas để mặc định dùng renderer Canvas
+    private static final String RENDERER_PROPERTY = "cinema.seatmap.renderer";
+
     // === WEBSOCKET ===
     private SocketIOClient socket;
-    private String mySocketId;
 
-    // === LƯU STACKPANE THAY VÌ BUTTON ===
-    private Map<String, StackPane> seatPanes = new HashMap<>();
+    private SeatEventPump seatEventPump;
+
+    // === SƠ ĐỒ GHẾ: node-based (GridPane) hoặc Canvas ===
+    private SeatMapRenderer seatRenderer;
 
     @FXML
     private Button backButton;
     @FXML
     private Label cinemaNameLabel;
     @FXML
+    private StackPane seatMapContainer;
+    @FXML
     private GridPane seatGridPane;
     @FXML
+    private ToggleButton canvasModeToggle;
+    @FXML
     private Label selectedSeatsLabel;
     @FXML
     private Label totalPriceLabel;
@@ -60,16 +71,46 @@ public class SeatSelectionController {
     @FXML
     public void initialize() {
         currencyFormat = NumberFormat.getInstance(new Locale("vi", "VN"));
+        canvasModeToggle.setSelected("canvas".equalsIgnoreCase(System.getProperty(RENDERER_PROPERTY)));
+        seatRenderer = createRenderer();
         loadMockData();
+        initSeatStatuses();
         renderSeatGrid();
         updatePriceSummary();
     }
 
+    /**
+     * View được ViewRegistry dùng lại → ngắt pump của suất chiếu trước, bỏ ghế đang chọn.
+     * Sơ đồ ghế được dựng lại trong setShowData().
+     */
+    @Override
+    public void resetView() {
+        closeSeatEventPump();
+        socket = null;
+        selectedSeats.clear();
+        updatePriceSummary();
+    }
+
+    private SeatMapRenderer createRenderer() {
+        SeatMapRenderer renderer = canvasModeToggle.isSelected()
+                ? new SeatMapCanvas()
+                : new SeatGridRenderer(seatGridPane);
+        renderer.setOnSeatClicked(this::handleSeatClick);
+        return renderer;
+    }
+
+    @FXML
+    private void handleRendererToggle() {
+        // Trạng thái ghế nằm trong SeatStateEngine → đổi renderer chỉ cần vẽ lại
+        seatRenderer = createRenderer();
+        renderSeatGrid();
+    }
+
     private void loadMockData() {
         currentShowtime = new Showtime();
         currentShowtime.setId("ST001");
         currentShowtime.setBasePrice(75000);
-        currentShowtime.getBookedSeats().addAll(Arrays.asList(
+        currentShowtime.setBookedSeats(Arrays.asList(
                 "A3", "A4", "B5", "C6", "C7", "D8", "E4", "E5", "F6", "G7"));
 
         SeatLayout layout = createMockSeatLayout();
@@ -126,67 +167,22 @@ public class SeatSelectionController {
         return layout;
     }
 
-    private void renderSeatGrid() {
-        seatGridPane.getChildren().clear();
-        seatPanes.clear(); // Xóa map cũ
-
-        SeatLayout layout = currentScreen.getSeatLayout();
-        String[] rowNames = { "A", "B", "C", "D", "E", "F", "G", "H", "I", "J" };
-
-        for (int row = 0; row < layout.getRows(); row++) {
-            Label rowLabel = new Label(rowNames[row]);
-            rowLabel.getStyleClass().add("row-label");
-            rowLabel.setAlignment(Pos.CENTER);
-            seatGridPane.add(rowLabel, 0, row);
-
-            for (int col = 0; col < layout.getColumns(); col++) {
-                Seat seat = layout.getSeat(row, col);
-
-                if (seat == null || seat.getSeatNumber() == null || seat.getSeatNumber().isEmpty()) {
-                    continue;
-                }
-
-                StackPane seatPane = createSeatButton(seat);
-
-                // === LƯU STACKPANE VÀO MAP ===
-                seatPanes.put(seat.getSeatNumber(), seatPane);
-
-                seatGridPane.add(seatPane, col + 1, row);
-            }
+    // Ghế đã đặt lấy từ showtime, còn lại là trống
+    private void initSeatStatuses() {
+        SeatStateEngine engine = currentScreen.getSeatLayout().getStateEngine();
+        for (int i = 0; i < engine.size(); i++) {
+            boolean booked = currentShowtime.isSeatBooked(engine.getSeatNumber(i));
+            engine.setStatus(i, booked ? SeatStatus.BOOKED : SeatStatus.AVAILABLE);
         }
     }
 
-    private StackPane createSeatButton(Seat seat) {
-        StackPane seatPane = new StackPane();
-        Label seatLabel = new Label(seat.getSeatNumber());
-        seatLabel.getStyleClass().add("seat-label");
-        seatPane.getChildren().add(seatLabel);
-        seatPane.getStyleClass().add("seat");
-
-        if (currentShowtime.isSeatBooked(seat.getSeatNumber())) {
-            seat.setStatus(SeatStatus.BOOKED);
-            seatPane.getStyleClass().add("seat-booked");
-        } else {
-            seat.setStatus(SeatStatus.AVAILABLE);
-
-            switch (seat.getSeatType()) {
-                case VIP:
-                    seatPane.getStyleClass().add("seat-vip");
-                    break;
-                case COUPLE:
-                    seatPane.getStyleClass().add("seat-couple");
-                    break;
-                default:
-                    seatPane.getStyleClass().add("seat-available");
-            }
-
-            seatPane.setOnMouseClicked(event -> handleSeatClick(seat, seatPane));
-        }
-
-        return seatPane;
+    private void renderSeatGrid() {
+        seatGridPane.getChildren().clear();
+        seatMapContainer.getChildren().setAll(seatRenderer.getView());
+        seatRenderer.render(currentScreen.getSeatLayout());
     }
 
-    private void handleSeatClick(Seat seat, StackPane seatPane) {
+    private void handleSeatClick(Seat seat) {
         if (seat.getStatus() == SeatStatus.BOOKED) {
             return;
         }
@@ -196,7 +192,6 @@ public class SeatSelectionController {
         if (seat.getStatus() == SeatStatus.SELECTED) {
             // Bỏ chọn
             seat.setStatus(SeatStatus.AVAILABLE);
-            seatPane.getStyleClass().remove("seat-selected");
             selectedSeats.remove(seat);
 
             if (socket != null && socket.isConnected()) {
@@ -212,9 +207,6 @@ public class SeatSelectionController {
         } else {
             // Chọn ghế
             seat.setStatus(SeatStatus.SELECTED);
-            if (!seatPane.getStyleClass().contains("seat-selected")) {
-                seatPane.getStyleClass().add("seat-selected");
-            }
             selectedSeats.add(seat);
 
             if (socket != null && socket.isConnected()) {
@@ -228,6 +220,7 @@ public class SeatSelectionController {
             }
         }
 
+        seatRenderer.refreshSeat(seat);
         updatePriceSummary();
     }
 
@@ -286,18 +279,21 @@ public class SeatSelectionController {
                 socket.emit("book-seats", data);
             }
 
+            // Rời sơ đồ ghế → ngừng nhận sự kiện ghế
+            closeSeatEventPump();
+
             // === TÍNH TỔNG TIỀN VÉ THẬT ===
             double totalTicketPrice = selectedSeats.stream()
                     .mapToDouble(Seat::getPrice)
                     .sum();
 
             // Load trang Combo
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/views/cinema/combo-selection.fxml"));
-            Parent newRoot = loader.load();
+            ViewRegistry.View<ComboSelectionController> view =
+                    ViewRegistry.getInstance().acquire(BookingFlowViews.COMBO_SELECTION);
+            Parent newRoot = view.getRoot();
 
             // === TRUYỀN DỮ LIỆU CHO COMBO CONTROLLER ===
-            ComboSelectionController comboCtrl = loader.getController();
+            ComboSelectionController comboCtrl = view.getController();
 
             comboCtrl.setCinemaId(currentCinema.getId()); // 1. cinemaId
             comboCtrl.setTicketPrice(totalTicketPrice); // 2. giá vé thật
@@ -351,221 +347,157 @@ public class SeatSelectionController {
         }
 
         cinemaNameLabel.setText(cinemaName + " • " + screenName + " • " + timeRange);
+        initSeatStatuses();
         renderSeatGrid();
         updatePriceSummary();
 
         // === CONNECT & SETUP SOCKET ===
+        // Pump đăng ký listener trước khi join room → không lỡ initial-held-seats
         SocketManager socketManager = SocketManager.getInstance();
-        socketManager.connect(showtime.getId());
-
-        // ✅ Retry để đợi socket ready
-        new Thread(() -> {
-            try {
-                int retries = 0;
-                while (retries < 30) { // Max 3 giây
-                    Thread.sleep(100);
-                    SocketIOClient sock = socketManager.getSocket();
-
-                    if (sock != null && sock.isConnected() && sock.getSocketId() != null) {
-                        // ✅ GÁN VÀO INSTANCE VARIABLE
-                        this.socket = sock;
-                        this.mySocketId = sock.getSocketId();
-
-                        // Setup listeners trên JavaFX thread
-                        Platform.runLater(() -> setupSocketListeners());
-
-                        System.out.println("✅ Socket setup complete: " + mySocketId);
-                        break;
+        closeSeatEventPump();
+        seatEventPump = new SeatEventPump(showtime.getId(), this::applySeatEvents);
+        seatEventPump.attach(socketManager.client());
+
+        // Reconnect: SocketManager join lại kèm seq cuối của pump → server gửi delta / snapshot
+        socketManager.connect(showtime.getId(), seatEventPump::resumeSequence)
+                .thenAccept(sock -> Platform.runLater(() -> {
+                    if (currentShowtime != showtime) {
+                        return; // Đã chuyển sang suất chiếu khác
                     }
-                    retries++;
-                }
-
-                if (this.socket == null) {
-                    System.err.println("❌ Socket setup failed!");
-                }
-
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }).start();
+                    this.socket = sock;
+                    System.out.println("✅ Socket setup complete: " + sock.getSocketId());
+                }))
+                .exceptionally(ex -> {
+                    System.err.println("❌ Socket setup failed: " + ex.getMessage());
+                    return null;
+                });
     }
 
-    private void setupSocketListeners() {
-        if (socket == null) {
-            System.err.println("❌ setupSocketListeners: socket is null!");
-            return;
+    private void closeSeatEventPump() {
+        if (seatEventPump != null) {
+            seatEventPump.close();
+            System.out.println("📊 " + seatEventPump);
+            seatEventPump = null;
         }
+    }
 
-        System.out.println("🔧 Setting up listeners for socket: " + mySocketId);
-
-        socket.on("initial-held-seats", data -> {
-            if (data.has("seats")) {
-                JsonArray seats = data.getAsJsonArray("seats");
-                for (int i = 0; i < seats.size(); i++) {
-                    JsonObject seat = seats.get(i).getAsJsonObject();
-                    String seatNumber = seat.get("seatNumber").getAsString();
-                    updateSeatHeldByOthers(seatNumber);
+    // Áp một lô sự kiện đã gộp (JavaFX thread) - tổng tiền chỉ tính lại một lần
+    private void applySeatEvents(List<SeatEvent> batch) {
+        boolean selectionChanged = false;
+        List<String> failedSeats = new ArrayList<>();
+
+        for (SeatEvent event : batch) {
+            String seatNumber = event.getSeatNumber();
+            switch (event.getType()) {
+                case HELD -> {
+                    // Đọc id mỗi lần: sau reconnect socket có id mới
+                    SocketIOClient current = SocketManager.getInstance().getSocket();
+                    String mySocketId = current != null ? current.getSocketId() : null;
+                    if (mySocketId != null && mySocketId.equals(event.getHolderId())) {
+                        selectionChanged |= updateSeatSelectedByMe(seatNumber);
+                    } else {
+                        selectionChanged |= updateSeatHeldByOthers(seatNumber);
+                    }
+                }
+                case RELEASED -> selectionChanged |= resetSeatToAvailable(seatNumber);
+                case BOOKED -> selectionChanged |= updateSeatBooked(seatNumber);
+                case RESET -> selectionChanged |= resetTransientSeats();
+                case HOLD_FAILED -> {
+                    System.out.println("⚠️ hold-failed: " + seatNumber + " - " + event.getReason());
+                    failedSeats.add(seatNumber);
                 }
             }
-        });
-
-        socket.on("seat-held", data -> {
-            String seatNumber = data.get("seatNumber").getAsString();
-            String holderId = data.get("holderId").getAsString();
-
-            System.out.println("📥 seat-held: " + seatNumber + " by " + holderId +
-                    " (me: " + mySocketId + ")");
-
-            // ✅ Dùng instance variable mySocketId
-            if (mySocketId != null && mySocketId.equals(holderId)) {
-                updateSeatSelectedByMe(seatNumber);
-            } else {
-                updateSeatHeldByOthers(seatNumber);
-            }
-        });
-
-        socket.on("seat-released", data -> {
-            String seatNumber = data.get("seatNumber").getAsString();
-            System.out.println("📥 seat-released: " + seatNumber);
-            resetSeatToAvailable(seatNumber);
-        });
-
-        socket.on("seats-released-batch", data -> {
-            JsonArray seatNumbers = data.getAsJsonArray("seatNumbers");
-            System.out.println("📥 seats-released-batch: " + seatNumbers.size() + " seats");
-            for (int i = 0; i < seatNumbers.size(); i++) {
-                String seatNumber = seatNumbers.get(i).getAsString();
-                resetSeatToAvailable(seatNumber);
-            }
-        });
-
-        socket.on("seats-booked", data -> {
-            JsonArray seatNumbers = data.getAsJsonArray("seatNumbers");
-            System.out.println("📥 seats-booked: " + seatNumbers.size() + " seats");
-            for (int i = 0; i < seatNumbers.size(); i++) {
-                String seatNumber = seatNumbers.get(i).getAsString();
-                updateSeatBooked(seatNumber);
-            }
-        });
+        }
 
-        socket.on("hold-failed", data -> {
-            String seatNumber = data.get("seatNumber").getAsString();
-            String reason = data.get("reason").getAsString();
-            System.out.println("⚠️ hold-failed: " + seatNumber + " - " + reason);
+        if (selectionChanged) {
+            updatePriceSummary();
+        }
 
+        if (!failedSeats.isEmpty()) {
             Platform.runLater(() -> {
                 Alert alert = new Alert(Alert.AlertType.WARNING);
                 alert.setTitle("Thông báo");
                 alert.setHeaderText(null);
-                alert.setContentText("Ghế " + seatNumber + " đang được chọn bởi người khác!");
+                alert.setContentText("Ghế " + String.join(", ", failedSeats) + " đang được chọn bởi người khác!");
                 alert.showAndWait();
             });
-        });
+        }
     }
 
     // === HELPER METHODS ===
+    // Các hàm trả về true nếu danh sách ghế đang chọn thay đổi
+    // → caller tự gọi updatePriceSummary() (một lần cho cả lô sự kiện)
 
-    private void updateSeatSelectedByMe(String seatNumber) {
-        StackPane seatPane = seatPanes.get(seatNumber);
-        if (seatPane != null) {
-            // Xóa các class cũ
-            seatPane.getStyleClass().removeAll("seat-available", "seat-vip", "seat-couple");
-            // Thêm class selected
-            if (!seatPane.getStyleClass().contains("seat-selected")) {
-                seatPane.getStyleClass().add("seat-selected");
-            }
-
-            // Tìm Seat object và thêm vào selectedSeats
-            Seat seat = findSeatObject(seatNumber);
-            if (seat != null && !selectedSeats.contains(seat)) {
-                seat.setStatus(SeatStatus.SELECTED);
-                selectedSeats.add(seat);
-                updatePriceSummary();
-            }
+    private boolean updateSeatSelectedByMe(String seatNumber) {
+        // Tìm Seat object và thêm vào selectedSeats
+        Seat seat = findSeatObject(seatNumber);
+        if (seat != null && !selectedSeats.contains(seat)) {
+            seat.setStatus(SeatStatus.SELECTED);
+            selectedSeats.add(seat);
+            seatRenderer.refreshSeat(seat);
+            return true;
         }
+        return false;
     }
 
-    private void updateSeatHeldByOthers(String seatNumber) {
-        StackPane seatPane = seatPanes.get(seatNumber);
-        if (seatPane != null) {
-            // Style cho ghế người khác hold
-            seatPane.setStyle("-fx-background-color: #FFC107; -fx-opacity: 0.6;");
-            seatPane.setDisable(true);
+    private boolean updateSeatHeldByOthers(String seatNumber) {
+        Seat seat = findSeatObject(seatNumber);
+        if (seat != null) {
+            seat.setStatus(SeatStatus.HELD);
+            seatRenderer.refreshSeat(seat);
+            // Ghế mình đang chọn nhưng server xác nhận người khác giữ → bỏ khỏi danh sách
+            return selectedSeats.remove(seat);
         }
+        return false;
     }
 
-    private void resetSeatToAvailable(String seatNumber) {
-        StackPane seatPane = seatPanes.get(seatNumber);
-        if (seatPane != null) {
-            // Reset style
-            seatPane.setStyle("");
-            seatPane.setDisable(false);
-
-            // Tìm Seat object để xác định loại ghế
-            Seat seat = findSeatObject(seatNumber);
-            if (seat != null) {
-                seat.setStatus(SeatStatus.AVAILABLE);
-
-                // Xóa class selected và thêm lại class theo loại ghế
-                seatPane.getStyleClass().remove("seat-selected");
-
-                switch (seat.getSeatType()) {
-                    case VIP:
-                        if (!seatPane.getStyleClass().contains("seat-vip")) {
-                            seatPane.getStyleClass().add("seat-vip");
-                        }
-                        break;
-                    case COUPLE:
-                        if (!seatPane.getStyleClass().contains("seat-couple")) {
-                            seatPane.getStyleClass().add("seat-couple");
-                        }
-                        break;
-                    default:
-                        if (!seatPane.getStyleClass().contains("seat-available")) {
-                            seatPane.getStyleClass().add("seat-available");
-                        }
-                }
+    private boolean resetSeatToAvailable(String seatNumber) {
+        Seat seat = findSeatObject(seatNumber);
+        if (seat != null) {
+            seat.setStatus(SeatStatus.AVAILABLE);
+            seatRenderer.refreshSeat(seat);
 
-                // Xóa khỏi selectedSeats
-                selectedSeats.remove(seat);
-                updatePriceSummary();
-            }
+            // Xóa khỏi selectedSeats
+            return selectedSeats.remove(seat);
         }
+        return false;
     }
 
-    private void updateSeatBooked(String seatNumber) {
-        StackPane seatPane = seatPanes.get(seatNumber);
-        if (seatPane != null) {
-            // Remove old classes
-            seatPane.getStyleClass().removeAll("seat-available", "seat-vip", "seat-couple", "seat-selected");
-            // Add booked class
-            if (!seatPane.getStyleClass().contains("seat-booked")) {
-                seatPane.getStyleClass().add("seat-booked");
+    // Trước khi áp snapshot: ghế HELD / SELECTED về trống (hold của mình đã mất khi rớt kết nối)
+    private boolean resetTransientSeats() {
+        SeatStateEngine engine = currentScreen.getSeatLayout().getStateEngine();
+        for (int i = 0; i < engine.size(); i++) {
+            SeatStatus status = engine.getStatus(i);
+            if (status == SeatStatus.HELD || status == SeatStatus.SELECTED) {
+                engine.setStatus(i, SeatStatus.AVAILABLE);
+                seatRenderer.refreshSeat(engine.seatAt(i));
             }
-            seatPane.setDisable(true);
+        }
+        boolean hadSelection = !selectedSeats.isEmpty();
+        selectedSeats.clear();
+        return hadSelection;
+    }
+
+    private boolean updateSeatBooked(String seatNumber) {
+        Seat seat = findSeatObject(seatNumber);
+        if (seat != null) {
+            seat.setStatus(SeatStatus.BOOKED);
+            seatRenderer.refreshSeat(seat);
 
             // Remove from selectedSeats
-            Seat seat = findSeatObject(seatNumber);
-            if (seat != null) {
-                seat.setStatus(SeatStatus.BOOKED);
-                selectedSeats.remove(seat);
-                updatePriceSummary();
-            }
+            return selectedSeats.remove(seat);
         }
+        return false;
     }
 
-    // Tìm Seat object từ seatNumber
+    // Tìm Seat object từ seatNumber - O(1) qua SeatStateEngine của layout
     private Seat findSeatObject(String seatNumber) {
-        if (currentScreen != null && currentScreen.getSeatLayout() != null) {
-            SeatLayout layout = currentScreen.getSeatLayout();
-            for (int row = 0; row < layout.getRows(); row++) {
-                for (int col = 0; col < layout.getColumns(); col++) {
-                    Seat seat = layout.getSeat(row, col);
-                    if (seat != null && seat.getSeatNumber().equals(seatNumber)) {
-                        return seat;
-                    }
-                }
-            }
+        return findSeatObject(currentScreen, seatNumber);
+    }
+
+    static Seat findSeatObject(Screen screen, String seatNumber) {
+        if (screen != null && screen.getSeatLayout() != null) {
+            return screen.getSeatLayout().findSeat(seatNumber);
         }
         return null;
     }
@@ -584,6 +516,7 @@ public class SeatSelectionController {
 
     @FXML
     private void handleBack() {
+        closeSeatEventPump();
 
         // TODO: Navigate back
         System.out.println("Back button clicked");
@@ -0,0 +1,298 @@
+package com.cinema.controllers.cinema;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Screen;
+import com.cinema.models.Showtime;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Chỉ mục suất chiếu của một phim, dựng một lần mỗi khi tải danh sách rạp (CinemaShowTimeController).
+ *
+ * Suất chiếu được chia sẵn theo ngày → khung giờ → cụm rạp → thành phố (mỗi tầng có thêm nhánh "Tất cả"),
+ * mỗi nhánh là danh sách CinemaRow sẵn để vẽ: rạp + các suất đã sắp theo giờ bắt đầu,
+ * chuỗi giờ và tổng số ghế đã tính trước. Đổi ngày / khung giờ / cụm rạp / thành phố chỉ còn là tra map.
+ * Số ghế đã bán không nằm ở đây mà do SeatAvailabilityService theo dõi theo thời gian thực.
+ *
+ * Bất biến sau khi dựng; model bên trong (Cinema, Screen, Showtime) là object gốc từ API, không clone.
+ */
+final class ShowtimeIndex {
+
+    static final String ALL = "Tất cả";
+    static final String OTHER_CHAIN = "OTHER";
+
+    // Thứ tự hiển thị nút cụm rạp
+    private static final List<String> CHAIN_ORDER = List.of("CGV", "LOTTE", "GALAXY", "BHD STAR");
+
+    private static final Comparator<ShowtimeRow> BY_START = Comparator
+            .comparing((ShowtimeRow row) -> row.getShowtime().getStartTime())
+            .thenComparing(row -> row.getScreen().getName(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /** Khung giờ lọc theo giờ bắt đầu suất chiếu, phủ kín 24 giờ */
+    enum TimeSlot {
+        MORNING("06:00 - 09:00", 6, 9),
+        LATE_MORNING("09:00 - 12:00", 9, 12),
+        AFTERNOON("12:00 - 15:00", 12, 15),
+        LATE_AFTERNOON("15:00 - 18:00", 15, 18),
+        EVENING("18:00 - 21:00", 18, 21),
+        NIGHT("21:00 - 00:00", 21, 24),
+        OVERNIGHT("00:00 - 06:00", 0, 6);
+
+        private final String label;
+        private final int fromHour;
+        private final int toHour; // không tính
+
+        TimeSlot(String label, int fromHour, int toHour) {
+            this.label = label;
+            this.fromHour = fromHour;
+            this.toHour = toHour;
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        static TimeSlot of(LocalTime time) {
+            int hour = time.getHour();
+            for (TimeSlot slot : values()) {
+                if (hour >= slot.fromHour && hour < slot.toHour) {
+                    return slot;
+                }
+            }
+            throw new IllegalStateException("Giờ không thuộc khung nào: " + time);
+        }
+
+        /** null nếu là "Tất cả" (hoặc nhãn lạ) → không lọc theo khung giờ */
+        static TimeSlot fromLabel(String label) {
+            for (TimeSlot slot : values()) {
+                if (slot.label.equals(label)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Một nút suất chiếu */
+    static final class ShowtimeRow {
+        private final Screen screen;
+        private final Showtime showtime;
+        private final String timeRange;
+        private final int totalSeats;
+
+        private ShowtimeRow(Screen screen, Showtime showtime) {
+            this.screen = screen;
+            this.showtime = showtime;
+            this.timeRange = showtime.getStartTime().toLocalTime() + " - "
+                    + (showtime.getEndTime() != null ? showtime.getEndTime().toLocalTime() : "?");
+            this.totalSeats = screen.getTotalSeats();
+        }
+
+        Screen getScreen() {
+            return screen;
+        }
+
+        Showtime getShowtime() {
+            return showtime;
+        }
+
+        String getTimeRange() {
+            return timeRange;
+        }
+
+        int getTotalSeats() {
+            return totalSeats;
+        }
+    }
+
+    /** Một card rạp: các suất thuộc đúng ngày (+ khung giờ) của nhánh chứa nó */
+    static final class CinemaRow {
+        private final Cinema cinema;
+        private final String chain;
+        private final List<ShowtimeRow> showtimes;
+
+        private CinemaRow(Cinema cinema, String chain, List<ShowtimeRow> showtimes) {
+            this.cinema = cinema;
+            this.chain = chain;
+            this.showtimes = Collections.unmodifiableList(showtimes);
+        }
+
+        Cinema getCinema() {
+            return cinema;
+        }
+
+        String getChain() {
+            return chain;
+        }
+
+        List<ShowtimeRow> getShowtimes() {
+            return showtimes;
+        }
+    }
+
+    // ngày → khung giờ (null = tất cả) → cụm rạp → thành phố → rạp
+    private final Map<LocalDate, Map<TimeSlot, Map<String, Map<String, List<CinemaRow>>>>> buckets;
+    private final List<String> chains;
+    private final List<String> cities;
+
+    private ShowtimeIndex(Map<LocalDate, Map<TimeSlot, Map<String, Map<String, List<CinemaRow>>>>> buckets,
+            List<String> chains, List<String> cities) {
+        this.buckets = buckets;
+        this.chains = chains;
+        this.cities = cities;
+    }
+
+    static ShowtimeIndex empty() {
+        return new ShowtimeIndex(Map.of(), List.of(), List.of());
+    }
+
+    /** Dựng chỉ mục từ danh sách rạp của API (giữ thứ tự rạp như API trả về) */
+    static ShowtimeIndex build(List<Cinema> cinemas) {
+        if (cinemas == null || cinemas.isEmpty()) {
+            return empty();
+        }
+
+        TreeSet<String> chainSet = new TreeSet<>(Comparator
+                .comparingInt((String chain) -> CHAIN_ORDER.contains(chain) ? CHAIN_ORDER.indexOf(chain) : CHAIN_ORDER.size())
+                .thenComparing(Comparator.naturalOrder()));
+        TreeSet<String> citySet = new TreeSet<>();
+
+        // ngày → khung giờ (null = tất cả) → rạp theo thứ tự API
+        Map<LocalDate, Map<TimeSlot, List<CinemaRow>>> rowsByDate = new HashMap<>();
+
+        for (Cinema cinema : cinemas) {
+            String chain = chainOf(cinema.getName());
+            if (!OTHER_CHAIN.equals(chain)) {
+                chainSet.add(chain);
+            }
+            if (cinema.getCity() != null) {
+                citySet.add(cinema.getCity());
+            }
+
+            // Suất của rạp này, theo ngày, đã sắp theo giờ bắt đầu
+            Map<LocalDate, List<ShowtimeRow>> byDate = new HashMap<>();
+            if (cinema.getScreens() != null) {
+                for (Screen screen : cinema.getScreens()) {
+                    if (screen.getShowtimes() == null || screen.getShowtimes().isEmpty()) {
+                        continue;
+                    }
+                    for (Showtime showtime : screen.getShowtimes()) {
+                        if (showtime.getStartTime() == null) {
+                            continue;
+                        }
+                        byDate.computeIfAbsent(showtime.getStartTime().toLocalDate(), d -> new ArrayList<>())
+                                .add(new ShowtimeRow(screen, showtime));
+                    }
+                }
+            }
+
+            for (Map.Entry<LocalDate, List<ShowtimeRow>> day : byDate.entrySet()) {
+                List<ShowtimeRow> dayRows = day.getValue();
+                dayRows.sort(BY_START);
+
+                Map<TimeSlot, List<CinemaRow>> bySlot = rowsByDate.computeIfAbsent(day.getKey(), d -> new HashMap<>());
+                bySlot.computeIfAbsent(null, s -> new ArrayList<>()).add(new CinemaRow(cinema, chain, dayRows));
+
+                Map<TimeSlot, List<ShowtimeRow>> slotRows = new LinkedHashMap<>();
+                for (ShowtimeRow row : dayRows) {
+                    slotRows.computeIfAbsent(TimeSlot.of(row.getShowtime().getStartTime().toLocalTime()),
+                            s -> new ArrayList<>()).add(row);
+                }
+                for (Map.Entry<TimeSlot, List<ShowtimeRow>> slot : slotRows.entrySet()) {
+                    bySlot.computeIfAbsent(slot.getKey(), s -> new ArrayList<>())
+                            .add(new CinemaRow(cinema, chain, slot.getValue()));
+                }
+            }
+        }
+
+        Map<LocalDate, Map<TimeSlot, Map<String, Map<String, List<CinemaRow>>>>> buckets = new HashMap<>();
+        for (Map.Entry<LocalDate, Map<TimeSlot, List<CinemaRow>>> day : rowsByDate.entrySet()) {
+            Map<TimeSlot, Map<String, Map<String, List<CinemaRow>>>> bySlot = new HashMap<>();
+            for (Map.Entry<TimeSlot, List<CinemaRow>> slot : day.getValue().entrySet()) {
+                bySlot.put(slot.getKey(), byChainAndCity(slot.getValue()));
+            }
+            buckets.put(day.getKey(), bySlot);
+        }
+
+        return new ShowtimeIndex(buckets, List.copyOf(chainSet), List.copyOf(citySet));
+    }
+
+    /**
+     * Rạp có suất khớp bộ lọc, theo thứ tự API; danh sách rỗng nếu không có
+     *
+     * @param timeSlot nhãn khung giờ (TimeSlot.getLabel()) hoặc "Tất cả"
+     * @param chain    cụm rạp hoặc "Tất cả"
+     * @param city     thành phố hoặc "Tất cả"
+     */
+    List<CinemaRow> rows(LocalDate date, String timeSlot, String chain, String city) {
+        Map<TimeSlot, Map<String, Map<String, List<CinemaRow>>>> bySlot = buckets.get(date);
+        if (bySlot == null) {
+            return List.of();
+        }
+        Map<String, Map<String, List<CinemaRow>>> byChain = bySlot.get(TimeSlot.fromLabel(timeSlot));
+        if (byChain == null) {
+            return List.of();
+        }
+        Map<String, List<CinemaRow>> byCity = byChain.get(chain != null ? chain : ALL);
+        if (byCity == null) {
+            return List.of();
+        }
+        return byCity.getOrDefault(city != null ? city : ALL, List.of());
+    }
+
+    /** Cụm rạp có trong dữ liệu (không gồm OTHER), theo thứ tự CGV, LOTTE, GALAXY, BHD STAR */
+    List<String> getChains() {
+        return chains;
+    }
+
+    /** Thành phố có rạp, sắp theo tên */
+    List<String> getCities() {
+        return cities;
+    }
+
+    /** Cụm rạp suy ra từ tên rạp */
+    static String chainOf(String cinemaName) {
+        if (cinemaName == null) {
+            return OTHER_CHAIN;
+        }
+        String upper = cinemaName.toUpperCase(Locale.ROOT);
+        if (upper.contains("CGV"))
+            return "CGV";
+        if (upper.contains("LOTTE"))
+            return "LOTTE";
+        if (upper.contains("GALAXY"))
+            return "GALAXY";
+        if (upper.contains("BHD"))
+            return "BHD STAR";
+        return OTHER_CHAIN;
+    }
+
+    /** Mỗi rạp vào 4 nhánh: (cụm, thành phố), (cụm, tất cả), (tất cả, thành phố), (tất cả, tất cả) */
+    private static Map<String, Map<String, List<CinemaRow>>> byChainAndCity(List<CinemaRow> rows) {
+        Map<String, Map<String, List<CinemaRow>>> byChain = new HashMap<>();
+        for (CinemaRow row : rows) {
+            String city = row.getCinema().getCity();
+            for (String chainKey : List.of(ALL, row.getChain())) {
+                Map<String, List<CinemaRow>> byCity = byChain.computeIfAbsent(chainKey, c -> new HashMap<>());
+                byCity.computeIfAbsent(ALL, c -> new ArrayList<>()).add(row);
+                if (city != null) {
+                    byCity.computeIfAbsent(city, c -> new ArrayList<>()).add(row);
+                }
+            }
+        }
+        for (Map<String, List<CinemaRow>> byCity : byChain.values()) {
+            byCity.replaceAll((city, list) -> Collections.unmodifiableList(list));
+        }
+        return byChain;
+    }
+}
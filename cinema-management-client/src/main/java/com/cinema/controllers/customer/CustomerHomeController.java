@@ -1,14 +1,18 @@
 package com.cinema.controllers.customer;
 
+import com.cinema.controllers.cinema.BookingFlowViews;
 import com.cinema.controllers.cinema.MovieDetailController;
 import com.cinema.models.Movie;
 import com.cinema.models.Movie.MovieStatus;
+import com.cinema.utils.ImageCache;
 import com.cinema.utils.MovieApi;
 
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -16,10 +20,12 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
 import javafx.event.ActionEvent;
 import org.kordamp.ikonli.javafx.FontIcon;
@@ -33,6 +39,10 @@ import javafx.concurrent.Task;
 
 public class CustomerHomeController {
 
+    // Kích thước poster trên card phim
+    private static final double POSTER_WIDTH = 220;
+    private static final double POSTER_HEIGHT = 320;
+
     @FXML
     private TextField searchField;
 
@@ -52,6 +62,9 @@ public class CustomerHomeController {
     public void initialize() {
         System.out.println("Customer Home initialized");
 
+        // Các bước đặt vé parse sẵn ở thread nền → bấm mua vé chỉ là gắn lại view
+        BookingFlowViews.preload();
+
         loadMoviesFromApi();
 
         // Load UI
@@ -218,17 +231,13 @@ public class CustomerHomeController {
 
         // Poster container
         StackPane poster = new StackPane();
-        poster.setPrefSize(220, 320);
+        poster.setPrefSize(POSTER_WIDTH, POSTER_HEIGHT);
 
         // >>> LẤY LINK ẢNH VỀ, SET LÀM NỀN POSTER <<<
         String imageUrl = movie.getPosterUrl();
 
         poster.setStyle(
-                "-fx-background-image: url('" + imageUrl + "');" +
-                        "-fx-background-size: cover;" + // phủ đầy
-                        "-fx-background-position: center;" +
-                        "-fx-background-repeat: no-repeat;" +
-                        "-fx-background`-radius: 12;" + // bo góc cho ảnh
+                "-fx-background-radius: 12;" + // bo góc cho ảnh
                         "-fx-border-radius: 12;" // để không bị vuông khi hover
         );
 
@@ -253,18 +262,9 @@ public class CustomerHomeController {
 
         posterContent.getChildren().addAll(posterLabel);
 
-        // Nếu ảnh load thành công → ẩn placeholder
-        Image testImage = new Image(imageUrl, false);
-        testImage.exceptionProperty().addListener((obs, old, err) -> {
-            if (err != null) {
-                System.out.println("Ảnh poster lỗi: " + err.getMessage());
-            } else {
-                poster.getChildren().remove(posterContent);
-            }
-        });
-
-        // Ảnh → overlay → content
-        poster.getChildren().addAll(overlay, posterContent);
+        // Ảnh → overlay → content (ảnh load thành công → ẩn placeholder)
+        ImageView posterView = createPosterView(imageUrl, poster, posterContent);
+        poster.getChildren().addAll(posterView, overlay, posterContent);
 
         // Info section giữ nguyên
         VBox infoBox = new VBox(8);
@@ -325,6 +325,47 @@ public class CustomerHomeController {
         return card;
     }
 
+    // Ảnh poster qua ImageCache: decode đúng bề ngang card, crop kiểu "cover" và bo góc.
+    // Load xong → bỏ placeholder, lỗi → giữ placeholder.
+    private ImageView createPosterView(String imageUrl, StackPane poster, Node placeholder) {
+        ImageView posterView = new ImageView();
+        posterView.setFitWidth(POSTER_WIDTH);
+        posterView.setFitHeight(POSTER_HEIGHT);
+        posterView.setPreserveRatio(false);
+        posterView.setSmooth(true);
+
+        Rectangle clip = new Rectangle(POSTER_WIDTH, POSTER_HEIGHT);
+        clip.setArcWidth(24);
+        clip.setArcHeight(24);
+        posterView.setClip(clip);
+
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return posterView;
+        }
+
+        ImageCache.getInstance().load(imageUrl, POSTER_WIDTH, 0, true)
+                .whenComplete((image, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        System.out.println("Ảnh poster lỗi: " + err.getMessage());
+                        return;
+                    }
+                    posterView.setViewport(coverViewport(image, POSTER_WIDTH / POSTER_HEIGHT));
+                    posterView.setImage(image);
+                    poster.getChildren().remove(placeholder);
+                }));
+        return posterView;
+    }
+
+    // Vùng ảnh ở giữa có cùng tỉ lệ với khung
+    private static Rectangle2D coverViewport(Image image, double frameRatio) {
+        double w = image.getWidth();
+        double h = image.getHeight();
+        if (w / h > frameRatio) {
+            return new Rectangle2D((w - h * frameRatio) / 2, 0, h * frameRatio, h);
+        }
+        return new Rectangle2D(0, (h - w / frameRatio) / 2, w, w / frameRatio);
+    }
+
     private String limitText(String text, int maxLength) {
         if (text == null)
             return "";
@@ -341,17 +382,12 @@ public class CustomerHomeController {
         // POSTER (CÓ ẢNH + OVERLAY + FALLBACK)
         // ===============================
         StackPane poster = new StackPane();
-        poster.setPrefSize(220, 320);
+        poster.setPrefSize(POSTER_WIDTH, POSTER_HEIGHT);
 
         String imageUrl = movie.getPosterUrl();
 
-        // Set ảnh nền
         poster.setStyle(
-                "-fx-background-image: url('" + imageUrl + "');" +
-                        "-fx-background-size: cover;" +
-                        "-fx-background-position: center;" +
-                        "-fx-background-repeat: no-repeat;" +
-                        "-fx-background-radius: 12;" +
+                "-fx-background-radius: 12;" +
                         "-fx-border-radius: 12;");
 
         // Overlay mờ
@@ -381,18 +417,9 @@ public class CustomerHomeController {
 
         posterContent.getChildren().addAll(comingLabel, titleLabel);
 
-        // Kiểm tra ảnh có load được không
-        Image testImage = new Image(imageUrl, false);
-        testImage.exceptionProperty().addListener((obs, old, err) -> {
-            if (err != null) {
-                System.out.println("Poster lỗi: " + err.getMessage());
-            } else {
-                poster.getChildren().remove(posterContent); // ảnh OK → bỏ fallback
-            }
-        });
-
-        // Add overlay + fallback vào poster
-        poster.getChildren().addAll(overlay, posterContent);
+        // Ảnh nền + overlay + fallback (ảnh OK → bỏ fallback)
+        ImageView posterView = createPosterView(imageUrl, poster, posterContent);
+        poster.getChildren().addAll(posterView, overlay, posterContent);
 
         // ===============================
         // INFO SECTION
@@ -0,0 +1,78 @@
+package com.cinema.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của danh sách đặt vé trang admin (GET /api/admin/bookings)
+ */
+public class BookingListItem {
+    private String id;
+
+    @SerializedName("booking_time")
+    private LocalDateTime bookingTime;
+
+    @SerializedName("seat_total_price")
+    private double seatTotalPrice;
+
+    @SerializedName("combo_total_price")
+    private double comboTotalPrice;
+
+    @SerializedName("total_price")
+    private double totalPrice;
+
+    @SerializedName("payment_status")
+    private PaymentStatus paymentStatus;
+
+    @SerializedName("showtime_id")
+    private String showtimeId;
+
+    @SerializedName("start_time")
+    private LocalDateTime startTime;
+
+    @SerializedName("movie_id")
+    private String movieId;
+
+    @SerializedName("movie_title")
+    private String movieTitle;
+
+    @SerializedName("cinema_id")
+    private String cinemaId;
+
+    @SerializedName("cinema_name")
+    private String cinemaName;
+
+    @SerializedName("screen_name")
+    private String screenName;
+
+    @SerializedName("customer_name")
+    private String customerName;
+
+    @SerializedName("phone_number")
+    private String phoneNumber;
+
+    // "A1, A2, A3" - ghép sẵn ở server
+    private String seats;
+
+    public BookingListItem() {
+    }
+
+    public String getId() { return id; }
+    public LocalDateTime getBookingTime() { return bookingTime; }
+    public double getSeatTotalPrice() { return seatTotalPrice; }
+    public double getComboTotalPrice() { return comboTotalPrice; }
+    public double getTotalPrice() { return totalPrice; }
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+    public String getShowtimeId() { return showtimeId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public String getMovieId() { return movieId; }
+    public String getMovieTitle() { return movieTitle; }
+    public String getCinemaId() { return cinemaId; }
+    public String getCinemaName() { return cinemaName; }
+    public String getScreenName() { return screenName; }
+    public String getCustomerName() { return customerName; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getSeats() { return seats; }
+}
@@ -0,0 +1,96 @@
+package com.cinema.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dữ liệu thô của trang tổng quan (GET /api/admin/dashboard/facts):
+ * các đơn đặt vé trong cửa sổ [from, hôm nay] cùng bảng tra tên phim / rạp / combo.
+ * Việc tổng hợp thành từng biểu đồ làm ở client (DashboardAggregates).
+ */
+public class DashboardFacts {
+
+    /** Một đơn đặt vé ở dạng gọn, chỉ giữ các trường cần để tổng hợp */
+    public static class BookingFact {
+        private final String id;
+        private final long bookingTime; // epoch millis
+        private PaymentStatus status;
+        private final double totalPrice;
+        private final double comboTotalPrice;
+        private final String movieId;
+        private final String cinemaId;
+        private final Map<String, Integer> seatsByType = new HashMap<>(4);
+        private final Map<String, Integer> combos = new HashMap<>(4);
+        private int ticketCount;
+
+        public BookingFact(String id, long bookingTime, PaymentStatus status, double totalPrice,
+                           double comboTotalPrice, String movieId, String cinemaId) {
+            this.id = id;
+            this.bookingTime = bookingTime;
+            this.status = status;
+            this.totalPrice = totalPrice;
+            this.comboTotalPrice = comboTotalPrice;
+            this.movieId = movieId;
+            this.cinemaId = cinemaId;
+        }
+
+        public void addSeats(String seatType, int count) {
+            seatsByType.merge(seatType, count, Integer::sum);
+            ticketCount += count;
+        }
+
+        public void addCombo(String comboId, int quantity) {
+            combos.merge(comboId, quantity, Integer::sum);
+        }
+
+        public String getId() { return id; }
+        public long getBookingTime() { return bookingTime; }
+        public PaymentStatus getStatus() { return status; }
+        public void setStatus(PaymentStatus status) { this.status = status; }
+        public double getTotalPrice() { return totalPrice; }
+        public double getComboTotalPrice() { return comboTotalPrice; }
+        public String getMovieId() { return movieId; }
+        public String getCinemaId() { return cinemaId; }
+        public Map<String, Integer> getSeatsByType() { return seatsByType; }
+        public Map<String, Integer> getCombos() { return combos; }
+        public int getTicketCount() { return ticketCount; }
+    }
+
+    private LocalDate from;
+    private final List<BookingFact> bookings = new ArrayList<>();
+    private final Map<String, String> movieTitles = new HashMap<>();
+    private final Map<String, String> movieStatuses = new HashMap<>(); // NOW_SHOWING / COMING_SOON / ENDED
+    private final Map<String, Integer> genreCounts = new LinkedHashMap<>();
+    private final Map<String, String> cinemaNames = new HashMap<>();
+    private final Map<String, String> comboNames = new HashMap<>();
+    private int totalCustomers;
+    private int newCustomersToday;
+    private int[] ratingCounts = new int[5]; // 5★ → 1★
+    private List<BookingListItem> recentBookings = new ArrayList<>();
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public List<BookingFact> getBookings() { return bookings; }
+    public Map<String, String> getMovieTitles() { return movieTitles; }
+    public Map<String, String> getMovieStatuses() { return movieStatuses; }
+    public Map<String, Integer> getGenreCounts() { return genreCounts; }
+    public Map<String, String> getCinemaNames() { return cinemaNames; }
+    public Map<String, String> getComboNames() { return comboNames; }
+
+    public int getTotalCustomers() { return totalCustomers; }
+    public void setTotalCustomers(int totalCustomers) { this.totalCustomers = totalCustomers; }
+
+    public int getNewCustomersToday() { return newCustomersToday; }
+    public void setNewCustomersToday(int newCustomersToday) { this.newCustomersToday = newCustomersToday; }
+
+    public int[] getRatingCounts() { return ratingCounts; }
+    public void setRatingCounts(int[] ratingCounts) { this.ratingCounts = ratingCounts; }
+
+    public List<BookingListItem> getRecentBookings() { return recentBookings; }
+    public void setRecentBookings(List<BookingListItem> recentBookings) { this.recentBookings = recentBookings; }
+}
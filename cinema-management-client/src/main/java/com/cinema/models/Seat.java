@@ -14,6 +14,10 @@ public class Seat {
     @SerializedName("col_index")
     private int colIndex;          // Vị trí cột trong layout
 
+    // Khi SeatLayout đã dựng SeatStateEngine, trạng thái đọc/ghi qua engine
+    private transient SeatStateEngine engine;
+    private transient int engineIndex = -1;
+
     public Seat() {}
 
     public Seat(String seatNumber, SeatType seatType, double price, int rowIndex, int colIndex) {
@@ -27,20 +31,51 @@ public class Seat {
 
     // Getters and Setters
     public String getSeatNumber() { return seatNumber; }
-    public void setSeatNumber(String seatNumber) { this.seatNumber = seatNumber; }
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+        if (engine != null) {
+            engine.invalidate(); // Đổi khóa tra cứu → layout dựng lại engine ở lần truy cập sau
+        }
+    }
     
     public SeatType getSeatType() { return seatType; }
-    public void setSeatType(SeatType seatType) { this.seatType = seatType; }
+    public void setSeatType(SeatType seatType) {
+        this.seatType = seatType;
+        if (engine != null) {
+            engine.updateType(engineIndex, seatType);
+        }
+    }
     
-    public SeatStatus getStatus() { return status; }
-    public void setStatus(SeatStatus status) { this.status = status; }
+    public SeatStatus getStatus() {
+        return engine != null ? engine.getStatus(engineIndex) : status;
+    }
+    public void setStatus(SeatStatus status) {
+        this.status = status;
+        if (engine != null && status != null) {
+            engine.setStatus(engineIndex, status);
+        }
+    }
     
     public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public void setPrice(double price) {
+        this.price = price;
+        if (engine != null) {
+            engine.updatePrice(engineIndex, price);
+        }
+    }
     
     public int getRowIndex() { return rowIndex; }
     public void setRowIndex(int rowIndex) { this.rowIndex = rowIndex; }
     
     public int getColIndex() { return colIndex; }
     public void setColIndex(int colIndex) { this.colIndex = colIndex; }
+
+    // Chỉ SeatStateEngine gọi khi dựng
+    void bind(SeatStateEngine engine, int index) {
+        if (this.engine != null && this.engine != engine) {
+            this.status = this.engine.getStatus(engineIndex);
+        }
+        this.engine = engine;
+        this.engineIndex = index;
+    }
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ public class SeatLayout {
     @SerializedName("column_count")
     private int columns;     // Số cột
     private List<List<Seat>> seats; // Ma trận ghế: seats[row][col]
+
+    // Dựng lười ở lần tra cứu đầu tiên, bỏ đi khi ma trận đổi
+    private transient SeatStateEngine stateEngine;
     
     public SeatLayout() {
         this.seats = new ArrayList<>();
@@ -38,6 +41,7 @@ public class SeatLayout {
     public void setSeat(int row, int col, Seat seat) {
         if (row >= 0 && row < rows && col >= 0 && col < columns) {
             seats.get(row).set(col, seat);
+            invalidateStateEngine();
         }
     }
     
@@ -55,15 +59,37 @@ public class SeatLayout {
         return seat == null || seat.getSeatNumber() == null || seat.getSeatNumber().isEmpty();
     }
 
+    /**
+     * Engine trạng thái ghế của layout (dựng một lần, O(số ô)).
+     * Nếu sửa trực tiếp list từ getSeats() thì gọi invalidateStateEngine() sau đó.
+     */
+    public SeatStateEngine getStateEngine() {
+        if (stateEngine == null || stateEngine.isStale()) {
+            stateEngine = new SeatStateEngine(rows, columns, seats);
+        }
+        return stateEngine;
+    }
+
+    // Tìm ghế theo số ghế - O(1)
+    public Seat findSeat(String seatNumber) {
+        return getStateEngine().findSeat(seatNumber);
+    }
+
+    public void invalidateStateEngine() {
+        if (stateEngine != null) {
+            stateEngine.invalidate();
+        }
+    }
+
     // Getters and Setters
     public int getRows() { return rows; }
-    public void setRows(int rows) { this.rows = rows; }
+    public void setRows(int rows) { this.rows = rows; invalidateStateEngine(); }
     
     public int getColumns() { return columns; }
-    public void setColumns(int columns) { this.columns = columns; }
+    public void setColumns(int columns) { this.columns = columns; invalidateStateEngine(); }
     
     public List<List<Seat>> getSeats() { return seats; }
-    public void setSeats(List<List<Seat>> seats) { this.seats = seats; }
+    public void setSeats(List<List<Seat>> seats) { this.seats = seats; invalidateStateEngine(); }
 
     public SeatLayout clone() {
         SeatLayout copy = new SeatLayout(rows, columns);
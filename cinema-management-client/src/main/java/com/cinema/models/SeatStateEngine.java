@@ -0,0 +1,240 @@
+package com.cinema.models;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trạng thái ghế của một SeatLayout lưu dạng mảng nguyên thủy, đánh chỉ số 0..size-1.
+ *
+ * - type / price / status: mảng dày theo chỉ số ghế
+ * - mỗi SeatStatus có một BitSet → đếm / duyệt theo trạng thái không cần quét ma trận
+ * - seatNumber → chỉ số: bảng băm địa chỉ mở dựng sẵn một lần, tra O(1), không boxing
+ * - ô (row, col) → chỉ số: mảng phẳng rows * columns (-1 = lối đi)
+ *
+ * Seat gắn với engine (bind) trở thành view: getStatus()/setStatus() đọc ghi thẳng vào đây.
+ * Ghế đôi chiếm 2 ô nhưng là một Seat → một chỉ số.
+ */
+public final class SeatStateEngine {
+
+    private static final SeatType[] TYPES = SeatType.values();
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+
+    private final int rows;
+    private final int columns;
+    private final int[] cellToSeat;
+
+    private final Seat[] seats;
+    private final String[] seatNumbers;
+    private final byte[] types;
+    private final double[] prices;
+    private final byte[] statuses;
+    private final BitSet[] statusBits;
+
+    // Bảng băm seatNumber → chỉ số (+1, 0 = ô trống), kích thước lũy thừa của 2
+    private final int[] hashSlots;
+    private final int hashMask;
+
+    private boolean stale;
+
+    SeatStateEngine(int rows, int columns, List<List<Seat>> matrix) {
+        this.rows = Math.max(rows, 0);
+        this.columns = Math.max(columns, 0);
+        this.cellToSeat = new int[this.rows * this.columns];
+
+        // Lượt 1: gom ghế khác nhau theo thứ tự xuất hiện
+        Map<String, Integer> firstIndex = new HashMap<>();
+        Seat[] collected = new Seat[this.rows * this.columns];
+        int count = 0;
+        for (int r = 0; r < this.rows; r++) {
+            List<Seat> row = (matrix != null && r < matrix.size()) ? matrix.get(r) : null;
+            for (int c = 0; c < this.columns; c++) {
+                Seat seat = (row != null && c < row.size()) ? row.get(c) : null;
+                if (seat == null || seat.getSeatNumber() == null || seat.getSeatNumber().isEmpty()) {
+                    cellToSeat[r * this.columns + c] = -1;
+                    continue;
+                }
+                Integer existing = firstIndex.get(seat.getSeatNumber());
+                if (existing == null) {
+                    existing = count;
+                    firstIndex.put(seat.getSeatNumber(), count);
+                    collected[count++] = seat;
+                }
+                cellToSeat[r * this.columns + c] = existing;
+            }
+        }
+
+        this.seats = new Seat[count];
+        this.seatNumbers = new String[count];
+        this.types = new byte[count];
+        this.prices = new double[count];
+        this.statuses = new byte[count];
+        this.statusBits = new BitSet[STATUSES.length];
+        for (int s = 0; s < STATUSES.length; s++) {
+            statusBits[s] = new BitSet(count);
+        }
+
+        int tableSize = Integer.highestOneBit(Math.max(count * 2, 2) - 1) << 1;
+        this.hashSlots = new int[tableSize];
+        this.hashMask = tableSize - 1;
+
+        // Lượt 2: chép sang mảng nguyên thủy rồi bind Seat vào engine
+        for (int i = 0; i < count; i++) {
+            Seat seat = collected[i];
+            SeatType type = seat.getSeatType() != null ? seat.getSeatType() : SeatType.STANDARD;
+            SeatStatus status = seat.getStatus() != null ? seat.getStatus() : SeatStatus.AVAILABLE;
+
+            seats[i] = seat;
+            seatNumbers[i] = seat.getSeatNumber();
+            types[i] = (byte) type.ordinal();
+            prices[i] = seat.getPrice();
+            statuses[i] = (byte) status.ordinal();
+            statusBits[status.ordinal()].set(i);
+
+            int slot = spread(seatNumbers[i].hashCode()) & hashMask;
+            while (hashSlots[slot] != 0) {
+                slot = (slot + 1) & hashMask;
+            }
+            hashSlots[slot] = i + 1;
+
+            seat.bind(this, i);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // ===== TRA CỨU =====
+
+    /** Số ghế (ghế đôi tính là 1) */
+    public int size() { return seats.length; }
+
+    public int getRows() { return rows; }
+
+    public int getColumns() { return columns; }
+
+    /** Chỉ số ghế theo seatNumber, -1 nếu không có */
+    public int indexOf(String seatNumber) {
+        if (seatNumber == null) {
+            return -1;
+        }
+        int slot = spread(seatNumber.hashCode()) & hashMask;
+        int entry;
+        while ((entry = hashSlots[slot]) != 0) {
+            if (seatNumbers[entry - 1].equals(seatNumber)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+        return -1;
+    }
+
+    /** Chỉ số ghế tại ô (row, col), -1 nếu là lối đi / ngoài phạm vi */
+    public int indexAt(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= columns) {
+            return -1;
+        }
+        return cellToSeat[row * columns + col];
+    }
+
+    public Seat seatAt(int index) { return seats[index]; }
+
+    public Seat findSeat(String seatNumber) {
+        int index = indexOf(seatNumber);
+        return index >= 0 ? seats[index] : null;
+    }
+
+    public String getSeatNumber(int index) { return seatNumbers[index]; }
+
+    public SeatType getType(int index) { return TYPES[types[index]]; }
+
+    public double getPrice(int index) { return prices[index]; }
+
+    public SeatStatus getStatus(int index) { return STATUSES[statuses[index]]; }
+
+    // ===== CẬP NHẬT TRẠNG THÁI =====
+
+    /**
+     * Đổi trạng thái một ghế
+     * @return true nếu trạng thái thực sự thay đổi
+     */
+    public boolean setStatus(int index, SeatStatus status) {
+        int next = status.ordinal();
+        int prev = statuses[index];
+        if (prev == next) {
+            return false;
+        }
+        statusBits[prev].clear(index);
+        statusBits[next].set(index);
+        statuses[index] = (byte) next;
+        return true;
+    }
+
+    /** Đổi trạng thái theo seatNumber, false nếu không có ghế hoặc không đổi */
+    public boolean setStatus(String seatNumber, SeatStatus status) {
+        int index = indexOf(seatNumber);
+        return index >= 0 && setStatus(index, status);
+    }
+
+    /**
+     * Áp cùng một trạng thái cho cả lô ghế - O(số ghế trong lô)
+     * @return số ghế thực sự đổi trạng thái
+     */
+    public int setStatus(Iterable<String> seatNumbers, SeatStatus status) {
+        int changed = 0;
+        for (String seatNumber : seatNumbers) {
+            if (setStatus(seatNumber, status)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /** Đưa mọi ghế về cùng trạng thái */
+    public void resetAll(SeatStatus status) {
+        for (BitSet bits : statusBits) {
+            bits.clear();
+        }
+        byte value = (byte) status.ordinal();
+        Arrays.fill(statuses, value);
+        statusBits[status.ordinal()].set(0, seats.length);
+    }
+
+    void updateType(int index, SeatType type) {
+        types[index] = (byte) (type != null ? type : SeatType.STANDARD).ordinal();
+    }
+
+    void updatePrice(int index, double price) {
+        prices[index] = price;
+    }
+
+    // ===== THỐNG KÊ =====
+
+    /** Số ghế đang ở trạng thái status - đếm bit, không quét ma trận */
+    public int count(SeatStatus status) {
+        return statusBits[status.ordinal()].cardinality();
+    }
+
+    public boolean is(int index, SeatStatus status) {
+        return statusBits[status.ordinal()].get(index);
+    }
+
+    /** Bản sao tập chỉ số ghế đang ở trạng thái status */
+    public BitSet seatsWith(SeatStatus status) {
+        return (BitSet) statusBits[status.ordinal()].clone();
+    }
+
+    // ===== VÒNG ĐỜI =====
+
+    /** Đánh dấu cần dựng lại (seatNumber / ma trận đã đổi) */
+    void invalidate() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+}
@@ -3,6 +3,7 @@ package com.cinema.models;
 public enum SeatStatus {
     AVAILABLE("Ghế trống", "#16213e"),        // Màu xanh đậm
     SELECTED("Bạn đã chọn", "#ff3366"),       // Màu đỏ
+    HELD("Đang được giữ", "#FFC107"),         // Màu vàng - người khác đang giữ
     BOOKED("Đã được đặt", "#666680");         // Màu xám
 
     private final String displayName;
@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class Showtime {
     private String id;
@@ -56,11 +59,11 @@ public class Showtime {
     @SerializedName("poster_url")
     private String posterUrl;
     
-    // For client use
-    private List<String> bookedSeats;
+    // For client use - Set giữ thứ tự thêm, isSeatBooked() tra O(1)
+    private Set<String> bookedSeats;
 
     public Showtime() {
-        this.bookedSeats = new ArrayList<>();
+        this.bookedSeats = new LinkedHashSet<>();
     }
 
     public Showtime(String id, String movieId, String screenId, LocalDateTime startTime,
@@ -71,7 +74,7 @@ public class Showtime {
         this.startTime = startTime;
         this.endTime = endTime;
         this.basePrice = basePrice;
-        this.bookedSeats = new ArrayList<>();
+        this.bookedSeats = new LinkedHashSet<>();
     }
 
     public boolean isSeatBooked(String seatNumber) {
@@ -79,9 +82,7 @@ public class Showtime {
     }
 
     public void bookSeat(String seatNumber) {
-        if (!bookedSeats.contains(seatNumber)) {
-            bookedSeats.add(seatNumber);
-        }
+        bookedSeats.add(seatNumber);
     }
 
     public void unbookSeat(String seatNumber) {
@@ -116,8 +117,6 @@ public class Showtime {
             // Convert UTC → giờ Việt Nam (Asia/Ho_Chi_Minh)
             this.startTime = odt.atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh"))
                                .toLocalDateTime();
-
-            System.out.println("Parsed startTime: " + startTimeStr + " → " + this.startTime + " (VN)");
         } catch (Exception e) {
             System.err.println("Error parsing startTime: " + startTimeStr);
             e.printStackTrace();
@@ -140,8 +139,6 @@ public class Showtime {
             OffsetDateTime odt = OffsetDateTime.parse(endTimeStr);
             this.endTime = odt.atZoneSameInstant(ZoneId.of("Asia/Ho_Chi_Minh"))
                              .toLocalDateTime();
-
-            System.out.println("Parsed endTime: " + endTimeStr + " → " + this.endTime + " (VN)");
         } catch (Exception e) {
             System.err.println("Error parsing endTime: " + endTimeStr);
             e.printStackTrace();
@@ -182,8 +179,9 @@ public class Showtime {
     public String getPosterUrl() { return posterUrl; }
     public void setPosterUrl(String posterUrl) { this.posterUrl = posterUrl; }
 
-    public List<String> getBookedSeats() { return bookedSeats; }
-    public void setBookedSeats(List<String> bookedSeats) {
-        this.bookedSeats = (bookedSeats != null) ? bookedSeats : new ArrayList<>();
+    // Bản sao - thêm/bớt ghế qua bookSeat() / unbookSeat() / setBookedSeats()
+    public List<String> getBookedSeats() { return new ArrayList<>(bookedSeats); }
+    public void setBookedSeats(Collection<String> bookedSeats) {
+        this.bookedSeats = (bookedSeats != null) ? new LinkedHashSet<>(bookedSeats) : new LinkedHashSet<>();
     }
 }
\ No newline at end of file
@@ -1,19 +1,20 @@
 package com.cinema.utils;
 
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 import com.google.gson.Gson;
+import okhttp3.Request;
+import okhttp3.RequestBody;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.prefs.Preferences;
 
 public class ApiClient {
 
-    private static final String BASE_URL = "http://localhost:3000/api/auth";
-    private static final HttpClient httpClient = HttpClientProvider.http1();
+    private static String baseUrl() {
+        return Endpoints.api("/auth");
+    }
+
     private static final Gson gson = new Gson();
 
     // Preferences để lưu token và user
@@ -24,11 +25,9 @@ public class ApiClient {
             String password, String confirmPassword) {
         String jsonBody = gson.toJson(new RegisterRequest(fullName, username, email, password, confirmPassword));
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/register"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .timeout(Duration.ofSeconds(15))
+        Request request = new Request.Builder()
+                .url(baseUrl() + "/register")
+                .post(RequestBody.create(jsonBody, HttpTransport.JSON))
                 .build();
 
         return sendRequest(request);
@@ -39,11 +38,9 @@ public class ApiClient {
         String jsonBody = gson.toJson(new LoginRequest(email, password));
         System.out.println("LOGIN JSON = " + jsonBody);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/login"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .timeout(Duration.ofSeconds(15))
+        Request request = new Request.Builder()
+                .url(baseUrl() + "/login")
+                .post(RequestBody.create(jsonBody, HttpTransport.JSON))
                 .build();
 
         System.err.println(11111);
@@ -51,57 +48,62 @@ public class ApiClient {
     }
 
     // === Gửi request chung và xử lý response ===
-    private static AuthResponse sendRequest(HttpRequest request) {
+    private static AuthResponse sendRequest(Request request) {
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return HttpTransport.execute(request, Duration.ofSeconds(15), response -> {
+                String body = HttpTransport.bodyString(response);
+                return handleAuthResponse(response.code(), body);
+            });
 
-            System.out.println("🔑 API Auth Response Code: " + response.statusCode());
-            System.out.println("   Response Body: " + response.body());
+        } catch (Exception e) {
+            System.err.println("❌ Lỗi kết nối khi gọi Auth API:");
+            e.printStackTrace();
 
-            if (response.statusCode() == 200 || response.statusCode() == 201) {
-                AuthResponse authResponse = gson.fromJson(response.body(), AuthResponse.class);
+            AuthResponse error = new AuthResponse();
+            error.success = false;
+            error.message = "Lỗi kết nối: " + e.getMessage();
+            return error;
+        }
+    }
 
-                if (authResponse.success && authResponse.data != null && authResponse.data.token != null) {
-                    String token = authResponse.data.token;
+    private static AuthResponse handleAuthResponse(int statusCode, String body) {
+        System.out.println("🔑 API Auth Response Code: " + statusCode);
+        System.out.println("   Response Body: " + body);
 
-                    // ✅ Lưu vào Preferences (để dùng lại sau khi tắt app)
-                    prefs.put("auth_token", token);
-                    prefs.put("user_id", authResponse.data.user.id);
-                    prefs.put("username", authResponse.data.user.username);
-                    prefs.put("full_name", authResponse.data.user.full_name);
-                    prefs.put("email", authResponse.data.user.email);
-                    prefs.put("role", authResponse.data.user.role);
+        if (statusCode == 200 || statusCode == 201) {
+            AuthResponse authResponse = gson.fromJson(body, AuthResponse.class);
 
-                    // ✅ ĐỒNG BỘ TOKEN SANG BookingApiService ĐỂ DÙNG CHO CÁC API KHÁC
-                    BookingApiService.setAuthToken(token);
+            if (authResponse.success && authResponse.data != null && authResponse.data.token != null) {
+                String token = authResponse.data.token;
 
-                    System.out.println("✅ Login/Register thành công!");
-                    System.out.println("   Token đã lưu (dài " + token.length() + " ký tự)");
-                    System.out.println(
-                            "   User: " + authResponse.data.user.full_name + " (" + authResponse.data.user.email + ")");
-                } else {
-                    System.err.println("⚠️ Login thành công nhưng không có token hoặc data null");
-                }
+                // ✅ Lưu vào Preferences (để dùng lại sau khi tắt app)
+                prefs.put("auth_token", token);
+                prefs.put("user_id", authResponse.data.user.id);
+                prefs.put("username", authResponse.data.user.username);
+                prefs.put("full_name", authResponse.data.user.full_name);
+                prefs.put("email", authResponse.data.user.email);
+                prefs.put("role", authResponse.data.user.role);
 
-                return authResponse;
+                // ✅ ĐỒNG BỘ TOKEN SANG BookingApiService ĐỂ DÙNG CHO CÁC API KHÁC
+                BookingApiService.setAuthToken(token);
 
+                System.out.println("✅ Login/Register thành công!");
+                System.out.println("   Token đã lưu (dài " + token.length() + " ký tự)");
+                System.out.println(
+                        "   User: " + authResponse.data.user.full_name + " (" + authResponse.data.user.email + ")");
             } else {
-                // Lỗi từ server (400, 401, 500...)
-                AuthResponse error = new AuthResponse();
-                error.success = false;
-                error.message = "Lỗi server: " + response.statusCode() + " - " + response.body();
-
-                System.err.println("❌ Auth API lỗi: " + error.message);
-                return error;
+                System.err.println("⚠️ Login thành công nhưng không có token hoặc data null");
             }
 
-        } catch (Exception e) {
-            System.err.println("❌ Lỗi kết nối khi gọi Auth API:");
-            e.printStackTrace();
+            return authResponse;
 
+        } else {
+            // Lỗi từ server (400, 401, 500...)
             AuthResponse error = new AuthResponse();
             error.success = false;
-            error.message = "Lỗi kết nối: " + e.getMessage();
+            error.message = "Lỗi server: " + statusCode + " - " + body;
+
+            System.err.println("❌ Auth API lỗi: " + error.message);
             return error;
         }
     }
@@ -1,17 +1,24 @@
 package com.cinema.utils;
 
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class chuyên trách gọi API lấy danh sách ghế đã đặt (booked seats)
@@ -21,11 +28,19 @@ import java.util.List;
  *   "success": true,
  *   "data": ["A1", "A3", "B5", "C10", "D7"]
  * }
+ *
+ * API: GET /api/showtimes/booked-counts?ids=st_001,st_002 (tối đa 200 id)
+ * Response mẫu:
+ * {
+ *   "success": true,
+ *   "data": { "st_001": 12, "st_002": 0 }
+ * }
  */
 public class BookedSeatApiClient {
 
-    private static final String BASE_URL = "http://localhost:3000/api";
-    private static final HttpClient httpClient = HttpClientProvider.http1();
+    private static String baseUrl() {
+        return Endpoints.api("");
+    }
 
     /**
      * Lấy danh sách ghế đã đặt cho một suất chiếu cụ thể
@@ -33,45 +48,101 @@ public class BookedSeatApiClient {
      * @return List<String> chứa các seat_number đã được đặt, hoặc danh sách rỗng nếu lỗi/API không thành công
      */
     public static List<String> getBookedSeats(String showtimeId) {
-        String url = BASE_URL + "/showtimes/" + showtimeId + "/booked-seats";
+        Request request = bookedSeatsRequest(showtimeId);
+
+        try {
+            List<String> bookedSeats = HttpTransport.execute(request, Duration.ofSeconds(15),
+                    BookedSeatApiClient::readBookedSeats);
+
+            if (bookedSeats != null) {
+                return bookedSeats;
+            }
+
+        } catch (Exception e) {
+            System.err.println("Lỗi kết nối API booked-seats: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        // Luôn trả về danh sách rỗng thay vì null để tránh crash UI
+        return new ArrayList<>();
+    }
+
+    /**
+     * Như getBookedSeats nhưng không chặn thread gọi (dùng để tải trước khi hover nút suất chiếu).
+     * Future hoàn thành với null nếu API không thành công, lỗi (UncheckedIOException) nếu lỗi mạng;
+     * cancel() hủy luôn request đang chạy.
+     */
+    public static CompletableFuture<List<String>> getBookedSeatsAsync(String showtimeId) {
+        return HttpTransport.sendAsync(bookedSeatsRequest(showtimeId), Duration.ofSeconds(15),
+                BookedSeatApiClient::readBookedSeats, UncheckedIOException::new);
+    }
+
+    private static Request bookedSeatsRequest(String showtimeId) {
+        String url = baseUrl() + "/showtimes/" + showtimeId + "/booked-seats";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+        return new Request.Builder()
+                .url(url)
                 .header("Content-Type", "application/json")
-                .GET()
-                .timeout(Duration.ofSeconds(15))
+                .get()
                 .build();
+    }
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                JsonObject root = JsonParser.parseString(response.body()).getAsJsonObject();
+    private static List<String> readBookedSeats(Response response) throws IOException {
+        String body = HttpTransport.bodyString(response);
 
-                // Kiểm tra success và có data
-                if (root.has("success") && root.get("success").getAsBoolean()
-                        && root.has("data") && root.get("data").isJsonArray()) {
+        if (response.code() == 200) {
+            JsonObject root = JsonParser.parseString(body).getAsJsonObject();
 
-                    JsonArray dataArray = root.getAsJsonArray("data");
-                    List<String> bookedSeats = new ArrayList<>();
+            // Kiểm tra success và có data
+            if (root.has("success") && root.get("success").getAsBoolean()
+                    && root.has("data") && root.get("data").isJsonArray()) {
 
-                    for (JsonElement element : dataArray) {
-                        bookedSeats.add(element.getAsString());
-                    }
+                JsonArray dataArray = root.getAsJsonArray("data");
+                List<String> seats = new ArrayList<>();
 
-                    return bookedSeats; // Trả về danh sách ghế đã đặt thật
+                for (JsonElement element : dataArray) {
+                    seats.add(element.getAsString());
                 }
+
+                return seats; // Trả về danh sách ghế đã đặt thật
             }
+        }
 
-            // Nếu không thành công, in log và fallback về danh sách rỗng
-            System.err.println("API booked-seats lỗi: " + response.statusCode() + " - " + response.body());
+        // Nếu không thành công, in log và fallback về danh sách rỗng
+        System.err.println("API booked-seats lỗi: " + response.code() + " - " + body);
+        return null;
+    }
 
-        } catch (Exception e) {
-            System.err.println("Lỗi kết nối API booked-seats: " + e.getMessage());
-            e.printStackTrace();
-        }
+    /**
+     * Số ghế đã đặt của nhiều suất chiếu trong một request (màn hình suất chiếu)
+     * @return future lỗi (UncheckedIOException) nếu mạng lỗi hoặc API không thành công
+     */
+    public static CompletableFuture<Map<String, Integer>> getBookedCountsAsync(Collection<String> showtimeIds) {
+        HttpUrl url = HttpUrl.get(baseUrl() + "/showtimes/booked-counts").newBuilder()
+                .addQueryParameter("ids", String.join(",", showtimeIds))
+                .build();
 
-        // Luôn trả về danh sách rỗng thay vì null để tránh crash UI
-        return new ArrayList<>();
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .build();
+
+        return HttpTransport.sendAsync(request, Duration.ofSeconds(15), response -> {
+            String body = HttpTransport.bodyString(response);
+            if (response.code() != 200) {
+                throw new IOException("API booked-counts lỗi: " + response.code() + " - " + body);
+            }
+
+            JsonObject root = JsonParser.parseString(body).getAsJsonObject();
+            if (!root.has("data") || !root.get("data").isJsonObject()) {
+                throw new IOException("API booked-counts trả về sai định dạng: " + body);
+            }
+
+            Map<String, Integer> counts = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("data").entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().getAsInt());
+            }
+            return counts;
+        }, UncheckedIOException::new);
     }
 }
\ No newline at end of file
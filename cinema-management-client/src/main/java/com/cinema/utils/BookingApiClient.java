@@ -1,12 +1,11 @@
 package com.cinema.utils;
 
-// ===== JAVA HTTP CLIENT =====
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+// ===== HTTP (OKHTTP - TRANSPORT DÙNG CHUNG) =====
 import java.time.LocalDateTime;
 
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
 // ===== GOOGLE GSON =====
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -15,11 +14,12 @@ import com.google.gson.GsonBuilder;
 import com.cinema.models.Booking;
 import com.cinema.models.BookingDB;
 import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 
 public class BookingApiClient {
 
     // ===== SHARED OBJECTS =====
-    private static final HttpClient httpClient = HttpClientProvider.http1();
     private static final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
@@ -33,25 +33,22 @@ public class BookingApiClient {
 
         String jsonBody = gson.toJson(booking);
         System.err.println(jsonBody);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("http://localhost:3000/api/bookings"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+        Request request = new Request.Builder()
+                .url(Endpoints.api("/bookings"))
+                .post(RequestBody.create(jsonBody, HttpTransport.JSON))
                 .build();
 
-        HttpResponse<String> response = httpClient.send(
-                request,
-                HttpResponse.BodyHandlers.ofString()
-        );
-
-        if (response.statusCode() != 201 && response.statusCode() != 200) {
-            throw new RuntimeException(
-                    "Create booking failed. Status: "
-                            + response.statusCode()
-                            + " | Body: "
-                            + response.body()
-            );
-        }
+        HttpTransport.execute(request, response -> {
+            if (response.code() != 201 && response.code() != 200) {
+                throw new RuntimeException(
+                        "Create booking failed. Status: "
+                                + response.code()
+                                + " | Body: "
+                                + HttpTransport.bodyString(response)
+                );
+            }
+            return null;
+        });
 
         System.out.println("✅ Booking created successfully");
     }
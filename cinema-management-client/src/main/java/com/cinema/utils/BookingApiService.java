@@ -5,13 +5,18 @@ import okhttp3.*;
 import java.io.IOException;
 
 import com.cinema.models.dto.*;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class BookingApiService {
 
-    private static final String BASE_URL = "http://localhost:3000/api";
-    private static final OkHttpClient client = new OkHttpClient();
+    private static String baseUrl() {
+        return Endpoints.api("");
+    }
+
+    private static final OkHttpClient client = HttpTransport.client();
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     // ============ AUTHENTICATION TOKEN (nếu cần) ============
@@ -26,7 +31,7 @@ public class BookingApiService {
         String token = authToken; // đã được set từ ApiClient
 
         Request.Builder builder = new Request.Builder()
-                .url(BASE_URL + "/customers/me");
+                .url(baseUrl() + "/customers/me");
 
         if (token != null && !token.isEmpty()) {
             builder.addHeader("Authorization", "Bearer " + token);
@@ -57,7 +62,7 @@ public class BookingApiService {
 
     // ============ GET MOVIE BY ID ============
     public static MovieDTO getMovie(String movieId) throws IOException {
-        String url = BASE_URL + "/booking-confirm/movie/" + movieId;
+        String url = baseUrl() + "/booking-confirm/movie/" + movieId;
 
         Request request = new Request.Builder()
                 .url(url)
@@ -84,7 +89,7 @@ public class BookingApiService {
 
     // ============ GET CINEMA BY ID ============
     public static CinemaDTO getCinema(String cinemaId) throws IOException {
-        String url = BASE_URL + "/booking-confirm/cinema/" + cinemaId;
+        String url = baseUrl() + "/booking-confirm/cinema/" + cinemaId;
 
         Request request = new Request.Builder()
                 .url(url)
@@ -111,7 +116,7 @@ public class BookingApiService {
 
     // ============ GET SCREEN BY ID ============
     public static ScreenDTO getScreen(String screenId) throws IOException {
-        String url = BASE_URL + "/booking-confirm/screen/" + screenId;
+        String url = baseUrl() + "/booking-confirm/screen/" + screenId;
 
         Request request = new Request.Builder()
                 .url(url)
@@ -0,0 +1,295 @@
+package com.cinema.utils;
+
+import com.cinema.utils.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache bộ nhớ cho dữ liệu danh mục ít thay đổi (phim theo trạng thái, rạp theo phim, combo theo rạp,
+ * thể loại, danh sách rạp), thay cho việc gọi lại API mỗi lần mở màn hình.
+ *
+ * - Mỗi vùng (Region) có kiểu key / value riêng, hạn tươi (ttl) và hạn dùng bản cũ (maxStale)
+ * - Còn tươi → trả ngay. Quá ttl nhưng chưa quá maxStale → trả bản cũ ngay và tải lại ở nền
+ *   (stale-while-revalidate). Chưa có / quá maxStale → tải và chờ kết quả
+ * - Mỗi key chỉ có một lần tải tại một thời điểm, các lời gọi cùng lúc dùng chung future
+ * - Tải lỗi mà vẫn còn bản cũ (kể cả quá maxStale) → dùng bản cũ, như ImageCache khi mất mạng
+ * - Admin tạo / sửa / xóa thì gọi invalidate(Topic): xóa các vùng phụ thuộc, lần tải đang chạy
+ *   từ trước đó không được ghi vào cache nữa
+ *
+ * Giá trị trong cache dùng chung giữa các màn hình → API nên trả danh sách không sửa được.
+ *
+ * Cấu hình qua system property (đơn vị giây):
+ *   cinema.catalog.enabled (true), cinema.catalog.{vùng}.ttlSeconds, cinema.catalog.{vùng}.maxStaleSeconds
+ */
+public final class CatalogCache {
+
+    /** Loại dữ liệu một thao tác ghi có thể làm thay đổi */
+    public enum Topic {
+        MOVIES, GENRES, CINEMAS, SHOWTIMES, COMBOS
+    }
+
+    private static final CatalogCache INSTANCE = new CatalogCache(
+            Boolean.parseBoolean(System.getProperty("cinema.catalog.enabled", "true")));
+
+    private static final int MAX_ENTRIES_PER_REGION = 256;
+    private static final int REFRESH_THREADS = 2;
+
+    private final boolean enabled;
+    private final List<Region<?, ?>> regions = new CopyOnWriteArrayList<>();
+    private final ExecutorService refresher;
+
+    CatalogCache(boolean enabled) {
+        this.enabled = enabled;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.refresher = Executors.newFixedThreadPool(REFRESH_THREADS, r -> {
+            Thread t = new Thread(r, "cinema-catalog-" + counter.incrementAndGet());
+            t.setDaemon(true); // không giữ JVM sống khi đóng app
+            return t;
+        });
+    }
+
+    public static CatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tạo một vùng cache; gọi một lần và giữ trong field static của API class
+     *
+     * @param name   tên vùng, dùng cho system property và tag "region" của metrics
+     * @param topics vùng bị xóa khi invalidate một trong các topic này
+     */
+    public <K, V> Region<K, V> region(String name, Duration ttl, Duration maxStale, Topic... topics) {
+        long ttlSeconds = Long.getLong("cinema.catalog." + name + ".ttlSeconds", ttl.getSeconds());
+        long maxStaleSeconds = Long.getLong("cinema.catalog." + name + ".maxStaleSeconds", maxStale.getSeconds());
+
+        Set<Topic> topicSet = EnumSet.noneOf(Topic.class);
+        topicSet.addAll(List.of(topics));
+
+        Region<K, V> region = new Region<>(name, Duration.ofSeconds(ttlSeconds).toNanos(),
+                Duration.ofSeconds(Math.max(ttlSeconds, maxStaleSeconds)).toNanos(), topicSet);
+        regions.add(region);
+        region.registerMetrics();
+        return region;
+    }
+
+    /** Gọi sau khi ghi thành công (hoặc không chắc đã ghi hay chưa) dữ liệu thuộc topic */
+    public void invalidate(Topic... topics) {
+        for (Region<?, ?> region : regions) {
+            for (Topic topic : topics) {
+                if (region.topics.contains(topic)) {
+                    region.invalidateAll();
+                    break;
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (Region<?, ?> region : regions) {
+            region.invalidateAll();
+        }
+    }
+
+    /** Một vùng cache có kiểu; thread-safe */
+    public final class Region<K, V> {
+
+        private final String name;
+        private final long ttlNanos;
+        private final long maxStaleNanos;
+        private final Set<Topic> topics;
+
+        // === DỮ LIỆU (chỉ đọc/ghi khi giữ lock) ===
+        private final Object lock = new Object();
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > MAX_ENTRIES_PER_REGION;
+            }
+        };
+        private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+        private long generation; // tăng mỗi lần invalidate
+
+        // === THỐNG KÊ ===
+        private final LongAdder freshHits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder dedupedLoads = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder staleOnError = new LongAdder();
+
+        private Region(String name, long ttlNanos, long maxStaleNanos, Set<Topic> topics) {
+            this.name = name;
+            this.ttlNanos = ttlNanos;
+            this.maxStaleNanos = maxStaleNanos;
+            this.topics = topics;
+        }
+
+        /**
+         * Cho API đồng bộ: loader chạy trên thread gọi (lần tải đầu) hoặc thread nền (làm mới bản cũ)
+         *
+         * @throws Exception lỗi của loader, khi không có bản cũ nào để dùng thay
+         */
+        public V get(K key, Callable<V> loader) throws Exception {
+            try {
+                return getAsync(key, () -> {
+                    try {
+                        return CompletableFuture.completedFuture(loader.call());
+                    } catch (Exception e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                }).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /** Cho API bất đồng bộ (CompletableFuture), ví dụ các API admin */
+        public CompletableFuture<V> getAsync(K key, Supplier<CompletableFuture<V>> loader) {
+            if (!enabled) {
+                return loader.get();
+            }
+
+            Entry<V> entry;
+            synchronized (lock) {
+                entry = entries.get(key);
+            }
+            if (entry != null) {
+                long age = System.nanoTime() - entry.loadedAt;
+                if (age < ttlNanos) {
+                    freshHits.increment();
+                    return CompletableFuture.completedFuture(entry.value);
+                }
+                if (age < maxStaleNanos) {
+                    staleHits.increment();
+                    load(key, loader, true);
+                    return CompletableFuture.completedFuture(entry.value);
+                }
+            }
+
+            misses.increment();
+            CompletableFuture<V> loaded = load(key, loader, false);
+            if (entry == null) {
+                return loaded;
+            }
+            return loaded.exceptionally(ex -> {
+                staleOnError.increment();
+                return entry.value;
+            });
+        }
+
+        public void invalidate(K key) {
+            synchronized (lock) {
+                entries.remove(key);
+                inFlight.remove(key);
+                generation++;
+            }
+        }
+
+        public void invalidateAll() {
+            synchronized (lock) {
+                entries.clear();
+                inFlight.clear();
+                generation++;
+            }
+        }
+
+        public int size() {
+            synchronized (lock) {
+                return entries.size();
+            }
+        }
+
+        /** Tải (hoặc nhập vào lần tải đang chạy); kết quả chỉ được ghi nếu không có invalidate xen giữa */
+        private CompletableFuture<V> load(K key, Supplier<CompletableFuture<V>> loader, boolean background) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            long startGeneration;
+            synchronized (lock) {
+                CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+                if (running != null) {
+                    if (!background) {
+                        dedupedLoads.increment();
+                    }
+                    return running;
+                }
+                startGeneration = generation;
+            }
+
+            Runnable task = () -> {
+                CompletableFuture<V> future;
+                try {
+                    future = loader.get();
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((value, error) -> {
+                    synchronized (lock) {
+                        inFlight.remove(key, created);
+                        if (error == null && value != null && generation == startGeneration) {
+                            entries.put(key, new Entry<>(value, System.nanoTime()));
+                        }
+                    }
+                    loads.increment();
+                    if (error != null) {
+                        failures.increment();
+                        created.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        created.complete(value);
+                    }
+                });
+            };
+
+            if (background) {
+                refresher.execute(task);
+            } else {
+                task.run();
+            }
+            return created;
+        }
+
+        private void registerMetrics() {
+            MetricsRegistry metrics = MetricsRegistry.getInstance();
+            metrics.gauge("catalog.hit.ratio", () -> {
+                long hits = freshHits.sum() + staleHits.sum();
+                long total = hits + misses.sum();
+                return total == 0 ? 0 : (double) hits / total;
+            }, "region", name);
+            metrics.gauge("catalog.stale.served", staleHits::sum, "region", name);
+            metrics.gauge("catalog.stale.on.error", staleOnError::sum, "region", name);
+            metrics.gauge("catalog.loads", loads::sum, "region", name);
+            metrics.gauge("catalog.loads.deduped", dedupedLoads::sum, "region", name);
+            metrics.gauge("catalog.load.failures", failures::sum, "region", name);
+            metrics.gauge("catalog.entries", this::size, "region", name);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt; // System.nanoTime()
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
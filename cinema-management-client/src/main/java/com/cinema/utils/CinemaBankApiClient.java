@@ -3,6 +3,8 @@ package com.cinema.utils;
 
 import com.cinema.models.dto.ApiResponse;
 import com.cinema.models.dto.BankInfoDTO;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,8 +16,11 @@ import java.nio.charset.StandardCharsets;
 
 public class CinemaBankApiClient {
 
-    private static final String BASE_URL = "http://localhost:3000/api";
-    private static final OkHttpClient client = new OkHttpClient();
+    private static String baseUrl() {
+        return Endpoints.api("");
+    }
+
+    private static final OkHttpClient client = HttpTransport.client();
     private static final ObjectMapper objectMapper = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -31,7 +36,7 @@ public class CinemaBankApiClient {
             return null;
         }
 
-        String url = BASE_URL + "/cinema-bank/" + cinemaId + "/bank-info";
+        String url = baseUrl() + "/cinema-bank/" + cinemaId + "/bank-info";
 
         System.out.println("🏦 Fetching bank info for cinema: " + cinemaId);
         System.out.println("🔗 API Call: GET " + url);
@@ -0,0 +1,276 @@
+package com.cinema.utils;
+
+import com.cinema.models.Cinema;
+import com.cinema.models.Screen;
+import com.cinema.models.Seat;
+import com.cinema.models.SeatLayout;
+import com.cinema.models.SeatStatus;
+import com.cinema.models.SeatType;
+import com.cinema.models.Showtime;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Đọc payload GET /api/cinemas/movie/{movieId} bằng JsonReader (streaming, một lượt duy nhất).
+ *
+ * Dựng trực tiếp Cinema → Screen → SeatLayout/Seat → Showtime trong lúc đọc,
+ * không tạo cây JsonObject trung gian và không serialize lại chuỗi JSON.
+ * Field không biết sẽ được skip.
+ */
+final class CinemaPayloadReader {
+
+    private CinemaPayloadReader() {}
+
+    /**
+     * Đọc toàn bộ response { "success": ..., "data": [...] }
+     * @return danh sách rạp, hoặc null nếu success = false / không có data
+     */
+    static List<Cinema> readResponse(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        boolean success = false;
+        List<Cinema> cinemas = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success" -> success = readBoolean(reader);
+                case "data" -> {
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        cinemas = readCinemas(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return success ? cinemas : null;
+    }
+
+    /** Đọc mảng cinema (giá trị của "data") */
+    static List<Cinema> readCinemas(JsonReader reader) throws IOException {
+        List<Cinema> cinemas = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            cinemas.add(readCinema(reader));
+        }
+        reader.endArray();
+        return cinemas;
+    }
+
+    private static Cinema readCinema(JsonReader reader) throws IOException {
+        Cinema cinema = new Cinema();
+        List<Screen> screens = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> cinema.setId(readString(reader));
+                case "name" -> cinema.setName(readString(reader));
+                case "address" -> cinema.setAddress(readString(reader));
+                case "city" -> cinema.setCity(readString(reader));
+                case "logoUrl" -> {
+                    String logoUrl = readString(reader);
+                    if (logoUrl != null) {
+                        cinema.setLogoUrl(logoUrl);
+                    }
+                }
+                case "screens" -> {
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        screens.add(readScreen(reader));
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        cinema.setScreens(screens);
+        return cinema;
+    }
+
+    private static Screen readScreen(JsonReader reader) throws IOException {
+        Screen screen = new Screen();
+        Integer totalSeats = null;
+        SeatLayout seatLayout = null;
+        List<Showtime> showtimes = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> screen.setId(readString(reader));
+                case "name" -> screen.setName(readString(reader));
+                case "cinemaId" -> screen.setCinemaId(readString(reader));
+                case "totalSeats" -> {
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        totalSeats = reader.nextInt();
+                    }
+                }
+                case "seatLayout" -> seatLayout = readSeatLayout(reader);
+                case "showtimes" -> showtimes = readShowtimes(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // Giữ đúng thứ tự set như parser cũ: setSeatLayout() tính lại totalSeats từ layout
+        if (totalSeats != null) {
+            screen.setTotalSeats(totalSeats);
+        }
+        screen.setSeatLayout(seatLayout != null ? seatLayout : new SeatLayout());
+        if (showtimes != null) {
+            screen.setShowtimes(showtimes);
+        }
+        return screen;
+    }
+
+    private static SeatLayout readSeatLayout(JsonReader reader) throws IOException {
+        SeatLayout layout = new SeatLayout();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return layout;
+        }
+
+        List<List<Seat>> seatMatrix = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "rowCount" -> layout.setRows(reader.nextInt());
+                case "columnCount" -> layout.setColumns(reader.nextInt());
+                case "seats" -> {
+                    // Ma trận 2D, null = lối đi
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        List<Seat> row = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            if (reader.peek() == JsonToken.NULL) {
+                                reader.nextNull();
+                                row.add(null);
+                            } else {
+                                row.add(readSeat(reader));
+                            }
+                        }
+                        reader.endArray();
+                        seatMatrix.add(row);
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        layout.setSeats(seatMatrix);
+        return layout;
+    }
+
+    private static Seat readSeat(JsonReader reader) throws IOException {
+        Seat seat = new Seat();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "seatNumber" -> seat.setSeatNumber(readString(reader));
+                case "seatType" -> {
+                    String type = readString(reader);
+                    if (type != null) {
+                        seat.setSeatType(SeatType.valueOf(type));
+                    }
+                }
+                case "price" -> seat.setPrice(reader.nextDouble());
+                case "rowIndex" -> seat.setRowIndex(reader.nextInt());
+                case "colIndex" -> seat.setColIndex(reader.nextInt());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        seat.setStatus(SeatStatus.AVAILABLE); // API này không trả status, mặc định available
+        return seat;
+    }
+
+    private static List<Showtime> readShowtimes(JsonReader reader) throws IOException {
+        List<Showtime> showtimes = new ArrayList<>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return showtimes;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Showtime st = new Showtime();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> st.setId(readString(reader));
+                    // Dạng "2025-12-21T07:00:00.000Z" → Showtime tự đổi sang giờ VN
+                    case "startTime" -> {
+                        String startTime = readString(reader);
+                        if (startTime != null) {
+                            st.setStartTime(startTime);
+                        }
+                    }
+                    case "endTime" -> {
+                        String endTime = readString(reader);
+                        if (endTime != null) {
+                            st.setEndTime(endTime);
+                        }
+                    }
+                    case "basePrice" -> st.setBasePrice(reader.nextDouble());
+                    case "format" -> {
+                        String format = readString(reader);
+                        if (format != null) {
+                            st.setFormat(format);
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            showtimes.add(st);
+        }
+        reader.endArray();
+        return showtimes;
+    }
+
+    // ===== HELPERS =====
+
+    private static String readString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return false;
+        }
+        return "true".equalsIgnoreCase(reader.nextString());
+    }
+}
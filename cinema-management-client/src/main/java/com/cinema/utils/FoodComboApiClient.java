@@ -2,18 +2,19 @@ package com.cinema.utils;
 
 import com.cinema.models.FoodCombo;
 import com.cinema.models.FoodCategory;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import okhttp3.Request;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,10 +22,16 @@ import java.util.List;
  */
 public class FoodComboApiClient {
 
-    private static final String BASE_URL = "http://localhost:3000/api";
-    private static final HttpClient httpClient = HttpClientProvider.http1(); // giữ nguyên như các class khác của Q
+    private static String baseUrl() {
+        return Endpoints.api("");
+    }
+
     private static final Gson gson = new Gson();
 
+    // Combo theo rạp: menu ít khi đổi trong ngày
+    private static final CatalogCache.Region<String, List<FoodCombo>> COMBOS_BY_CINEMA = CatalogCache.getInstance()
+            .region("combos", Duration.ofMinutes(10), Duration.ofHours(1), CatalogCache.Topic.COMBOS);
+
     /**
      * Gọi API lấy danh sách combo đồ ăn/đồ uống theo rạp chiếu phim
      * Bao gồm cả combo riêng của rạp và combo chung (cinema_id IS NULL)
@@ -38,38 +45,42 @@ public class FoodComboApiClient {
             return null;
         }
 
-        String url = BASE_URL + "/combos/cinema/" + cinemaId.trim();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+        String id = cinemaId.trim();
+        try {
+            return COMBOS_BY_CINEMA.get(id, () -> fetchFoodCombos(id));
+        } catch (Exception e) {
+            System.err.println("Lỗi kết nối API food combos: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static List<FoodCombo> fetchFoodCombos(String cinemaId) throws IOException {
+        String url = baseUrl() + "/combos/cinema/" + cinemaId;
+        Request request = new Request.Builder()
+                .url(url)
                 .header("Content-Type", "application/json")
-                .GET()
-                .timeout(Duration.ofSeconds(15))
+                .get()
                 .build();
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                String jsonBody = response.body();
+        return HttpTransport.execute(request, Duration.ofSeconds(15), response -> {
+            String jsonBody = HttpTransport.bodyString(response);
+            if (response.code() == 200) {
                 JsonObject root = JsonParser.parseString(jsonBody).getAsJsonObject();
                 boolean success = root.get("success").getAsBoolean();
                 if (success && root.has("data")) {
                     JsonArray dataArray = root.getAsJsonArray("data");
-                    return parseFoodCombos(dataArray.toString());
+                    return Collections.unmodifiableList(parseFoodCombos(dataArray.toString()));
                 }
             }
-            System.err.println("API error getFoodCombos: " + response.statusCode() + " - " + response.body());
-            return null;
-        } catch (Exception e) {
-            System.err.println("Lỗi kết nối API food combos: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
+            throw new IOException("API error getFoodCombos: " + response.code() + " - " + jsonBody);
+        });
     }
 
     /**
      * Parse JSON array thành List<FoodCombo>
      */
-    private static List<FoodCombo> parseFoodCombos(String jsonArrayStr) {
+    static List<FoodCombo> parseFoodCombos(String jsonArrayStr) {
         JsonArray arr = JsonParser.parseString(jsonArrayStr).getAsJsonArray();
         List<FoodCombo> combos = new ArrayList<>();
 
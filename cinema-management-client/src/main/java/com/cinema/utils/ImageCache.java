@@ -0,0 +1,691 @@
+package com.cinema.utils;
+
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.metrics.LatencyHistogram;
+import com.cinema.utils.metrics.MetricsRegistry;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Cache ảnh dùng chung (poster, logo, QR, avatar) thay cho new Image(url, ...) rải rác ở các controller.
+ *
+ * - Tầng bộ nhớ: LRU theo (url, kích thước yêu cầu, preserveRatio), giới hạn theo số byte đã decode (w * h * 4)
+ * - Tầng đĩa: giữ nguyên bytes tải về + file .meta (ETag / Last-Modified / độ dài).
+ *   Hết hạn thì hỏi lại server bằng conditional GET; 304 → dùng tiếp bản trên đĩa,
+ *   mất mạng → vẫn dùng bản cũ. File sai độ dài coi như hỏng và tải lại.
+ * - Cùng một key đang tải thì dùng chung future; cùng url khác kích thước dùng chung lần tải bytes
+ * - Decode ngay ở kích thước hiển thị trên thread nền → FX thread không phải decode ảnh full-size
+ *
+ * Cấu hình qua system property (đơn vị MB / giờ):
+ *   cinema.images.memoryMB (64), cinema.images.diskMB (256), cinema.images.maxAgeHours (24),
+ *   cinema.images.dir (~/.cinema-client/images)
+ */
+public final class ImageCache {
+
+    private static final ImageCache INSTANCE = new ImageCache(
+            Long.getLong("cinema.images.memoryMB", 64) * 1024 * 1024,
+            Long.getLong("cinema.images.diskMB", 256) * 1024 * 1024,
+            TimeUnit.HOURS.toMillis(Long.getLong("cinema.images.maxAgeHours", 24)),
+            Paths.get(System.getProperty("cinema.images.dir",
+                    Paths.get(System.getProperty("user.home"), ".cinema-client", "images").toString())));
+
+    private static final int WORKER_THREADS = 4;
+
+    // Khóa trong ImageView.getProperties(): key ảnh mà view đang chờ (cell của TableView được tái sử dụng)
+    private static final String VIEW_KEY = ImageCache.class.getName() + ".key";
+
+    private final long memoryBudgetBytes;
+    private final long diskBudgetBytes;
+    private final long maxAgeMillis;
+    private final Path directory;
+
+    // === TẦNG BỘ NHỚ (chỉ đọc/ghi khi giữ memoryLock) ===
+    private final Object memoryLock = new Object();
+    private final LinkedHashMap<Key, Image> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    // === ĐANG TẢI ===
+    private final Map<Key, CompletableFuture<Image>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> inFlightBytes = new ConcurrentHashMap<>();
+
+    // === TẦNG ĐĨA ===
+    private final Object diskLock = new Object();
+    private final AtomicLong diskBytes = new AtomicLong(-1); // -1 = chưa quét thư mục
+    private volatile boolean diskEnabled = true;
+
+    private final ExecutorService executor;
+
+    // === THỐNG KÊ ===
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder memoryMisses = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();   // 304 Not Modified
+    private final LongAdder networkLoads = new LongAdder();
+    private final LongAdder dedupedLoads = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+    private final LongAdder diskEvictions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // Thời gian decode (đọc đĩa / tải mạng + giải mã) của các lần không trúng bộ nhớ
+    private final LatencyHistogram loadLatency =
+            MetricsRegistry.getInstance().histogram("image.load.latency", "result", "ok");
+    private final LatencyHistogram failedLoadLatency =
+            MetricsRegistry.getInstance().histogram("image.load.latency", "result", "error");
+
+    ImageCache(long memoryBudgetBytes, long diskBudgetBytes, long maxAgeMillis, Path directory) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.diskBudgetBytes = diskBudgetBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.directory = directory;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+            Thread t = new Thread(r, "cinema-image-" + counter.incrementAndGet());
+            t.setDaemon(true); // không giữ JVM sống khi đóng app
+            return t;
+        });
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("image.cache.memory.hit.ratio", () -> {
+            long hits = memoryHits.sum();
+            long total = hits + memoryMisses.sum();
+            return total == 0 ? 0 : (double) hits / total;
+        });
+        metrics.gauge("image.cache.memory.bytes", () -> {
+            synchronized (memoryLock) {
+                return memoryBytes;
+            }
+        });
+        metrics.gauge("image.cache.disk.hits", diskHits::sum);
+        metrics.gauge("image.cache.network.loads", networkLoads::sum);
+        metrics.gauge("image.cache.inflight", inFlight::size);
+    }
+
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tải ảnh vào ImageView, decode theo fitWidth / fitHeight / preserveRatio hiện tại của view.
+     * Gọi trên FX thread. Nếu view đã được yêu cầu ảnh khác trước khi tải xong (cell tái sử dụng)
+     * thì kết quả cũ bị bỏ qua.
+     *
+     * @return future của ảnh (hoàn thành trên thread nền) để caller xử lý lỗi / hậu xử lý
+     */
+    public CompletableFuture<Image> loadInto(ImageView view, String url) {
+        Key key = new Key(url, view.getFitWidth(), view.getFitHeight(), view.isPreserveRatio());
+        view.getProperties().put(VIEW_KEY, key);
+
+        Image cached = getIfPresent(key);
+        if (cached != null) {
+            view.setImage(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        view.setImage(null);
+        CompletableFuture<Image> future = load(key);
+        future.thenAccept(image -> Platform.runLater(() -> {
+            if (key.equals(view.getProperties().get(VIEW_KEY))) {
+                view.setImage(image);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Tải ảnh decode ở kích thước requestedWidth x requestedHeight (0 = giữ kích thước gốc theo chiều đó)
+     */
+    public CompletableFuture<Image> load(String url, double requestedWidth, double requestedHeight, boolean preserveRatio) {
+        return load(new Key(url, requestedWidth, requestedHeight, preserveRatio));
+    }
+
+    private CompletableFuture<Image> load(Key key) {
+        if (key.url == null || key.url.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("URL ảnh rỗng"));
+        }
+
+        Image cached = getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            dedupedLoads.increment();
+            return existing;
+        }
+
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                Image image = decode(key);
+                putMemory(key, image);
+                inFlight.remove(key, created);
+                created.complete(image);
+                loadLatency.recordNanos(System.nanoTime() - start);
+            } catch (Throwable t) {
+                failedLoadLatency.recordNanos(System.nanoTime() - start);
+                failures.increment();
+                inFlight.remove(key, created);
+                created.completeExceptionally(t instanceof CompletionException ? t : new CompletionException(t));
+            }
+        });
+        return created;
+    }
+
+    /** Ảnh đã decode sẵn trong bộ nhớ, null nếu chưa có */
+    private Image getIfPresent(Key key) {
+        synchronized (memoryLock) {
+            Image image = memory.get(key);
+            if (image != null) {
+                memoryHits.increment();
+            } else {
+                memoryMisses.increment();
+            }
+            return image;
+        }
+    }
+
+    // ==================== DECODE ====================
+
+    // Thread nền
+    private Image decode(Key key) throws IOException {
+        if (!isHttp(key.url)) {
+            // Ảnh trong jar / file local: không qua tầng đĩa
+            Image image = new Image(key.url, key.width, key.height, key.preserveRatio, true, false);
+            checkDecoded(image, key.url);
+            return image;
+        }
+
+        byte[] bytes = loadBytes(key.url);
+        Image image = new Image(new ByteArrayInputStream(bytes), key.width, key.height, key.preserveRatio, true);
+        if (image.isError()) {
+            // Bytes trên đĩa / từ server không decode được → bỏ bản trên đĩa để lần sau tải lại
+            deleteFromDisk(key.url);
+        }
+        checkDecoded(image, key.url);
+        return image;
+    }
+
+    private static void checkDecoded(Image image, String url) throws IOException {
+        if (image.isError()) {
+            Exception cause = image.getException();
+            throw new IOException("Không decode được ảnh " + url
+                    + (cause != null ? ": " + cause.getMessage() : ""), cause);
+        }
+    }
+
+    private static boolean isHttp(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    // Các kích thước khác nhau của cùng một url dùng chung một lần tải bytes
+    private byte[] loadBytes(String url) throws IOException {
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlightBytes.putIfAbsent(url, created);
+        if (existing != null) {
+            dedupedLoads.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+
+        try {
+            byte[] bytes = fetchBytes(url);
+            created.complete(bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightBytes.remove(url, created);
+        }
+    }
+
+    // ==================== TẦNG ĐĨA ====================
+
+    private byte[] fetchBytes(String url) throws IOException {
+        DiskEntry entry = diskEnabled ? readDisk(url) : null;
+
+        if (entry != null && System.currentTimeMillis() - entry.fetchedAt < maxAgeMillis) {
+            diskHits.increment();
+            touch(entry.dataFile);
+            return entry.data;
+        }
+
+        Request.Builder builder = new Request.Builder().url(url).get();
+        if (entry != null) {
+            if (entry.etag != null) {
+                builder.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                builder.header("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        try {
+            return HttpTransport.execute(builder.build(), response -> {
+                if (response.code() == 304 && entry != null) {
+                    revalidated.increment();
+                    writeMeta(url, entry.etag, entry.lastModified, entry.data.length);
+                    touch(entry.dataFile);
+                    return entry.data;
+                }
+                if (!response.isSuccessful()) {
+                    throw new IOException("HTTP " + response.code() + " khi tải ảnh " + url);
+                }
+                ResponseBody body = response.body();
+                byte[] data = body != null ? body.bytes() : new byte[0];
+                networkLoads.increment();
+                writeDisk(url, data, response.header("ETag"), response.header("Last-Modified"));
+                return data;
+            });
+        } catch (IOException e) {
+            if (entry != null) {
+                // Mất mạng: bản cũ trên đĩa vẫn tốt hơn không có ảnh
+                diskHits.increment();
+                return entry.data;
+            }
+            throw e;
+        }
+    }
+
+    private DiskEntry readDisk(String url) {
+        Path dataFile = dataFile(url);
+        Path metaFile = metaFile(url);
+        if (!Files.isRegularFile(dataFile) || !Files.isRegularFile(metaFile)) {
+            return null;
+        }
+        try {
+            Properties meta = new Properties();
+            try (InputStream in = Files.newInputStream(metaFile)) {
+                meta.load(in);
+            }
+            byte[] data = Files.readAllBytes(dataFile);
+            long expectedLength = Long.parseLong(meta.getProperty("length", "-1"));
+            if (data.length != expectedLength) {
+                // Ghi dở / bị sửa ngoài app
+                deleteFromDisk(url);
+                return null;
+            }
+            DiskEntry entry = new DiskEntry();
+            entry.dataFile = dataFile;
+            entry.data = data;
+            entry.etag = meta.getProperty("etag");
+            entry.lastModified = meta.getProperty("lastModified");
+            entry.fetchedAt = Long.parseLong(meta.getProperty("fetchedAt", "0"));
+            return entry;
+        } catch (IOException | NumberFormatException e) {
+            deleteFromDisk(url);
+            return null;
+        }
+    }
+
+    private void writeDisk(String url, byte[] data, String etag, String lastModified) {
+        if (!diskEnabled || data.length == 0 || data.length > diskBudgetBytes) {
+            return;
+        }
+        try {
+            ensureDiskScanned();
+            Path dataFile = dataFile(url);
+            long previous = Files.isRegularFile(dataFile) ? Files.size(dataFile) : 0;
+
+            Path tmp = Files.createTempFile(directory, "img", ".tmp");
+            Files.write(tmp, data);
+            moveAtomically(tmp, dataFile);
+            writeMeta(url, etag, lastModified, data.length);
+
+            if (diskBytes.addAndGet(data.length - previous) > diskBudgetBytes) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Không ghi được cache ảnh, tắt tầng đĩa: " + e.getMessage());
+            diskEnabled = false;
+        }
+    }
+
+    private void writeMeta(String url, String etag, String lastModified, long length) {
+        Properties meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("length", String.valueOf(length));
+        meta.setProperty("fetchedAt", String.valueOf(System.currentTimeMillis()));
+        if (etag != null) {
+            meta.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            meta.setProperty("lastModified", lastModified);
+        }
+        try {
+            Path tmp = Files.createTempFile(directory, "meta", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                meta.store(out, null);
+            }
+            moveAtomically(tmp, metaFile(url));
+        } catch (IOException e) {
+            System.err.println("⚠️ Không ghi được meta cache ảnh: " + e.getMessage());
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void ensureDiskScanned() throws IOException {
+        if (diskBytes.get() >= 0) {
+            return;
+        }
+        synchronized (diskLock) {
+            if (diskBytes.get() >= 0) {
+                return;
+            }
+            Files.createDirectories(directory);
+            long total = 0;
+            for (Path file : listDataFiles()) {
+                total += sizeOf(file);
+            }
+            diskBytes.set(total);
+        }
+    }
+
+    // Xóa file ít dùng nhất (theo lastModified, được touch mỗi lần đọc) tới khi còn 90% ngân sách
+    private void trimDisk() throws IOException {
+        synchronized (diskLock) {
+            List<Path> files = listDataFiles();
+            files.sort(Comparator.comparing(ImageCache::lastModifiedOf));
+            long target = diskBudgetBytes * 9 / 10;
+            Iterator<Path> it = files.iterator();
+            while (diskBytes.get() > target && it.hasNext()) {
+                Path file = it.next();
+                long size = sizeOf(file);
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(metaFileFor(file));
+                diskBytes.addAndGet(-size);
+                diskEvictions.increment();
+            }
+        }
+    }
+
+    private List<Path> listDataFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            List<Path> files = new ArrayList<>();
+            stream.filter(p -> p.getFileName().toString().endsWith(".img")).forEach(files::add);
+            return files;
+        }
+    }
+
+    private void deleteFromDisk(String url) {
+        try {
+            Path dataFile = dataFile(url);
+            long size = sizeOf(dataFile);
+            if (Files.deleteIfExists(dataFile) && diskBytes.get() >= 0) {
+                diskBytes.addAndGet(-size);
+            }
+            Files.deleteIfExists(metaFile(url));
+        } catch (IOException e) {
+            System.err.println("⚠️ Không xóa được cache ảnh: " + e.getMessage());
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Chỉ ảnh hưởng thứ tự xóa LRU
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModifiedOf(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path dataFile(String url) {
+        return directory.resolve(hash(url) + ".img");
+    }
+
+    private Path metaFile(String url) {
+        return directory.resolve(hash(url) + ".meta");
+    }
+
+    private static Path metaFileFor(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - ".img".length()) + ".meta");
+    }
+
+    private static String hash(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // JDK luôn có SHA-256
+        }
+    }
+
+    // ==================== TẦNG BỘ NHỚ ====================
+
+    private void putMemory(Key key, Image image) {
+        long cost = costOf(image);
+        if (cost > memoryBudgetBytes) {
+            return; // Một ảnh lớn hơn cả ngân sách thì không giữ lại
+        }
+        synchronized (memoryLock) {
+            Image previous = memory.put(key, image);
+            if (previous != null) {
+                memoryBytes -= costOf(previous);
+            }
+            memoryBytes += cost;
+
+            Iterator<Map.Entry<Key, Image>> it = memory.entrySet().iterator();
+            while (memoryBytes > memoryBudgetBytes && it.hasNext()) {
+                Map.Entry<Key, Image> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                memoryBytes -= costOf(eldest.getValue());
+                it.remove();
+                memoryEvictions.increment();
+            }
+        }
+    }
+
+    // Ảnh đã decode giữ dạng ARGB 4 byte / pixel
+    private static long costOf(Image image) {
+        return (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4;
+    }
+
+    /** Bỏ mọi bản của url (mọi kích thước, cả trên đĩa) - gọi sau khi admin đổi ảnh cùng URL */
+    public void invalidate(String url) {
+        synchronized (memoryLock) {
+            Iterator<Map.Entry<Key, Image>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Image> entry = it.next();
+                if (entry.getKey().url.equals(url)) {
+                    memoryBytes -= costOf(entry.getValue());
+                    it.remove();
+                }
+            }
+        }
+        executor.execute(() -> deleteFromDisk(url));
+    }
+
+    /** Giải phóng tầng bộ nhớ (tầng đĩa giữ nguyên) */
+    public void clearMemory() {
+        synchronized (memoryLock) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+    }
+
+    // ==================== THỐNG KÊ ====================
+
+    public Stats getStats() {
+        Stats stats = new Stats();
+        synchronized (memoryLock) {
+            stats.memoryEntries = memory.size();
+            stats.memoryBytes = memoryBytes;
+        }
+        stats.memoryBudgetBytes = memoryBudgetBytes;
+        stats.diskBytes = Math.max(diskBytes.get(), 0);
+        stats.diskBudgetBytes = diskBudgetBytes;
+        stats.memoryHits = memoryHits.sum();
+        stats.memoryMisses = memoryMisses.sum();
+        stats.diskHits = diskHits.sum();
+        stats.revalidated = revalidated.sum();
+        stats.networkLoads = networkLoads.sum();
+        stats.dedupedLoads = dedupedLoads.sum();
+        stats.memoryEvictions = memoryEvictions.sum();
+        stats.diskEvictions = diskEvictions.sum();
+        stats.failures = failures.sum();
+        stats.inFlight = inFlight.size();
+        return stats;
+    }
+
+    /** Ảnh chụp số liệu tại một thời điểm */
+    public static final class Stats {
+        private int memoryEntries;
+        private long memoryBytes;
+        private long memoryBudgetBytes;
+        private long diskBytes;
+        private long diskBudgetBytes;
+        private long memoryHits;
+        private long memoryMisses;
+        private long diskHits;
+        private long revalidated;
+        private long networkLoads;
+        private long dedupedLoads;
+        private long memoryEvictions;
+        private long diskEvictions;
+        private long failures;
+        private int inFlight;
+
+        public int getMemoryEntries() { return memoryEntries; }
+        public long getMemoryBytes() { return memoryBytes; }
+        public long getMemoryBudgetBytes() { return memoryBudgetBytes; }
+        public long getDiskBytes() { return diskBytes; }
+        public long getDiskBudgetBytes() { return diskBudgetBytes; }
+        public long getMemoryHits() { return memoryHits; }
+        public long getMemoryMisses() { return memoryMisses; }
+        public long getDiskHits() { return diskHits; }
+        public long getRevalidated() { return revalidated; }
+        public long getNetworkLoads() { return networkLoads; }
+        public long getDedupedLoads() { return dedupedLoads; }
+        public long getMemoryEvictions() { return memoryEvictions; }
+        public long getDiskEvictions() { return diskEvictions; }
+        public long getFailures() { return failures; }
+        public int getInFlight() { return inFlight; }
+
+        /** Tỉ lệ hit tầng bộ nhớ (0..1) */
+        public double getMemoryHitRatio() {
+            long total = memoryHits + memoryMisses;
+            return total == 0 ? 0 : (double) memoryHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "ImageCache[mem %d ảnh %d/%d KB, hit %.1f%% (%d/%d), evict %d | disk %d/%d KB, hit %d, 304 %d, evict %d"
+                            + " | network %d, dedup %d, lỗi %d, đang tải %d]",
+                    memoryEntries, memoryBytes / 1024, memoryBudgetBytes / 1024,
+                    getMemoryHitRatio() * 100, memoryHits, memoryHits + memoryMisses, memoryEvictions,
+                    diskBytes / 1024, diskBudgetBytes / 1024, diskHits, revalidated, diskEvictions,
+                    networkLoads, dedupedLoads, failures, inFlight);
+        }
+    }
+
+    // ==================== KEY / ENTRY ====================
+
+    private static final class Key {
+        private final String url;
+        private final double width;
+        private final double height;
+        private final boolean preserveRatio;
+
+        Key(String url, double width, double height, boolean preserveRatio) {
+            this.url = url;
+            this.width = Math.max(width, 0);
+            this.height = Math.max(height, 0);
+            this.preserveRatio = preserveRatio;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return Double.compare(width, other.width) == 0
+                    && Double.compare(height, other.height) == 0
+                    && preserveRatio == other.preserveRatio
+                    && Objects.equals(url, other.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, width, height, preserveRatio);
+        }
+    }
+
+    private static final class DiskEntry {
+        private Path dataFile;
+        private byte[] data;
+        private String etag;
+        private String lastModified;
+        private long fetchedAt;
+    }
+}
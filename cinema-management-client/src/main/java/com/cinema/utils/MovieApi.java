@@ -7,6 +7,9 @@ import com.cinema.models.Movie;
 import com.cinema.utils.MovieListResponse;
 import com.cinema.utils.adapters.LocalDateAdapter;
 import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.ConditionalCache;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -17,12 +20,9 @@ import com.google.gson.JsonParser;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import okhttp3.Request;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,8 +33,18 @@ import java.util.List;
 
 public class MovieApi {
 
-    private static final String BASE_URL = "http://localhost:3000/api/movies";
-    private static final HttpClient httpClient = HttpClientProvider.http1();
+    private static String baseUrl() {
+        return Endpoints.api("/movies");
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    // Danh sách phim theo trạng thái (NOW_SHOWING / COMING_SOON), đổi vài lần mỗi ngày
+    private static final CatalogCache.Region<String, List<Movie>> MOVIES_BY_STATUS = CatalogCache.getInstance()
+            .region("movies", Duration.ofMinutes(5), Duration.ofHours(1), CatalogCache.Topic.MOVIES);
+
+    // Làm mới cache trên: danh sách không đổi → 304, dùng lại list đã parse
+    private static final ConditionalCache<List<Movie>> MOVIE_LISTS = new ConditionalCache<>("movies");
 
     // Gson sử dụng các adapter riêng biệt + xử lý Double từ String
     private static final Gson gson = new GsonBuilder()
@@ -55,25 +65,7 @@ public class MovieApi {
 
     private static List<Movie> getMoviesByStatus(String status) {
         try {
-            String url = BASE_URL + "?status=" + status;
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(20))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                MovieListResponse resp = gson.fromJson(response.body(), MovieListResponse.class);
-                if (resp.success && resp.data != null) {
-                    return resp.data;
-                }
-            }
-
-            System.err.println("API phim trả về lỗi hoặc không có data (status: " + status + "): " + response.body());
-            return Collections.emptyList();
-
+            return MOVIES_BY_STATUS.get(status, () -> fetchMoviesByStatus(status));
         } catch (Exception e) {
             System.err.println("Lỗi kết nối API phim " + status + ": " + e.getMessage());
             e.printStackTrace();
@@ -81,6 +73,27 @@ public class MovieApi {
         }
     }
 
+    // Lỗi thì ném ra để CatalogCache không lưu danh sách rỗng
+    private static List<Movie> fetchMoviesByStatus(String status) throws IOException {
+        String url = baseUrl() + "?status=" + status;
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .build();
+
+        return MOVIE_LISTS.execute(request, TIMEOUT, response -> {
+            String body = HttpTransport.bodyString(response);
+            if (response.code() == 200) {
+                MovieListResponse resp = gson.fromJson(body, MovieListResponse.class);
+                if (resp.success && resp.data != null) {
+                    return Collections.unmodifiableList(resp.data);
+                }
+            }
+
+            throw new IOException("API phim trả về lỗi hoặc không có data (status: " + status + "): " + body);
+        });
+    }
+
     // Adapter xử lý trường hợp average_rating trả về dưới dạng String ("8.90")
     private static class DoubleStringAdapter extends TypeAdapter<Number> {
         @Override
@@ -115,26 +128,26 @@ public class MovieApi {
         }
 
         try {
-            String url = BASE_URL + "/" + movieId.trim() + "/rating-stats";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(20))
+            String url = baseUrl() + "/" + movieId.trim() + "/rating-stats";
+            Request request = new Request.Builder()
+                    .url(url)
+                    .get()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                RatingStatsResponse resp = gson.fromJson(response.body(), RatingStatsResponse.class);
-                if (resp != null && resp.success && resp.data != null) {
-                    return resp;
+            return HttpTransport.execute(request, TIMEOUT, response -> {
+                String body = HttpTransport.bodyString(response);
+                if (response.code() == 200) {
+                    RatingStatsResponse resp = gson.fromJson(body, RatingStatsResponse.class);
+                    if (resp != null && resp.success && resp.data != null) {
+                        return resp;
+                    }
                 }
-            }
 
-            // In log để debug nếu cần
-            System.err.println("API rating-stats lỗi hoặc không có data cho phim " + movieId +
-                    " (status code: " + response.statusCode() + "): " + response.body());
-            return null;
+                // In log để debug nếu cần
+                System.err.println("API rating-stats lỗi hoặc không có data cho phim " + movieId +
+                        " (status code: " + response.code() + "): " + body);
+                return null;
+            });
 
         } catch (Exception e) {
             System.err.println("Lỗi kết nối API rating-stats cho phim " + movieId + ": " + e.getMessage());
@@ -156,25 +169,25 @@ public class MovieApi {
         }
 
         try {
-            String url = BASE_URL + "/" + movieId.trim() + "/cast";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(20))
+            String url = baseUrl() + "/" + movieId.trim() + "/cast";
+            Request request = new Request.Builder()
+                    .url(url)
+                    .get()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                CastListResponse resp = gson.fromJson(response.body(), CastListResponse.class);
-                if (resp != null && resp.success && resp.data != null) {
-                    return resp.data;
+            return HttpTransport.execute(request, TIMEOUT, response -> {
+                String body = HttpTransport.bodyString(response);
+                if (response.code() == 200) {
+                    CastListResponse resp = gson.fromJson(body, CastListResponse.class);
+                    if (resp != null && resp.success && resp.data != null) {
+                        return resp.data;
+                    }
                 }
-            }
 
-            System.err.println("API cast lỗi hoặc không có data cho phim " + movieId +
-                    " (code: " + response.statusCode() + "): " + response.body());
-            return Collections.emptyList();
+                System.err.println("API cast lỗi hoặc không có data cho phim " + movieId +
+                        " (code: " + response.code() + "): " + body);
+                return Collections.<Actor>emptyList();
+            });
 
         } catch (Exception e) {
             System.err.println("Lỗi khi gọi API cast cho phim " + movieId + ": " + e.getMessage());
@@ -185,24 +198,22 @@ public class MovieApi {
 
     public static List<Comment> getMovieComments(String movieId) {
         try {
-            String url = BASE_URL + "/" + movieId + "/comments";
+            String url = baseUrl() + "/" + movieId + "/comments";
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(20))
+            Request request = new Request.Builder()
+                    .url(url)
+                    .get()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(
-                    request,
-                    HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                return parseComments(response.body());
-            }
+            return HttpTransport.execute(request, TIMEOUT, response -> {
+                String body = HttpTransport.bodyString(response);
+                if (response.code() == 200) {
+                    return parseComments(body);
+                }
 
-            System.err.println("Lỗi API comments: " + response.body());
-            return Collections.emptyList();
+                System.err.println("Lỗi API comments: " + body);
+                return Collections.<Comment>emptyList();
+            });
 
         } catch (Exception e) {
             System.err.println("Lỗi gọi API comments: " + e.getMessage());
@@ -211,7 +222,7 @@ public class MovieApi {
         }
     }
 
-    private static List<Comment> parseComments(String json) {
+    static List<Comment> parseComments(String json) {
         JsonArray arr = JsonParser.parseString(json).getAsJsonArray();
         List<Comment> comments = new ArrayList<>();
 
@@ -0,0 +1,18 @@
+package com.cinema.utils;
+
+/**
+ * Controller có view được ViewRegistry giữ lại và gắn lại thay vì parse FXML lần nữa.
+ *
+ * initialize() chỉ dựng giao diện (cột bảng, listener, combo box) và phải chạy được ngoài
+ * FX thread vì view có thể được preload ở thread nền. Dữ liệu và trạng thái của một lần hiển thị
+ * thuộc về resetView().
+ */
+public interface ReusableView {
+
+    /**
+     * Gọi trên FX thread mỗi lần view được lấy ra để hiển thị (cả lần đầu), trước khi caller
+     * truyền dữ liệu mới qua các setter: xóa trạng thái của lần hiển thị trước và nạp lại dữ liệu
+     * mà view tự tải.
+     */
+    void resetView();
+}
@@ -0,0 +1,203 @@
+package com.cinema.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Số ghế đã bán của các suất chiếu đang hiện trên màn hình suất chiếu, cập nhật theo thời gian thực.
+ *
+ * - watch(ids): thay tập suất đang theo dõi. Suất mới lấy số đếm gốc bằng GET /api/showtimes/booked-counts
+ *   (một request cho cả lô) thay vì N lần /booked-seats
+ * - Vào room watch:{id} của namespace /seats trên một kết nối riêng: SocketManager thuộc về flow đặt vé,
+ *   màn chọn ghế off() / disconnect() kết nối đó bất cứ lúc nào
+ * - Server gửi showtime-booked-count (số tuyệt đối) mỗi khi một booking của suất đổi trạng thái thanh toán
+ *   (PAID làm tăng, hủy / hết hạn đơn đã PAID làm giảm).
+ *   Cùng định nghĩa "đã bán" với số đếm gốc: ghế đang giữ / đã bấm "Tiếp tục" nhưng chưa trả tiền không tính
+ * - Số từ sự kiện mới hơn mọi lần tải số đếm gốc đang chạy → kết quả các lần tải đó bị bỏ
+ * - Mỗi lần reconnect: vào lại room và lấy lại số đếm gốc (có thể đã lỡ sự kiện lúc mất kết nối)
+ *
+ * Mọi state chỉ đọc/ghi trên JavaFX thread; property dùng để bind thẳng vào Label của nút suất chiếu.
+ */
+public final class SeatAvailabilityService {
+
+    /** Giá trị property khi chưa biết số ghế đã bán (đang tải / tải lỗi) */
+    public static final int UNKNOWN = -1;
+
+    private static final SeatAvailabilityService INSTANCE = new SeatAvailabilityService();
+
+    // Server giới hạn 200 id mỗi request; chia nhỏ hơn để URL ngắn
+    private static final int MAX_IDS_PER_REQUEST = 100;
+
+    private final Map<String, Counter> counters = new HashMap<>();
+    private SocketIOClient socket;
+    private boolean connectedOnce;
+    private long seedSequence;
+
+    private SeatAvailabilityService() {
+    }
+
+    public static SeatAvailabilityService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Theo dõi đúng các suất này (bỏ các suất khác); gọi trên FX thread mỗi lần danh sách nút thay đổi.
+     * Suất đã theo dõi từ trước giữ nguyên số đếm, không tải lại.
+     */
+    public void watch(Collection<String> showtimeIds) {
+        Set<String> wanted = new LinkedHashSet<>(showtimeIds);
+
+        List<String> removed = new ArrayList<>();
+        counters.keySet().removeIf(id -> {
+            if (!wanted.contains(id)) {
+                removed.add(id);
+                return true;
+            }
+            return false;
+        });
+
+        List<String> added = new ArrayList<>();
+        for (String id : wanted) {
+            if (id != null && !counters.containsKey(id)) {
+                counters.put(id, new Counter());
+                added.add(id);
+            }
+        }
+
+        if (counters.isEmpty()) {
+            unwatchAll();
+            return;
+        }
+
+        SocketIOClient client = ensureSocket();
+        if (client != null && client.isConnected()) {
+            emitRooms(client, "unwatch-showtimes", removed);
+            emitRooms(client, "watch-showtimes", added);
+        }
+        seed(added);
+    }
+
+    /** Thôi theo dõi mọi suất và đóng kết nối riêng (rời màn hình suất chiếu) */
+    public void unwatchAll() {
+        counters.clear();
+        connectedOnce = false;
+        if (socket != null) {
+            SocketIOClient old = socket;
+            socket = null;
+            old.disconnect();
+        }
+    }
+
+    /**
+     * Số ghế đã bán của suất đang theo dõi (UNKNOWN khi chưa có số đếm gốc).
+     * Suất chưa watch() nhận property cố định UNKNOWN.
+     */
+    public ReadOnlyIntegerProperty bookedSeatsProperty(String showtimeId) {
+        Counter counter = counters.get(showtimeId);
+        return counter != null ? counter.booked.getReadOnlyProperty()
+                : new ReadOnlyIntegerWrapper(UNKNOWN).getReadOnlyProperty();
+    }
+
+    // ================== SOCKET ==================
+
+    private SocketIOClient ensureSocket() {
+        if (socket != null) {
+            return socket;
+        }
+        try {
+            SocketIOClient client = new SocketIOClient();
+            client.onConnect(() -> Platform.runLater(() -> handleConnected(client)));
+            client.onRaw("showtime-booked-count", data -> {
+                // Thread của socket: tách dữ liệu ra trước, áp dụng trên FX thread
+                String showtimeId = data.optString("showtimeId", null);
+                int booked = data.optInt("booked", UNKNOWN);
+                Platform.runLater(() -> applyCount(client, showtimeId, booked));
+            });
+            socket = client;
+            client.connect();
+            return client;
+        } catch (URISyntaxException e) {
+            // Không có socket thì vẫn còn số đếm gốc từ REST
+            System.err.println("❌ SeatAvailabilityService: socket URL không hợp lệ - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void handleConnected(SocketIOClient client) {
+        if (client != socket) {
+            return; // Đã unwatchAll() trong lúc chờ
+        }
+        emitRooms(client, "watch-showtimes", new ArrayList<>(counters.keySet()));
+        if (connectedOnce) {
+            seed(new ArrayList<>(counters.keySet()));
+        }
+        connectedOnce = true;
+    }
+
+    private void applyCount(SocketIOClient client, String showtimeId, int booked) {
+        Counter counter = client == socket ? counters.get(showtimeId) : null;
+        if (counter == null || booked < 0) {
+            return;
+        }
+        counter.seedRequest = ++seedSequence; // Bỏ kết quả các lần tải số đếm gốc gửi trước sự kiện này
+        counter.booked.set(booked);
+    }
+
+    private static void emitRooms(SocketIOClient client, String event, List<String> showtimeIds) {
+        if (showtimeIds.isEmpty()) {
+            return;
+        }
+        JsonArray ids = new JsonArray();
+        showtimeIds.forEach(ids::add);
+        JsonObject data = new JsonObject();
+        data.add("showtimeIds", ids);
+        client.emit(event, data);
+    }
+
+    // ================== SỐ ĐẾM GỐC ==================
+
+    private void seed(List<String> showtimeIds) {
+        for (int from = 0; from < showtimeIds.size(); from += MAX_IDS_PER_REQUEST) {
+            List<String> batch = List.copyOf(
+                    showtimeIds.subList(from, Math.min(showtimeIds.size(), from + MAX_IDS_PER_REQUEST)));
+
+            long request = ++seedSequence;
+            for (String id : batch) {
+                counters.get(id).seedRequest = request;
+            }
+
+            BookedSeatApiClient.getBookedCountsAsync(batch).whenComplete((counts, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    System.err.println("⚠️ Không lấy được số ghế đã bán: " + error.getMessage());
+                    return; // Giữ số đang hiển thị, lần reconnect / watch kế tiếp sẽ thử lại
+                }
+                for (String id : batch) {
+                    Counter counter = counters.get(id);
+                    // Suất đã bị bỏ hoặc đã có lần tải mới hơn
+                    if (counter == null || counter.seedRequest != request) {
+                        continue;
+                    }
+                    counter.booked.set(counts.getOrDefault(id, 0));
+                }
+            }));
+        }
+    }
+
+    // Chỉ truy cập trên FX thread
+    private static final class Counter {
+        private final ReadOnlyIntegerWrapper booked = new ReadOnlyIntegerWrapper(UNKNOWN);
+        private long seedRequest; // Lần tải số đếm gốc còn được chấp nhận
+    }
+}
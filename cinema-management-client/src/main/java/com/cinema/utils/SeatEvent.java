@@ -0,0 +1,38 @@
+package com.cinema.utils;
+
+/**
+ * Một sự kiện ghế đã decode từ namespace /seats, đã tách theo từng ghế
+ * (seats-booked / seats-released-batch / initial-held-seats được tách thành nhiều SeatEvent).
+ */
+public final class SeatEvent {
+
+    public enum Type {
+        HELD,        // seat-held, initial-held-seats
+        RELEASED,    // seat-released, seats-released-batch
+        BOOKED,      // seats-booked
+        HOLD_FAILED, // hold-failed - chỉ gửi cho người giữ, không gộp
+        RESET        // seat-snapshot - bỏ mọi trạng thái HELD / SELECTED trước khi áp snapshot (seatNumber = null)
+    }
+
+    private final Type type;
+    private final String seatNumber;
+    private final String holderId; // HELD: socket id người giữ (null với initial-held-seats nếu server không gửi)
+    private final String reason;   // HOLD_FAILED
+
+    SeatEvent(Type type, String seatNumber, String holderId, String reason) {
+        this.type = type;
+        this.seatNumber = seatNumber;
+        this.holderId = holderId;
+        this.reason = reason;
+    }
+
+    public Type getType() { return type; }
+    public String getSeatNumber() { return seatNumber; }
+    public String getHolderId() { return holderId; }
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        return type + "(" + seatNumber + (holderId != null ? ", " + holderId : "") + ")";
+    }
+}
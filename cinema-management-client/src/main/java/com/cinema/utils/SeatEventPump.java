@@ -0,0 +1,388 @@
+package com.cinema.utils;
+
+import javafx.application.Platform;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bơm sự kiện ghế của một suất chiếu từ Socket.IO lên JavaFX thread.
+ *
+ * - Decode JSONObject ngay trên thread của socket (không qua chuỗi JSON + Gson)
+ * - Gộp theo ghế: chỉ giữ trạng thái cuối cùng của mỗi ghế trong hàng đợi
+ *   (held → released → held chỉ còn một HELD). BOOKED là trạng thái cuối, không bị ghi đè.
+ * - Trên FX queue luôn có tối đa một runnable drain; mỗi lần drain giao cả lô cho sink
+ *
+ * Resync theo seq: server đánh seq tăng dần cho mỗi sự kiện broadcast của suất chiếu.
+ * Pump nhớ seq cuối đã áp dụng; mỗi lần (re)join gửi kèm lastSeq (resumeSequence()) và
+ * server trả về seat-delta (các sự kiện bị lỡ) hoặc seat-snapshot nếu khoảng trống quá lớn.
+ * Trong lúc chờ mốc (initial-held-seats / delta / snapshot), sự kiện live được giữ lại
+ * rồi áp dụng sau mốc theo thứ tự seq.
+ *
+ * Sau close() mọi sự kiện đến muộn (socket cũ / suất chiếu cũ) bị bỏ và tính vào dropped.
+ */
+public class SeatEventPump {
+
+    private static final String[] EVENTS = {
+            "initial-held-seats", "seat-delta", "seat-snapshot",
+            "seat-held", "seat-released", "seats-released-batch", "seats-booked", "hold-failed"
+    };
+
+    // Mỗi ghế tối đa một entry → giới hạn này chỉ chặn payload bất thường
+    private static final int MAX_PENDING_SEATS = 4096;
+    private static final int MAX_PENDING_FAILURES = 64;
+    private static final int MAX_BUFFERED_WHILE_SYNCING = 1024;
+
+    private final String showtimeId;
+    private final Consumer<List<SeatEvent>> sink;
+
+    // Hàng đợi + trạng thái seq, chỉ đọc/ghi khi giữ lock
+    private final Object lock = new Object();
+    private LinkedHashMap<String, SeatEvent> pendingSeats = new LinkedHashMap<>();
+    private List<SeatEvent> pendingFailures = new ArrayList<>();
+    private boolean resetPending;
+    private long lastSeq = -1;
+    private boolean awaitingBaseline = true;
+    private int joins;
+    private final List<SequencedEvent> bufferedWhileSyncing = new ArrayList<>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile SocketIOClient socket;
+    private volatile boolean closed;
+
+    // === THỐNG KÊ ===
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong deltaResyncs = new AtomicLong();
+    private final AtomicLong snapshotResyncs = new AtomicLong();
+    private volatile int maxQueueDepth;
+
+    /**
+     * @param showtimeId suất chiếu mà pump phục vụ
+     * @param sink       nhận từng lô sự kiện đã gộp, luôn gọi trên JavaFX thread
+     */
+    public SeatEventPump(String showtimeId, Consumer<List<SeatEvent>> sink) {
+        this.showtimeId = showtimeId;
+        this.sink = sink;
+    }
+
+    /** Đăng ký listener trên socket (thay cho các socket.on(...) riêng lẻ) */
+    public void attach(SocketIOClient socket) {
+        this.socket = socket;
+        for (String event : EVENTS) {
+            socket.onRaw(event, data -> receive(event, data));
+        }
+    }
+
+    /**
+     * Gọi mỗi lần gửi join-showtime (SocketManager truyền vào payload).
+     * Từ lúc này đến khi có mốc mới, sự kiện live được giữ lại.
+     *
+     * @return seq cuối đã áp dụng, -1 nếu chưa có mốc (server gửi initial-held-seats)
+     */
+    public long resumeSequence() {
+        synchronized (lock) {
+            joins++;
+            awaitingBaseline = true;
+            return lastSeq;
+        }
+    }
+
+    /** Gỡ listener và bỏ các sự kiện chưa giao */
+    public void close() {
+        closed = true;
+        SocketIOClient s = socket;
+        if (s != null) {
+            for (String event : EVENTS) {
+                s.off(event);
+            }
+            socket = null;
+        }
+        synchronized (lock) {
+            dropped.addAndGet(pendingSeats.size() + pendingFailures.size() + bufferedWhileSyncing.size());
+            pendingSeats = new LinkedHashMap<>();
+            pendingFailures = new ArrayList<>();
+            bufferedWhileSyncing.clear();
+        }
+    }
+
+    // ===== NHẬN (thread của socket) =====
+
+    private void receive(String event, JSONObject data) {
+        if (closed) {
+            received.incrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+
+        synchronized (lock) {
+            switch (event) {
+                case "initial-held-seats" -> {
+                    // Join lại mà server vẫn gửi initial (chưa có mốc) → xoá trạng thái tạm cũ
+                    if (joins > 1) {
+                        requestReset();
+                    }
+                    decodeAndOffer(event, data);
+                    finishBaseline(data.optLong("seq", -1));
+                }
+                case "seat-delta" -> {
+                    deltaResyncs.incrementAndGet();
+                    JSONArray events = data.optJSONArray("events");
+                    List<SequencedEvent> replay = new ArrayList<>();
+                    for (int i = 0; events != null && i < events.length(); i++) {
+                        JSONObject entry = events.optJSONObject(i);
+                        JSONObject payload = entry != null ? entry.optJSONObject("data") : null;
+                        if (payload != null) {
+                            replay.add(new SequencedEvent(entry.optString("event"), entry.optLong("seq", -1), payload));
+                        }
+                    }
+                    replay.sort(Comparator.comparingLong(e -> e.seq));
+                    for (SequencedEvent e : replay) {
+                        applySequenced(e);
+                    }
+                    finishBaseline(data.optLong("toSeq", lastSeq));
+                }
+                case "seat-snapshot" -> {
+                    snapshotResyncs.incrementAndGet();
+                    requestReset();
+                    offerAll(SeatEvent.Type.BOOKED, data.optJSONArray("bookedSeats"));
+                    JSONArray held = data.optJSONArray("heldSeats");
+                    for (int i = 0; held != null && i < held.length(); i++) {
+                        JSONObject seat = held.optJSONObject(i);
+                        if (seat != null) {
+                            offer(SeatEvent.Type.HELD, seat.optString("seatNumber", null), seat.optString("holderId", null), null);
+                        }
+                    }
+                    // Snapshot thay thế toàn bộ lịch sử → mốc mới kể cả khi seq nhỏ hơn (server reset)
+                    lastSeq = -1;
+                    finishBaseline(data.optLong("seq", -1));
+                }
+                case "hold-failed" -> decodeAndOffer(event, data); // Chỉ gửi riêng, không có seq
+                default -> {
+                    if (awaitingBaseline && data.has("seq")) {
+                        if (bufferedWhileSyncing.size() >= MAX_BUFFERED_WHILE_SYNCING) {
+                            received.incrementAndGet();
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        bufferedWhileSyncing.add(new SequencedEvent(event, data.optLong("seq", -1), data));
+                        return;
+                    }
+                    applySequenced(new SequencedEvent(event, data.optLong("seq", -1), data));
+                }
+            }
+        }
+    }
+
+    // Đã có mốc: áp dụng các sự kiện live giữ lại có seq mới hơn mốc
+    private void finishBaseline(long baselineSeq) {
+        if (baselineSeq > lastSeq) {
+            lastSeq = baselineSeq;
+        }
+        awaitingBaseline = false;
+
+        bufferedWhileSyncing.sort(Comparator.comparingLong(e -> e.seq));
+        for (SequencedEvent e : bufferedWhileSyncing) {
+            applySequenced(e);
+        }
+        bufferedWhileSyncing.clear();
+    }
+
+    private void applySequenced(SequencedEvent e) {
+        if (e.seq >= 0) {
+            if (e.seq <= lastSeq) {
+                received.incrementAndGet();
+                duplicates.incrementAndGet(); // Đã có trong mốc / delta
+                return;
+            }
+            lastSeq = e.seq;
+        }
+        decodeAndOffer(e.event, e.data);
+    }
+
+    private void decodeAndOffer(String event, JSONObject data) {
+        switch (event) {
+            case "initial-held-seats" -> {
+                JSONArray seats = data.optJSONArray("seats");
+                for (int i = 0; seats != null && i < seats.length(); i++) {
+                    JSONObject seat = seats.optJSONObject(i);
+                    if (seat != null) {
+                        offer(SeatEvent.Type.HELD, seat.optString("seatNumber", null), seat.optString("holderId", null), null);
+                    }
+                }
+            }
+            case "seat-held" -> offer(SeatEvent.Type.HELD,
+                    data.optString("seatNumber", null), data.optString("holderId", null), null);
+            case "seat-released" -> offer(SeatEvent.Type.RELEASED, data.optString("seatNumber", null), null, null);
+            case "seats-released-batch" -> offerAll(SeatEvent.Type.RELEASED, data.optJSONArray("seatNumbers"));
+            case "seats-booked" -> offerAll(SeatEvent.Type.BOOKED, data.optJSONArray("seatNumbers"));
+            case "hold-failed" -> offer(SeatEvent.Type.HOLD_FAILED,
+                    data.optString("seatNumber", null), null, data.optString("reason", null));
+            default -> {
+                received.incrementAndGet();
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void offerAll(SeatEvent.Type type, JSONArray seatNumbers) {
+        if (seatNumbers == null) {
+            received.incrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        for (int i = 0; i < seatNumbers.length(); i++) {
+            offer(type, seatNumbers.optString(i, null), null, null);
+        }
+    }
+
+    // Snapshot: các trạng thái tạm (HELD / SELECTED) đang hiển thị không còn đáng tin
+    private void requestReset() {
+        merged.addAndGet(pendingSeats.size());
+        pendingSeats = new LinkedHashMap<>();
+        resetPending = true;
+        scheduleDrain();
+    }
+
+    private void offer(SeatEvent.Type type, String seatNumber, String holderId, String reason) {
+        received.incrementAndGet();
+        if (seatNumber == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        SeatEvent event = new SeatEvent(type, seatNumber, holderId, reason);
+        synchronized (lock) {
+            if (type == SeatEvent.Type.HOLD_FAILED) {
+                if (pendingFailures.size() >= MAX_PENDING_FAILURES) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                pendingFailures.add(event);
+            } else {
+                SeatEvent previous = pendingSeats.get(seatNumber);
+                if (previous != null) {
+                    merged.incrementAndGet();
+                    if (previous.getType() == SeatEvent.Type.BOOKED) {
+                        return; // Ghế đã bán thì held/released đến sau không còn ý nghĩa
+                    }
+                } else if (pendingSeats.size() >= MAX_PENDING_SEATS) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                pendingSeats.put(seatNumber, event);
+            }
+
+            int depth = pendingSeats.size() + pendingFailures.size();
+            if (depth > maxQueueDepth) {
+                maxQueueDepth = depth;
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    // ===== GIAO (JavaFX thread) =====
+
+    private void drain() {
+        // Hạ cờ trước khi lấy hàng đợi: sự kiện đến sau thời điểm này sẽ lên lịch drain mới
+        drainScheduled.set(false);
+
+        List<SeatEvent> batch;
+        synchronized (lock) {
+            if (!resetPending && pendingSeats.isEmpty() && pendingFailures.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingSeats.size() + pendingFailures.size() + 1);
+            if (resetPending) {
+                batch.add(new SeatEvent(SeatEvent.Type.RESET, null, null, null));
+                resetPending = false;
+            }
+            batch.addAll(pendingSeats.values());
+            batch.addAll(pendingFailures);
+            pendingSeats = new LinkedHashMap<>();
+            pendingFailures = new ArrayList<>();
+        }
+
+        if (closed) {
+            dropped.addAndGet(batch.size());
+            return;
+        }
+
+        batches.incrementAndGet();
+        delivered.addAndGet(batch.size());
+        sink.accept(batch);
+    }
+
+    // Sự kiện broadcast kèm seq (live hoặc lấy từ seat-delta)
+    private static final class SequencedEvent {
+        final String event;
+        final long seq;
+        final JSONObject data;
+
+        SequencedEvent(String event, long seq, JSONObject data) {
+            this.event = event;
+            this.seq = seq;
+            this.data = data;
+        }
+    }
+
+    // ===== THỐNG KÊ =====
+
+    public String getShowtimeId() { return showtimeId; }
+
+    /** Số sự kiện (đã gộp) đang chờ giao */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pendingSeats.size() + pendingFailures.size();
+        }
+    }
+
+    /** seq cuối đã áp dụng, -1 nếu chưa có mốc */
+    public long getLastSequence() {
+        synchronized (lock) {
+            return lastSeq;
+        }
+    }
+
+    public int getMaxQueueDepth() { return maxQueueDepth; }
+    public long getReceivedCount() { return received.get(); }
+    public long getMergedCount() { return merged.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getDuplicateCount() { return duplicates.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getDeltaResyncCount() { return deltaResyncs.get(); }
+    public long getSnapshotResyncCount() { return snapshotResyncs.get(); }
+
+    @Override
+    public String toString() {
+        return "SeatEventPump[" + showtimeId
+                + "] received=" + received.get()
+                + " merged=" + merged.get()
+                + " dropped=" + dropped.get()
+                + " duplicates=" + duplicates.get()
+                + " delivered=" + delivered.get()
+                + " batches=" + batches.get()
+                + " depth=" + getQueueDepth()
+                + " maxDepth=" + maxQueueDepth
+                + " lastSeq=" + getLastSequence()
+                + " resync(delta/snapshot)=" + deltaResyncs.get() + "/" + snapshotResyncs.get();
+    }
+}
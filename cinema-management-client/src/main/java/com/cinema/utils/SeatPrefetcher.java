@@ -0,0 +1,124 @@
+package com.cinema.utils;
+
+import com.cinema.utils.metrics.Counter;
+import com.cinema.utils.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tải trước dữ liệu màn chọn ghế khi con trỏ / focus dừng trên một nút suất chiếu:
+ * - Ghế đã đặt (GET /booked-seats) chạy nền, kết quả giữ ngắn hạn (ENTRY_TTL) vì ghế bán liên tục
+ * - Mở sẵn kết nối Socket.IO (SocketManager.preconnect) để khi click chỉ còn join-showtime
+ *
+ * Con trỏ rời nút trước khi tải xong → cancel(): hủy request. Bản đã tải xong được giữ tới hết hạn.
+ * Click gọi take(): dùng bản tải trước (hoặc request đang chạy), không có thì tải mới.
+ *
+ * Chỉ gọi trên JavaFX thread (sự kiện hover / focus / click), nên không cần khóa.
+ * Metrics: seat.prefetch (counter, tag result = hit / joined / miss / cancelled / expired)
+ */
+public final class SeatPrefetcher {
+
+    private static final SeatPrefetcher INSTANCE = new SeatPrefetcher();
+
+    private static final long ENTRY_TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter joined;
+    private final Counter misses;
+    private final Counter cancelled;
+    private final Counter expired;
+
+    private SeatPrefetcher() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        hits = metrics.counter("seat.prefetch", "result", "hit");
+        joined = metrics.counter("seat.prefetch", "result", "joined");
+        misses = metrics.counter("seat.prefetch", "result", "miss");
+        cancelled = metrics.counter("seat.prefetch", "result", "cancelled");
+        expired = metrics.counter("seat.prefetch", "result", "expired");
+    }
+
+    public static SeatPrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /** Bắt đầu tải trước cho suất chiếu (không làm gì nếu đã có bản còn hạn hoặc đang tải) */
+    public void prefetch(String showtimeId) {
+        SocketManager.getInstance().preconnect();
+        entries.values().removeIf(old -> old.bookedSeats.isDone() && isExpired(old));
+
+        Entry entry = entries.get(showtimeId);
+        if (entry != null && !isExpired(entry)) {
+            return;
+        }
+        entries.put(showtimeId, new Entry(BookedSeatApiClient.getBookedSeatsAsync(showtimeId), System.nanoTime()));
+    }
+
+    /** Con trỏ / focus rời nút: bỏ lần tải chưa xong (bản đã xong giữ lại tới hết hạn) */
+    public void cancel(String showtimeId) {
+        Entry entry = entries.get(showtimeId);
+        if (entry != null && !entry.bookedSeats.isDone()) {
+            entries.remove(showtimeId);
+            entry.bookedSeats.cancel(true);
+            cancelled.increment();
+        }
+    }
+
+    /**
+     * Ghế đã đặt cho lần mở màn chọn ghế: bản tải trước nếu còn hạn, request đang chạy nếu có,
+     * không thì tải mới. Future không bao giờ lỗi: API / mạng lỗi → danh sách rỗng như getBookedSeats.
+     * Bản tải trước chỉ dùng một lần.
+     */
+    public CompletableFuture<List<String>> take(String showtimeId) {
+        Entry entry = entries.remove(showtimeId);
+        CompletableFuture<List<String>> source;
+        if (entry != null && !isExpired(entry)) {
+            (entry.bookedSeats.isDone() ? hits : joined).increment();
+            source = entry.bookedSeats;
+        } else {
+            if (entry != null) {
+                expired.increment();
+            }
+            misses.increment();
+            source = BookedSeatApiClient.getBookedSeatsAsync(showtimeId);
+        }
+
+        return source.handle((seats, error) -> {
+            if (error != null) {
+                System.err.println("Lỗi kết nối API booked-seats: " + error.getMessage());
+            }
+            return seats != null ? seats : new ArrayList<>();
+        });
+    }
+
+    /** Bỏ mọi bản tải trước (rời màn hình suất chiếu) */
+    public void clear() {
+        for (Entry entry : entries.values()) {
+            if (!entry.bookedSeats.isDone()) {
+                entry.bookedSeats.cancel(true);
+                cancelled.increment();
+            }
+        }
+        entries.clear();
+    }
+
+    private static boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.startedAt > ENTRY_TTL_NANOS;
+    }
+
+    private static final class Entry {
+        final CompletableFuture<List<String>> bookedSeats;
+        final long startedAt; // System.nanoTime() lúc gửi request
+
+        Entry(CompletableFuture<List<String>> bookedSeats, long startedAt) {
+            this.bookedSeats = bookedSeats;
+            this.startedAt = startedAt;
+        }
+    }
+}
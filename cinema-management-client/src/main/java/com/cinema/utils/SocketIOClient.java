@@ -1,5 +1,7 @@
 package com.cinema.utils;
 
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.metrics.MetricsRegistry;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import io.socket.client.IO;
@@ -17,32 +19,47 @@ public class SocketIOClient {
     private Socket socket;
     private final Gson gson = new Gson();
     private final Map<String, Consumer<JsonObject>> eventHandlers = new HashMap<>();
-    private static final String SOCKET_URL = "http://localhost:3000/seats"; // HTTP không phải WS
+    private static final String NAMESPACE = "/seats";
 
-    private Runnable onConnectCallback;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private volatile long connectStartedAt;
 
+    private volatile Runnable onConnectCallback;
+    private volatile Consumer<String> onDisconnectCallback;
+
+    // Callback chạy trên thread của socket, gọi lại sau mỗi lần reconnect thành công
     public void onConnect(Runnable callback) {
         this.onConnectCallback = callback;
     }
 
+    // Callback chạy trên thread của socket, nhận lý do ngắt ("transport close", "io server disconnect", ...)
+    public void onDisconnect(Consumer<String> callback) {
+        this.onDisconnectCallback = callback;
+    }
+
     public SocketIOClient() throws URISyntaxException {
         IO.Options options = new IO.Options();
         options.reconnection = true;
         options.reconnectionDelay = 1000;
         options.timeout = 5000;
 
-        socket = IO.socket(SOCKET_URL, options);
-
-        socket.on(Socket.EVENT_CONNECT, args -> {
-            System.out.println("✅ Socket.io connected - ID: " + socket.id());
-        });
+        socket = IO.socket(Endpoints.socket(NAMESPACE), options);
 
         socket.on(Socket.EVENT_DISCONNECT, args -> {
-            System.out.println("❌ Socket.io disconnected");
+            String reason = args.length > 0 ? String.valueOf(args[0]) : null;
+            System.out.println("❌ Socket.io disconnected - " + reason);
+            metrics.counter("socket.disconnects", "namespace", NAMESPACE).increment();
+            connectStartedAt = System.nanoTime(); // Đo thời gian tới lần reconnect kế tiếp
+
+            Consumer<String> callback = onDisconnectCallback;
+            if (callback != null) {
+                callback.accept(reason);
+            }
         });
 
         socket.on(Socket.EVENT_CONNECT_ERROR, args -> {
             System.err.println("❌ Connection error: " + args[0]);
+            metrics.counter("socket.connect.errors", "namespace", NAMESPACE).increment();
             if (args.length > 1) {
                 System.err.println("Additional info: " + args[1]);
             }
@@ -50,16 +67,25 @@ public class SocketIOClient {
 
         socket.on(Socket.EVENT_CONNECT, args -> {
             System.out.println("✅ Socket.io connected - ID: " + socket.id());
+            metrics.counter("socket.connects", "namespace", NAMESPACE).increment();
+            long startedAt = connectStartedAt;
+            if (startedAt != 0) {
+                metrics.histogram("socket.connect.latency", "namespace", NAMESPACE)
+                    .recordNanos(System.nanoTime() - startedAt);
+                connectStartedAt = 0;
+            }
 
             // ✅ Notify listeners khi connect xong
-            if (onConnectCallback != null) {
-                Platform.runLater(() -> onConnectCallback.run());
+            Runnable callback = onConnectCallback;
+            if (callback != null) {
+                callback.run();
             }
         });
 
     }
 
     public void connect() {
+        connectStartedAt = System.nanoTime();
         socket.connect();
     }
 
@@ -80,6 +106,7 @@ public class SocketIOClient {
         try {
             JSONObject jsonObject = new JSONObject(gson.toJson(data));
             socket.emit(event, jsonObject);
+            metrics.counter("socket.events", "namespace", NAMESPACE, "event", event, "direction", "out").increment();
         } catch (Exception e) {
             System.err.println("Error emitting event: " + e.getMessage());
             e.printStackTrace();
@@ -93,6 +120,7 @@ public class SocketIOClient {
         socket.on(event, new Emitter.Listener() {
             @Override
             public void call(Object... args) {
+                metrics.counter("socket.events", "namespace", NAMESPACE, "event", event, "direction", "in").increment();
                 if (args.length > 0 && args[0] instanceof JSONObject) {
                     JSONObject jsonObject = (JSONObject) args[0];
                     JsonObject data = gson.fromJson(jsonObject.toString(), JsonObject.class);
@@ -104,6 +132,17 @@ public class SocketIOClient {
         });
     }
 
+    // Register handler nhận thẳng JSONObject trên thread của socket (không decode Gson, không runLater)
+    // → dùng cho SeatEventPump, tự gom rồi mới đẩy lên JavaFX thread
+    public void onRaw(String event, Consumer<JSONObject> handler) {
+        socket.on(event, args -> {
+            metrics.counter("socket.events", "namespace", NAMESPACE, "event", event, "direction", "in").increment();
+            if (args.length > 0 && args[0] instanceof JSONObject) {
+                handler.accept((JSONObject) args[0]);
+            }
+        });
+    }
+
     // Remove event handler
     public void off(String event) {
         socket.off(event);
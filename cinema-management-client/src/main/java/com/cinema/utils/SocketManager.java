@@ -1,90 +1,235 @@
 package com.cinema.utils;
 
 import com.google.gson.JsonObject;
-import javafx.application.Platform;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 /**
  * Singleton quản lý kết nối Socket.IO duy nhất cho toàn bộ flow đặt vé
+ *
+ * Vòng đời điều khiển bằng sự kiện, không có thread ngủ / poll:
+ * - connect(showtimeId) trả về CompletableFuture hoàn thành từ EVENT_CONNECT
+ * - Đổi suất chiếu trên cùng kết nối: leave-showtime phòng cũ + join-showtime phòng mới trong một lần khóa
+ * - Mỗi lần (re)connect tự join lại phòng hiện tại, kèm lastSeq để server gửi delta / snapshot
+ * - preconnect(): mở kết nối trước khi biết suất chiếu (hover nút suất chiếu), connect() sau đó chỉ còn join
+ * - Server chủ động ngắt ("io server disconnect") thì socket.io không tự reconnect → SocketManager tự connect lại
  */
 public class SocketManager {
 
-    private static SocketManager instance;
+    public enum State {
+        DISCONNECTED, // Chưa có kết nối / đã ngắt chủ động
+        CONNECTING,   // Đang kết nối lần đầu hoặc đang chờ reconnect
+        CONNECTED
+    }
+
+    private static final SocketManager INSTANCE = new SocketManager();
+
+    // Lý do ngắt duy nhất mà socket.io-client không tự reconnect (ngoài disconnect() phía client)
+    private static final String SERVER_DISCONNECT = "io server disconnect";
 
+    // Mọi field dưới đây chỉ đọc/ghi khi giữ lock
+    private final Object lock = new Object();
     private SocketIOClient socket;
+    private State state = State.DISCONNECTED;
     private String currentShowtimeId;
+    private LongSupplier resumeSequence; // seq cuối client đã áp dụng cho room hiện tại, -1 = chưa có
+    private CompletableFuture<SocketIOClient> ready;
 
     private SocketManager() {
         // Private constructor để ngăn tạo instance từ bên ngoài
     }
 
-    public static synchronized SocketManager getInstance() {
-        if (instance == null) {
-            instance = new SocketManager();
-        }
-        return instance;
+    public static SocketManager getInstance() {
+        return INSTANCE;
     }
 
     /**
-     * Kết nối đến server Socket.IO và join room theo showtimeId
-     * Nếu đã kết nối đúng room rồi thì không làm gì
+     * Socket dùng chung (tạo nếu chưa có, chưa chắc đã connect).
+     * Đăng ký listener ở đây TRƯỚC khi connect() để không lỡ initial-held-seats.
      */
-    public void connect(String showtimeId) {
-        // Nếu đang kết nối đúng showtimeId rồi → bỏ qua
-        if (socket != null && socket.isConnected() && showtimeId.equals(currentShowtimeId)) {
-            return;
+    public SocketIOClient client() {
+        synchronized (lock) {
+            if (socket == null) {
+                socket = createSocket();
+            }
+            return socket;
         }
+    }
 
-        // Nếu đang kết nối showtime khác → disconnect cũ trước
-        if (socket != null && socket.isConnected()) {
-            disconnect();
-        }
+    /**
+     * Kết nối (nếu chưa) và chuyển vào room của showtimeId.
+     * Nếu đang ở đúng room rồi thì trả về future hiện tại.
+     *
+     * @return future hoàn thành khi socket đã connect và đã gửi join-showtime
+     */
+    public CompletableFuture<SocketIOClient> connect(String showtimeId) {
+        return connect(showtimeId, null);
+    }
 
-        this.currentShowtimeId = showtimeId;
+    /**
+     * Như connect(showtimeId), kèm nguồn seq để resync khi join lại
+     * @param resumeSequence gọi mỗi lần gửi join-showtime (xem SeatEventPump.resumeSequence())
+     */
+    public CompletableFuture<SocketIOClient> connect(String showtimeId, LongSupplier resumeSequence) {
+        synchronized (lock) {
+            if (showtimeId.equals(currentShowtimeId) && ready != null && !ready.isCompletedExceptionally()) {
+                // Cùng room nhưng người nghe mới (mở lại màn chọn ghế) → join lại để nhận mốc trạng thái
+                if (resumeSequence != null && resumeSequence != this.resumeSequence && state == State.CONNECTED) {
+                    this.resumeSequence = resumeSequence;
+                    emitJoin(socket);
+                }
+                this.resumeSequence = resumeSequence;
+                return ready;
+            }
 
-        // Tạo socket mới và kết nối (chạy async để không block UI)
-        new Thread(() -> {
-            try {
-                Thread.sleep(300); // Delay nhỏ để server sẵn sàng
+            String previousShowtimeId = currentShowtimeId;
+            this.currentShowtimeId = showtimeId;
+            this.resumeSequence = resumeSequence;
 
-                socket = new SocketIOClient();
-                socket.connect();
+            if (socket == null) {
+                socket = createSocket();
+            }
 
-                // Đợi kết nối thành công (tối đa 3 giây)
-                int retries = 0;
-                while (!socket.isConnected() && retries < 30) {
-                    Thread.sleep(100);
-                    retries++;
+            if (state == State.CONNECTED) {
+                // Đổi room trên cùng kết nối - emit theo thứ tự nên server xử lý leave trước join
+                if (previousShowtimeId != null) {
+                    emitRoom(socket, "leave-showtime", previousShowtimeId);
                 }
+                emitJoin(socket);
+                System.out.println("✅ SocketManager switched room: " + previousShowtimeId + " → " + showtimeId);
+                ready = CompletableFuture.completedFuture(socket);
+                return ready;
+            }
 
-                if (!socket.isConnected()) {
-                    System.err.println("❌ SocketManager: Không thể kết nối Socket.IO sau 3 giây");
-                    return;
-                }
+            // Đang kết nối: room mới sẽ được join trong handleConnected()
+            if (ready == null || ready.isDone()) {
+                ready = new CompletableFuture<>();
+            }
+            if (state == State.DISCONNECTED) {
+                state = State.CONNECTING;
+                socket.connect();
+            }
+            return ready;
+        }
+    }
 
-                // Join room
-                JsonObject joinData = new JsonObject();
-                joinData.addProperty("showtimeId", showtimeId);
-                socket.emit("join-showtime", joinData);
+    /**
+     * Bắt đầu kết nối (handshake) mà chưa vào room nào; không làm gì nếu đã kết nối / đang kết nối.
+     * connect(showtimeId) gọi sau đó join ngay trên kết nối này.
+     */
+    public void preconnect() {
+        synchronized (lock) {
+            if (socket == null) {
+                socket = createSocket();
+            }
+            if (state == State.DISCONNECTED) {
+                state = State.CONNECTING;
+                socket.connect();
+            }
+        }
+    }
+
+    /** Ngắt kết nối đã preconnect() nhưng chưa được dùng cho room nào (rời màn hình suất chiếu) */
+    public void disconnectIfIdle() {
+        synchronized (lock) {
+            if (currentShowtimeId != null || socket == null) {
+                return;
+            }
+        }
+        disconnect();
+    }
 
-                Platform.runLater(() -> System.out.println("✅ SocketManager connected & joined room: " + showtimeId));
+    private SocketIOClient createSocket() {
+        try {
+            SocketIOClient client = new SocketIOClient();
+            client.onConnect(() -> handleConnected(client));
+            client.onDisconnect(reason -> handleDisconnected(client, reason));
+            return client;
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Socket URL không hợp lệ", e);
+        }
+    }
 
-            } catch (Exception e) {
-                System.err.println("❌ SocketManager connection failed: " + e.getMessage());
-                e.printStackTrace();
+    // Thread của socket - cả lần đầu lẫn sau reconnect
+    private void handleConnected(SocketIOClient client) {
+        CompletableFuture<SocketIOClient> toComplete;
+        synchronized (lock) {
+            if (client != socket) {
+                return; // Socket cũ đã bị thay
+            }
+            state = State.CONNECTED;
+            if (currentShowtimeId != null) {
+                emitJoin(client);
+                System.out.println("✅ SocketManager connected & joined room: " + currentShowtimeId);
             }
-        }).start();
+            if (ready == null) {
+                ready = new CompletableFuture<>();
+            }
+            toComplete = ready;
+        }
+        // Hoàn thành ngoài lock: callback của caller có thể gọi lại SocketManager
+        toComplete.complete(client);
+    }
+
+    private void handleDisconnected(SocketIOClient client, String reason) {
+        synchronized (lock) {
+            if (client != socket || state == State.DISCONNECTED) {
+                return;
+            }
+            // Caller mới phải chờ lần connect kế tiếp: socket.io tự reconnect, trừ khi server chủ động ngắt
+            state = State.CONNECTING;
+            if (ready != null && ready.isDone()) {
+                ready = new CompletableFuture<>();
+            }
+        }
+        if (SERVER_DISCONNECT.equals(reason)) {
+            // Không kết nối lại thì state kẹt ở CONNECTING và ready không bao giờ hoàn thành
+            System.out.println("🔄 SocketManager: server đã ngắt kết nối, đang kết nối lại");
+            client.connect();
+        }
+    }
+
+    // Gọi khi giữ lock
+    private void emitJoin(SocketIOClient client) {
+        JsonObject data = new JsonObject();
+        data.addProperty("showtimeId", currentShowtimeId);
+        long lastSeq = resumeSequence != null ? resumeSequence.getAsLong() : -1;
+        if (lastSeq >= 0) {
+            data.addProperty("lastSeq", lastSeq);
+        }
+        client.emit("join-showtime", data);
+    }
+
+    private static void emitRoom(SocketIOClient client, String event, String showtimeId) {
+        JsonObject data = new JsonObject();
+        data.addProperty("showtimeId", showtimeId);
+        client.emit(event, data);
     }
 
     public SocketIOClient getSocket() {
-        return socket;
+        synchronized (lock) {
+            return socket;
+        }
+    }
+
+    public State getState() {
+        synchronized (lock) {
+            return state;
+        }
     }
 
     public boolean isConnected() {
-        return socket != null && socket.isConnected();
+        synchronized (lock) {
+            return state == State.CONNECTED && socket != null && socket.isConnected();
+        }
     }
 
     public String getCurrentShowtimeId() {
-        return currentShowtimeId;
+        synchronized (lock) {
+            return currentShowtimeId;
+        }
     }
 
     /**
@@ -92,11 +237,23 @@ public class SocketManager {
      * (ví dụ: back về trang chủ phim, hủy đặt vé, thoát app)
      */
     public void disconnect() {
-        if (socket != null) {
-            socket.disconnect();
+        SocketIOClient old;
+        CompletableFuture<SocketIOClient> pending;
+        synchronized (lock) {
+            old = socket;
+            pending = ready;
             socket = null;
+            ready = null;
             currentShowtimeId = null;
+            resumeSequence = null;
+            state = State.DISCONNECTED;
+        }
+        if (pending != null && !pending.isDone()) {
+            pending.cancel(false);
+        }
+        if (old != null) {
+            old.disconnect();
             System.out.println("🔌 SocketManager disconnected");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.cinema.utils;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache view FXML (node graph + controller) cho các màn hình mở đi mở lại:
+ * các partial của trang admin, modal form và các bước của flow đặt vé.
+ *
+ * - preload(...) parse FXML trên một thread nền lúc khởi động
+ * - acquire(...) trên FX thread: view đã có thì gắn lại (gọi resetView()), chưa có thì parse ngay
+ * - Chỉ giữ lại view có controller implements ReusableView (hoặc FXML không có controller);
+ *   view khác vẫn được parse mới mỗi lần như trước
+ *
+ * Mỗi FXML chỉ có một bản → caller phải gắn root vào đúng một chỗ tại một thời điểm
+ * (contentArea, root của scene chính, hoặc một modal).
+ */
+public final class ViewRegistry {
+
+    private static final ViewRegistry INSTANCE = new ViewRegistry();
+
+    private final Map<String, CompletableFuture<View<?>>> views = new ConcurrentHashMap<>();
+
+    private final ExecutorService preloader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cinema-view-preload");
+        t.setDaemon(true); // không giữ JVM sống khi đóng app
+        t.setPriority(Thread.MIN_PRIORITY); // nhường CPU cho màn hình đang hiển thị
+        return t;
+    });
+
+    private ViewRegistry() {
+    }
+
+    public static ViewRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /** Một view đã parse: root + controller */
+    public static final class View<C> {
+        private final Parent root;
+        private final C controller;
+
+        View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() {
+            return root;
+        }
+
+        public C getController() {
+            return controller;
+        }
+    }
+
+    /**
+     * Parse trước các FXML trên thread nền. Lỗi preload chỉ được log,
+     * acquire() sẽ parse lại trên FX thread.
+     */
+    public void preload(Collection<String> fxmlPaths) {
+        for (String path : fxmlPaths) {
+            CompletableFuture<View<?>> created = new CompletableFuture<>();
+            if (views.putIfAbsent(path, created) != null) {
+                continue; // Đã có / đang preload
+            }
+            preloader.execute(() -> {
+                try {
+                    created.complete(load(path));
+                } catch (Throwable t) {
+                    System.err.println("⚠️ Preload view lỗi " + path + ": " + t.getMessage());
+                    views.remove(path, created);
+                    created.completeExceptionally(t);
+                }
+            });
+        }
+    }
+
+    public void preload(String... fxmlPaths) {
+        preload(List.of(fxmlPaths));
+    }
+
+    /**
+     * Lấy view để hiển thị - chỉ gọi trên FX thread.
+     * Controller ReusableView được gọi resetView() trước khi trả về.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> View<C> acquire(String fxmlPath) throws IOException {
+        View<?> view = cached(fxmlPath);
+        if (view != null && !isReusable(view)) {
+            evict(fxmlPath); // Bản preload chỉ dùng được một lần
+        } else if (view == null) {
+            view = load(fxmlPath);
+            if (isReusable(view)) {
+                views.put(fxmlPath, CompletableFuture.completedFuture(view));
+            }
+        }
+
+        if (view.getController() instanceof ReusableView reusable) {
+            reusable.resetView();
+        }
+        return (View<C>) view;
+    }
+
+    /** Bỏ view khỏi cache (lần acquire sau sẽ parse lại) */
+    public void evict(String fxmlPath) {
+        views.remove(fxmlPath);
+    }
+
+    // View đã preload xong, chờ nếu đang preload dở; null nếu chưa có hoặc preload lỗi
+    private View<?> cached(String fxmlPath) {
+        CompletableFuture<View<?>> future = views.get(fxmlPath);
+        if (future == null) {
+            return null;
+        }
+        try {
+            // Đang parse ở thread nền thì chờ luôn - không lâu hơn tự parse lại
+            return future.join();
+        } catch (CompletionException e) {
+            views.remove(fxmlPath, future);
+            return null;
+        }
+    }
+
+    private static View<?> load(String fxmlPath) throws IOException {
+        URL url = ViewRegistry.class.getResource(fxmlPath);
+        if (url == null) {
+            throw new IOException("Không tìm thấy FXML: " + fxmlPath);
+        }
+        FXMLLoader loader = new FXMLLoader(url);
+        Parent root = loader.load();
+        return new View<>(root, loader.getController());
+    }
+
+    private static boolean isReusable(View<?> view) {
+        Object controller = view.getController();
+        return controller == null || controller instanceof ReusableView;
+    }
+}
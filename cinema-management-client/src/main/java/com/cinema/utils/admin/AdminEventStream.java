@@ -0,0 +1,237 @@
+package com.cinema.utils.admin;
+
+import com.cinema.models.BookingListItem;
+import com.cinema.models.DashboardFacts;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.adapters.LocalDateAdapter;
+import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.metrics.MetricsRegistry;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import javafx.application.Platform;
+import org.json.JSONObject;
+
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sự kiện đặt vé / thanh toán realtime cho trang tổng quan admin (namespace /admin của Socket.IO).
+ *
+ * - Decode trên thread của socket, gom vào hàng đợi
+ * - Giao lên FX thread theo lô, tối đa một lô mỗi throttleMillis dù sự kiện đến dồn dập
+ * - Sau mỗi lần reconnect gửi một sự kiện RESYNC: các sự kiện lúc mất kết nối đã bị lỡ,
+ *   người nhận nên tải lại toàn bộ
+ */
+public class AdminEventStream {
+
+    private static final String NAMESPACE = "/admin";
+
+    public enum Type {
+        BOOKING_CREATED,
+        BOOKING_STATUS,
+        RESYNC
+    }
+
+    /** Một sự kiện đã decode */
+    public static class AdminEvent {
+        private final Type type;
+        private final DashboardFacts.BookingFact booking; // BOOKING_CREATED
+        private final BookingListItem row;                // BOOKING_CREATED, có thể null
+        private final String bookingId;
+        private final PaymentStatus status;
+
+        private AdminEvent(Type type, DashboardFacts.BookingFact booking, BookingListItem row,
+                           String bookingId, PaymentStatus status) {
+            this.type = type;
+            this.booking = booking;
+            this.row = row;
+            this.bookingId = bookingId;
+            this.status = status;
+        }
+
+        public Type getType() { return type; }
+        public DashboardFacts.BookingFact getBooking() { return booking; }
+        public BookingListItem getRow() { return row; }
+        public String getBookingId() { return bookingId; }
+        public PaymentStatus getStatus() { return status; }
+    }
+
+    private final Consumer<List<AdminEvent>> sink;
+    private final long throttleMillis;
+    private final Gson gson;
+
+    // Hàng đợi, chỉ đọc/ghi khi giữ lock
+    private final Object lock = new Object();
+    private List<AdminEvent> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private long lastFlushAt;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cinema-admin-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Socket socket;
+    private boolean everConnected;
+    private volatile boolean closed;
+
+    /**
+     * @param sink           nhận từng lô sự kiện, luôn gọi trên JavaFX thread
+     * @param throttleMillis khoảng cách tối thiểu giữa hai lô
+     */
+    public AdminEventStream(Consumer<List<AdminEvent>> sink, long throttleMillis) {
+        this.sink = sink;
+        this.throttleMillis = throttleMillis;
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+    }
+
+    /** Kết nối và đăng ký nhận sự kiện của trang tổng quan */
+    public void start() throws URISyntaxException {
+        IO.Options options = new IO.Options();
+        options.reconnection = true;
+        options.reconnectionDelay = 1000;
+        options.timeout = 5000;
+
+        socket = IO.socket(Endpoints.socket(NAMESPACE), options);
+
+        socket.on(Socket.EVENT_CONNECT, args -> {
+            // Mỗi lần (re)connect là một kết nối mới ở server → đăng ký lại room
+            socket.emit("subscribe-dashboard");
+            MetricsRegistry.getInstance().counter("socket.connects", "namespace", "/admin").increment();
+            if (everConnected) {
+                offer(new AdminEvent(Type.RESYNC, null, null, null, null));
+            }
+            everConnected = true;
+        });
+
+        socket.on(Socket.EVENT_CONNECT_ERROR, args ->
+            System.err.println("⚠️ Admin socket connection error: " + args[0]));
+
+        socket.on("booking:created", args -> {
+            if (args.length > 0 && args[0] instanceof JSONObject) {
+                AdminEvent event = decodeCreated((JSONObject) args[0]);
+                if (event != null) {
+                    offer(event);
+                }
+            }
+        });
+
+        socket.on("booking:status", args -> {
+            if (args.length > 0 && args[0] instanceof JSONObject) {
+                JSONObject data = (JSONObject) args[0];
+                PaymentStatus status = parseStatus(data.optString("status", null));
+                String bookingId = data.optString("bookingId", null);
+                if (status != null && bookingId != null) {
+                    offer(new AdminEvent(Type.BOOKING_STATUS, null, null, bookingId, status));
+                }
+            }
+        });
+
+        socket.connect();
+    }
+
+    /** Ngắt kết nối, bỏ các sự kiện chưa giao */
+    public void close() {
+        closed = true;
+        if (socket != null) {
+            socket.off();
+            socket.disconnect();
+            socket = null;
+        }
+        scheduler.shutdownNow();
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+    }
+
+    // Thread của socket
+    private AdminEvent decodeCreated(JSONObject data) {
+        try {
+            JsonObject json = gson.fromJson(data.toString(), JsonObject.class);
+            DashboardFacts.BookingFact booking = DashboardApi.parseBookingFact(json.getAsJsonArray("booking"));
+            if (booking == null) {
+                return null;
+            }
+            // [seatType, count]
+            for (JsonElement element : json.getAsJsonArray("seats")) {
+                JsonArray seat = element.getAsJsonArray();
+                booking.addSeats(seat.get(0).getAsString(), seat.get(1).getAsInt());
+            }
+            // [comboId, quantity]
+            for (JsonElement element : json.getAsJsonArray("comboItems")) {
+                JsonArray combo = element.getAsJsonArray();
+                booking.addCombo(combo.get(0).getAsString(), combo.get(1).getAsInt());
+            }
+            BookingListItem row = json.has("row") && !json.get("row").isJsonNull()
+                ? gson.fromJson(json.get("row"), BookingListItem.class)
+                : null;
+            return new AdminEvent(Type.BOOKING_CREATED, booking, row, booking.getId(), booking.getStatus());
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Không đọc được booking:created: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static PaymentStatus parseStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return PaymentStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void offer(AdminEvent event) {
+        if (closed) {
+            return;
+        }
+        MetricsRegistry.getInstance().counter("socket.events", "namespace", "/admin",
+            "event", event.getType().name(), "direction", "in").increment();
+        synchronized (lock) {
+            pending.add(event);
+            if (flushScheduled) {
+                return; // Lô đang chờ sẽ mang theo sự kiện này
+            }
+            flushScheduled = true;
+            long delay = Math.max(0, lastFlushAt + throttleMillis - System.currentTimeMillis());
+            scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Thread của scheduler
+    private void flush() {
+        List<AdminEvent> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            flushScheduled = false;
+            lastFlushAt = System.currentTimeMillis();
+        }
+        if (!batch.isEmpty() && !closed) {
+            Platform.runLater(() -> {
+                if (!closed) {
+                    sink.accept(batch);
+                }
+            });
+        }
+    }
+}
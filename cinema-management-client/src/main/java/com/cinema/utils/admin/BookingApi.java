@@ -0,0 +1,271 @@
+package com.cinema.utils.admin;
+
+import com.cinema.models.BookingListItem;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.adapters.LocalDateAdapter;
+import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.http.ResponseHandler;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import okhttp3.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Danh sách đặt vé cho trang admin: lọc, sắp xếp và phân trang đều chạy ở server.
+ *
+ * Phân trang theo cursor (keyset) thay vì offset: mỗi trang trả về nextCursor / prevCursor
+ * trỏ vào dòng biên, trang sau tiếp tục từ đó nên không phải quét lại các trang đã qua.
+ */
+public class BookingApi {
+
+    private static String baseUrl() {
+        return Endpoints.api("/admin/bookings");
+    }
+
+    private final Gson gson;
+
+    public BookingApi() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+    }
+
+    /**
+     * Lấy một trang đơn đặt vé
+     *
+     * @param cursor    null = trang đầu (hoặc trang cuối nếu backwards)
+     * @param backwards true = lấy các dòng đứng trước cursor (nút "trang trước" / "trang cuối")
+     * @param withTotal đếm thêm tổng số dòng khớp bộ lọc - chỉ nên bật khi đổi bộ lọc
+     */
+    public CompletableFuture<BookingPage> queryBookings(BookingQuery query, String cursor,
+                                                        boolean backwards, boolean withTotal) {
+        HttpUrl.Builder urlBuilder = HttpUrl.parse(baseUrl()).newBuilder();
+        query.appendFilters(urlBuilder);
+        urlBuilder.addQueryParameter("sort", query.getSort().getKey());
+        urlBuilder.addQueryParameter("order", query.isDescending() ? "desc" : "asc");
+        urlBuilder.addQueryParameter("limit", String.valueOf(query.getLimit()));
+
+        if (cursor != null) {
+            urlBuilder.addQueryParameter("cursor", cursor);
+        }
+        if (backwards) {
+            urlBuilder.addQueryParameter("direction", "prev");
+        }
+        if (withTotal) {
+            urlBuilder.addQueryParameter("withTotal", "true");
+        }
+
+        Request request = new Request.Builder()
+            .url(urlBuilder.build())
+            .header("Accept", "application/json")
+            .get()
+            .build();
+
+        return send(request, response -> {
+            if (response.code() == 400) {
+                throw new InvalidCursorException("Cursor không còn hợp lệ, tải lại từ trang đầu");
+            }
+
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch bookings: HTTP " + response.code());
+            }
+
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+
+            if (jsonObject.has("data")) {
+                BookingPage page = gson.fromJson(jsonObject.get("data"), BookingPage.class);
+                if (page != null) {
+                    return page;
+                }
+            }
+
+            return new BookingPage();
+        });
+    }
+
+    /**
+     * Thống kê (số đơn theo trạng thái + doanh thu) theo cùng bộ lọc với danh sách
+     */
+    public CompletableFuture<BookingStats> getBookingStats(BookingQuery query) {
+        HttpUrl.Builder urlBuilder = HttpUrl.parse(baseUrl() + "/stats").newBuilder();
+        query.appendFilters(urlBuilder);
+
+        Request request = new Request.Builder()
+            .url(urlBuilder.build())
+            .header("Accept", "application/json")
+            .get()
+            .build();
+
+        return send(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch booking stats: HTTP " + response.code());
+            }
+
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+
+            if (jsonObject.has("data")) {
+                BookingStats stats = gson.fromJson(jsonObject.get("data"), BookingStats.class);
+                if (stats != null) {
+                    return stats;
+                }
+            }
+
+            return new BookingStats();
+        });
+    }
+
+    /**
+     * Send request through the shared transport, network errors become ServiceException
+     */
+    private <T> CompletableFuture<T> send(Request request, ResponseHandler<T> handler) {
+        return HttpTransport.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+
+    /**
+     * Khóa sắp xếp server hỗ trợ (luôn kèm id để thứ tự ổn định giữa các trang)
+     */
+    public enum SortKey {
+        BOOKING_TIME("bookingTime"),
+        TOTAL_PRICE("totalPrice"),
+        SHOWTIME("showtime");
+
+        private final String key;
+
+        SortKey(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Bộ lọc + sắp xếp + kích thước trang. Cursor chỉ dùng được với đúng
+     * sort/chiều sort đã tạo ra nó → đổi query thì bắt đầu lại từ trang đầu.
+     */
+    public static class BookingQuery {
+        private PaymentStatus status;
+        private List<String> cinemaIds = new ArrayList<>();
+        private List<String> movieIds = new ArrayList<>();
+        private LocalDate fromDate;
+        private LocalDate toDate;
+        private String search;
+        private SortKey sort = SortKey.BOOKING_TIME;
+        private boolean descending = true;
+        private int limit = 20;
+
+        public PaymentStatus getStatus() { return status; }
+        public void setStatus(PaymentStatus status) { this.status = status; }
+
+        // Nhiều id = các rạp / phim trùng tên hiển thị, đơn thuộc id nào trong danh sách cũng khớp
+        public List<String> getCinemaIds() { return cinemaIds; }
+        public void setCinemaIds(List<String> cinemaIds) { this.cinemaIds = new ArrayList<>(cinemaIds); }
+
+        public List<String> getMovieIds() { return movieIds; }
+        public void setMovieIds(List<String> movieIds) { this.movieIds = new ArrayList<>(movieIds); }
+
+        public LocalDate getFromDate() { return fromDate; }
+        public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+
+        public LocalDate getToDate() { return toDate; }
+        public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+
+        public String getSearch() { return search; }
+        public void setSearch(String search) { this.search = search; }
+
+        public SortKey getSort() { return sort; }
+        public void setSort(SortKey sort) { this.sort = sort; }
+
+        public boolean isDescending() { return descending; }
+        public void setDescending(boolean descending) { this.descending = descending; }
+
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+
+        void appendFilters(HttpUrl.Builder urlBuilder) {
+            if (status != null) {
+                urlBuilder.addQueryParameter("status", status.name());
+            }
+            for (String cinemaId : cinemaIds) {
+                urlBuilder.addQueryParameter("cinemaId", cinemaId);
+            }
+            for (String movieId : movieIds) {
+                urlBuilder.addQueryParameter("movieId", movieId);
+            }
+            if (fromDate != null) {
+                urlBuilder.addQueryParameter("from", fromDate.toString());
+            }
+            if (toDate != null) {
+                urlBuilder.addQueryParameter("to", toDate.toString());
+            }
+            if (search != null && !search.isBlank()) {
+                urlBuilder.addQueryParameter("q", search.trim());
+            }
+        }
+    }
+
+    /**
+     * Một trang kết quả. nextCursor / prevCursor = null khi không còn trang theo hướng đó.
+     */
+    public static class BookingPage {
+        private List<BookingListItem> items = new ArrayList<>();
+        private String nextCursor;
+        private String prevCursor;
+        private Integer total; // Chỉ có khi gọi với withTotal
+
+        public List<BookingListItem> getItems() { return items != null ? items : new ArrayList<>(); }
+        public String getNextCursor() { return nextCursor; }
+        public String getPrevCursor() { return prevCursor; }
+        public Integer getTotal() { return total; }
+
+        public boolean hasNext() { return nextCursor != null; }
+        public boolean hasPrev() { return prevCursor != null; }
+    }
+
+    public static class BookingStats {
+        private int total;
+        private int paid;
+        private int pending;
+        private int cancelled;
+        private int expired;
+        private double revenue;
+
+        public int getTotal() { return total; }
+        public int getPaid() { return paid; }
+        public int getPending() { return pending; }
+        public int getCancelled() { return cancelled; }
+        public int getExpired() { return expired; }
+        public double getRevenue() { return revenue; }
+    }
+
+    /**
+     * Custom exceptions
+     */
+    public static class ServiceException extends RuntimeException {
+        public ServiceException(String message) {
+            super(message);
+        }
+        public ServiceException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException(String message) {
+            super(message);
+        }
+    }
+}
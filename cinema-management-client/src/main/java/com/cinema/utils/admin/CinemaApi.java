@@ -1,8 +1,13 @@
 package com.cinema.utils.admin;
 
 import com.cinema.models.Cinema;
+import com.cinema.utils.CatalogCache;
 import com.cinema.utils.adapters.LocalDateAdapter;
 import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.ConditionalCache;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.http.ResponseHandler;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
@@ -11,27 +16,29 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import okhttp3.*;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 public class CinemaApi {
     
-    private static final String BASE_URL = "http://localhost:3000/api/cinemas";
-    private final OkHttpClient httpClient;
+    private static String baseUrl() {
+        return Endpoints.api("/cinemas");
+    }
+
+    // Danh sách rạp (kèm phòng chiếu) cho các màn admin; key duy nhất
+    private static final String ALL = "all";
+    private static final CatalogCache.Region<String, List<Cinema>> CINEMAS = CatalogCache.getInstance()
+            .region("cinemas", Duration.ofMinutes(5), Duration.ofHours(1), CatalogCache.Topic.CINEMAS);
+    private static final ConditionalCache<List<Cinema>> ALL_CINEMAS_GET = new ConditionalCache<>("cinemas");
+
     private final Gson gson;
     
     public CinemaApi() {
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
-        
         this.gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
@@ -42,42 +49,40 @@ public class CinemaApi {
      * Get all cinemas
      */
     public CompletableFuture<List<Cinema>> getAllCinemas() {
-        return CompletableFuture.supplyAsync(() -> {
-            System.out.println("🔍 CinemaApi: Fetching cinemas from " + BASE_URL);
+        return CINEMAS.getAsync(ALL, this::fetchAllCinemas);
+    }
+    
+    private CompletableFuture<List<Cinema>> fetchAllCinemas() {
+        System.out.println("🔍 CinemaApi: Fetching cinemas from " + baseUrl());
+        
+        Request request = new Request.Builder()
+            .url(baseUrl())
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(ALL_CINEMAS_GET, request, response -> {
+            System.out.println("📡 CinemaApi: Response code = " + response.code());
             
-            Request request = new Request.Builder()
-                .url(BASE_URL)
-                .header("Accept", "application/json")
-                .get()
-                .build();
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch cinemas: HTTP " + response.code());
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                System.out.println("📡 CinemaApi: Response code = " + response.code());
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch cinemas: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                System.out.println("📦 CinemaApi: Response received");
-                
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    List<Cinema> cinemas = gson.fromJson(
-                        jsonObject.get("data"),
-                        new TypeToken<List<Cinema>>(){}.getType()
-                    );
-                    System.out.println("✅ CinemaApi: Loaded " + (cinemas != null ? cinemas.size() : 0) + " cinemas");
-                    return cinemas != null ? cinemas : new ArrayList<>();
-                }
-                
-                return new ArrayList<>();
-                
-            } catch (IOException e) {
-                System.err.println("❌ CinemaApi: Network error - " + e.getMessage());
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            String responseBody = response.body().string();
+            System.out.println("📦 CinemaApi: Response received");
+            
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            
+            if (jsonObject.has("data")) {
+                List<Cinema> cinemas = gson.fromJson(
+                    jsonObject.get("data"),
+                    new TypeToken<List<Cinema>>(){}.getType()
+                );
+                System.out.println("✅ CinemaApi: Loaded " + (cinemas != null ? cinemas.size() : 0) + " cinemas");
+                return cinemas != null ? Collections.unmodifiableList(cinemas) : Collections.<Cinema>emptyList();
             }
+            
+            return Collections.<Cinema>emptyList();
         });
     }
     
@@ -85,34 +90,29 @@ public class CinemaApi {
      * Get cinema by ID
      */
     public CompletableFuture<Cinema> getCinemaById(String id) {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .header("Accept", "application/json")
-                .get()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(request, response -> {
+            if (response.code() == 404) {
+                throw new CinemaNotFoundException("Cinema not found: " + id);
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new CinemaNotFoundException("Cinema not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch cinema: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Cinema.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch cinema: HTTP " + response.code());
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Cinema.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -120,46 +120,41 @@ public class CinemaApi {
      * Create new cinema
      */
     public CompletableFuture<Cinema> createCinema(Cinema cinema) {
-        return CompletableFuture.supplyAsync(() -> {
-            JsonObject payload = new JsonObject();
-            payload.addProperty("name", cinema.getName());
-            payload.addProperty("address", cinema.getAddress());
-            payload.addProperty("city", cinema.getCity());
-            if (cinema.getLogoUrl() != null) {
-                payload.addProperty("logoUrl", cinema.getLogoUrl());
+        JsonObject payload = new JsonObject();
+        payload.addProperty("name", cinema.getName());
+        payload.addProperty("address", cinema.getAddress());
+        payload.addProperty("city", cinema.getCity());
+        if (cinema.getLogoUrl() != null) {
+            payload.addProperty("logoUrl", cinema.getLogoUrl());
+        }
+        
+        RequestBody body = RequestBody.create(
+            payload.toString(),
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        
+        Request request = new Request.Builder()
+            .url(baseUrl())
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .post(body)
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body().string();
+                System.err.println("❌ Create cinema failed: " + errorBody);
+                throw new ServiceException("Failed to create cinema: HTTP " + response.code());
             }
             
-            RequestBody body = RequestBody.create(
-                payload.toString(),
-                MediaType.parse("application/json; charset=utf-8")
-            );
-            
-            Request request = new Request.Builder()
-                .url(BASE_URL)
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .post(body)
-                .build();
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body().string();
-                    System.err.println("❌ Create cinema failed: " + errorBody);
-                    throw new ServiceException("Failed to create cinema: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Cinema.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Cinema.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -167,48 +162,43 @@ public class CinemaApi {
      * Update cinema
      */
     public CompletableFuture<Cinema> updateCinema(String id, Cinema cinema) {
-        return CompletableFuture.supplyAsync(() -> {
-            JsonObject payload = new JsonObject();
-            payload.addProperty("name", cinema.getName());
-            payload.addProperty("address", cinema.getAddress());
-            payload.addProperty("city", cinema.getCity());
-            if (cinema.getLogoUrl() != null) {
-                payload.addProperty("logoUrl", cinema.getLogoUrl());
+        JsonObject payload = new JsonObject();
+        payload.addProperty("name", cinema.getName());
+        payload.addProperty("address", cinema.getAddress());
+        payload.addProperty("city", cinema.getCity());
+        if (cinema.getLogoUrl() != null) {
+            payload.addProperty("logoUrl", cinema.getLogoUrl());
+        }
+        
+        RequestBody body = RequestBody.create(
+            payload.toString(),
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .put(body)
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() == 404) {
+                throw new CinemaNotFoundException("Cinema not found: " + id);
             }
             
-            RequestBody body = RequestBody.create(
-                payload.toString(),
-                MediaType.parse("application/json; charset=utf-8")
-            );
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to update cinema: HTTP " + response.code());
+            }
             
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .put(body)
-                .build();
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new CinemaNotFoundException("Cinema not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to update cinema: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Cinema.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Cinema.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -216,37 +206,56 @@ public class CinemaApi {
      * Delete cinema
      */
     public CompletableFuture<Void> deleteCinema(String id) {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .delete()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .delete()
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() == 404) {
+                throw new CinemaNotFoundException("Cinema not found: " + id);
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new CinemaNotFoundException("Cinema not found: " + id);
-                }
-                
-                if (response.code() == 409) {
-                    String errorBody = response.body().string();
-                    if (errorBody.contains("HAS_SCREENS")) {
-                        throw new ServiceException("Không thể xóa rạp có phòng chiếu");
-                    }
-                    throw new ServiceException("Không thể xóa rạp có dữ liệu liên quan");
+            if (response.code() == 409) {
+                String errorBody = response.body().string();
+                if (errorBody.contains("HAS_SCREENS")) {
+                    throw new ServiceException("Không thể xóa rạp có phòng chiếu");
                 }
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to delete cinema: HTTP " + response.code());
-                }
-                
-                return null;
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+                throw new ServiceException("Không thể xóa rạp có dữ liệu liên quan");
+            }
+            
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to delete cinema: HTTP " + response.code());
             }
+            
+            return null;
         });
     }
     
+    /**
+     * Send request through the shared transport, network errors become ServiceException
+     */
+    private <T> CompletableFuture<T> send(Request request, ResponseHandler<T> handler) {
+        return HttpTransport.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+    
+    /**
+     * send có conditional GET: 304 → trả lại object đã decode lần trước
+     */
+    private <T> CompletableFuture<T> send(ConditionalCache<T> cache, Request request, ResponseHandler<T> handler) {
+        return cache.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+    
+    /**
+     * send cho thao tác ghi: xong (kể cả lỗi, vì server có thể đã ghi) thì bỏ cache rạp
+     */
+    private <T> CompletableFuture<T> sendWrite(Request request, ResponseHandler<T> handler) {
+        return send(request, handler)
+            .whenComplete((result, ex) -> CatalogCache.getInstance().invalidate(CatalogCache.Topic.CINEMAS));
+    }
+    
     /**
      * Custom exceptions
      */
@@ -269,58 +278,53 @@ public class CinemaApi {
      * Update seat layout for all screens in a cinema
      */
     public CompletableFuture<Integer> updateBulkSeatLayout(String cinemaId, SeatLayoutData layoutData) {
-        return CompletableFuture.supplyAsync(() -> {
-            JsonObject payload = new JsonObject();
-            payload.addProperty("rowCount", layoutData.getRowCount());
-            payload.addProperty("columnCount", layoutData.getColumnCount());
-            
-            // Convert seats to JSON array
-            JsonArray seatsArray = new JsonArray();
-            for (SeatData seat : layoutData.getSeats()) {
-                if (seat != null) {
-                    JsonObject seatObj = new JsonObject();
-                    seatObj.addProperty("seatNumber", seat.getSeatNumber());
-                    seatObj.addProperty("seatType", seat.getSeatType());
-                    seatObj.addProperty("price", seat.getPrice());
-                    seatsArray.add(seatObj);
-                } else {
-                    seatsArray.add(JsonNull.INSTANCE);
-                }
+        JsonObject payload = new JsonObject();
+        payload.addProperty("rowCount", layoutData.getRowCount());
+        payload.addProperty("columnCount", layoutData.getColumnCount());
+        
+        // Convert seats to JSON array
+        JsonArray seatsArray = new JsonArray();
+        for (SeatData seat : layoutData.getSeats()) {
+            if (seat != null) {
+                JsonObject seatObj = new JsonObject();
+                seatObj.addProperty("seatNumber", seat.getSeatNumber());
+                seatObj.addProperty("seatType", seat.getSeatType());
+                seatObj.addProperty("price", seat.getPrice());
+                seatsArray.add(seatObj);
+            } else {
+                seatsArray.add(JsonNull.INSTANCE);
+            }
+        }
+        payload.add("seats", seatsArray);
+        
+        RequestBody body = RequestBody.create(
+            payload.toString(),
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + cinemaId + "/screens/bulk-seat-layout")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .post(body)
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body().string();
+                System.err.println("❌ Update seat layout failed: " + errorBody);
+                throw new ServiceException("Failed to update seat layout: HTTP " + response.code());
             }
-            payload.add("seats", seatsArray);
-            
-            RequestBody body = RequestBody.create(
-                payload.toString(),
-                MediaType.parse("application/json; charset=utf-8")
-            );
             
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + cinemaId + "/screens/bulk-seat-layout")
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .post(body)
-                .build();
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body().string();
-                    System.err.println("❌ Update seat layout failed: " + errorBody);
-                    throw new ServiceException("Failed to update seat layout: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    JsonObject data = jsonObject.getAsJsonObject("data");
-                    return data.get("screensUpdated").getAsInt();
-                }
-                
-                return 0;
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                JsonObject data = jsonObject.getAsJsonObject("data");
+                return data.get("screensUpdated").getAsInt();
             }
+            
+            return 0;
         });
     }
 
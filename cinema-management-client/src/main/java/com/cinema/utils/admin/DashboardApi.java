@@ -0,0 +1,205 @@
+package com.cinema.utils.admin;
+
+import com.cinema.models.BookingListItem;
+import com.cinema.models.DashboardFacts;
+import com.cinema.models.PaymentStatus;
+import com.cinema.utils.adapters.LocalDateAdapter;
+import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.http.ResponseHandler;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dữ liệu trang tổng quan: một request trả về toàn bộ dữ liệu thô,
+ * server chạy song song các truy vấn, client tổng hợp.
+ */
+public class DashboardApi {
+
+    private static String baseUrl() {
+        return Endpoints.api("/admin/dashboard");
+    }
+
+    private final Gson gson;
+
+    public DashboardApi() {
+        this.gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+    }
+
+    /**
+     * Lấy dữ liệu thô từ ngày from đến hiện tại. Parse chạy trên thread của HTTP client,
+     * không đụng tới FX thread.
+     */
+    public CompletableFuture<DashboardFacts> getFacts(LocalDate from) {
+        HttpUrl url = HttpUrl.parse(baseUrl() + "/facts").newBuilder()
+            .addQueryParameter("from", from.toString())
+            .build();
+
+        Request request = new Request.Builder()
+            .url(url)
+            .header("Accept", "application/json")
+            .get()
+            .build();
+
+        return send(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch dashboard data: HTTP " + response.code());
+            }
+
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+
+            if (!jsonObject.has("data")) {
+                throw new ServiceException("Dashboard response has no data");
+            }
+            return parseFacts(jsonObject.getAsJsonObject("data"), from);
+        });
+    }
+
+    private DashboardFacts parseFacts(JsonObject data, LocalDate from) {
+        DashboardFacts facts = new DashboardFacts();
+        facts.setFrom(from);
+
+        // [id, bookingTimeMs, status, totalPrice, comboTotalPrice, movieId, cinemaId]
+        JsonArray bookings = data.getAsJsonArray("bookings");
+        Map<String, DashboardFacts.BookingFact> byId = new HashMap<>(bookings.size() * 2);
+        for (JsonElement element : bookings) {
+            DashboardFacts.BookingFact fact = parseBookingFact(element.getAsJsonArray());
+            if (fact != null) {
+                facts.getBookings().add(fact);
+                byId.put(fact.getId(), fact);
+            }
+        }
+
+        // [bookingId, seatType, count]
+        for (JsonElement element : data.getAsJsonArray("seats")) {
+            JsonArray row = element.getAsJsonArray();
+            DashboardFacts.BookingFact fact = byId.get(row.get(0).getAsString());
+            if (fact != null) {
+                fact.addSeats(row.get(1).getAsString(), row.get(2).getAsInt());
+            }
+        }
+
+        // [bookingId, comboId, quantity]
+        for (JsonElement element : data.getAsJsonArray("comboItems")) {
+            JsonArray row = element.getAsJsonArray();
+            DashboardFacts.BookingFact fact = byId.get(row.get(0).getAsString());
+            if (fact != null) {
+                fact.addCombo(row.get(1).getAsString(), row.get(2).getAsInt());
+            }
+        }
+
+        for (JsonElement element : data.getAsJsonArray("movies")) {
+            JsonObject movie = element.getAsJsonObject();
+            String id = movie.get("id").getAsString();
+            facts.getMovieTitles().put(id, stringOrNull(movie.get("title")));
+            facts.getMovieStatuses().put(id, stringOrNull(movie.get("status")));
+        }
+
+        for (JsonElement element : data.getAsJsonArray("genres")) {
+            JsonObject genre = element.getAsJsonObject();
+            facts.getGenreCounts().put(genre.get("name").getAsString(), genre.get("count").getAsInt());
+        }
+
+        for (JsonElement element : data.getAsJsonArray("cinemas")) {
+            JsonObject cinema = element.getAsJsonObject();
+            facts.getCinemaNames().put(cinema.get("id").getAsString(), stringOrNull(cinema.get("name")));
+        }
+
+        for (JsonElement element : data.getAsJsonArray("combos")) {
+            JsonObject combo = element.getAsJsonObject();
+            facts.getComboNames().put(combo.get("id").getAsString(), stringOrNull(combo.get("name")));
+        }
+
+        JsonObject customers = data.getAsJsonObject("customers");
+        facts.setTotalCustomers(customers.get("total").getAsInt());
+        facts.setNewCustomersToday(customers.get("newToday").getAsInt());
+
+        JsonArray ratings = data.getAsJsonArray("ratings");
+        int[] ratingCounts = new int[5];
+        for (int i = 0; i < Math.min(5, ratings.size()); i++) {
+            ratingCounts[i] = ratings.get(i).getAsInt();
+        }
+        facts.setRatingCounts(ratingCounts);
+
+        List<BookingListItem> recent = gson.fromJson(
+            data.get("recentBookings"),
+            new TypeToken<List<BookingListItem>>(){}.getType()
+        );
+        if (recent != null) {
+            facts.setRecentBookings(recent);
+        }
+
+        return facts;
+    }
+
+    /**
+     * [id, bookingTimeMs, status, totalPrice, comboTotalPrice, movieId, cinemaId] → BookingFact,
+     * null nếu trạng thái không xác định. Dùng chung cho sự kiện realtime (AdminEventStream).
+     */
+    static DashboardFacts.BookingFact parseBookingFact(JsonArray row) {
+        PaymentStatus status = parseStatus(row.get(2));
+        if (status == null) {
+            return null;
+        }
+        return new DashboardFacts.BookingFact(
+            row.get(0).getAsString(),
+            row.get(1).getAsLong(),
+            status,
+            row.get(3).getAsDouble(),
+            row.get(4).getAsDouble(),
+            stringOrNull(row.get(5)),
+            stringOrNull(row.get(6)));
+    }
+
+    private static PaymentStatus parseStatus(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        try {
+            return PaymentStatus.valueOf(element.getAsString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String stringOrNull(JsonElement element) {
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    /**
+     * Send request through the shared transport, network errors become ServiceException
+     */
+    private <T> CompletableFuture<T> send(Request request, ResponseHandler<T> handler) {
+        return HttpTransport.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+
+    /**
+     * Custom exceptions
+     */
+    public static class ServiceException extends RuntimeException {
+        public ServiceException(String message) {
+            super(message);
+        }
+        public ServiceException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -2,68 +2,68 @@ package com.cinema.utils.admin;
 
 import com.cinema.models.Movie;
 import com.cinema.models.Genre;
+import com.cinema.utils.CatalogCache;
 import com.cinema.utils.adapters.LocalDateAdapter;
 import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.http.ResponseHandler;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import okhttp3.*;
 
-import java.io.IOException;
-import java.net.http.HttpClient;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 public class MovieApi {
-    private static final String BASE_URL = "http://localhost:3000/api/admin/movies";
-    private static final OkHttpClient httpClient = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
+    private static String baseUrl() {
+        return Endpoints.api("/admin/movies");
+    }
+
     private static final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
+
+    // Thể loại gần như không đổi; key duy nhất
+    private static final String ALL = "all";
+    private static final CatalogCache.Region<String, List<Genre>> GENRES = CatalogCache.getInstance()
+            .region("genres", Duration.ofHours(1), Duration.ofDays(1), CatalogCache.Topic.GENRES);
     
     /**
      * Get all movies
      */
     public CompletableFuture<List<Movie>> getAllMovies() {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL)
-                .header("Accept", "application/json")
-                .get()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl())
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch movies: HTTP " + response.code());
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch movies: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    List<Movie> movies = gson.fromJson(
-                        jsonObject.get("data"), 
-                        new TypeToken<List<Movie>>(){}.getType()
-                    );
-                    return movies != null ? movies : new ArrayList<>();
-                }
-                
-                return new ArrayList<>();
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            
+            if (jsonObject.has("data")) {
+                List<Movie> movies = gson.fromJson(
+                    jsonObject.get("data"), 
+                    new TypeToken<List<Movie>>(){}.getType()
+                );
+                return movies != null ? movies : new ArrayList<>();
             }
+            
+            return new ArrayList<>();
         });
     }
     
@@ -75,36 +75,29 @@ public class MovieApi {
             throw new IllegalArgumentException("Movie ID cannot be null or empty");
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .header("Accept", "application/json")
-                .get()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(request, response -> {
+            if (response.code() == 404) {
+                throw new MovieNotFoundException("Movie not found: " + id);
+            }
+            
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch movie: HTTP " + response.code());
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new MovieNotFoundException("Movie not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch movie: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Movie.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (MovieNotFoundException e) {
-                throw e;
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Movie.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -116,40 +109,35 @@ public class MovieApi {
             throw new IllegalArgumentException("Movie cannot be null");
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            String jsonBody = gson.toJson(movie);
+        String jsonBody = gson.toJson(movie);
+        
+        RequestBody body = RequestBody.create(
+            jsonBody,
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        System.err.println(jsonBody);
+        System.err.println(body);
+        Request request = new Request.Builder()
+            .url(baseUrl())
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .post(body)
+            .build();
+        System.err.println(request);
+        return sendWrite(request, response -> {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "";
+                throw new ServiceException("Failed to create movie: HTTP " + response.code() + " - " + errorBody);
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            RequestBody body = RequestBody.create(
-                jsonBody,
-                MediaType.parse("application/json; charset=utf-8")
-            );
-            System.err.println(jsonBody);
-            System.err.println(body);
-            Request request = new Request.Builder()
-                .url(BASE_URL)
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .post(body)
-                .build();
-            System.err.println(request);
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "";
-                    throw new ServiceException("Failed to create movie: HTTP " + response.code() + " - " + errorBody);
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Movie.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Movie.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -164,43 +152,38 @@ public class MovieApi {
             throw new IllegalArgumentException("Movie cannot be null");
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            String jsonBody = gson.toJson(movie);
+        String jsonBody = gson.toJson(movie);
+        
+        RequestBody body = RequestBody.create(
+            jsonBody,
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .put(body)
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() == 404) {
+                throw new MovieNotFoundException("Movie not found: " + id);
+            }
             
-            RequestBody body = RequestBody.create(
-                jsonBody,
-                MediaType.parse("application/json; charset=utf-8")
-            );
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "";
+                throw new ServiceException("Failed to update movie: HTTP " + response.code() + " - " + errorBody);
+            }
             
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .put(body)
-                .build();
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new MovieNotFoundException("Movie not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "";
-                    throw new ServiceException("Failed to update movie: HTTP " + response.code() + " - " + errorBody);
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), Movie.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), Movie.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
@@ -212,27 +195,22 @@ public class MovieApi {
             throw new IllegalArgumentException("Movie ID cannot be null or empty");
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .delete()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .delete()
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() == 404) {
+                throw new MovieNotFoundException("Movie not found: " + id);
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new MovieNotFoundException("Movie not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "";
-                    throw new ServiceException("Failed to delete movie: HTTP " + response.code() + " - " + errorBody);
-                }
-                
-                return null;
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "";
+                throw new ServiceException("Failed to delete movie: HTTP " + response.code() + " - " + errorBody);
             }
+            
+            return null;
         });
     }
     
@@ -240,34 +218,33 @@ public class MovieApi {
      * Get all genres
      */
     public CompletableFuture<List<Genre>> getAllGenres() {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url("http://localhost:3000/api/admin/genres")
-                .header("Accept", "application/json")
-                .get()
-                .build();
+        return GENRES.getAsync(ALL, this::fetchAllGenres);
+    }
+    
+    private CompletableFuture<List<Genre>> fetchAllGenres() {
+        Request request = new Request.Builder()
+            .url(Endpoints.api("/admin/genres"))
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch genres: HTTP " + response.code());
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch genres: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    List<Genre> genres = gson.fromJson(
-                        jsonObject.get("data"), 
-                        new TypeToken<List<Genre>>(){}.getType()
-                    );
-                    return genres != null ? genres : new ArrayList<>();
-                }
-                
-                return new ArrayList<>();
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                List<Genre> genres = gson.fromJson(
+                    jsonObject.get("data"), 
+                    new TypeToken<List<Genre>>(){}.getType()
+                );
+                return genres != null ? Collections.unmodifiableList(genres) : Collections.<Genre>emptyList();
             }
+            
+            return Collections.<Genre>emptyList();
         });
     }
     
@@ -275,33 +252,44 @@ public class MovieApi {
      * Get movie statistics
      */
     public CompletableFuture<MovieStats> getMovieStats() {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/stats/summary")
-                .header("Accept", "application/json")
-                .get()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/stats/summary")
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch stats: HTTP " + response.code());
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch stats: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    return gson.fromJson(jsonObject.get("data"), MovieStats.class);
-                }
-                
-                throw new ServiceException("Invalid response format");
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                return gson.fromJson(jsonObject.get("data"), MovieStats.class);
             }
+            
+            throw new ServiceException("Invalid response format");
         });
     }
     
+    /**
+     * Send request through the shared transport, network errors become ServiceException
+     */
+    private <T> CompletableFuture<T> send(Request request, ResponseHandler<T> handler) {
+        return HttpTransport.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+    
+    /**
+     * send cho thao tác ghi: xong (kể cả lỗi, vì server có thể đã ghi) thì bỏ cache danh mục phim
+     */
+    private <T> CompletableFuture<T> sendWrite(Request request, ResponseHandler<T> handler) {
+        return send(request, handler)
+            .whenComplete((result, ex) -> CatalogCache.getInstance().invalidate(CatalogCache.Topic.MOVIES));
+    }
+    
     /**
      * Movie statistics data class
      */
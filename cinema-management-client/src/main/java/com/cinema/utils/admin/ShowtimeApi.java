@@ -1,35 +1,53 @@
 package com.cinema.utils.admin;
 
 import com.cinema.models.Showtime;
+import com.cinema.utils.CatalogCache;
 import com.cinema.utils.adapters.LocalDateAdapter;
 import com.cinema.utils.adapters.LocalDateTimeAdapter;
+import com.cinema.utils.http.ConditionalCache;
+import com.cinema.utils.http.Endpoints;
+import com.cinema.utils.http.HttpTransport;
+import com.cinema.utils.http.ResponseHandler;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import okhttp3.*;
 
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class ShowtimeApi {
     
-    private static final String BASE_URL = "http://localhost:3000/api/admin/showtimes";
-    private final OkHttpClient httpClient;
+    private static String baseUrl() {
+        return Endpoints.api("/admin/showtimes");
+    }
+
+    
+    // Tạo hàng loạt: kích thước mỗi phần, số phần gửi song song, số lần thử mỗi phần
+    private static final int BULK_CHUNK_SIZE = 100;
+    private static final int BULK_CONCURRENCY = 3;
+    private static final int BULK_MAX_ATTEMPTS = 3;
+    private static final long BULK_RETRY_DELAY_MS = 500;
+    
+    // Lịch chiếu theo bộ lọc (mỗi URL một bản), lịch tuần được mở lại nhiều lần
+    private static final ConditionalCache<List<Showtime>> SHOWTIMES_GET = new ConditionalCache<>("showtimes");
+    
     private final Gson gson;
     
     public ShowtimeApi() {
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .writeTimeout(30, TimeUnit.SECONDS)
-            .build();
-        
         this.gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
@@ -40,120 +58,358 @@ public class ShowtimeApi {
      * Get all showtimes with optional filters
      */
     public CompletableFuture<List<Showtime>> getAllShowtimes(String date, String cinemaId, String screenId, String movieId) {
-        return CompletableFuture.supplyAsync(() -> {
-            HttpUrl.Builder urlBuilder = HttpUrl.parse(BASE_URL).newBuilder();
-            
-            if (date != null && !date.isEmpty()) {
-                urlBuilder.addQueryParameter("date", date);
-            }
-            if (cinemaId != null && !cinemaId.isEmpty()) {
-                urlBuilder.addQueryParameter("cinemaId", cinemaId);
+        HttpUrl.Builder urlBuilder = HttpUrl.parse(baseUrl()).newBuilder();
+        
+        if (date != null && !date.isEmpty()) {
+            urlBuilder.addQueryParameter("date", date);
+        }
+        if (cinemaId != null && !cinemaId.isEmpty()) {
+            urlBuilder.addQueryParameter("cinemaId", cinemaId);
+        }
+        if (screenId != null && !screenId.isEmpty()) {
+            urlBuilder.addQueryParameter("screenId", screenId);
+        }
+        if (movieId != null && !movieId.isEmpty()) {
+            urlBuilder.addQueryParameter("movieId", movieId);
+        }
+        
+        Request request = new Request.Builder()
+            .url(urlBuilder.build())
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(SHOWTIMES_GET, request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch showtimes: HTTP " + response.code());
             }
-            if (screenId != null && !screenId.isEmpty()) {
-                urlBuilder.addQueryParameter("screenId", screenId);
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            
+            if (jsonObject.has("data")) {
+                List<Showtime> showtimes = gson.fromJson(
+                    jsonObject.get("data"),
+                    new TypeToken<List<Showtime>>(){}.getType()
+                );
+                return showtimes != null ? Collections.unmodifiableList(showtimes) : Collections.<Showtime>emptyList();
             }
-            if (movieId != null && !movieId.isEmpty()) {
-                urlBuilder.addQueryParameter("movieId", movieId);
+            
+            return Collections.<Showtime>emptyList();
+        });
+    }
+    
+    /**
+     * Suất chiếu của các phòng screenIds bắt đầu trong khoảng ngày [from, toExclusive)
+     * - dữ liệu cho kiểm tra trùng lịch khi tạo hàng loạt
+     */
+    public CompletableFuture<List<Showtime>> getShowtimesInRange(LocalDate from, LocalDate toExclusive,
+                                                                 Collection<String> screenIds) {
+        HttpUrl url = HttpUrl.parse(baseUrl()).newBuilder()
+            .addQueryParameter("from", from.toString())
+            .addQueryParameter("to", toExclusive.toString())
+            .addQueryParameter("screenIds", String.join(",", screenIds))
+            .build();
+        
+        Request request = new Request.Builder()
+            .url(url)
+            .header("Accept", "application/json")
+            .get()
+            .build();
+        
+        return send(SHOWTIMES_GET, request, response -> {
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to fetch showtimes: HTTP " + response.code());
             }
             
-            Request request = new Request.Builder()
-                .url(urlBuilder.build())
-                .header("Accept", "application/json")
-                .get()
-                .build();
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to fetch showtimes: HTTP " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    List<Showtime> showtimes = gson.fromJson(
-                        jsonObject.get("data"),
-                        new TypeToken<List<Showtime>>(){}.getType()
-                    );
-                    return showtimes != null ? showtimes : new ArrayList<>();
-                }
-                
-                return new ArrayList<>();
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (jsonObject.has("data")) {
+                List<Showtime> showtimes = gson.fromJson(
+                    jsonObject.get("data"),
+                    new TypeToken<List<Showtime>>(){}.getType()
+                );
+                return showtimes != null ? Collections.unmodifiableList(showtimes) : Collections.<Showtime>emptyList();
             }
+            
+            return Collections.<Showtime>emptyList();
         });
     }
     
     /**
-     * Create bulk showtimes
+     * Create bulk showtimes - gửi qua pipeline chia phần, thất bại nếu còn suất chưa lưu được.
+     * Cần theo dõi tiến độ / tiếp tục phần còn lại thì dùng createBulkShowtimes(showtimes, onProgress).
      */
     public CompletableFuture<Integer> createBulkShowtimes(List<Showtime> showtimes) {
-        return CompletableFuture.supplyAsync(() -> {
-            JsonObject payload = new JsonObject();
-            payload.add("showtimes", gson.toJsonTree(showtimes));
-            
-            RequestBody body = RequestBody.create(
-                payload.toString(),
-                MediaType.parse("application/json; charset=utf-8")
-            );
-            
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/bulk")
-                .header("Accept", "application/json")
-                .header("Content-Type", "application/json")
-                .post(body)
-                .build();
+        return createBulkShowtimes(showtimes, null).thenApply(result -> {
+            if (!result.isComplete()) {
+                throw new ServiceException("Failed to create " + result.getRemaining().size() + " of "
+                    + showtimes.size() + " showtimes", result.getLastError());
+            }
+            return result.getSaved().size();
+        });
+    }
+    
+    /**
+     * Tạo hàng loạt theo từng phần BULK_CHUNK_SIZE suất, tối đa BULK_CONCURRENCY phần cùng lúc.
+     *
+     * - Suất chưa có id được gán UUID trước khi gửi: gửi lại một phần (retry, hoặc tiếp tục sau khi
+     *   lỗi giữa chừng) không tạo trùng, server bỏ qua id đã tồn tại
+     * - Lỗi mạng / 5xx được thử lại với backoff; 4xx là dữ liệu sai, không thử lại
+     * - Future luôn hoàn thành với BulkResult; phần lỗi nằm trong getRemaining(),
+     *   gọi lại hàm này với danh sách đó để tiếp tục
+     *
+     * @param onProgress nhận tiến độ sau mỗi phần (trên thread của HTTP client), có thể null
+     */
+    public CompletableFuture<BulkResult> createBulkShowtimes(List<Showtime> showtimes, Consumer<BulkProgress> onProgress) {
+        List<List<Showtime>> chunks = new ArrayList<>();
+        for (int from = 0; from < showtimes.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(new ArrayList<>(showtimes.subList(from, Math.min(from + BULK_CHUNK_SIZE, showtimes.size()))));
+        }
+        for (Showtime showtime : showtimes) {
+            if (showtime.getId() == null) {
+                showtime.setId(UUID.randomUUID().toString());
+            }
+        }
+        return new BulkRun(chunks, showtimes.size(), onProgress).start();
+    }
+    
+    /** Một lần chạy pipeline: mỗi worker lấy phần kế tiếp khi phần trước xong */
+    private class BulkRun {
+        private final List<List<Showtime>> chunks;
+        private final int totalShowtimes;
+        private final Consumer<BulkProgress> onProgress;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private final CompletableFuture<BulkResult> result = new CompletableFuture<>();
+        
+        // Chỉ đọc/ghi khi giữ lock của BulkRun
+        private final List<Showtime> saved = new ArrayList<>();
+        private final List<Showtime> remaining = new ArrayList<>();
+        private int completedChunks;
+        private int failedChunks;
+        private Throwable lastError;
+        
+        BulkRun(List<List<Showtime>> chunks, int totalShowtimes, Consumer<BulkProgress> onProgress) {
+            this.chunks = chunks;
+            this.totalShowtimes = totalShowtimes;
+            this.onProgress = onProgress;
+        }
+        
+        CompletableFuture<BulkResult> start() {
+            int workers = Math.min(BULK_CONCURRENCY, chunks.size());
+            if (workers == 0) {
+                result.complete(new BulkResult(saved, remaining, null));
+                return result;
+            }
+            activeWorkers.set(workers);
+            for (int i = 0; i < workers; i++) {
+                sendNext();
+            }
+            return result;
+        }
+        
+        private void sendNext() {
+            int index = nextChunk.getAndIncrement();
+            if (index >= chunks.size()) {
+                if (activeWorkers.decrementAndGet() == 0) {
+                    synchronized (this) {
+                        result.complete(new BulkResult(saved, remaining, lastError));
+                    }
+                }
+                return;
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to create showtimes: HTTP " + response.code());
+            List<Showtime> chunk = chunks.get(index);
+            sendChunk(chunk, 1).whenComplete((count, ex) -> {
+                BulkProgress progress;
+                synchronized (this) {
+                    if (ex == null) {
+                        saved.addAll(chunk);
+                        completedChunks++;
+                    } else {
+                        remaining.addAll(chunk);
+                        failedChunks++;
+                        lastError = unwrap(ex);
+                    }
+                    progress = new BulkProgress(completedChunks, failedChunks, chunks.size(),
+                        saved.size(), totalShowtimes);
+                }
+                if (onProgress != null) {
+                    onProgress.accept(progress);
                 }
-                
-                String responseBody = response.body().string();
-                JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
-                
-                if (jsonObject.has("data")) {
-                    JsonObject data = jsonObject.getAsJsonObject("data");
-                    return data.get("count").getAsInt();
+                sendNext();
+            });
+        }
+    }
+    
+    private CompletableFuture<Integer> sendChunk(List<Showtime> chunk, int attempt) {
+        return postChunk(chunk)
+            .handle((count, ex) -> {
+                if (ex == null) {
+                    return CompletableFuture.completedFuture(count);
+                }
+                if (attempt >= BULK_MAX_ATTEMPTS || unwrap(ex) instanceof BulkRejectedException) {
+                    return CompletableFuture.<Integer>failedFuture(ex);
                 }
-                
-                return 0;
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+                long delay = BULK_RETRY_DELAY_MS << (attempt - 1);
+                Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+                return CompletableFuture.runAsync(() -> { }, delayed)
+                    .thenCompose(v -> sendChunk(chunk, attempt + 1));
+            })
+            .thenCompose(future -> future);
+    }
+    
+    private CompletableFuture<Integer> postChunk(List<Showtime> chunk) {
+        // Chỉ gửi các cột được lưu, không kèm các trường hiển thị (tên phim, tên phòng...)
+        JsonArray items = new JsonArray();
+        for (Showtime showtime : chunk) {
+            JsonObject item = new JsonObject();
+            item.addProperty("id", showtime.getId());
+            item.addProperty("movie_id", showtime.getMovieId());
+            item.addProperty("screen_id", showtime.getScreenId());
+            item.add("start_time", gson.toJsonTree(showtime.getStartTime()));
+            item.add("end_time", gson.toJsonTree(showtime.getEndTime()));
+            item.addProperty("base_price", showtime.getBasePrice());
+            item.addProperty("format", showtime.getFormat());
+            items.add(item);
+        }
+        JsonObject payload = new JsonObject();
+        payload.add("showtimes", items);
+        
+        RequestBody body = RequestBody.create(
+            payload.toString(),
+            MediaType.parse("application/json; charset=utf-8")
+        );
+        
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/bulk")
+            .header("Accept", "application/json")
+            .header("Content-Type", "application/json")
+            .post(body)
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() >= 400 && response.code() < 500) {
+                throw new BulkRejectedException("Showtimes rejected: HTTP " + response.code());
+            }
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to create showtimes: HTTP " + response.code());
+            }
+            
+            String responseBody = response.body().string();
+            JsonObject jsonObject = gson.fromJson(responseBody, JsonObject.class);
+            
+            if (jsonObject.has("data")) {
+                JsonObject data = jsonObject.getAsJsonObject("data");
+                return data.get("count").getAsInt();
             }
+            
+            return 0;
         });
     }
     
+    private static Throwable unwrap(Throwable ex) {
+        return (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+    }
+    
     /**
      * Delete showtime
      */
     public CompletableFuture<Void> deleteShowtime(String id) {
-        return CompletableFuture.supplyAsync(() -> {
-            Request request = new Request.Builder()
-                .url(BASE_URL + "/" + id)
-                .delete()
-                .build();
+        Request request = new Request.Builder()
+            .url(baseUrl() + "/" + id)
+            .delete()
+            .build();
+        
+        return sendWrite(request, response -> {
+            if (response.code() == 404) {
+                throw new ShowtimeNotFoundException("Showtime not found: " + id);
+            }
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.code() == 404) {
-                    throw new ShowtimeNotFoundException("Showtime not found: " + id);
-                }
-                
-                if (!response.isSuccessful()) {
-                    throw new ServiceException("Failed to delete showtime: HTTP " + response.code());
-                }
-                
-                return null;
-                
-            } catch (IOException e) {
-                throw new ServiceException("Network error: " + e.getMessage(), e);
+            if (!response.isSuccessful()) {
+                throw new ServiceException("Failed to delete showtime: HTTP " + response.code());
             }
+            
+            return null;
         });
     }
     
+    /**
+     * Send request through the shared transport, network errors become ServiceException
+     */
+    private <T> CompletableFuture<T> send(Request request, ResponseHandler<T> handler) {
+        return HttpTransport.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+    
+    /**
+     * send có conditional GET: 304 → trả lại object đã decode lần trước
+     */
+    private <T> CompletableFuture<T> send(ConditionalCache<T> cache, Request request, ResponseHandler<T> handler) {
+        return cache.sendAsync(request, handler,
+            e -> new ServiceException("Network error: " + e.getMessage(), e));
+    }
+    
+    /**
+     * send cho thao tác ghi: xong (kể cả lỗi, vì server có thể đã ghi) thì bỏ cache suất chiếu (rạp theo phim)
+     */
+    private <T> CompletableFuture<T> sendWrite(Request request, ResponseHandler<T> handler) {
+        return send(request, handler)
+            .whenComplete((result, ex) -> CatalogCache.getInstance().invalidate(CatalogCache.Topic.SHOWTIMES));
+    }
+    
+    /**
+     * Tiến độ tạo hàng loạt
+     */
+    public static class BulkProgress {
+        private final int completedChunks;
+        private final int failedChunks;
+        private final int totalChunks;
+        private final int savedShowtimes;
+        private final int totalShowtimes;
+        
+        public BulkProgress(int completedChunks, int failedChunks, int totalChunks,
+                            int savedShowtimes, int totalShowtimes) {
+            this.completedChunks = completedChunks;
+            this.failedChunks = failedChunks;
+            this.totalChunks = totalChunks;
+            this.savedShowtimes = savedShowtimes;
+            this.totalShowtimes = totalShowtimes;
+        }
+        
+        public int getCompletedChunks() { return completedChunks; }
+        public int getFailedChunks() { return failedChunks; }
+        public int getTotalChunks() { return totalChunks; }
+        public int getSavedShowtimes() { return savedShowtimes; }
+        public int getTotalShowtimes() { return totalShowtimes; }
+        
+        public double getFraction() {
+            return totalChunks == 0 ? 1 : (double) (completedChunks + failedChunks) / totalChunks;
+        }
+    }
+    
+    /**
+     * Kết quả tạo hàng loạt: suất đã lưu và suất chưa lưu được (giữ nguyên id để gửi lại)
+     */
+    public static class BulkResult {
+        private final List<Showtime> saved;
+        private final List<Showtime> remaining;
+        private final Throwable lastError;
+        
+        public BulkResult(List<Showtime> saved, List<Showtime> remaining, Throwable lastError) {
+            this.saved = new ArrayList<>(saved);
+            this.remaining = new ArrayList<>(remaining);
+            this.lastError = lastError;
+        }
+        
+        public List<Showtime> getSaved() { return saved; }
+        public List<Showtime> getRemaining() { return remaining; }
+        public Throwable getLastError() { return lastError; }
+        public boolean isComplete() { return remaining.isEmpty(); }
+    }
+    
     /**
      * Custom exceptions
      */
@@ -166,6 +422,13 @@ public class ShowtimeApi {
         }
     }
     
+    /** Server từ chối một phần (4xx) - gửi lại cũng không thành công */
+    public static class BulkRejectedException extends ServiceException {
+        public BulkRejectedException(String message) {
+            super(message);
+        }
+    }
+    
     public static class ShowtimeNotFoundException extends RuntimeException {
         public ShowtimeNotFoundException(String message) {
             super(message);
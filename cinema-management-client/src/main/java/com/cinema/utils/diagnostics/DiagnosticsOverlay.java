@@ -0,0 +1,202 @@
+package com.cinema.utils.diagnostics;
+
+import com.cinema.utils.metrics.MetricsRegistry;
+import com.cinema.utils.metrics.MetricsSnapshot;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.event.EventHandler;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.List;
+
+/**
+ * Overlay chẩn đoán dành cho dev, ẩn mặc định, bật/tắt bằng Ctrl+Shift+D.
+ *
+ * Hiển thị: thời gian frame, độ trễ hàng đợi FX, các lần FX thread bị chặn (FxStallWatchdog),
+ * request HTTP đang chạy và tỉ lệ hit của các cache (mọi gauge *.hit.ratio trong MetricsRegistry).
+ * Chỉ đo frame (AnimationTimer) khi overlay đang hiện để không ép JavaFX pulse liên tục.
+ */
+public final class DiagnosticsOverlay {
+
+    private static final KeyCombination TOGGLE_KEY =
+        new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+    private static final Duration REFRESH_INTERVAL = Duration.millis(500);
+    private static final String HIT_RATIO_SUFFIX = ".hit.ratio";
+
+    private final Stage stage;
+    private final Popup popup = new Popup();
+    private final Label frameLabel = createLine();
+    private final Label queueLabel = createLine();
+    private final Label stallLabel = createLine();
+    private final Label httpLabel = createLine();
+    private final Label cacheLabel = createLine();
+    private final Timeline refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+
+    // Thống kê frame trong cửa sổ REFRESH_INTERVAL, chỉ truy cập trên FX thread
+    private long lastFrameNanos;
+    private long frameCount;
+    private long frameTotalNanos;
+    private long frameMaxNanos;
+
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastFrameNanos != 0) {
+                long frameNanos = now - lastFrameNanos;
+                frameCount++;
+                frameTotalNanos += frameNanos;
+                frameMaxNanos = Math.max(frameMaxNanos, frameNanos);
+            }
+            lastFrameNanos = now;
+        }
+    };
+
+    private DiagnosticsOverlay(Stage stage) {
+        this.stage = stage;
+
+        VBox content = new VBox(2, frameLabel, queueLabel, stallLabel, httpLabel, cacheLabel);
+        content.setStyle("-fx-background-color: rgba(20, 20, 20, 0.85); -fx-padding: 8 12;"
+            + " -fx-background-radius: 6;");
+        content.setMouseTransparent(true);
+        popup.getContent().add(content);
+        popup.setAutoHide(false);
+
+        refresher.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * Gắn phím tắt vào stage; áp dụng cho cả scene được thay sau này.
+     * Gọi trên FX thread.
+     */
+    public static DiagnosticsOverlay install(Stage stage) {
+        DiagnosticsOverlay overlay = new DiagnosticsOverlay(stage);
+        EventHandler<KeyEvent> toggleHandler = event -> {
+            if (TOGGLE_KEY.match(event)) {
+                overlay.toggle();
+                event.consume();
+            }
+        };
+        if (stage.getScene() != null) {
+            stage.getScene().addEventFilter(KeyEvent.KEY_PRESSED, toggleHandler);
+        }
+        stage.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removeEventFilter(KeyEvent.KEY_PRESSED, toggleHandler);
+            }
+            if (newScene != null) {
+                newScene.addEventFilter(KeyEvent.KEY_PRESSED, toggleHandler);
+            }
+        });
+        return overlay;
+    }
+
+    public void toggle() {
+        if (popup.isShowing()) {
+            hide();
+        } else {
+            show();
+        }
+    }
+
+    private void show() {
+        Scene scene = stage.getScene();
+        if (scene == null) {
+            return;
+        }
+        resetFrameWindow();
+        lastFrameNanos = 0;
+        refresh();
+        popup.show(stage, stage.getX() + scene.getX() + 12, stage.getY() + scene.getY() + 12);
+        frameTimer.start();
+        refresher.play();
+    }
+
+    private void hide() {
+        refresher.stop();
+        frameTimer.stop();
+        popup.hide();
+    }
+
+    private void refresh() {
+        MetricsSnapshot snapshot = MetricsRegistry.getInstance().snapshot();
+
+        if (frameCount > 0) {
+            frameLabel.setText(String.format("Frame: %.1f ms (max %.1f ms, %.0f fps)",
+                frameTotalNanos / 1e6 / frameCount, frameMaxNanos / 1e6,
+                frameCount * 1e9 / frameTotalNanos));
+        } else {
+            frameLabel.setText("Frame: --");
+        }
+        resetFrameWindow();
+
+        MetricsSnapshot.HistogramValue queueDelay = histogram(snapshot, "fx.queue.delay");
+        queueLabel.setText(String.format("Hàng đợi FX: đang chờ %.1f ms | p50 %.1f ms, p99 %.1f ms",
+            zeroIfNaN(snapshot.gauge("fx.queue.waiting.ms")),
+            queueDelay != null ? queueDelay.getP50Ms() : 0,
+            queueDelay != null ? queueDelay.getP99Ms() : 0));
+
+        List<FxStallWatchdog.Stall> stalls = FxStallWatchdog.getInstance().getRecentStalls();
+        long stallCount = snapshot.sumCounters("fx.stalls");
+        if (stalls.isEmpty()) {
+            stallLabel.setText("FX bị chặn: " + stallCount);
+        } else {
+            FxStallWatchdog.Stall last = stalls.get(0);
+            String duration = last.getDurationMs() > 0 ? last.getDurationMs() + " ms" : "đang chặn";
+            stallLabel.setText("FX bị chặn: " + stallCount + " | gần nhất " + duration
+                + " tại " + last.getCallSite());
+        }
+
+        httpLabel.setText(String.format("HTTP: đang chạy %.0f | tổng %d request",
+            zeroIfNaN(snapshot.gauge("http.client.inflight")),
+            snapshot.sumCounters("http.client.requests")));
+
+        StringBuilder caches = new StringBuilder("Cache hit:");
+        int cacheCount = 0;
+        for (MetricsSnapshot.GaugeValue gauge : snapshot.getGauges()) {
+            String name = gauge.getName();
+            if (name.endsWith(HIT_RATIO_SUFFIX) && !Double.isNaN(gauge.getValue())) {
+                String cacheName = name.substring(0, name.length() - HIT_RATIO_SUFFIX.length());
+                caches.append(cacheCount == 0 ? " " : ", ")
+                    .append(cacheName).append(gauge.getTags().isEmpty() ? "" : gauge.getTags())
+                    .append(String.format(" %.0f%%", gauge.getValue() * 100));
+                cacheCount++;
+            }
+        }
+        cacheLabel.setText(cacheCount == 0 ? "Cache hit: --" : caches.toString());
+    }
+
+    private void resetFrameWindow() {
+        frameCount = 0;
+        frameTotalNanos = 0;
+        frameMaxNanos = 0;
+    }
+
+    private static MetricsSnapshot.HistogramValue histogram(MetricsSnapshot snapshot, String name) {
+        for (MetricsSnapshot.HistogramValue histogram : snapshot.getHistograms()) {
+            if (histogram.getName().equals(name) && histogram.getTags().isEmpty()) {
+                return histogram;
+            }
+        }
+        return null;
+    }
+
+    private static double zeroIfNaN(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    private static Label createLine() {
+        Label label = new Label();
+        label.setStyle("-fx-text-fill: #e8e8e8; -fx-font-family: 'Consolas', monospace; -fx-font-size: 12px;");
+        return label;
+    }
+}
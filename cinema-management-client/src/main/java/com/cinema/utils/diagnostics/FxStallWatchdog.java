@@ -0,0 +1,167 @@
+package com.cinema.utils.diagnostics;
+
+import com.cinema.utils.metrics.LatencyHistogram;
+import com.cinema.utils.metrics.MetricsRegistry;
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phát hiện JavaFX Application Thread bị chặn (I/O, tính toán nặng trên FX thread).
+ *
+ * Thread nền gửi một heartbeat bằng Platform.runLater mỗi CHECK_INTERVAL_MS:
+ * - Thời gian từ lúc gửi tới lúc heartbeat chạy = độ trễ hàng đợi FX (histogram fx.queue.delay)
+ * - Heartbeat chờ quá ngưỡng → chụp stack của FX thread một lần, ghi lại call site đầu tiên
+ *   thuộc com.cinema (counter fx.stalls theo site, histogram fx.stall.duration khi FX thread chạy lại)
+ *
+ * Ngưỡng: system property cinema.fx.stallThresholdMs (mặc định 250).
+ */
+public final class FxStallWatchdog {
+
+    private static final FxStallWatchdog INSTANCE =
+        new FxStallWatchdog(Long.getLong("cinema.fx.stallThresholdMs", 250));
+
+    private static final long CHECK_INTERVAL_MS = 50;
+    private static final int MAX_RECENT_STALLS = 20;
+    private static final int LOGGED_FRAMES = 12;
+
+    /** Một lần FX thread bị chặn */
+    public static final class Stall {
+        private final long detectedAt;    // epoch millis
+        private final String callSite;
+        private final StackTraceElement[] stack;
+        private volatile long durationMs; // 0 khi FX thread chưa chạy lại
+
+        Stall(long detectedAt, String callSite, StackTraceElement[] stack) {
+            this.detectedAt = detectedAt;
+            this.callSite = callSite;
+            this.stack = stack;
+        }
+
+        public long getDetectedAt() { return detectedAt; }
+        public String getCallSite() { return callSite; }
+        public StackTraceElement[] getStack() { return stack.clone(); }
+        public long getDurationMs() { return durationMs; }
+    }
+
+    private final long thresholdNanos;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final LatencyHistogram queueDelay = metrics.histogram("fx.queue.delay");
+    private final LatencyHistogram stallDuration = metrics.histogram("fx.stall.duration");
+
+    // Heartbeat đang chờ chạy: thời điểm gửi (nanoTime), 0 nếu không có
+    private volatile long postedAt;
+    private volatile Thread fxThread;
+    private volatile Stall currentStall;
+    private final Deque<Stall> recentStalls = new ArrayDeque<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private FxStallWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        metrics.gauge("fx.queue.waiting.ms", () -> {
+            long posted = postedAt;
+            return posted == 0 ? 0 : (System.nanoTime() - posted) / 1_000_000.0;
+        });
+    }
+
+    public static FxStallWatchdog getInstance() {
+        return INSTANCE;
+    }
+
+    /** Bắt đầu theo dõi; gọi lại không có tác dụng */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cinema-fx-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::check, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /** Các lần bị chặn gần nhất, mới nhất trước */
+    public List<Stall> getRecentStalls() {
+        synchronized (recentStalls) {
+            return new ArrayList<>(recentStalls);
+        }
+    }
+
+    // Thread watchdog
+    private void check() {
+        long posted = postedAt;
+        long now = System.nanoTime();
+        if (posted == 0) {
+            postedAt = now;
+            Platform.runLater(this::beat);
+            return;
+        }
+        if (currentStall == null && now - posted > thresholdNanos && fxThread != null) {
+            captureStall();
+        }
+    }
+
+    // FX thread
+    private void beat() {
+        fxThread = Thread.currentThread();
+        long delay = System.nanoTime() - postedAt;
+        queueDelay.recordNanos(delay);
+
+        Stall stall = currentStall;
+        if (stall != null) {
+            stall.durationMs = TimeUnit.NANOSECONDS.toMillis(delay);
+            stallDuration.recordNanos(delay);
+            System.err.println("⚠️ FX thread bị chặn " + stall.durationMs + "ms tại " + stall.callSite);
+            currentStall = null;
+        }
+        postedAt = 0;
+    }
+
+    private void captureStall() {
+        StackTraceElement[] stack = fxThread.getStackTrace();
+        Stall stall = new Stall(System.currentTimeMillis(), callSiteOf(stack), stack);
+        currentStall = stall;
+        metrics.counter("fx.stalls", "site", stall.callSite).increment();
+
+        synchronized (recentStalls) {
+            recentStalls.addFirst(stall);
+            while (recentStalls.size() > MAX_RECENT_STALLS) {
+                recentStalls.removeLast();
+            }
+        }
+
+        StringBuilder log = new StringBuilder("⚠️ FX thread đang bị chặn (> ")
+            .append(getThresholdMillis()).append("ms) tại ").append(stall.callSite);
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, stack.length); i++) {
+            log.append("\n    at ").append(stack[i]);
+        }
+        System.err.println(log);
+    }
+
+    // Frame đầu tiên thuộc code của ứng dụng, bỏ qua JDK / JavaFX / thư viện
+    static String callSiteOf(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.startsWith("com.cinema.") && !className.startsWith("com.cinema.utils.diagnostics.")) {
+                String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                return simpleName + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+            }
+        }
+        if (stack.length == 0) {
+            return "unknown";
+        }
+        return stack[0].getClassName() + "." + stack[0].getMethodName();
+    }
+}
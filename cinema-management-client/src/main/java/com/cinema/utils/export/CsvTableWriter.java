@@ -0,0 +1,87 @@
+package com.cinema.utils.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV theo RFC 4180, UTF-8 có BOM để Excel nhận đúng tiếng Việt.
+ *
+ * Chuỗi bắt đầu bằng = + - @ được thêm dấu ' ở đầu để Excel không hiểu là công thức.
+ */
+public class CsvTableWriter implements TableWriter {
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter out;
+
+    public CsvTableWriter(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        stream.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void writeHeader(String... columns) throws IOException {
+        writeRow((Object[]) columns);
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeValue(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            out.write(formatNumber((Number) value));
+            return;
+        }
+        if (value instanceof LocalDateTime) {
+            out.write(((LocalDateTime) value).format(DATE_TIME_FORMAT));
+            return;
+        }
+
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+            || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (quote) {
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        } else {
+            out.write(text);
+        }
+    }
+
+    // 150000.0 → "150000", không dùng dạng 1.5E5
+    static String formatNumber(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue()).stripTrailingZeros().toPlainString();
+        }
+        return number.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
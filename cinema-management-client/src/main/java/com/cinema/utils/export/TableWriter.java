@@ -0,0 +1,18 @@
+package com.cinema.utils.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Ghi bảng dữ liệu tuần tự từng dòng ra file, không giữ các dòng đã ghi trong bộ nhớ.
+ *
+ * Giá trị ô: String, Number, LocalDateTime hoặc null (ô trống).
+ * close() hoàn tất file; file chỉ hợp lệ sau khi close() thành công.
+ */
+public interface TableWriter extends Closeable {
+
+    /** Dòng tiêu đề, gọi một lần trước các dòng dữ liệu */
+    void writeHeader(String... columns) throws IOException;
+
+    void writeRow(Object... values) throws IOException;
+}
@@ -0,0 +1,249 @@
+package com.cinema.utils.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX dạng stream: ghi thẳng XML của sheet vào file zip, không dựng workbook trong bộ nhớ.
+ *
+ * - Chuỗi ghi dạng inline string (không có bảng sharedStrings phải giữ tới cuối)
+ * - Ngày giờ ghi dạng số serial của Excel với định dạng dd/mm/yyyy hh:mm
+ * - Quá MAX_ROWS_PER_SHEET dòng thì sang sheet mới, lặp lại dòng tiêu đề
+ * - workbook.xml và các phần mô tả được ghi lúc close(), khi đã biết số sheet
+ */
+public class XlsxTableWriter implements TableWriter {
+
+    // Giới hạn của Excel là 1.048.576 dòng / sheet, tính cả dòng tiêu đề
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final LocalDateTime EXCEL_EPOCH = LocalDateTime.of(1899, 12, 30, 0, 0);
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+
+    // Chỉ số trong cellXfs của styles.xml
+    private static final int STYLE_DATE_TIME = 1;
+    private static final int STYLE_HEADER = 2;
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final String sheetName;
+    private String[] header;
+    private int sheetCount;
+    private int rowInSheet;   // Số dòng đã ghi ở sheet hiện tại
+    private boolean sheetOpen;
+
+    public XlsxTableWriter(Path file, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        this.out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.sheetName = sheetName;
+    }
+
+    @Override
+    public void writeHeader(String... columns) throws IOException {
+        this.header = columns.clone();
+        ensureSheet();
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        ensureSheet();
+        writeCells(values, false);
+    }
+
+    private void ensureSheet() throws IOException {
+        if (sheetOpen && rowInSheet < MAX_ROWS_PER_SHEET) {
+            return;
+        }
+        if (sheetOpen) {
+            closeSheet();
+        }
+        sheetCount++;
+        rowInSheet = 0;
+        sheetOpen = true;
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+        if (header != null) {
+            out.write("<sheetViews><sheetView workbookViewId=\"0\">"
+                + "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>"
+                + "</sheetView></sheetViews>");
+        }
+        out.write("<sheetData>");
+        if (header != null) {
+            writeCells(header, true);
+        }
+    }
+
+    private void writeCells(Object[] values, boolean isHeader) throws IOException {
+        rowInSheet++;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowInSheet));
+        out.write("\">");
+        for (int col = 0; col < values.length; col++) {
+            Object value = values[col];
+            if (value == null) {
+                continue;
+            }
+            String ref = columnName(col) + rowInSheet;
+            if (value instanceof Number) {
+                out.write("<c r=\"" + ref + "\"><v>" + CsvTableWriter.formatNumber((Number) value) + "</v></c>");
+            } else if (value instanceof LocalDateTime) {
+                out.write("<c r=\"" + ref + "\" s=\"" + STYLE_DATE_TIME + "\"><v>"
+                    + toSerial((LocalDateTime) value) + "</v></c>");
+            } else {
+                out.write("<c r=\"" + ref + "\" t=\"inlineStr\"");
+                if (isHeader) {
+                    out.write(" s=\"" + STYLE_HEADER + "\"");
+                }
+                out.write("><is><t xml:space=\"preserve\">");
+                writeEscaped(value.toString());
+                out.write("</t></is></c>");
+            }
+        }
+        out.write("</row>");
+    }
+
+    private void closeSheet() throws IOException {
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!sheetOpen && sheetCount == 0) {
+                ensureSheet(); // Workbook rỗng vẫn phải có một sheet
+            }
+            if (sheetOpen) {
+                closeSheet();
+            }
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels());
+            writeEntry("xl/styles.xml", styles());
+            out.flush();
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+            + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        for (int i = 1; i <= sheetCount; i++) {
+            String name = sheetCount == 1 ? sheetName : sheetName + " " + i;
+            xml.append("<sheet name=\"").append(escape(name)).append("\" sheetId=\"").append(i)
+                .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder xml = new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Relationship Id=\"rId").append(i)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                .append(i).append(".xml\"/>");
+        }
+        int stylesId = sheetCount + 1;
+        xml.append("<Relationship Id=\"rId").append(stylesId)
+            .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    private static String styles() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"dd/mm/yyyy hh:mm\"/></numFmts>"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"3\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "</cellXfs></styleSheet>";
+    }
+
+    // Số ngày (kèm phần lẻ) tính từ 30/12/1899
+    private static String toSerial(LocalDateTime value) {
+        long millis = Duration.between(EXCEL_EPOCH, value.truncatedTo(ChronoUnit.MILLIS)).toMillis();
+        return Double.toString(millis / MILLIS_PER_DAY);
+    }
+
+    // 0 → A, 25 → Z, 26 → AA
+    private static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            name.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '&' -> out.write("&amp;");
+                case '"' -> out.write("&quot;");
+                default -> {
+                    // Ký tự điều khiển không hợp lệ trong XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
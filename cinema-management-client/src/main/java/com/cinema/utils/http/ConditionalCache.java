@@ -0,0 +1,140 @@
+package com.cinema.utils.http;
+
+import com.cinema.utils.metrics.Counter;
+import com.cinema.utils.metrics.MetricsRegistry;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Conditional GET cho các API danh sách: nhớ validator (ETag / Last-Modified) của từng URL
+ * cùng với object đã decode từ response đó.
+ *
+ * Lần gọi sau gửi kèm If-None-Match / If-Modified-Since; server trả 304 → trả lại đúng object cũ,
+ * không đọc body, không chạy JSON parser. Response 200 không có validator thì không được nhớ.
+ * Express tự sinh ETag (yếu) cho res.json và tự trả 304 khi khớp, server không cần sửa gì.
+ *
+ * Mỗi instance ứng với một kiểu kết quả, giữ trong field static của API class.
+ * Object trả về dùng chung giữa các lần gọi → handler nên trả dữ liệu không sửa được.
+ *
+ * Metrics: http.client.conditional (counter, tag cache + result), http.conditional.hit.ratio (gauge)
+ */
+public final class ConditionalCache<T> {
+
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final int maxEntries;
+
+    // URL → validator + object (chỉ đọc/ghi khi giữ lock)
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry<T>> entries;
+
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ConditionalCache(String name) {
+        this(name, DEFAULT_MAX_ENTRIES);
+    }
+
+    /** @param name tag "cache" của metrics, ví dụ "cinemas.byMovie" */
+    public ConditionalCache(String name, int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > ConditionalCache.this.maxEntries;
+            }
+        };
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        notModified = metrics.counter("http.client.conditional", "cache", name, "result", "not_modified");
+        modified = metrics.counter("http.client.conditional", "cache", name, "result", "modified");
+        metrics.gauge("http.conditional.hit.ratio", () -> {
+            long hits = notModified.get();
+            long total = hits + modified.get();
+            return total == 0 ? 0 : (double) hits / total;
+        }, "cache", name);
+    }
+
+    /** Như HttpTransport.execute, kèm validator của lần trước (nếu có) */
+    public T execute(Request request, Duration timeout, ResponseHandler<T> handler) throws IOException {
+        Entry<T> entry = lookup(request);
+        return HttpTransport.execute(withValidators(request, entry), timeout,
+                response -> decode(request, entry, response, handler));
+    }
+
+    /** Như HttpTransport.sendAsync, kèm validator của lần trước (nếu có) */
+    public CompletableFuture<T> sendAsync(Request request, ResponseHandler<T> handler,
+            Function<IOException, ? extends RuntimeException> errorMapper) {
+        Entry<T> entry = lookup(request);
+        return HttpTransport.sendAsync(withValidators(request, entry),
+                response -> decode(request, entry, response, handler), errorMapper);
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+        }
+    }
+
+    private Entry<T> lookup(Request request) {
+        synchronized (lock) {
+            return entries.get(request.url().toString());
+        }
+    }
+
+    private static Request withValidators(Request request, Entry<?> entry) {
+        if (entry == null) {
+            return request;
+        }
+        Request.Builder builder = request.newBuilder();
+        if (entry.etag != null) {
+            builder.header("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            builder.header("If-Modified-Since", entry.lastModified);
+        }
+        return builder.build();
+    }
+
+    private T decode(Request request, Entry<T> entry, Response response, ResponseHandler<T> handler) throws IOException {
+        // entry là bản đã gửi validator đi, kể cả khi nó bị đẩy khỏi LRU trong lúc chờ
+        if (response.code() == 304 && entry != null) {
+            notModified.increment();
+            return entry.value;
+        }
+
+        modified.increment();
+        T value = handler.handle(response);
+
+        String key = request.url().toString();
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        synchronized (lock) {
+            if (response.code() == 200 && value != null && (etag != null || lastModified != null)) {
+                entries.put(key, new Entry<>(etag, lastModified, value));
+            } else {
+                entries.remove(key);
+            }
+        }
+        return value;
+    }
+
+    private static final class Entry<T> {
+        final String etag;
+        final String lastModified;
+        final T value;
+
+        Entry(String etag, String lastModified, T value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinema.utils.http;
+
+/**
+ * Địa chỉ server dùng chung cho mọi API client (REST) và Socket.IO namespace.
+ *
+ * Mặc định http://localhost:3000 (server Node), đổi bằng -Dcinema.server.url=http://host:port
+ * hoặc setBaseUrl (benchmark / stand-in server chạy trong cùng JVM ở cổng tùy ý).
+ * URL được ghép lại ở mỗi lần gọi nên đổi giữa chừng có hiệu lực từ request / kết nối kế tiếp.
+ */
+public final class Endpoints {
+
+    public static final String DEFAULT_BASE_URL = "http://localhost:3000";
+
+    private static volatile String baseUrl =
+            normalize(System.getProperty("cinema.server.url", DEFAULT_BASE_URL));
+
+    private Endpoints() {}
+
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @param url dạng http://host:port, không kèm /api; null → mặc định
+     */
+    public static void setBaseUrl(String url) {
+        baseUrl = normalize(url != null ? url : DEFAULT_BASE_URL);
+    }
+
+    /** api("/cinemas") → http://localhost:3000/api/cinemas */
+    public static String api(String path) {
+        return baseUrl + "/api" + path;
+    }
+
+    /** socket("/seats") → http://localhost:3000/seats (HTTP, socket.io-client tự nâng cấp) */
+    public static String socket(String namespace) {
+        return baseUrl + namespace;
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (!trimmed.startsWith("http://") && !trimmed.startsWith("https://")) {
+            throw new IllegalArgumentException("cinema.server.url phải bắt đầu bằng http:// hoặc https://: " + url);
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cinema.utils.http;
+
+import com.cinema.utils.metrics.MetricsRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Đo mọi request đi qua HttpTransport.
+ *
+ * - http.client.requests (counter) và http.client.latency (histogram),
+ *   tag: method, endpoint, status (mã HTTP, hoặc TIMEOUT / IO_ERROR)
+ * - http.client.inflight (gauge): số request đang chạy
+ *
+ * endpoint là path đã thay các đoạn giống id bằng {id}, ví dụ /api/cinemas/movie/{id},
+ * để mỗi endpoint là một histogram chứ không phải mỗi id một histogram.
+ * Thời gian đo từ lúc gửi tới khi có header response (body do handler đọc sau đó).
+ */
+final class HttpMetricsInterceptor implements Interceptor {
+
+    // Đoạn path có chữ số, dạng UUID hoặc quá dài → coi là id
+    private static final Pattern ID_SEGMENT = Pattern.compile(".*\\d.*|[0-9a-fA-F-]{32,36}|.{24,}");
+
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    HttpMetricsInterceptor() {
+        registry.gauge("http.client.inflight", inFlight::get);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = request.method();
+        String endpoint = endpointOf(request);
+
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            Response response = chain.proceed(request);
+            status = Integer.toString(response.code());
+            return response;
+        } catch (InterruptedIOException e) {
+            status = "TIMEOUT";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+            registry.counter("http.client.requests", "method", method, "endpoint", endpoint, "status", status)
+                .increment();
+            registry.histogram("http.client.latency", "method", method, "endpoint", endpoint, "status", status)
+                .recordNanos(elapsed);
+        }
+    }
+
+    static String endpointOf(Request request) {
+        List<String> segments = request.url().pathSegments();
+        StringBuilder path = new StringBuilder();
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            path.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return path.length() == 0 ? "/" : path.toString();
+    }
+}
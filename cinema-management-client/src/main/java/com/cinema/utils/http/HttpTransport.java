@@ -0,0 +1,152 @@
+package com.cinema.utils.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.brotli.BrotliInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Tầng HTTP dùng chung cho toàn bộ client (com.cinema.utils và com.cinema.utils.admin).
+ *
+ * Chỉ có MỘT OkHttpClient: một connection pool (keep-alive tới Node/Express)
+ * và một dispatcher với thread pool daemon, thay vì mỗi API class tự tạo client riêng.
+ */
+public final class HttpTransport {
+
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    // Số kết nối idle giữ lại và thời gian keep-alive (server Node mặc định keepAliveTimeout 5s,
+    // OkHttp sẽ tự bỏ kết nối đã bị server đóng)
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static final int MAX_REQUESTS = 64;
+    private static final int MAX_REQUESTS_PER_HOST = 16;
+
+    private static final ConnectionPool CONNECTION_POOL =
+            new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+
+    private static final Dispatcher DISPATCHER = createDispatcher();
+
+    private static final OkHttpClient CLIENT = new OkHttpClient.Builder()
+            .connectionPool(CONNECTION_POOL)
+            .dispatcher(DISPATCHER)
+            .addInterceptor(new HttpMetricsInterceptor()) // Độ trễ theo endpoint / status
+            .addInterceptor(BrotliInterceptor.INSTANCE) // Accept-Encoding: br,gzip và tự giải nén
+            .protocols(List.of(Protocol.HTTP_1_1)) // Node / Express chỉ nói HTTP/1.1
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
+            .build();
+
+    private HttpTransport() {} // ❌ không cho new
+
+    private static Dispatcher createDispatcher() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "cinema-http-" + counter.incrementAndGet());
+                    t.setDaemon(true); // không giữ JVM sống khi đóng app
+                    return t;
+                });
+
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+        return dispatcher;
+    }
+
+    /** Client dùng chung (cùng pool + dispatcher) */
+    public static OkHttpClient client() {
+        return CLIENT;
+    }
+
+    /** Gửi request đồng bộ - chỉ gọi từ background thread */
+    public static <T> T execute(Request request, ResponseHandler<T> handler) throws IOException {
+        return execute(request, null, handler);
+    }
+
+    /** Gửi request đồng bộ với timeout cho toàn bộ call */
+    public static <T> T execute(Request request, Duration timeout, ResponseHandler<T> handler) throws IOException {
+        Call call = newCall(request, timeout);
+        try (Response response = call.execute()) {
+            return handler.handle(response);
+        }
+    }
+
+    /**
+     * Gửi request bất đồng bộ qua dispatcher dùng chung.
+     * Lỗi mạng (IOException) được đổi sang exception của API gọi thông qua errorMapper.
+     * Hủy future (cancel) sẽ hủy luôn call đang chạy.
+     */
+    public static <T> CompletableFuture<T> sendAsync(Request request, ResponseHandler<T> handler,
+            Function<IOException, ? extends RuntimeException> errorMapper) {
+        return sendAsync(request, null, handler, errorMapper);
+    }
+
+    public static <T> CompletableFuture<T> sendAsync(Request request, Duration timeout, ResponseHandler<T> handler,
+            Function<IOException, ? extends RuntimeException> errorMapper) {
+        Call call = newCall(request, timeout);
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                future.completeExceptionally(new CompletionException(errorMapper.apply(e)));
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (response) {
+                    future.complete(handler.handle(response));
+                } catch (IOException e) {
+                    future.completeExceptionally(new CompletionException(errorMapper.apply(e)));
+                } catch (Throwable t) {
+                    // Giữ nguyên hành vi như supplyAsync: exception được bọc trong CompletionException
+                    future.completeExceptionally(new CompletionException(t));
+                }
+            }
+        });
+
+        future.whenComplete((result, ex) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /** Đọc body dạng String, trả về "" nếu không có body */
+    public static String bodyString(Response response) throws IOException {
+        ResponseBody body = response.body();
+        return body != null ? body.string() : "";
+    }
+
+    private static Call newCall(Request request, Duration timeout) {
+        Call call = CLIENT.newCall(request);
+        if (timeout != null) {
+            call.timeout().timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+}
@@ -0,0 +1,15 @@
+package com.cinema.utils.http;
+
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Chuyển một Response thành đối tượng kết quả (đọc status, parse body...).
+ * Response được HttpTransport tự đóng sau khi handler chạy xong.
+ */
+@FunctionalInterface
+public interface ResponseHandler<T> {
+
+    T handle(Response response) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.cinema.utils.metrics;
+
+/**
+ * Metrics của client qua JMX (jconsole / VisualVM → MBeans → com.cinema:type=ClientMetrics)
+ */
+public interface ClientMetricsMXBean {
+
+    /** Toàn bộ snapshot dạng JSON */
+    String getSnapshotJson();
+
+    /** Mỗi dòng một histogram: tên{tag} count p50 p99 max (ms) */
+    String[] getLatencySummary();
+
+    long getHttpRequestCount();
+
+    double getHttpInFlight();
+
+    void reset();
+}
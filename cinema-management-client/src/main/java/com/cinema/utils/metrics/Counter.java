@@ -0,0 +1,28 @@
+package com.cinema.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Bộ đếm tăng dần, không khóa */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,134 @@
+package com.cinema.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram độ trễ kiểu HDR: bucket log-tuyến tính theo micro giây, bộ nhớ cố định.
+ *
+ * - Dưới 2^SUB_BUCKET_BITS µs: mỗi µs một bucket
+ * - Từ đó trở lên: mỗi lũy thừa 2 chia thành 2^SUB_BUCKET_BITS bucket đều nhau
+ *   → sai số tương đối của percentile tối đa ~3%
+ * - Giá trị lớn hơn MAX_MICROS được tính vào bucket cuối
+ *
+ * record() không khóa (AtomicLongArray + LongAdder), gọi được từ mọi thread.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 35;                       // 2^36 µs ≈ 19 giờ
+    private static final long MAX_MICROS = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        recordMicros(unit.toMicros(duration));
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_MICROS));
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    // Giá trị lớn nhất thuộc bucket index
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + sub) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /** Ảnh chụp tại thời điểm gọi (không nguyên tử với các record() đang chạy song song) */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long observedMax = max.get();
+        long observedMin = total == 0 ? 0 : min.get();
+        double mean = total == 0 ? 0 : (double) sum.sum() / count.sum();
+        return new Snapshot(total, observedMin, observedMax, mean, counts);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /** Số liệu đã tính của histogram, đơn vị micro giây */
+    public static final class Snapshot {
+        private final long count;
+        private final long min;
+        private final long max;
+        private final double mean;
+        private final long[] counts;
+
+        private Snapshot(long count, long min, long max, double mean, long[] counts) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.counts = counts;
+        }
+
+        public long getCount() { return count; }
+        public long getMin() { return min; }
+        public long getMax() { return max; }
+        public double getMean() { return mean; }
+
+        /** @param percentile 0..100, ví dụ 99.9 */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
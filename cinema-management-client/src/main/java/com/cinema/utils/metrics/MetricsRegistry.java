@@ -0,0 +1,111 @@
+package com.cinema.utils.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Sổ đăng ký metrics dùng chung của client: counter, gauge và histogram độ trễ,
+ * mỗi metric định danh bằng tên + các tag (ví dụ endpoint, status).
+ *
+ * Metric được tạo lần đầu khi gọi và dùng lại ở các lần sau; giữ tham chiếu trả về
+ * thay vì tra lại trên đường nóng nếu có thể.
+ *
+ * Tag truyền theo cặp: counter("http.client.errors", "endpoint", "/api/cinemas", "kind", "timeout")
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<MetricId, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<MetricId, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<MetricId, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Counter counter(String name, String... tags) {
+        return counters.computeIfAbsent(new MetricId(name, tags), id -> new Counter());
+    }
+
+    /** Gauge đọc giá trị lúc chụp snapshot; đăng ký lại cùng tên + tag sẽ thay supplier cũ */
+    public void gauge(String name, DoubleSupplier value, String... tags) {
+        gauges.put(new MetricId(name, tags), value);
+    }
+
+    public LatencyHistogram histogram(String name, String... tags) {
+        return histograms.computeIfAbsent(new MetricId(name, tags), id -> new LatencyHistogram());
+    }
+
+    /** Đưa counter / histogram về 0 (gauge giữ nguyên) */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    public MetricsSnapshot snapshot() {
+        List<MetricsSnapshot.CounterValue> counterValues = new ArrayList<>(counters.size());
+        counters.forEach((id, counter) ->
+            counterValues.add(new MetricsSnapshot.CounterValue(id.name, id.tags, counter.get())));
+
+        List<MetricsSnapshot.GaugeValue> gaugeValues = new ArrayList<>(gauges.size());
+        gauges.forEach((id, supplier) -> {
+            double value;
+            try {
+                value = supplier.getAsDouble();
+            } catch (RuntimeException e) {
+                value = Double.NaN; // Gauge lỗi không làm hỏng cả snapshot
+            }
+            gaugeValues.add(new MetricsSnapshot.GaugeValue(id.name, id.tags, value));
+        });
+
+        List<MetricsSnapshot.HistogramValue> histogramValues = new ArrayList<>(histograms.size());
+        histograms.forEach((id, histogram) ->
+            histogramValues.add(new MetricsSnapshot.HistogramValue(id.name, id.tags, histogram.snapshot())));
+
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+
+    // Tên + tag đã sắp theo khóa, dùng làm khóa map
+    private static final class MetricId {
+        private final String name;
+        private final Map<String, String> tags;
+
+        MetricId(String name, String[] tags) {
+            if (tags.length % 2 != 0) {
+                throw new IllegalArgumentException("Tag phải theo cặp key, value: " + name);
+            }
+            Map<String, String> sorted = new TreeMap<>();
+            for (int i = 0; i < tags.length; i += 2) {
+                sorted.put(tags[i], tags[i + 1] != null ? tags[i + 1] : "");
+            }
+            this.name = name;
+            this.tags = Collections.unmodifiableMap(sorted);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MetricId)) {
+                return false;
+            }
+            MetricId other = (MetricId) o;
+            return name.equals(other.name) && tags.equals(other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + tags.hashCode();
+        }
+    }
+}
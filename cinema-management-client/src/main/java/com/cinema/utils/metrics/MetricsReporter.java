@@ -0,0 +1,157 @@
+package com.cinema.utils.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Xuất metrics ra ngoài:
+ * - Ghi snapshot định kỳ, mỗi lần một dòng JSON, vào file (mặc định ~/.cinema-client/metrics.jsonl).
+ *   File quá MAX_FILE_BYTES thì đổi tên thành .1 và ghi file mới
+ * - Đăng ký MXBean com.cinema:type=ClientMetrics
+ *
+ * Cấu hình bằng system property:
+ *   cinema.metrics.file             đường dẫn file, "off" để tắt ghi file
+ *   cinema.metrics.intervalSeconds  chu kỳ ghi (mặc định 60)
+ *   cinema.metrics.jmx              false để không đăng ký MXBean
+ */
+public final class MetricsReporter implements ClientMetricsMXBean {
+
+    private static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final String OBJECT_NAME = "com.cinema:type=ClientMetrics";
+
+    private static MetricsReporter started;
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final Gson gson = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    private ScheduledExecutorService scheduler;
+
+    MetricsReporter(MetricsRegistry registry, Path file) {
+        this.registry = registry;
+        this.file = file;
+    }
+
+    /** Khởi động theo system property, gọi một lần lúc mở ứng dụng; gọi lại không có tác dụng */
+    public static synchronized void startDefault() {
+        if (started != null) {
+            return;
+        }
+        String configured = System.getProperty("cinema.metrics.file",
+            Paths.get(System.getProperty("user.home"), ".cinema-client", "metrics.jsonl").toString());
+        Path file = "off".equalsIgnoreCase(configured) ? null : Paths.get(configured);
+
+        started = new MetricsReporter(MetricsRegistry.getInstance(), file);
+        if (file != null) {
+            started.startDumping(Math.max(1, Long.getLong("cinema.metrics.intervalSeconds", 60)));
+        }
+        if (!"false".equalsIgnoreCase(System.getProperty("cinema.metrics.jmx"))) {
+            started.registerMBean();
+        }
+    }
+
+    /** Ghi snapshot cuối cùng trước khi thoát */
+    public static synchronized void flushDefault() {
+        if (started != null && started.file != null) {
+            started.dump();
+        }
+    }
+
+    private void startDumping(long intervalSeconds) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cinema-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("⚠️ Không đăng ký được MXBean metrics: " + e.getMessage());
+        }
+    }
+
+    synchronized void dump() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (Files.exists(file) && Files.size(file) > MAX_FILE_BYTES) {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".1"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(gson.toJson(registry.snapshot()));
+                writer.write('\n');
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Không ghi được metrics: " + e.getMessage());
+        }
+    }
+
+    // ==================== MXBean ====================
+
+    @Override
+    public String getSnapshotJson() {
+        return gson.toJson(registry.snapshot());
+    }
+
+    @Override
+    public String[] getLatencySummary() {
+        List<String> lines = new ArrayList<>();
+        for (MetricsSnapshot.HistogramValue h : registry.snapshot().getHistograms()) {
+            lines.add(String.format("%s%s count=%d p50=%.1f p99=%.1f max=%.1f",
+                h.getName(), formatTags(h.getTags()), h.getCount(), h.getP50Ms(), h.getP99Ms(), h.getMaxMs()));
+        }
+        lines.sort(null);
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public long getHttpRequestCount() {
+        return registry.snapshot().sumCounters("http.client.requests");
+    }
+
+    @Override
+    public double getHttpInFlight() {
+        return registry.snapshot().gauge("http.client.inflight");
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+
+    private static String formatTags(Map<String, String> tags) {
+        if (tags.isEmpty()) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder("{");
+        tags.forEach((key, value) -> {
+            if (text.length() > 1) {
+                text.append(',');
+            }
+            text.append(key).append('=').append(value);
+        });
+        return text.append('}').toString();
+    }
+}
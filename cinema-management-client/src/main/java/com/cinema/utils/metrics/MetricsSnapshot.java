@@ -0,0 +1,124 @@
+package com.cinema.utils.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ảnh chụp toàn bộ metrics tại một thời điểm. Độ trễ của histogram tính bằng mili giây.
+ * Các trường được Gson ghi thẳng ra JSON (MetricsReporter).
+ */
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+    private final List<CounterValue> counters;
+    private final List<GaugeValue> gauges;
+    private final List<HistogramValue> histograms;
+
+    MetricsSnapshot(long timestamp, List<CounterValue> counters, List<GaugeValue> gauges,
+                    List<HistogramValue> histograms) {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableList(counters);
+        this.gauges = Collections.unmodifiableList(gauges);
+        this.histograms = Collections.unmodifiableList(histograms);
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public List<CounterValue> getCounters() { return counters; }
+    public List<GaugeValue> getGauges() { return gauges; }
+    public List<HistogramValue> getHistograms() { return histograms; }
+
+    /** Tổng các counter cùng tên, mọi tag */
+    public long sumCounters(String name) {
+        long total = 0;
+        for (CounterValue counter : counters) {
+            if (counter.name.equals(name)) {
+                total += counter.value;
+            }
+        }
+        return total;
+    }
+
+    /** Giá trị gauge không có tag, NaN nếu chưa đăng ký */
+    public double gauge(String name) {
+        for (GaugeValue gauge : gauges) {
+            if (gauge.name.equals(name) && gauge.tags.isEmpty()) {
+                return gauge.value;
+            }
+        }
+        return Double.NaN;
+    }
+
+    public static final class CounterValue {
+        private final String name;
+        private final Map<String, String> tags;
+        private final long value;
+
+        CounterValue(String name, Map<String, String> tags, long value) {
+            this.name = name;
+            this.tags = tags;
+            this.value = value;
+        }
+
+        public String getName() { return name; }
+        public Map<String, String> getTags() { return tags; }
+        public long getValue() { return value; }
+    }
+
+    public static final class GaugeValue {
+        private final String name;
+        private final Map<String, String> tags;
+        private final double value;
+
+        GaugeValue(String name, Map<String, String> tags, double value) {
+            this.name = name;
+            this.tags = tags;
+            this.value = value;
+        }
+
+        public String getName() { return name; }
+        public Map<String, String> getTags() { return tags; }
+        public double getValue() { return value; }
+    }
+
+    public static final class HistogramValue {
+        private final String name;
+        private final Map<String, String> tags;
+        private final long count;
+        private final double minMs;
+        private final double meanMs;
+        private final double p50Ms;
+        private final double p90Ms;
+        private final double p99Ms;
+        private final double p999Ms;
+        private final double maxMs;
+
+        HistogramValue(String name, Map<String, String> tags, LatencyHistogram.Snapshot snapshot) {
+            this.name = name;
+            this.tags = tags;
+            this.count = snapshot.getCount();
+            this.minMs = toMillis(snapshot.getMin());
+            this.meanMs = snapshot.getMean() / 1000.0;
+            this.p50Ms = toMillis(snapshot.getPercentile(50));
+            this.p90Ms = toMillis(snapshot.getPercentile(90));
+            this.p99Ms = toMillis(snapshot.getPercentile(99));
+            this.p999Ms = toMillis(snapshot.getPercentile(99.9));
+            this.maxMs = toMillis(snapshot.getMax());
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+
+        public String getName() { return name; }
+        public Map<String, String> getTags() { return tags; }
+        public long getCount() { return count; }
+        public double getMinMs() { return minMs; }
+        public double getMeanMs() { return meanMs; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP90Ms() { return p90Ms; }
+        public double getP99Ms() { return p99Ms; }
+        public double getP999Ms() { return p999Ms; }
+        public double getMaxMs() { return maxMs; }
+    }
+}
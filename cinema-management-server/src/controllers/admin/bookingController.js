@@ -0,0 +1,87 @@
+const bookingService = require('../../services/admin/bookingService');
+const { InvalidCursorError } = require('../../services/admin/bookingService');
+
+class BookingController {
+    /**
+     * GET /api/admin/bookings
+     * Query: status, cinemaId, movieId, from, to, q (lọc; cinemaId / movieId lặp lại được)
+     *        sort (bookingTime|totalPrice|showtime), order (asc|desc),
+     *        limit, cursor, direction (next|prev), withTotal (phân trang)
+     */
+    async queryBookings(req, res) {
+        try {
+            const page = {
+                sort: req.query.sort,
+                order: req.query.order,
+                limit: req.query.limit,
+                cursor: req.query.cursor,
+                direction: req.query.direction,
+                withTotal: req.query.withTotal === 'true'
+            };
+
+            const result = await bookingService.queryBookings(this.readFilters(req), page);
+
+            res.json({
+                success: true,
+                data: result
+            });
+
+        } catch (error) {
+            if (error instanceof InvalidCursorError) {
+                return res.status(400).json({
+                    success: false,
+                    error: {
+                        code: 'INVALID_CURSOR',
+                        message: error.message
+                    }
+                });
+            }
+
+            console.error('Error in queryBookings:', error);
+            res.status(500).json({
+                success: false,
+                error: {
+                    code: 'DATABASE_ERROR',
+                    message: 'Không thể tải danh sách đặt vé'
+                }
+            });
+        }
+    }
+
+    /**
+     * GET /api/admin/bookings/stats
+     */
+    async getBookingStats(req, res) {
+        try {
+            const stats = await bookingService.getBookingStats(this.readFilters(req));
+
+            res.json({
+                success: true,
+                data: stats
+            });
+
+        } catch (error) {
+            console.error('Error in getBookingStats:', error);
+            res.status(500).json({
+                success: false,
+                error: {
+                    code: 'DATABASE_ERROR',
+                    message: 'Không thể tải thống kê đặt vé'
+                }
+            });
+        }
+    }
+
+    readFilters(req) {
+        return {
+            status: req.query.status,
+            cinemaId: req.query.cinemaId,
+            movieId: req.query.movieId,
+            from: req.query.from,
+            to: req.query.to,
+            q: req.query.q
+        };
+    }
+}
+
+module.exports = new BookingController();
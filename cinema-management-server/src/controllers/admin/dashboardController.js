@@ -0,0 +1,47 @@
+const dashboardService = require('../../services/admin/dashboardService');
+
+const DATE_PATTERN = /^\d{4}-\d{2}-\d{2}$/;
+
+class DashboardController {
+    /**
+     * GET /api/admin/dashboard/facts?from=YYYY-MM-DD
+     * Mặc định: 31 ngày gần nhất
+     */
+    async getFacts(req, res) {
+        try {
+            let from = req.query.from;
+            if (!from) {
+                const date = new Date();
+                date.setDate(date.getDate() - 30);
+                from = date.toISOString().slice(0, 10);
+            } else if (!DATE_PATTERN.test(from)) {
+                return res.status(400).json({
+                    success: false,
+                    error: {
+                        code: 'VALIDATION_ERROR',
+                        message: 'Ngày bắt đầu không hợp lệ (YYYY-MM-DD)'
+                    }
+                });
+            }
+
+            const facts = await dashboardService.getFacts(from);
+
+            res.json({
+                success: true,
+                data: facts
+            });
+
+        } catch (error) {
+            console.error('Error in getFacts:', error);
+            res.status(500).json({
+                success: false,
+                error: {
+                    code: 'DATABASE_ERROR',
+                    message: 'Không thể tải dữ liệu tổng quan'
+                }
+            });
+        }
+    }
+}
+
+module.exports = new DashboardController();
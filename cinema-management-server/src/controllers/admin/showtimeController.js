@@ -1,5 +1,8 @@
 const showtimeService = require('../../services/admin/showtimeService');
 
+// Giới hạn số suất trong một request tạo hàng loạt - client chia lô lớn thành nhiều phần
+const MAX_BULK_SHOWTIMES = 500;
+
 class ShowtimeController {
     /**
      * GET /api/showtimes
@@ -8,8 +11,11 @@ class ShowtimeController {
         try {
             const filters = {
                 date: req.query.date,
+                from: req.query.from,
+                to: req.query.to,
                 cinemaId: req.query.cinemaId,
                 screenId: req.query.screenId,
+                screenIds: req.query.screenIds ? req.query.screenIds.split(',').filter(Boolean) : undefined,
                 movieId: req.query.movieId
             };
             
@@ -135,12 +141,33 @@ class ShowtimeController {
                 });
             }
             
-            const createdIds = await showtimeService.createBulkShowtimes(showtimes);
+            if (showtimes.length > MAX_BULK_SHOWTIMES) {
+                return res.status(413).json({
+                    success: false,
+                    error: {
+                        code: 'BATCH_TOO_LARGE',
+                        message: `Mỗi lần gửi tối đa ${MAX_BULK_SHOWTIMES} lịch chiếu`
+                    }
+                });
+            }
+            
+            // id do client sinh (UUID) để gửi lại an toàn
+            if (showtimes.some(st => st.id !== undefined && (typeof st.id !== 'string' || st.id.length > 36))) {
+                return res.status(400).json({
+                    success: false,
+                    error: {
+                        code: 'VALIDATION_ERROR',
+                        message: 'Mã lịch chiếu không hợp lệ'
+                    }
+                });
+            }
+            
+            const { ids, created } = await showtimeService.createBulkShowtimes(showtimes);
             
             res.status(201).json({
                 success: true,
-                data: { ids: createdIds, count: createdIds.length },
-                message: `Đã tạo ${createdIds.length} lịch chiếu thành công`
+                data: { ids, count: ids.length, created },
+                message: `Đã tạo ${created} lịch chiếu thành công`
             });
             
         } catch (error) {
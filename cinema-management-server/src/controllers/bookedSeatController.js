@@ -2,6 +2,8 @@
 
 const BookedSeatService = require('../services/bookedSeatService');
 
+const MAX_COUNT_IDS = 200; // Giới hạn độ dài URL và kích thước mệnh đề IN
+
 class BookedSeatController {
   static async getBookedSeats(req, res) {
     const { showtimeId } = req.params;
@@ -36,6 +38,43 @@ class BookedSeatController {
       });
     }
   }
+
+  // GET /api/showtimes/booked-counts?ids=st_001,st_002
+  // Màn hình suất chiếu lấy số ghế đã bán của mọi nút trong một lần gọi
+  static async getBookedCounts(req, res) {
+    const showtimeIds = [...new Set(String(req.query.ids || '')
+      .split(',')
+      .map(id => id.trim())
+      .filter(id => id.length > 0))];
+
+    if (showtimeIds.length === 0) {
+      return res.status(400).json({
+        success: false,
+        message: 'Thiếu danh sách ids'
+      });
+    }
+    if (showtimeIds.length > MAX_COUNT_IDS) {
+      return res.status(400).json({
+        success: false,
+        message: `Tối đa ${MAX_COUNT_IDS} suất chiếu mỗi lần`
+      });
+    }
+
+    try {
+      const counts = await BookedSeatService.countBookedSeatsByShowtimes(showtimeIds);
+
+      res.json({
+        success: true,
+        data: counts
+      });
+    } catch (error) {
+      console.error('Error in BookedSeatController.getBookedCounts:', error);
+      res.status(500).json({
+        success: false,
+        message: 'Lỗi server khi đếm ghế đã đặt'
+      });
+    }
+  }
 }
 
 module.exports = BookedSeatController;
\ No newline at end of file
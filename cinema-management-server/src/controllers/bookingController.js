@@ -1,9 +1,13 @@
 const BookingService = require('../services/bookingService');
+const { publishBookingCreated } = require('../socket/adminSocket');
 
 exports.createBooking = async (req, res) => {
   try {
     await BookingService.createBooking(req.body);
     res.status(201).json({ message: 'Booking created successfully' });
+
+    // Đẩy lên trang tổng quan admin (không chờ, không ảnh hưởng response)
+    publishBookingCreated(req.body.id);
   } catch (err) {
     console.error(err);
     res.status(500).json({ message: 'Create booking failed' });
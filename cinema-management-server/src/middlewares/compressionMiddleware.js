@@ -0,0 +1,60 @@
+const zlib = require("zlib");
+
+// Body nhỏ hơn ngưỡng này nén không đáng (header + CPU), gửi nguyên
+const THRESHOLD_BYTES = 1024;
+
+// Brotli mức 4: nhanh gần bằng gzip mà nhỏ hơn, hợp cho response sinh động
+const BROTLI_OPTIONS = {
+  params: { [zlib.constants.BROTLI_PARAM_QUALITY]: 4 }
+};
+
+const pickEncoding = (acceptEncoding) => {
+  const accepted = (acceptEncoding || "").toLowerCase();
+  if (/\bbr\b/.test(accepted)) return "br";
+  if (/\bgzip\b/.test(accepted)) return "gzip";
+  return null;
+};
+
+/**
+ * Nén response JSON (res.json / res.send chuỗi) bằng Brotli hoặc gzip theo Accept-Encoding.
+ * Payload lớn nhất là /api/cinemas/movie/:id (sơ đồ ghế của mọi phòng).
+ *
+ * ETag được tính trên body chưa nén trước khi nén, nên:
+ * - ETag không đổi theo cách nén, client gửi If-None-Match vẫn khớp
+ * - Request còn "fresh" thì Express trả 304 luôn, không tốn công nén
+ */
+const compressionMiddleware = (req, res, next) => {
+  const send = res.send;
+
+  res.send = function (body) {
+    const encoding = pickEncoding(req.headers["accept-encoding"]);
+    if (typeof body !== "string" || !encoding || res.get("Content-Encoding")
+        || Buffer.byteLength(body) < THRESHOLD_BYTES) {
+      return send.call(this, body);
+    }
+
+    res.vary("Accept-Encoding");
+
+    const etagFn = req.app.get("etag fn");
+    if (etagFn && !res.get("ETag")) {
+      res.set("ETag", etagFn(body, "utf8"));
+    }
+    if (req.fresh) {
+      return send.call(this, body); // Express trả 304, không gửi body
+    }
+
+    const buffer = Buffer.from(body, "utf8");
+    const compressed = encoding === "br"
+      ? zlib.brotliCompressSync(buffer, BROTLI_OPTIONS)
+      : zlib.gzipSync(buffer);
+
+    // Như send(string) của Express: mặc định html, luôn kèm charset utf-8
+    res.set("Content-Type", res.get("Content-Type") || "html");
+    res.set("Content-Encoding", encoding);
+    return send.call(this, compressed);
+  };
+
+  next();
+};
+
+module.exports = compressionMiddleware;
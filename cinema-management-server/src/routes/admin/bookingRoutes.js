@@ -0,0 +1,11 @@
+const express = require('express');
+const router = express.Router();
+const bookingController = require('../../controllers/admin/bookingController');
+
+// GET /api/admin/bookings/stats - Must be before /
+router.get('/stats', bookingController.getBookingStats.bind(bookingController));
+
+// GET /api/admin/bookings - Paged, filtered, sorted
+router.get('/', bookingController.queryBookings.bind(bookingController));
+
+module.exports = router;
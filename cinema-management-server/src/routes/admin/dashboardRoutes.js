@@ -0,0 +1,8 @@
+const express = require('express');
+const router = express.Router();
+const dashboardController = require('../../controllers/admin/dashboardController');
+
+// GET /api/admin/dashboard/facts - Raw facts for all dashboard widgets
+router.get('/facts', dashboardController.getFacts.bind(dashboardController));
+
+module.exports = router;
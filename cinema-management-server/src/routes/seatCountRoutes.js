@@ -0,0 +1,10 @@
+// src/routes/seatCountRoutes.js
+
+const express = require('express');
+const router = express.Router();
+const BookedSeatController = require('../controllers/bookedSeatController');
+
+// GET /booked-counts?ids=...  → sẽ được mount dưới /api/showtimes
+router.get('/booked-counts', BookedSeatController.getBookedCounts);
+
+module.exports = router;
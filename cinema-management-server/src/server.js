@@ -2,6 +2,7 @@ const express = require('express');
 const http = require('http');
 const { Server } = require('socket.io');
 const cors = require('cors');
+const compressionMiddleware = require('./middlewares/compressionMiddleware');
 require('dotenv').config();
 
 require('./config/database');
@@ -19,6 +20,7 @@ const io = new Server(server, {
 
 app.use(cors());
 app.use(express.json());
+app.use(compressionMiddleware); // Brotli / gzip cho response JSON lớn
 
 app.get('/api/test', (req, res) => {
     res.json({ message: 'Server running' });
@@ -49,6 +51,16 @@ app.use('/api/admin/showtimes', adminShowtimeRoutes);
 const adminCinemaRoutes = require('./routes/admin/cinemaRoutes');
 app.use('/api/admin/cinemas', adminCinemaRoutes);
 
+const adminBookingRoutes = require('./routes/admin/bookingRoutes');
+app.use('/api/admin/bookings', adminBookingRoutes);
+
+const adminDashboardRoutes = require('./routes/admin/dashboardRoutes');
+app.use('/api/admin/dashboard', adminDashboardRoutes);
+
+// Đăng ký trước route có :showtimeId để "booked-counts" không bị hiểu là một showtimeId
+const seatCountRoutes = require('./routes/seatCountRoutes');
+app.use('/api/showtimes', seatCountRoutes);
+
 const bookedSeatRoutes = require('./routes/bookedSeatRoutes');
 app.use('/api/showtimes/:showtimeId', bookedSeatRoutes);
 
@@ -74,8 +86,9 @@ const { router: paymentRouter, setPaymentNamespace } = require('./routes/payment
 app.use('/api/payment', paymentRouter);
 
 // === SOCKET.IO SETUP ===
-const setupSeatSocket = require('./socket/seatSocket');
+const { setupSeatSocket } = require('./socket/seatSocket');
 const setupPaymentSocket = require('./socket/paymentSocket'); // ✅ THÊM
+const { setupAdminSocket } = require('./socket/adminSocket');
 
 
 
@@ -86,6 +99,9 @@ const setupPaymentSocket = require('./socket/paymentSocket'); // ✅ THÊM
     // ✅ THÊM: Setup payment socket
     const paymentNamespace = setupPaymentSocket(io);
     setPaymentNamespace(paymentNamespace); // Inject vào payment routes
+
+    // Sự kiện đặt vé / thanh toán cho trang tổng quan admin
+    setupAdminSocket(io);
     
     const PORT = process.env.PORT || 3000;
     server.listen(PORT, () => {
@@ -93,5 +109,6 @@ const setupPaymentSocket = require('./socket/paymentSocket'); // ✅ THÊM
         console.log(`WebSocket available at ws://localhost:${PORT}`);
         console.log(`  - Seats: ws://localhost:${PORT}/seats`);
         console.log(`  - Payment: ws://localhost:${PORT}/payment`); // ✅ THÊM
+        console.log(`  - Admin: ws://localhost:${PORT}/admin`);
     });
 })();
\ No newline at end of file
@@ -0,0 +1,256 @@
+const db = require('../../config/database');
+
+// Khóa sort client được gửi → cột SQL (whitelist, không nối chuỗi từ request)
+const SORT_COLUMNS = {
+    bookingTime: 'b.booking_time',
+    totalPrice: 'b.total_price',
+    showtime: 'st.start_time'
+};
+
+const STATUSES = ['PENDING', 'PAID', 'EXPIRED', 'CANCELLED'];
+
+// Trang lớn nhất; màn hình danh sách dùng 20, xuất file dùng trang lớn để giảm số request
+const MAX_LIMIT = 500;
+
+// Query param một giá trị (string) hoặc lặp lại (mảng) → danh sách id không rỗng
+function toIdList(value) {
+    const values = Array.isArray(value) ? value : [value];
+    return values.filter(id => typeof id === 'string' && id !== '');
+}
+
+class BookingService {
+    /**
+     * Một trang đơn đặt vé theo keyset (sortColumn, b.id)
+     *
+     * cursor là vị trí của dòng biên trang trước ({v, id}), direction:
+     * - 'next': các dòng đứng sau cursor theo thứ tự hiển thị
+     * - 'prev': các dòng đứng trước cursor (truy vấn ngược rồi đảo lại)
+     * Không có cursor + 'prev' → trang cuối cùng.
+     */
+    async queryBookings(filters = {}, page = {}) {
+        const sortKey = SORT_COLUMNS[page.sort] ? page.sort : 'bookingTime';
+        const sortColumn = SORT_COLUMNS[sortKey];
+        const descending = page.order !== 'asc';
+        const backwards = page.direction === 'prev';
+        const limit = Math.min(Math.max(parseInt(page.limit, 10) || 20, 1), MAX_LIMIT);
+
+        const { where, params } = this.buildFilters(filters);
+
+        const cursor = page.cursor ? this.decodeCursor(page.cursor, sortKey, descending) : null;
+        if (cursor) {
+            // Đi lùi trên danh sách giảm dần = đi tới theo thứ tự tăng dần
+            const op = descending !== backwards ? '<' : '>';
+            where.push(`(${sortColumn} ${op} ? OR (${sortColumn} = ? AND b.id ${op} ?))`);
+            params.push(cursor.v, cursor.v, cursor.id);
+        }
+
+        const direction = descending !== backwards ? 'DESC' : 'ASC';
+        const query = `
+            SELECT
+                b.id,
+                b.booking_time,
+                b.seat_total_price,
+                b.combo_total_price,
+                b.total_price,
+                b.payment_status,
+                b.showtime_id,
+                st.start_time,
+                m.id as movie_id,
+                m.title as movie_title,
+                c.id as cinema_id,
+                c.name as cinema_name,
+                s.name as screen_name,
+                u.full_name as customer_name,
+                u.phone_number,
+                (
+                    SELECT GROUP_CONCAT(bs.seat_number ORDER BY bs.seat_number SEPARATOR ', ')
+                    FROM booking_seats bs
+                    WHERE bs.booking_id = b.id
+                ) as seats
+            FROM bookings b
+            JOIN showtimes st ON b.showtime_id = st.id
+            JOIN movies m ON b.movie_id = m.id
+            JOIN cinemas c ON b.cinema_id = c.id
+            JOIN screens s ON b.screen_id = s.id
+            LEFT JOIN users u ON b.user_id = u.id
+            WHERE ${where.join(' AND ')}
+            ORDER BY ${sortColumn} ${direction}, b.id ${direction}
+            LIMIT ?
+        `;
+
+        // Lấy dư 1 dòng để biết còn trang tiếp theo hướng đang đi hay không
+        const [rows] = await db.query(query, [...params, limit + 1]);
+
+        const hasMore = rows.length > limit;
+        const items = hasMore ? rows.slice(0, limit) : rows;
+        if (backwards) {
+            items.reverse();
+        }
+
+        // Có cursor nghĩa là phía bên kia cursor vẫn còn dữ liệu
+        const hasNext = backwards ? Boolean(cursor) : hasMore;
+        const hasPrev = backwards ? hasMore : Boolean(cursor);
+
+        const result = {
+            items: items.map(row => this.mapRow(row)),
+            nextCursor: hasNext && items.length > 0
+                ? this.encodeCursor(items[items.length - 1], sortKey, descending) : null,
+            prevCursor: hasPrev && items.length > 0
+                ? this.encodeCursor(items[0], sortKey, descending) : null
+        };
+
+        if (page.withTotal) {
+            const { where: countWhere, params: countParams } = this.buildFilters(filters);
+            const [countRows] = await db.query(`
+                SELECT COUNT(*) as total
+                FROM bookings b
+                LEFT JOIN users u ON b.user_id = u.id
+                WHERE ${countWhere.join(' AND ')}
+            `, countParams);
+            result.total = countRows[0].total;
+        }
+
+        return result;
+    }
+
+    /**
+     * Thống kê theo cùng bộ lọc với danh sách
+     */
+    async getBookingStats(filters = {}) {
+        const { where, params } = this.buildFilters(filters);
+
+        const [rows] = await db.query(`
+            SELECT
+                COUNT(*) as total,
+                SUM(b.payment_status = 'PAID') as paid,
+                SUM(b.payment_status = 'PENDING') as pending,
+                SUM(b.payment_status = 'CANCELLED') as cancelled,
+                SUM(b.payment_status = 'EXPIRED') as expired,
+                COALESCE(SUM(CASE WHEN b.payment_status = 'PAID' THEN b.total_price ELSE 0 END), 0) as revenue
+            FROM bookings b
+            LEFT JOIN users u ON b.user_id = u.id
+            WHERE ${where.join(' AND ')}
+        `, params);
+
+        const stats = rows[0];
+        return {
+            total: Number(stats.total) || 0,
+            paid: Number(stats.paid) || 0,
+            pending: Number(stats.pending) || 0,
+            cancelled: Number(stats.cancelled) || 0,
+            expired: Number(stats.expired) || 0,
+            revenue: Number(stats.revenue) || 0
+        };
+    }
+
+    // Điều kiện WHERE dùng chung cho danh sách, tổng số và thống kê
+    buildFilters(filters) {
+        const { status, cinemaId, movieId, from, to, q } = filters;
+        const where = ['1=1'];
+        const params = [];
+
+        if (status && STATUSES.includes(status)) {
+            where.push('b.payment_status = ?');
+            params.push(status);
+        }
+
+        // cinemaId / movieId lặp lại được (?cinemaId=a&cinemaId=b): các rạp / phim trùng tên hiển thị
+        const cinemaIds = toIdList(cinemaId);
+        if (cinemaIds.length > 0) {
+            where.push('b.cinema_id IN (?)');
+            params.push(cinemaIds);
+        }
+
+        const movieIds = toIdList(movieId);
+        if (movieIds.length > 0) {
+            where.push('b.movie_id IN (?)');
+            params.push(movieIds);
+        }
+
+        // from/to là ngày (YYYY-MM-DD), to tính trọn ngày
+        if (from) {
+            where.push('b.booking_time >= ?');
+            params.push(from);
+        }
+
+        if (to) {
+            where.push('b.booking_time < DATE_ADD(?, INTERVAL 1 DAY)');
+            params.push(to);
+        }
+
+        // Mã đơn / SĐT khớp tiền tố (dùng được index), tên khách khớp một phần
+        if (q && q.trim()) {
+            const term = q.trim().replace(/[\\%_]/g, '\\$&');
+            where.push('(b.id LIKE ? OR u.phone_number LIKE ? OR u.full_name LIKE ?)');
+            params.push(`${term}%`, `${term}%`, `%${term}%`);
+        }
+
+        return { where, params };
+    }
+
+    mapRow(row) {
+        return {
+            id: row.id,
+            booking_time: row.booking_time,
+            seat_total_price: row.seat_total_price,
+            combo_total_price: row.combo_total_price,
+            total_price: row.total_price,
+            payment_status: row.payment_status,
+            showtime_id: row.showtime_id,
+            start_time: row.start_time,
+            movie_id: row.movie_id,
+            movie_title: row.movie_title,
+            cinema_id: row.cinema_id,
+            cinema_name: row.cinema_name,
+            screen_name: row.screen_name,
+            customer_name: row.customer_name,
+            phone_number: row.phone_number,
+            seats: row.seats
+        };
+    }
+
+    sortValue(row, sortKey) {
+        switch (sortKey) {
+            case 'totalPrice':
+                return Number(row.total_price);
+            case 'showtime':
+                return row.start_time;
+            default:
+                return row.booking_time;
+        }
+    }
+
+    encodeCursor(row, sortKey, descending) {
+        let value = this.sortValue(row, sortKey);
+        if (value instanceof Date) {
+            value = value.toISOString();
+        }
+        const payload = { s: sortKey, d: descending ? 1 : 0, v: value, id: row.id };
+        return Buffer.from(JSON.stringify(payload)).toString('base64url');
+    }
+
+    /**
+     * Cursor chỉ hợp lệ với đúng khóa sort + chiều sort đã tạo ra nó
+     */
+    decodeCursor(cursor, sortKey, descending) {
+        let payload;
+        try {
+            payload = JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8'));
+        } catch (error) {
+            throw new InvalidCursorError('Cursor không hợp lệ');
+        }
+
+        if (!payload || payload.s !== sortKey || payload.d !== (descending ? 1 : 0) || payload.id === undefined) {
+            throw new InvalidCursorError('Cursor không khớp với kiểu sắp xếp hiện tại');
+        }
+
+        // Giá trị datetime được lưu dạng ISO → đổi lại Date để mysql2 so sánh đúng
+        const value = sortKey === 'totalPrice' ? Number(payload.v) : new Date(payload.v);
+        return { v: value, id: payload.id };
+    }
+}
+
+class InvalidCursorError extends Error {}
+
+module.exports = new BookingService();
+module.exports.InvalidCursorError = InvalidCursorError;
@@ -0,0 +1,262 @@
+const db = require('../../config/database');
+
+const RECENT_BOOKINGS_LIMIT = 20;
+
+class DashboardService {
+    /**
+     * Dữ liệu thô cho trang tổng quan, gom trong một request.
+     *
+     * Các truy vấn độc lập nhau nên chạy song song trên pool. Đơn đặt vé, ghế và combo
+     * được trả về dạng mảng gọn (không lặp tên cột) - client tự tổng hợp thành các biểu đồ.
+     *
+     * @param {string} from ngày bắt đầu (YYYY-MM-DD) của cửa sổ dữ liệu đơn đặt vé
+     */
+    async getFacts(from) {
+        const [
+            bookings,
+            seats,
+            comboItems,
+            movies,
+            genres,
+            cinemas,
+            combos,
+            customers,
+            ratings,
+            recentBookings
+        ] = await Promise.all([
+            this.getBookingFacts(from),
+            this.getSeatFacts(from),
+            this.getComboFacts(from),
+            this.getMovies(),
+            this.getGenreCounts(),
+            this.getCinemas(),
+            this.getCombos(),
+            this.getCustomerCounts(),
+            this.getRatingCounts(),
+            this.getRecentBookings()
+        ]);
+
+        return {
+            from,
+            generatedAt: Date.now(),
+            bookings,
+            seats,
+            comboItems,
+            movies,
+            genres,
+            cinemas,
+            combos,
+            customers,
+            ratings,
+            recentBookings
+        };
+    }
+
+    getBookingFacts(from) {
+        return this.queryBookingFacts('b.booking_time >= ?', [from]);
+    }
+
+    getSeatFacts(from) {
+        return this.querySeatFacts('b.booking_time >= ?', [from]);
+    }
+
+    getComboFacts(from) {
+        return this.queryComboFacts('b.booking_time >= ?', [from]);
+    }
+
+    /**
+     * Dữ liệu của một đơn vừa tạo, cùng định dạng với getFacts() - dùng cho sự kiện realtime
+     */
+    async getBookingEvent(bookingId) {
+        const [bookings, seats, comboItems, rows] = await Promise.all([
+            this.queryBookingFacts('b.id = ?', [bookingId]),
+            this.querySeatFacts('b.id = ?', [bookingId]),
+            this.queryComboFacts('b.id = ?', [bookingId]),
+            this.queryBookingRows('b.id = ?', [bookingId], 1)
+        ]);
+
+        if (bookings.length === 0) {
+            return null;
+        }
+        return {
+            booking: bookings[0],
+            seats: seats.map(([, seatType, count]) => [seatType, count]),
+            comboItems: comboItems.map(([, comboId, quantity]) => [comboId, quantity]),
+            row: rows[0] || null
+        };
+    }
+
+    // [id, bookingTimeMs, status, totalPrice, comboTotalPrice, movieId, cinemaId]
+    async queryBookingFacts(condition, params) {
+        const [rows] = await db.query({
+            sql: `
+                SELECT
+                    b.id,
+                    b.booking_time,
+                    b.payment_status,
+                    b.total_price,
+                    b.combo_total_price,
+                    b.movie_id,
+                    b.cinema_id
+                FROM bookings b
+                WHERE ${condition}
+            `,
+            rowsAsArray: true
+        }, params);
+
+        // booking_time → epoch ms: client không phải parse chuỗi ngày cho từng dòng
+        return rows.map(row => [row[0], new Date(row[1]).getTime(), row[2], Number(row[3]) || 0,
+            Number(row[4]) || 0, row[5], row[6]]);
+    }
+
+    // [bookingId, seatType, count]
+    async querySeatFacts(condition, params) {
+        const [rows] = await db.query({
+            sql: `
+                SELECT
+                    bs.booking_id,
+                    COALESCE(s.seat_type, 'STANDARD') as seat_type,
+                    COUNT(*) as seat_count
+                FROM booking_seats bs
+                JOIN bookings b ON bs.booking_id = b.id
+                LEFT JOIN seats s ON s.screen_id = b.screen_id AND s.seat_number = bs.seat_number
+                WHERE ${condition}
+                GROUP BY bs.booking_id, seat_type
+            `,
+            rowsAsArray: true
+        }, params);
+
+        return rows.map(row => [row[0], row[1], Number(row[2])]);
+    }
+
+    // [bookingId, comboId, quantity]
+    async queryComboFacts(condition, params) {
+        try {
+            const [rows] = await db.query({
+                sql: `
+                    SELECT bc.booking_id, bc.combo_id, bc.quantity
+                    FROM booking_combos bc
+                    JOIN bookings b ON bc.booking_id = b.id
+                    WHERE ${condition}
+                `,
+                rowsAsArray: true
+            }, params);
+
+            return rows.map(row => [row[0], row[1], Number(row[2]) || 0]);
+        } catch (error) {
+            // Bản CSDL chưa lưu chi tiết combo theo đơn → biểu đồ combo để trống
+            if (error.code === 'ER_NO_SUCH_TABLE') {
+                return [];
+            }
+            throw error;
+        }
+    }
+
+    async getMovies() {
+        const [rows] = await db.query(`
+            SELECT
+                m.id,
+                m.title,
+                CASE
+                    WHEN m.release_date IS NULL OR m.release_date > CURDATE() THEN 'COMING_SOON'
+                    WHEN EXISTS (
+                        SELECT 1 FROM showtimes st
+                        WHERE st.movie_id = m.id AND st.start_time >= NOW()
+                    ) THEN 'NOW_SHOWING'
+                    ELSE 'ENDED'
+                END as status
+            FROM movies m
+        `);
+        return rows;
+    }
+
+    async getGenreCounts() {
+        const [rows] = await db.query(`
+            SELECT g.name, COUNT(*) as count
+            FROM movie_genres mg
+            JOIN genres g ON mg.genre_id = g.id
+            GROUP BY g.id, g.name
+            ORDER BY count DESC
+        `);
+        return rows.map(row => ({ name: row.name, count: Number(row.count) }));
+    }
+
+    async getCinemas() {
+        const [rows] = await db.query('SELECT id, name FROM cinemas');
+        return rows;
+    }
+
+    async getCombos() {
+        const [rows] = await db.query('SELECT id, name FROM food_combos');
+        return rows;
+    }
+
+    async getCustomerCounts() {
+        const [rows] = await db.query(`
+            SELECT
+                COUNT(*) as total,
+                COALESCE(SUM(created_at >= CURDATE()), 0) as newToday
+            FROM users
+            WHERE role = 'CUSTOMER'
+        `);
+        return {
+            total: Number(rows[0].total) || 0,
+            newToday: Number(rows[0].newToday) || 0
+        };
+    }
+
+    // [5★, 4★, 3★, 2★, 1★]
+    async getRatingCounts() {
+        const [rows] = await db.query(`
+            SELECT
+                COALESCE(SUM(five_star), 0) as five,
+                COALESCE(SUM(four_star), 0) as four,
+                COALESCE(SUM(three_star), 0) as three,
+                COALESCE(SUM(two_star), 0) as two,
+                COALESCE(SUM(one_star), 0) as one
+            FROM movies
+        `);
+        const r = rows[0];
+        return [r.five, r.four, r.three, r.two, r.one].map(Number);
+    }
+
+    getRecentBookings() {
+        return this.queryBookingRows('b.booking_time >= CURDATE()', [], RECENT_BOOKINGS_LIMIT);
+    }
+
+    async queryBookingRows(condition, params, limit) {
+        const [rows] = await db.query(`
+            SELECT
+                b.id,
+                b.booking_time,
+                b.total_price,
+                b.payment_status,
+                b.showtime_id,
+                st.start_time,
+                m.id as movie_id,
+                m.title as movie_title,
+                c.id as cinema_id,
+                c.name as cinema_name,
+                s.name as screen_name,
+                u.full_name as customer_name,
+                u.phone_number,
+                (
+                    SELECT GROUP_CONCAT(bs.seat_number ORDER BY bs.seat_number SEPARATOR ', ')
+                    FROM booking_seats bs
+                    WHERE bs.booking_id = b.id
+                ) as seats
+            FROM bookings b
+            JOIN showtimes st ON b.showtime_id = st.id
+            JOIN movies m ON b.movie_id = m.id
+            JOIN cinemas c ON b.cinema_id = c.id
+            JOIN screens s ON b.screen_id = s.id
+            LEFT JOIN users u ON b.user_id = u.id
+            WHERE ${condition}
+            ORDER BY b.booking_time DESC, b.id DESC
+            LIMIT ?
+        `, [...params, limit]);
+        return rows;
+    }
+}
+
+module.exports = new DashboardService();
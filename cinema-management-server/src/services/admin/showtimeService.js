@@ -5,7 +5,7 @@ class ShowtimeService {
      * Get all showtimes with movie, cinema, and screen details
      */
     async getAllShowtimes(filters = {}) {
-        const { date, cinemaId, screenId, movieId } = filters;
+        const { date, from, to, cinemaId, screenId, screenIds, movieId } = filters;
         
         let query = `
             SELECT 
@@ -44,6 +44,17 @@ class ShowtimeService {
             params.push(date);
         }
         
+        // Khoảng ngày [from, to) - dùng khi kiểm tra trùng lịch cho cả một lô
+        if (from) {
+            query += ' AND st.start_time >= ?';
+            params.push(from);
+        }
+        
+        if (to) {
+            query += ' AND st.start_time < ?';
+            params.push(to);
+        }
+        
         if (cinemaId) {
             query += ' AND c.id = ?';
             params.push(cinemaId);
@@ -54,6 +65,11 @@ class ShowtimeService {
             params.push(screenId);
         }
         
+        if (screenIds && screenIds.length > 0) {
+            query += ' AND st.screen_id IN (?)';
+            params.push(screenIds);
+        }
+        
         if (movieId) {
             query += ' AND st.movie_id = ?';
             params.push(movieId);
@@ -121,6 +137,13 @@ class ShowtimeService {
 
     /**
      * Create multiple showtimes (bulk)
+     *
+     * Client gửi theo từng phần và tự sinh id cho mỗi suất: gửi lại một phần đã lưu
+     * (ví dụ mất response) không tạo trùng - dòng có id đã tồn tại được bỏ qua.
+     *
+     * @returns {{ ids: string[], created: number }} ids của cả phần, created = số dòng mới thực sự
+     *          (đếm bằng SELECT trước khi INSERT: mysql2 bật CLIENT_FOUND_ROWS nên affectedRows
+     *          vẫn tính cả dòng trùng)
      */
     async createBulkShowtimes(showtimesArray) {
         const connection = await db.getConnection();
@@ -128,19 +151,14 @@ class ShowtimeService {
         try {
             await connection.beginTransaction();
             
-            const createdShowtimes = [];
             const { v4: uuidv4 } = require('uuid');
+            const ids = [];
+            const values = [];
             
             for (const showtimeData of showtimesArray) {
-                const showtimeId = uuidv4();
-                
-                const query = `
-                    INSERT INTO showtimes (
-                        id, movie_id, screen_id, start_time, end_time, base_price, format
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?)
-                `;
-                
-                await connection.query(query, [
+                const showtimeId = showtimeData.id || uuidv4();
+                ids.push(showtimeId);
+                values.push([
                     showtimeId,
                     showtimeData.movie_id,
                     showtimeData.screen_id,
@@ -149,12 +167,28 @@ class ShowtimeService {
                     showtimeData.base_price,
                     showtimeData.format
                 ]);
-                
-                createdShowtimes.push(showtimeId);
+            }
+            
+            // Dòng đã lưu ở lần gửi trước (FOR UPDATE: lần gửi lại chạy song song chờ transaction này)
+            const [existingRows] = await connection.query(
+                'SELECT id FROM showtimes WHERE id IN (?) FOR UPDATE',
+                [ids]
+            );
+            const existing = new Set(existingRows.map(row => row.id));
+            const newValues = values.filter(row => !existing.has(row[0]));
+            
+            // Một câu INSERT nhiều dòng cho phần chưa có; "id = id" giữ nguyên dòng đã có
+            if (newValues.length > 0) {
+                await connection.query(`
+                    INSERT INTO showtimes (
+                        id, movie_id, screen_id, start_time, end_time, base_price, format
+                    ) VALUES ?
+                    ON DUPLICATE KEY UPDATE id = id
+                `, [newValues]);
             }
             
             await connection.commit();
-            return createdShowtimes;
+            return { ids, created: newValues.length };
             
         } catch (error) {
             await connection.rollback();
@@ -17,6 +17,33 @@ class BookedSeatService {
     return rows.map(row => row.seat_number);
   }
 
+  // Số ghế đã PAID của nhiều suất chiếu trong một truy vấn; suất chưa bán vé nào → 0
+  static async countBookedSeatsByShowtimes(showtimeIds) {
+    const query = `
+      SELECT b.showtime_id, COUNT(DISTINCT bs.seat_number) AS booked
+      FROM booking_seats bs
+      INNER JOIN bookings b ON bs.booking_id = b.id
+      WHERE b.showtime_id IN (?)
+        AND b.payment_status = 'PAID'
+      GROUP BY b.showtime_id
+    `;
+
+    const [rows] = await db.query(query, [showtimeIds]);
+    const counts = {};
+    for (const showtimeId of showtimeIds) {
+      counts[showtimeId] = 0;
+    }
+    for (const row of rows) {
+      counts[row.showtime_id] = Number(row.booked);
+    }
+    return counts;
+  }
+
+  static async getShowtimeIdByBooking(bookingId) {
+    const [rows] = await db.query('SELECT showtime_id FROM bookings WHERE id = ?', [bookingId]);
+    return rows.length > 0 ? rows[0].showtime_id : null;
+  }
+
   static async isShowtimeExist(showtimeId) {
     const [rows] = await db.query('SELECT 1 FROM showtimes WHERE id = ?', [showtimeId]);
     return rows.length > 0;
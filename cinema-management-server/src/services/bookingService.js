@@ -1,4 +1,6 @@
 const db = require('../config/database');
+const { publishBookingStatus } = require('../socket/adminSocket');
+const { publishBookedCount } = require('../socket/seatSocket');
 
 // helper: undefined → null
 const n = (v) => (v === undefined ? null : v);
@@ -125,6 +127,9 @@ n(booking.payment_status ?? 'PENDING'),
     try {
       const [result] = await db.execute(sql, params);
       console.log('✅ Payment status updated for booking:', bookingId);
+      publishBookingStatus(bookingId, params[0]);
+      // Số ghế còn lại trên màn hình suất chiếu: PAID làm tăng, hủy / hết hạn một đơn đã PAID làm giảm
+      publishBookedCount(bookingId);
       return result;
     } catch (err) {
       console.error('🔴 [ERROR] Update payment status failed:', err);
@@ -0,0 +1,68 @@
+// src/socket/adminSocket.js
+
+const dashboardService = require('../services/admin/dashboardService');
+
+const DASHBOARD_ROOM = 'dashboard';
+
+// Namespace được gán khi server khởi động; trước đó publish* không làm gì
+let adminNamespace;
+
+function setupAdminSocket(io) {
+  adminNamespace = io.of('/admin');
+
+  adminNamespace.on('connection', (socket) => {
+    console.log('🔌 Admin client connected:', socket.id);
+
+    // Trang tổng quan đăng ký nhận sự kiện đặt vé / thanh toán
+    socket.on('subscribe-dashboard', () => {
+      socket.join(DASHBOARD_ROOM);
+      console.log(`📊 Socket ${socket.id} subscribed to dashboard`);
+    });
+
+    socket.on('unsubscribe-dashboard', () => {
+      socket.leave(DASHBOARD_ROOM);
+    });
+
+    socket.on('disconnect', () => {
+      console.log('❌ Admin client disconnected:', socket.id);
+    });
+  });
+
+  return adminNamespace;
+}
+
+/**
+ * Đơn mới → gửi dữ liệu gọn của đơn (cùng định dạng /api/admin/dashboard/facts).
+ * Không throw: lỗi ở đây không được làm hỏng luồng đặt vé.
+ */
+async function publishBookingCreated(bookingId) {
+  if (!adminNamespace || adminNamespace.adapter.rooms.get(DASHBOARD_ROOM) === undefined) {
+    return; // Không có ai đang xem → khỏi truy vấn
+  }
+
+  try {
+    const event = await dashboardService.getBookingEvent(bookingId);
+    if (event) {
+      adminNamespace.to(DASHBOARD_ROOM).emit('booking:created', event);
+    }
+  } catch (error) {
+    console.error('Error publishing booking:created:', error);
+  }
+}
+
+/**
+ * Đơn đổi trạng thái thanh toán (PAID / CANCELLED / EXPIRED ...)
+ */
+function publishBookingStatus(bookingId, status) {
+  if (!adminNamespace) {
+    return;
+  }
+
+  adminNamespace.to(DASHBOARD_ROOM).emit('booking:status', {
+    bookingId,
+    status,
+    timestamp: new Date().toISOString()
+  });
+}
+
+module.exports = { setupAdminSocket, publishBookingCreated, publishBookingStatus };
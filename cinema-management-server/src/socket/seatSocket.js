@@ -19,7 +19,18 @@ redis.on("connect", () => {
   console.log("✅ Redis connected successfully");
 });
 
+const BookedSeatService = require("../services/bookedSeatService");
+
 const SEAT_HOLD_TTL = 600; // 10 phút
+const SEAT_LOG_SIZE = 200; // Số sự kiện gần nhất giữ lại để client resync bằng delta
+const BOOKED_TTL = 24 * 60 * 60; // Ghế đã book qua socket (chưa chắc đã PAID trong DB)
+const MAX_WATCHED_SHOWTIMES = 200; // Số suất một socket được theo dõi cùng lúc
+
+// Room riêng cho màn hình danh sách suất chiếu: chỉ nhận số ghế đã bán (PAID), không nhận hold / seq
+const watchRoom = (showtimeId) => `watch:${showtimeId}`;
+
+// Namespace được gán khi server khởi động; trước đó publishBookedCount không làm gì
+let seatNamespace;
 
 // ✅ THÊM FUNCTION NÀY
 async function clearAllHolds() {
@@ -31,6 +42,13 @@ async function clearAllHolds() {
     } else {
       console.log("🧹 No held seats to clear");
     }
+
+    // Log cũ chứa các hold vừa bị xoá → bỏ. seq:* được giữ (seq vẫn tăng tiếp); sendResync thấy log rỗng
+    // mà client đã có lastSeq > 0 thì gửi snapshot, kể cả khi lastSeq bằng đúng seq hiện tại
+    const logKeys = await redis.keys("log:*");
+    if (logKeys.length > 0) {
+      await redis.del(...logKeys);
+    }
   } catch (error) {
     console.error("❌ Error clearing holds:", error);
   }
@@ -41,21 +59,56 @@ async function setupSeatSocket(io) {
   // ✅ GỌI CLEAR TRƯỚC KHI SETUP
   await clearAllHolds();
 
-  const seatNamespace = io.of("/seats");
+  seatNamespace = io.of("/seats");
 
   seatNamespace.on("connection", (socket) => {
     console.log("🔌 User connected:", socket.id);
 
     // 1. JOIN SHOWTIME ROOM
+    // lastSeq (tuỳ chọn): seq cuối client đã áp dụng → gửi delta/snapshot thay vì initial-held-seats
     socket.on("join-showtime", async (data) => {
-      const { showtimeId } = data;
+      const { showtimeId, lastSeq } = data;
       socket.join(showtimeId);
       socket.showtimeId = showtimeId;
       console.log(`📍 Socket ${socket.id} joined showtime: ${showtimeId}`);
 
-      // Gửi danh sách ghế đang held về cho client
+      if (typeof lastSeq === "number" && lastSeq >= 0) {
+        await sendResync(socket, showtimeId, lastSeq);
+        return;
+      }
+
+      // Đọc seq TRƯỚC danh sách held: sự kiện có seq lớn hơn client sẽ áp dụng lại sau
+      const seq = await getCurrentSeq(showtimeId);
       const heldSeats = await getHeldSeats(showtimeId);
-      socket.emit("initial-held-seats", { seats: heldSeats });
+      socket.emit("initial-held-seats", { seats: heldSeats, seq });
+    });
+
+    // 1b. LEAVE SHOWTIME ROOM (client đổi suất chiếu trên cùng kết nối)
+    socket.on("leave-showtime", async (data) => {
+      const { showtimeId } = data;
+      socket.leave(showtimeId);
+      // Gỡ ngay (đồng bộ) để join-showtime gửi ngay sau không bị ghi đè
+      if (socket.showtimeId === showtimeId) {
+        socket.showtimeId = null;
+      }
+      console.log(`📤 Socket ${socket.id} left showtime: ${showtimeId}`);
+
+      await releaseAllSeatsForSocket(showtimeId, socket.id, seatNamespace);
+    });
+
+    // 1c. WATCH / UNWATCH: theo dõi số ghế đã bán của nhiều suất chiếu (không giữ ghế)
+    // Không đụng socket.showtimeId → không ảnh hưởng việc nhả ghế khi disconnect
+    socket.on("watch-showtimes", (data) => {
+      const showtimeIds = Array.isArray(data && data.showtimeIds) ? data.showtimeIds : [];
+      const watching = [...socket.rooms].filter((room) => room.startsWith("watch:")).length;
+      showtimeIds
+        .slice(0, Math.max(0, MAX_WATCHED_SHOWTIMES - watching))
+        .forEach((showtimeId) => socket.join(watchRoom(showtimeId)));
+    });
+
+    socket.on("unwatch-showtimes", (data) => {
+      const showtimeIds = Array.isArray(data && data.showtimeIds) ? data.showtimeIds : [];
+      showtimeIds.forEach((showtimeId) => socket.leave(watchRoom(showtimeId)));
     });
 
     // 2. HOLD SEAT
@@ -80,7 +133,7 @@ async function setupSeatSocket(io) {
         await redis.setex(holdKey, SEAT_HOLD_TTL, socket.id);
 
         // Broadcast cho tất cả trong room (kể cả người gửi)
-        seatNamespace.to(showtimeId).emit("seat-held", {
+        await broadcastSeatEvent(seatNamespace, showtimeId, "seat-held", {
           seatNumber,
           holderId: socket.id,
         });
@@ -107,7 +160,7 @@ async function setupSeatSocket(io) {
         if (currentHolder === socket.id) {
           await redis.del(holdKey);
 
-          seatNamespace.to(showtimeId).emit("seat-released", {
+          await broadcastSeatEvent(seatNamespace, showtimeId, "seat-released", {
             seatNumber,
           });
 
@@ -129,7 +182,15 @@ async function setupSeatSocket(io) {
           await redis.del(holdKey);
         }
 
-        seatNamespace.to(showtimeId).emit("seats-booked", {
+        if (seatNumbers.length > 0) {
+          await redis
+            .multi()
+            .sadd(`booked:${showtimeId}`, ...seatNumbers)
+            .expire(`booked:${showtimeId}`, BOOKED_TTL)
+            .exec();
+        }
+
+        await broadcastSeatEvent(seatNamespace, showtimeId, "seats-booked", {
           seatNumbers,
         });
 
@@ -156,6 +217,81 @@ async function setupSeatSocket(io) {
 
 // === HELPER FUNCTIONS ===
 
+// Gắn seq tăng dần theo suất chiếu, broadcast rồi ghi vào log (giữ SEAT_LOG_SIZE sự kiện cuối).
+// Lệnh Redis trên cùng kết nối chạy theo thứ tự → broadcast đi ra theo đúng thứ tự seq.
+async function broadcastSeatEvent(namespace, showtimeId, event, payload) {
+  let seq;
+  try {
+    seq = await redis.incr(`seq:${showtimeId}`);
+  } catch (error) {
+    console.error("Error assigning seat event seq:", error);
+    namespace.to(showtimeId).emit(event, payload); // Không có seq → client áp dụng luôn
+    return;
+  }
+
+  // Ghi log TRƯỚC khi emit: resync đọc log thấy sự kiện này, hoặc chưa thấy nhưng socket đã ở trong room
+  // nên sẽ nhận bản emit ngay sau (client bỏ qua seq đã áp dụng)
+  try {
+    await redis
+      .multi()
+      .rpush(`log:${showtimeId}`, JSON.stringify({ seq, event, data: payload }))
+      .ltrim(`log:${showtimeId}`, -SEAT_LOG_SIZE, -1)
+      .exec();
+  } catch (error) {
+    console.error("Error writing seat event log:", error);
+  }
+
+  namespace.to(showtimeId).emit(event, { ...payload, seq });
+}
+
+async function getCurrentSeq(showtimeId) {
+  const value = await redis.get(`seq:${showtimeId}`);
+  return value ? parseInt(value, 10) : 0;
+}
+
+// Gửi phần còn thiếu từ lastSeq: delta nếu log còn đủ, ngược lại snapshot đầy đủ
+async function sendResync(socket, showtimeId, lastSeq) {
+  try {
+    const seq = await getCurrentSeq(showtimeId);
+    const entries = (await redis.lrange(`log:${showtimeId}`, 0, -1)).map((e) => JSON.parse(e));
+    const oldestSeq = entries.length > 0 ? entries[0].seq : seq + 1;
+
+    // lastSeq > seq: Redis đã bị reset → không tin được delta
+    // Log rỗng mà client đã có sự kiện: log bị xoá lúc server khởi động (clearAllHolds) → cần snapshot
+    const logCleared = entries.length === 0 && lastSeq > 0;
+    if (!logCleared && lastSeq <= seq && oldestSeq <= lastSeq + 1) {
+      const events = entries.filter((e) => e.seq > lastSeq);
+      // toSeq lấy từ log, không từ seq:{id}: seq có thể đã tăng cho sự kiện chưa kịp ghi log,
+      // sự kiện đó sẽ tới qua room với seq lớn hơn toSeq
+      const toSeq = events.length > 0 ? events[events.length - 1].seq : lastSeq;
+      socket.emit("seat-delta", { fromSeq: lastSeq, toSeq, events });
+      console.log(`🔁 Delta ${lastSeq} → ${toSeq} (${events.length} events) for ${socket.id}`);
+      return;
+    }
+
+    const [heldSeats, bookedSeats] = await Promise.all([
+      getHeldSeats(showtimeId),
+      getBookedSeats(showtimeId),
+    ]);
+    socket.emit("seat-snapshot", { seq, heldSeats, bookedSeats });
+    console.log(`🔁 Snapshot at seq ${seq} for ${socket.id} (gap from ${lastSeq})`);
+  } catch (error) {
+    console.error("Error resyncing seats:", error);
+  }
+}
+
+// Ghế đã PAID trong DB + ghế đã book qua socket
+async function getBookedSeats(showtimeId) {
+  const [paid, pending] = await Promise.all([
+    BookedSeatService.getBookedSeatsByShowtime(showtimeId).catch((error) => {
+      console.error("Error loading booked seats:", error);
+      return [];
+    }),
+    redis.smembers(`booked:${showtimeId}`),
+  ]);
+  return [...new Set([...paid, ...pending])];
+}
+
 async function getHeldSeats(showtimeId) {
   try {
     const keys = await redis.keys(`hold:${showtimeId}:*`);
@@ -191,7 +327,7 @@ async function releaseAllSeatsForSocket(showtimeId, socketId, namespace) {
     }
 
     if (releasedSeats.length > 0) {
-      namespace.to(showtimeId).emit("seats-released-batch", {
+      await broadcastSeatEvent(namespace, showtimeId, "seats-released-batch", {
         seatNumbers: releasedSeats,
       });
       console.log(`🔓 Released ${releasedSeats.length} seats on disconnect`);
@@ -201,4 +337,33 @@ async function releaseAllSeatsForSocket(showtimeId, socketId, namespace) {
   }
 }
 
-module.exports = setupSeatSocket;
+/**
+ * Booking đổi trạng thái thanh toán → gửi số ghế đã bán mới của suất chiếu cho các màn hình đang theo dõi.
+ * Gọi với mọi trạng thái (PAID làm tăng, CANCELLED / EXPIRED của đơn đã PAID làm giảm); số gửi đi là
+ * số tuyệt đối nên gửi thừa khi số không đổi cũng không sao.
+ * Cùng định nghĩa với GET /api/showtimes/booked-counts (chỉ PAID): book-seats lúc khách bấm
+ * "Tiếp tục" chưa phải là bán.
+ * Không throw: lỗi ở đây không được làm hỏng luồng thanh toán.
+ */
+async function publishBookedCount(bookingId) {
+  if (!seatNamespace) {
+    return;
+  }
+
+  try {
+    const showtimeId = await BookedSeatService.getShowtimeIdByBooking(bookingId);
+    if (showtimeId == null || seatNamespace.adapter.rooms.get(watchRoom(showtimeId)) === undefined) {
+      return; // Không có ai đang xem → khỏi đếm
+    }
+
+    const counts = await BookedSeatService.countBookedSeatsByShowtimes([showtimeId]);
+    seatNamespace.to(watchRoom(showtimeId)).emit("showtime-booked-count", {
+      showtimeId: String(showtimeId),
+      booked: counts[showtimeId],
+    });
+  } catch (error) {
+    console.error("Error publishing showtime-booked-count:", error);
+  }
+}
+
+module.exports = { setupSeatSocket, publishBookedCount };